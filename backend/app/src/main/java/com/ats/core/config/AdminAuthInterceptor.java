@@ -0,0 +1,50 @@
+package com.ats.core.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * AdminAuthInterceptor - Guards the admin API with a shared token.
+ * 
+ * <p>Requests to {@code /api/admin/**} must carry the configured
+ * {@code admin.token} in the {@code X-Admin-Token} header. When no token is
+ * configured the admin API is disabled and every request is rejected.</p>
+ */
+@Slf4j
+@Component
+public class AdminAuthInterceptor implements HandlerInterceptor {
+    
+    private static final String TOKEN_HEADER = "X-Admin-Token";
+    
+    private final byte[] adminToken;
+    
+    public AdminAuthInterceptor(@Value("${admin.token:}") String adminToken) {
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (adminToken.length == 0) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Admin API is disabled");
+            return false;
+        }
+        
+        String token = request.getHeader(TOKEN_HEADER);
+        // Constant-time comparison so the token cannot be guessed byte by byte
+        if (token == null || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected admin request {} from {}", request.getRequestURI(), request.getRemoteAddr());
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Invalid admin token");
+            return false;
+        }
+        return true;
+    }
+}
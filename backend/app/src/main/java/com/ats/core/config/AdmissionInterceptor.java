@@ -0,0 +1,131 @@
+package com.ats.core.config;
+
+import com.ats.core.service.admission.AdmissionLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+
+/**
+ * AdmissionInterceptor - Applies admission control to upload and scoring requests.
+ * 
+ * <p>Acquires a permit from the {@link AdmissionLimiter} before the handler
+ * runs and releases it when the request completes. Saturated requests are
+ * rejected with {@code 429 Too Many Requests} and a {@code Retry-After}
+ * header. Requests are attributed to the authenticated principal, then the
+ * {@code userId} query parameter, and finally the client address. The key
+ * is read from the query string alone: asking the servlet for a request
+ * parameter would parse a whole multipart upload before it is admitted.</p>
+ * 
+ * <p>Rejections are counted by the {@code admission.rejected} meter and only
+ * logged at debug level, since a saturated server rejects many requests a
+ * second.</p>
+ */
+@Slf4j
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+    
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+    
+    private final AdmissionLimiter admissionLimiter;
+    private final long retryAfterSeconds;
+    private final Counter rejectedCounter;
+    
+    public AdmissionInterceptor(
+            AdmissionLimiter admissionLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${admission.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.admissionLimiter = admissionLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejectedCounter = Counter.builder("admission.rejected")
+                .description("Requests rejected with 429 because the server was saturated")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        String userKey = resolveUserKey(request);
+        
+        AdmissionLimiter.Permit permit;
+        try {
+            permit = admissionLimiter.tryAcquire(userKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+        
+        if (permit == null) {
+            rejectedCounter.increment();
+            log.debug("Rejected {} for {} - server saturated (limit: {})",
+                    request.getRequestURI(), userKey, admissionLimiter.getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Server is busy, please retry later");
+            return false;
+        }
+        
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof AdmissionLimiter.Permit admitted) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            admitted.release();
+        }
+    }
+    
+    /**
+     * Resolves the key used for per-user fair-share limits.
+     * 
+     * @param request the incoming request
+     * @return user identifier, or the client address for anonymous requests
+     */
+    private String resolveUserKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        
+        String userId = queryParameter(request.getQueryString(), "userId");
+        if (userId != null && !userId.isBlank()) {
+            return "user:" + userId;
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+    
+    /**
+     * Returns the first value of a parameter in a raw query string, or null
+     * if it is absent or not validly encoded.
+     */
+    private static String queryParameter(String queryString, String name) {
+        if (queryString == null) {
+            return null;
+        }
+        
+        String prefix = name + "=";
+        for (String pair : queryString.split("&")) {
+            if (pair.startsWith(prefix)) {
+                try {
+                    return URLDecoder.decode(pair.substring(prefix.length()), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
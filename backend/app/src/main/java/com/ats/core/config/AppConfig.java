@@ -0,0 +1,78 @@
+package com.ats.core.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AppConfig - Shared application infrastructure beans.
+ * 
+ * <p>Provides the virtual-thread executor used by the upload pipeline to run
+ * independent blocking steps (storage write, text extraction) concurrently
+ * without tying up Tomcat request threads, and registers admission control
+ * in front of the extraction-heavy endpoints and token authentication in
+ * front of the admin API. Also enables scheduling for
+ * background maintenance such as storage reconciliation, and adds CBOR as
+ * a compact alternative to JSON for clients that ask for it.</p>
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ScoringProfilesProperties.class)
+public class AppConfig implements WebMvcConfigurer {
+    
+    private final AdmissionInterceptor admissionInterceptor;
+    private final AdminAuthInterceptor adminAuthInterceptor;
+    private final boolean admissionEnabled;
+    
+    public AppConfig(
+            AdmissionInterceptor admissionInterceptor,
+            AdminAuthInterceptor adminAuthInterceptor,
+            @Value("${admission.enabled:true}") boolean admissionEnabled) {
+        this.admissionInterceptor = admissionInterceptor;
+        this.adminAuthInterceptor = adminAuthInterceptor;
+        this.admissionEnabled = admissionEnabled;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionEnabled) {
+            registry.addInterceptor(admissionInterceptor)
+                    .addPathPatterns("/api/resume/upload", "/api/resume/score");
+        }
+        registry.addInterceptor(adminAuthInterceptor).addPathPatterns("/api/admin/**");
+    }
+    
+    /**
+     * Executor that starts a new virtual thread per task.
+     * 
+     * @return virtual-thread-per-task executor, closed on context shutdown
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService uploadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+    
+    /**
+     * CBOR ({@code application/cbor}) encoding, configured like the JSON
+     * mapper so both encodings carry the same fields.
+     * 
+     * @param builder Spring Boot's configured Jackson builder
+     * @return converter used where a handler produces CBOR
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false)
+                .factory(new CBORFactory())
+                .build());
+    }
+}
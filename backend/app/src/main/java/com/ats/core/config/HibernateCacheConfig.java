@@ -0,0 +1,44 @@
+package com.ats.core.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * HibernateCacheConfig - Cache manager behind the Hibernate second-level cache.
+ * 
+ * <p>The Caffeine cache manager is created here and handed to Hibernate
+ * instead of letting Hibernate resolve {@code hibernate.javax.cache.uri}:
+ * Hibernate turns that URI into a {@link java.net.URL} first, which fails
+ * for {@code classpath:} unless an embedded web server has registered a URL
+ * handler for it, as on worker nodes without one. Caffeine reads
+ * {@code classpath:} URIs itself.</p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+    
+    private static final URI REGIONS = URI.create("classpath:hibernate-cache.conf");
+    
+    /**
+     * Caffeine JCache manager configured with the cache regions.
+     * 
+     * @return the cache manager, closed on context shutdown
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName(), classLoader)
+                .getCacheManager(REGIONS, classLoader);
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
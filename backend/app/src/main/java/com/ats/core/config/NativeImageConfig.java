@@ -0,0 +1,113 @@
+package com.ats.core.config;
+
+import com.ats.core.dto.ExtractionResult;
+import com.ats.core.dto.JobStatus;
+import com.ats.core.dto.NearDuplicate;
+import com.ats.core.dto.ScoreDistribution;
+import com.ats.core.dto.ScoreResult;
+import com.ats.core.dto.ScoreTrendPoint;
+import com.ats.core.dto.SearchResult;
+import com.ats.core.dto.UploadResponse;
+import com.ats.core.dto.WeightsUpdateRequest;
+import com.ats.core.service.events.ResumeEvent;
+import com.ats.core.service.jobs.ExtractionJobHandler;
+import com.ats.core.service.jobs.ReportJobHandler;
+import com.ats.core.service.jobs.ScoringJobHandler;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * NativeImageConfig - Reflection and resource metadata for the GraalVM native image.
+ * 
+ * <p>Spring AOT derives most of what the native image needs from the bean
+ * definitions at build time, including the JPA entities and the request and
+ * response types of typed controller methods; the reachability metadata
+ * repository covers Hibernate, Caffeine, Tomcat and the PostgreSQL driver.
+ * This adds what neither can see: the DTOs and job payloads that only reach
+ * Jackson through {@code ResponseEntity<?>}, the idempotency cache and the
+ * job queue (their Lombok-generated accessors are bound reflectively), the
+ * Tika parsers that Tika instantiates by name from its service files, the
+ * PDFBox font metrics, glyph lists and CMaps, and the second-level cache
+ * configuration.</p>
+ * 
+ * <p>The hints only take effect when building with {@code -Pnative}; on the
+ * JVM this class does nothing.</p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+@RegisterReflectionForBinding({
+        ExtractionResult.class, JobStatus.class, NearDuplicate.class, ScoreDistribution.class,
+        ScoreResult.class, ScoreTrendPoint.class, SearchResult.class, UploadResponse.class, WeightsUpdateRequest.class,
+        ResumeEvent.class,
+        ExtractionJobHandler.Payload.class, ScoringJobHandler.Payload.class,
+        ReportJobHandler.Payload.class, ReportJobHandler.Result.class})
+public class NativeImageConfig {
+    
+    private static final String TIKA_SERVICES = "META-INF/services/org.apache.tika.*";
+    
+    static class Hints implements RuntimeHintsRegistrar {
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Tika: media type registry, parser resources and service files
+            hints.resources()
+                    .registerPattern("org/apache/tika/mime/*.xml")
+                    .registerPattern("org/apache/tika/parser/external/*.xml")
+                    .registerPattern("org/apache/tika/parser/html/*.txt")
+                    .registerPattern("org/apache/tika/detect/*.nnmodel")
+                    .registerPattern(TIKA_SERVICES);
+            registerTikaServiceProviders(hints, classLoader);
+            
+            // PDFBox: standard 14 font metrics, fallback font, glyph lists, ICC profiles and CMaps
+            hints.resources()
+                    .registerPattern("org/apache/pdfbox/resources/**")
+                    .registerPattern("org/apache/fontbox/cmap/*")
+                    .registerPattern("org/apache/fontbox/unicode/*");
+            
+            // Second-level cache: the region file, Caffeine's defaults and the providers looked up by name
+            hints.resources()
+                    .registerPattern("hibernate-cache.conf")
+                    .registerPattern("reference.conf");
+            hints.reflection()
+                    .registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerTypeIfPresent(classLoader, "org.hibernate.cache.jcache.internal.JCacheRegionFactory",
+                            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        
+        /**
+         * Registers every class listed in Tika's service files. Tika reads
+         * those files itself and instantiates the classes with reflection,
+         * which the native image only allows for registered types.
+         */
+        private static void registerTikaServiceProviders(RuntimeHints hints, ClassLoader classLoader) {
+            try {
+                Resource[] serviceFiles = new PathMatchingResourcePatternResolver(classLoader)
+                        .getResources("classpath*:" + TIKA_SERVICES);
+                for (Resource serviceFile : serviceFiles) {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(serviceFile.getInputStream(), StandardCharsets.UTF_8))) {
+                        reader.lines()
+                                .map(line -> line.replaceFirst("#.*", "").trim())
+                                .filter(line -> !line.isEmpty())
+                                .forEach(className -> hints.reflection().registerTypeIfPresent(classLoader,
+                                        className, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read Tika service files", e);
+            }
+        }
+    }
+}
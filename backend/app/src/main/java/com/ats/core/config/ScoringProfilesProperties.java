@@ -0,0 +1,62 @@
+package com.ats.core.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScoringProfilesProperties - Named weight profiles and per-tenant defaults.
+ * 
+ * <p>Bound from {@code scoring.profiles.<name>} and
+ * {@code scoring.tenant-defaults.<tenant>}. A profile weighs the same
+ * component scores as the active versioned weights; the name
+ * {@code default} always refers to those. Tenant defaults may only name
+ * defined profiles, so a typo fails at startup instead of on the tenant's
+ * first request.</p>
+ * 
+ * @param profiles weight profiles by name
+ * @param tenantDefaults profiles applied when a tenant does not request any
+ */
+@ConfigurationProperties(prefix = "scoring")
+public record ScoringProfilesProperties(Map<String, ProfileWeights> profiles,
+                                        Map<String, List<String>> tenantDefaults) {
+    
+    /**
+     * Name of the profile that applies the active versioned weights.
+     */
+    public static final String DEFAULT_PROFILE = "default";
+    
+    private static final double SUM_TOLERANCE = 1e-6;
+    
+    public ScoringProfilesProperties {
+        profiles = profiles != null ? Map.copyOf(profiles) : Map.of();
+        tenantDefaults = tenantDefaults != null ? Map.copyOf(tenantDefaults) : Map.of();
+        
+        profiles.forEach((name, weights) -> {
+            if (weights.keyword() < 0 || weights.skill() < 0 || weights.formatting() < 0
+                    || Math.abs(weights.keyword() + weights.skill() + weights.formatting() - 1.0) > SUM_TOLERANCE) {
+                throw new IllegalStateException("Scoring profile '" + name
+                        + "' must have non-negative weights that add up to 1.0");
+            }
+        });
+        
+        Map<String, ProfileWeights> defined = profiles;
+        tenantDefaults.forEach((tenant, names) -> names.forEach(name -> {
+            if (!DEFAULT_PROFILE.equals(name) && !defined.containsKey(name)) {
+                throw new IllegalStateException("Default profile '" + name + "' of tenant '" + tenant
+                        + "' is not defined under scoring.profiles");
+            }
+        }));
+    }
+    
+    /**
+     * Weights of one named profile.
+     * 
+     * @param keyword weight of the keyword match score
+     * @param skill weight of the skill relevance score
+     * @param formatting weight of the formatting score
+     */
+    public record ProfileWeights(double keyword, double skill, double formatting) {
+    }
+}
@@ -0,0 +1,234 @@
+package com.ats.core.controller;
+
+import com.ats.core.dto.JobStatus;
+import com.ats.core.dto.WeightsUpdateRequest;
+import com.ats.core.model.Job;
+import com.ats.core.service.ScoringWeightsService;
+import com.ats.core.service.backfill.ScoreBackfillService;
+import com.ats.core.service.cache.SecondLevelCacheStats;
+import com.ats.core.service.jobs.JobQueue;
+import com.ats.core.service.distribution.ScoreDistributionService;
+import com.ats.core.service.partition.ScorePartitionManager;
+import com.ats.core.service.search.SearchIndexService;
+import com.ats.core.service.storage.LocalStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * AdminController - Operational endpoints for scoring configuration.
+ * 
+ * <p>Publishes new scoring weights at runtime, triggers recomputation of
+ * stored overall scores, and runs the re-scoring backfill after a scoring
+ * algorithm change. Protected by {@link com.ats.core.config.AdminAuthInterceptor}.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/scoring")
+public class AdminController {
+    
+    private final ScoringWeightsService weightsService;
+    private final ScoreBackfillService backfillService;
+    private final ScoreDistributionService distributionService;
+    private final ScorePartitionManager partitionManager;
+    private final SearchIndexService searchIndexService;
+    private final SecondLevelCacheStats cacheStats;
+    private final JobQueue jobQueue;
+    private final ObjectProvider<LocalStorageService> localStorage;
+    
+    public AdminController(
+            ScoringWeightsService weightsService,
+            ScoreBackfillService backfillService,
+            ScoreDistributionService distributionService,
+            ScorePartitionManager partitionManager,
+            SearchIndexService searchIndexService,
+            SecondLevelCacheStats cacheStats,
+            JobQueue jobQueue,
+            ObjectProvider<LocalStorageService> localStorage) {
+        this.weightsService = weightsService;
+        this.backfillService = backfillService;
+        this.distributionService = distributionService;
+        this.partitionManager = partitionManager;
+        this.searchIndexService = searchIndexService;
+        this.cacheStats = cacheStats;
+        this.jobQueue = jobQueue;
+        this.localStorage = localStorage;
+    }
+    
+    /**
+     * Returns the active scoring weights.
+     * 
+     * @return current weights and their version
+     */
+    @GetMapping("/weights")
+    public ResponseEntity<ScoringWeightsService.Weights> getWeights() {
+        return ResponseEntity.ok(weightsService.current());
+    }
+    
+    /**
+     * Publishes new scoring weights and, unless disabled, starts recomputing
+     * stored overall scores with them.
+     * 
+     * @param request the new weights
+     * @return the published weights and the recomputation status
+     */
+    @PutMapping("/weights")
+    public ResponseEntity<Map<String, Object>> updateWeights(@RequestBody WeightsUpdateRequest request) {
+        if (request.getKeyword() == null || request.getSkill() == null || request.getFormatting() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "keyword, skill and formatting are required");
+        }
+        
+        ScoringWeightsService.Weights weights = weightsService.update(
+                request.getKeyword(), request.getSkill(), request.getFormatting());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("weights", weights);
+        if (request.getRecompute() == null || request.getRecompute()) {
+            response.put("recompute", weightsService.startRecompute());
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Starts recomputing stored overall scores with the active weights.
+     * 
+     * @return status of the recomputation
+     */
+    @PostMapping("/recompute")
+    public ResponseEntity<ScoringWeightsService.RecomputeStatus> recompute() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(weightsService.startRecompute());
+    }
+    
+    /**
+     * Returns the status of the most recent recomputation on this node.
+     * 
+     * @return recomputation status
+     */
+    @GetMapping("/recompute")
+    public ResponseEntity<ScoringWeightsService.RecomputeStatus> getRecomputeStatus() {
+        return weightsService.getRecomputeStatus()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No recomputation has run"));
+    }
+    
+    /**
+     * Starts or resumes re-scoring stored resumes with the current scoring
+     * algorithm version.
+     * 
+     * @return status of the backfill
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<ScoreBackfillService.BackfillStatus> startBackfill() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillService.start());
+    }
+    
+    /**
+     * Pauses the backfill after its current chunk.
+     * 
+     * @return status of the backfill
+     */
+    @PostMapping("/backfill/pause")
+    public ResponseEntity<ScoreBackfillService.BackfillStatus> pauseBackfill() {
+        return backfillService.pause()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No backfill has run"));
+    }
+    
+    /**
+     * Returns progress, throughput and ETA of the backfill to the current
+     * scoring algorithm version.
+     * 
+     * @return backfill status
+     */
+    @GetMapping("/backfill")
+    public ResponseEntity<ScoreBackfillService.BackfillStatus> getBackfillStatus() {
+        return backfillService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No backfill has run"));
+    }
+    
+    /**
+     * Rebuilds the score distribution sketches from the stored scores.
+     * 
+     * @return number of scores read
+     */
+    @PostMapping("/distributions/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDistributions() {
+        return ResponseEntity.ok(Map.of("scores", distributionService.rebuild()));
+    }
+    
+    /**
+     * Runs score partition maintenance now: creates upcoming partitions,
+     * rolls up complete days and drops expired partitions.
+     * 
+     * @return what the run changed
+     */
+    @PostMapping("/partitions/maintenance")
+    public ResponseEntity<ScorePartitionManager.MaintenanceReport> runPartitionMaintenance() {
+        return ResponseEntity.ok(partitionManager.runMaintenance());
+    }
+    
+    /**
+     * Rebuilds this node's full-text search index from the database.
+     * 
+     * @return number of documents indexed per type
+     */
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Map<String, Long>> reindexSearch() {
+        return ResponseEntity.ok(searchIndexService.reindexAll());
+    }
+    
+    /**
+     * Moves files of the legacy flat storage layout into their shard
+     * directories. Safe to run while uploads are served.
+     * 
+     * @return number of files moved
+     */
+    @PostMapping("/storage/migrate")
+    public ResponseEntity<Map<String, Integer>> migrateStorage() {
+        LocalStorageService storage = localStorage.getIfAvailable();
+        if (storage == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Storage backend is not local");
+        }
+        return ResponseEntity.ok(Map.of("migrated", storage.migrateToShardedLayout()));
+    }
+    
+    /**
+     * Returns this node's second-level cache hit rates.
+     * 
+     * @return hits, misses and puts per cache region and for the query cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, SecondLevelCacheStats.RegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStats.snapshot());
+    }
+    
+    /**
+     * Returns the number of jobs in the shared queue.
+     * 
+     * @return counts per job type and state
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<Job.Type, Map<Job.State, Long>>> getJobCounts() {
+        return ResponseEntity.ok(jobQueue.counts());
+    }
+    
+    /**
+     * Queues a dead-lettered job again with a fresh set of attempts.
+     * 
+     * @param jobId the job ID
+     * @return the queued job
+     */
+    @PostMapping("/jobs/{jobId}/retry")
+    public ResponseEntity<JobStatus> retryJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(JobStatus.of(jobQueue.retry(jobId)));
+    }
+}
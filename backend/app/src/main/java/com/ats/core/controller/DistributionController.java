@@ -0,0 +1,66 @@
+package com.ats.core.controller;
+
+import com.ats.core.dto.ScoreDistribution;
+import com.ats.core.service.distribution.ScoreComponent;
+import com.ats.core.service.distribution.ScoreDistributionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * DistributionController - REST API endpoints for score distributions.
+ * 
+ * <p>Serves percentiles, histograms and percentile ranks of the scores of a
+ * job description from quantile sketches, without reading the scores.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/distributions")
+@CrossOrigin("*")
+public class DistributionController {
+    
+    private static final int MAX_BINS = 100;
+    
+    private final ScoreDistributionService distributionService;
+    
+    public DistributionController(ScoreDistributionService distributionService) {
+        this.distributionService = distributionService;
+    }
+    
+    /**
+     * Returns the score distribution of a job description.
+     * 
+     * @param jobDescriptionId job description id, or {@code general} for general analysis
+     * @param component score component (keywordMatch, skillRelevance, formatting or overall)
+     * @param value optional score whose percentile rank is returned
+     * @param bins number of histogram buckets
+     * @return the distribution
+     */
+    @GetMapping("/{jobDescriptionId}")
+    public ResponseEntity<ScoreDistribution> getDistribution(
+            @PathVariable String jobDescriptionId,
+            @RequestParam(defaultValue = "overall") String component,
+            @RequestParam(required = false) Double value,
+            @RequestParam(defaultValue = "10") int bins) {
+        
+        String key = jobDescriptionId;
+        if (!ScoreDistributionService.GENERAL_KEY.equals(jobDescriptionId)) {
+            try {
+                key = UUID.fromString(jobDescriptionId).toString();
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid job description ID format");
+            }
+        }
+        
+        if (bins < 1 || bins > MAX_BINS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bins must be between 1 and " + MAX_BINS);
+        }
+        
+        return ResponseEntity.ok(distributionService.getDistribution(
+                key, ScoreComponent.fromFieldName(component), value, bins));
+    }
+}
@@ -0,0 +1,106 @@
+package com.ats.core.controller;
+
+import com.ats.core.service.diagnostics.FlightRecorderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * FlightRecorderController - Admin endpoints for Java Flight Recorder recordings.
+ * 
+ * <p>Downloads the continuous recording of pipeline events, and starts and
+ * stops bounded on-demand recordings. Recordings are per node; call the node
+ * that is slow. Protected by {@link com.ats.core.config.AdminAuthInterceptor}.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/flight-recorder")
+public class FlightRecorderController {
+    
+    private static final DateTimeFormatter FILENAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    private final FlightRecorderService flightRecorderService;
+    
+    public FlightRecorderController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+    
+    /**
+     * Returns the state of this node's recordings.
+     * 
+     * @return continuous and on-demand recording status
+     */
+    @GetMapping
+    public ResponseEntity<FlightRecorderService.Status> getStatus() {
+        return ResponseEntity.ok(flightRecorderService.status());
+    }
+    
+    /**
+     * Starts an on-demand recording of the pipeline events.
+     * 
+     * @param durationSeconds how long to record (capped by flight-recorder.max-duration-minutes)
+     * @param jvmEvents whether to also record GC, lock, I/O and allocation events
+     * @return the started recording
+     */
+    @PostMapping("/start")
+    public ResponseEntity<FlightRecorderService.RecordingStatus> start(
+            @RequestParam(defaultValue = "300") long durationSeconds,
+            @RequestParam(defaultValue = "false") boolean jvmEvents) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(flightRecorderService.start(Duration.ofSeconds(durationSeconds), jvmEvents));
+    }
+    
+    /**
+     * Stops the on-demand recording and downloads it.
+     * 
+     * @return the recording as a .jfr file
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> stop() {
+        return recording(flightRecorderService.stop(), "ats-recording");
+    }
+    
+    /**
+     * Downloads the recent pipeline events of the continuous recording.
+     * 
+     * @return the recording as a .jfr file
+     */
+    @GetMapping("/dump")
+    public ResponseEntity<Resource> dump() {
+        return recording(flightRecorderService.dumpContinuous(), "ats-pipeline");
+    }
+    
+    /**
+     * Streams a dumped recording from its temporary file. The file is
+     * deleted when the stream is closed, or on Linux as soon as it is
+     * opened, so none is left behind when the response fails.
+     */
+    private static ResponseEntity<Resource> recording(Path file, String name) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment",
+                name + "-" + LocalDateTime.now().format(FILENAME_TIMESTAMP) + ".jfr");
+        try {
+            headers.setContentLength(Files.size(file));
+            return ResponseEntity.ok().headers(headers)
+                    .body(new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+        } catch (IOException e) {
+            FlightRecorderService.delete(file);
+            throw new UncheckedIOException("Failed to read dumped recording", e);
+        }
+    }
+}
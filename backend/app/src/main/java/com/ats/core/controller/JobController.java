@@ -0,0 +1,56 @@
+package com.ats.core.controller;
+
+import com.ats.core.dto.JobStatus;
+import com.ats.core.service.jobs.JobQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * JobController - REST API endpoint for queued jobs.
+ * 
+ * <p>Asynchronous uploads, scoring requests and reports answer with a job;
+ * clients poll it here until it has succeeded or died.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin("*")
+public class JobController {
+    
+    private final JobQueue jobQueue;
+    
+    public JobController(JobQueue jobQueue) {
+        this.jobQueue = jobQueue;
+    }
+    
+    /**
+     * Returns the state and, once succeeded, the result of a job.
+     * 
+     * @param jobId the job ID
+     * @return the job's status
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatus> getJob(@PathVariable UUID jobId) {
+        return jobQueue.find(jobId)
+                .map(job -> ResponseEntity.ok(JobStatus.of(job)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found"));
+    }
+    
+    /**
+     * Builds the 202 response of a request that was queued as a job.
+     * 
+     * @param status the queued job
+     * @return 202 Accepted pointing at the job
+     */
+    static ResponseEntity<JobStatus> accepted(JobStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + status.getJobId()))
+                .body(status);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ats.core.controller;
 
+import com.ats.core.dto.JobStatus;
 import com.ats.core.service.ReportService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -34,11 +35,18 @@ public class ReportController {
     /**
      * Generates a PDF report for a scored resume.
      * 
+     * <p>With {@code async=true} the report is generated by a worker; the 202
+     * response points at the job, and the report is then downloaded from
+     * {@code /api/report/download/{jobId}}.</p>
+     * 
      * @param request report generation request
-     * @return PDF file directly as byte array with download headers
+     * @param async whether to queue the report instead of waiting for it
+     * @return PDF file directly as byte array with download headers, or the queued job
      */
     @PostMapping
-    public ResponseEntity<byte[]> generateReport(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> generateReport(
+            @RequestBody Map<String, String> request,
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
         
         String resumeIdStr = request.get("resumeId");
         String scoreIdStr = request.get("scoreId");
@@ -65,6 +73,10 @@ public class ReportController {
         log.info("Report generation request for resume: {}, score: {}, template: {}", 
                 resumeId, scoreId, template);
         
+        if (async) {
+            return JobController.accepted(JobStatus.of(reportService.enqueueReport(resumeId, scoreId, template)));
+        }
+        
         byte[] pdfBytes = reportService.generatePdfReport(resumeId, scoreId, template);
         
         HttpHeaders headers = new HttpHeaders();
@@ -78,9 +90,9 @@ public class ReportController {
     }
     
     /**
-     * Downloads a generated PDF report.
+     * Downloads a PDF report generated by a report job.
      * 
-     * @param reportId the report identifier
+     * @param reportId ID of the report job
      * @return PDF file as byte array
      */
     @GetMapping("/download/{reportId}")
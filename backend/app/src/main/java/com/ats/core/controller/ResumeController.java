@@ -0,0 +1,303 @@
+package com.ats.core.controller;
+
+import com.ats.core.dto.JobStatus;
+import com.ats.core.dto.ScoreResult;
+import com.ats.core.dto.ScoreTrendPoint;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.ResumeService;
+import com.ats.core.service.idempotency.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResumeController - REST API endpoints for resume management.
+ * 
+ * <p>Provides endpoints for uploading resumes, extracting text content,
+ * and computing ATS scores against job descriptions.</p>
+ * 
+ * <p>Uploads and scoring accept an {@code Idempotency-Key} header, so a
+ * client retrying after a timeout gets the first response instead of
+ * storing, parsing and scoring the resume again.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/resume")
+@CrossOrigin("*")
+public class ResumeController {
+    
+    private static final int DEFAULT_TREND_DAYS = 90;
+    
+    private final ResumeService resumeService;
+    private final IdempotencyService idempotencyService;
+    private final CacheControl scoreCacheControl;
+    
+    public ResumeController(
+            ResumeService resumeService,
+            IdempotencyService idempotencyService,
+            @Value("${scoring.read.max-age-seconds:5}") long scoreMaxAgeSeconds) {
+        this.resumeService = resumeService;
+        this.idempotencyService = idempotencyService;
+        this.scoreCacheControl = CacheControl.maxAge(scoreMaxAgeSeconds, TimeUnit.SECONDS)
+                .cachePrivate()
+                .mustRevalidate();
+    }
+    
+    /**
+     * Uploads and processes a resume file.
+     * 
+     * <p>With {@code async=true} the file is only stored and its extraction
+     * is queued; the 202 response points at the job, whose result is the
+     * usual upload response.</p>
+     * 
+     * @param file the resume file to upload
+     * @param jobDescription optional job description for context
+     * @param userId optional user identifier
+     * @param async whether to queue the extraction instead of waiting for it
+     * @param idempotencyKey optional key; repeated uploads with it return the first response
+     * @return resume metadata and text preview, or the queued job
+     */
+    @PostMapping("/upload")
+    public ResponseEntity<?> uploadResume(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "jobDescription", required = false) String jobDescription,
+            @RequestParam(value = "userId", required = false) String userId,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        
+        log.info("Resume upload request received: {}", file.getOriginalFilename());
+        
+        String fingerprint = idempotencyKey != null
+                ? idempotencyService.fingerprint(file, jobDescription, userId, async) : null;
+        return idempotencyService.execute("upload", idempotencyKey, fingerprint, () -> {
+            if (async) {
+                return JobController.accepted(JobStatus.of(resumeService.enqueueUpload(file, userId)));
+            }
+            
+            Map<String, Object> response = resumeService.storeAndExtract(file, jobDescription, userId);
+            
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    /**
+     * Scores a resume against a job description.
+     * 
+     * <p>{@code profiles} (a list or a comma-separated string) names scoring
+     * profiles to apply in the same pass. Without it, the default profiles of
+     * the tenant given by {@code tenantId} or the {@code X-Tenant-Id} header
+     * are applied.</p>
+     * 
+     * <p>With {@code async=true} the scoring is queued; the 202 response
+     * points at the job, whose result is the score.</p>
+     * 
+     * @param request scoring request containing resumeId, jobDescription and optional profiles
+     * @param tenantHeader optional tenant identifier
+     * @param async whether to queue the scoring instead of waiting for it
+     * @param idempotencyKey optional key; repeated requests with it return the first score
+     * @return detailed ATS scoring results, or the queued job
+     */
+    @PostMapping("/score")
+    public ResponseEntity<?> scoreResume(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantHeader,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        
+        String resumeIdStr = stringField(request, "resumeId");
+        String jobDescription = stringField(request, "jobDescription");
+        String tenantId = request.containsKey("tenantId") ? stringField(request, "tenantId") : tenantHeader;
+        List<String> profiles = parseProfiles(request.get("profiles"));
+        
+        if (resumeIdStr == null || resumeIdStr.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "resumeId is required");
+        }
+        
+        UUID resumeId;
+        try {
+            resumeId = UUID.fromString(resumeIdStr);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid resumeId format");
+        }
+        
+        log.info("Scoring request received for resume ID: {}", resumeId);
+        
+        String fingerprint = idempotencyKey != null
+                ? idempotencyService.fingerprint(request, tenantHeader, async) : null;
+        return idempotencyService.execute("score", idempotencyKey, fingerprint, () -> {
+            if (async) {
+                return JobController.accepted(JobStatus.of(
+                        resumeService.enqueueScore(resumeId, jobDescription, profiles, tenantId)));
+            }
+            
+            ScoreResult scoreResult = resumeService.scoreResume(resumeId, jobDescription, profiles, tenantId);
+            
+            return ResponseEntity.ok(scoreResult);
+        });
+    }
+    
+    /**
+     * Returns the latest stored score of a resume without scoring it again.
+     * 
+     * <p>The strong {@code ETag} identifies the score and the weights its
+     * overall was computed with, so a client polling with
+     * {@code If-None-Match} gets {@code 304 Not Modified} from a single
+     * indexed lookup until the resume is scored again or re-weighted.
+     * Besides JSON, the score is available as CBOR
+     * ({@code Accept: application/cbor}), which has its own ETag.</p>
+     * 
+     * @param resumeId the resume ID
+     * @param accept the Accept header
+     * @param webRequest the request, for conditional GET
+     * @return the latest score, or 304 if the client's copy is current
+     */
+    @GetMapping(value = "/{resumeId}/score", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ScoreResult> getLatestScore(
+            @PathVariable UUID resumeId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        
+        MediaType format = prefersCbor(accept) ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+        ScoreRepository.ScoreVersion latest = resumeService.getLatestScoreVersion(resumeId);
+        if (webRequest.checkNotModified(scoreETag(latest.getId(), latest.getWeightsVersion(), format))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(scoreCacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        
+        ScoreResult score = resumeService.getLatestScore(resumeId);
+        return ResponseEntity.ok()
+                .eTag(scoreETag(score.getScoreId(), score.getWeightsVersion(), format))
+                .cacheControl(scoreCacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(format)
+                .body(score);
+    }
+    
+    /**
+     * Returns the daily score trend of a resume.
+     * 
+     * @param resumeId the resume ID
+     * @param from first day (UTC) to include; defaults to 90 days ago
+     * @param to last day (UTC) to include; defaults to yesterday
+     * @return one aggregate per day and job description, oldest first
+     */
+    @GetMapping("/{resumeId}/trend")
+    public ResponseEntity<List<ScoreTrendPoint>> getScoreTrend(
+            @PathVariable UUID resumeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate lastDay = to != null ? to : today.minusDays(1);
+        LocalDate firstDay = from != null ? from : today.minusDays(DEFAULT_TREND_DAYS);
+        if (firstDay.isAfter(lastDay)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        
+        return ResponseEntity.ok(resumeService.getScoreTrend(resumeId, firstDay, lastDay));
+    }
+    
+    /**
+     * Streams the processing events of a resume as server-sent events:
+     * {@code stored}, {@code extracted}, {@code tokenized} and finally
+     * {@code scored} with the score (or {@code failed}). For an async upload,
+     * pass the job ID instead; its stream ends with the upload response.
+     * 
+     * @param resumeId the resume ID, or the job ID of an async upload
+     * @param lastEventId ID of the last event received, sent by reconnecting clients
+     * @return the event stream
+     */
+    @GetMapping(value = "/{resumeId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @PathVariable UUID resumeId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return resumeService.watch(resumeId, lastEventId);
+    }
+    
+    /**
+     * Strong ETag of a score in one encoding.
+     */
+    private static String scoreETag(UUID scoreId, long weightsVersion, MediaType format) {
+        String suffix = MediaType.APPLICATION_CBOR.equals(format) ? "-cbor" : "";
+        return "\"" + scoreId + "-" + weightsVersion + suffix + "\"";
+    }
+    
+    /**
+     * Whether the client asks for CBOR at least as much as for JSON. The
+     * format is chosen here rather than by the message converters, so the
+     * ETag always matches the encoding sent.
+     */
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        double cbor = 0;
+        double json = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    cbor = Math.max(cbor, type.getQualityValue());
+                } else if (type.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return cbor > 0 && cbor >= json;
+    }
+    
+    /**
+     * Reads an optional string field of a JSON request body.
+     */
+    private String stringField(Map<String, Object> request, String name) {
+        Object value = request.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a string");
+        }
+        return (String) value;
+    }
+    
+    /**
+     * Accepts profiles as a JSON array or a comma-separated string.
+     */
+    private List<String> parseProfiles(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        
+        List<?> items = value instanceof List<?> list ? list : Arrays.asList(String.valueOf(value).split(","));
+        List<String> profiles = new ArrayList<>();
+        for (Object item : items) {
+            if (!(item instanceof String name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "profiles must contain strings");
+            }
+            if (!name.isBlank()) {
+                profiles.add(name.trim());
+            }
+        }
+        return profiles;
+    }
+}
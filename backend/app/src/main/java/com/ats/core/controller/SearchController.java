@@ -0,0 +1,63 @@
+package com.ats.core.controller;
+
+import com.ats.core.dto.SearchResult;
+import com.ats.core.service.search.SearchDocument;
+import com.ats.core.service.search.SearchIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * SearchController - REST API endpoint for full-text search.
+ * 
+ * <p>Searches resume text and job description titles and content with
+ * phrase and boolean queries, returning highlighted fragments.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin("*")
+public class SearchController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final SearchIndexService searchIndexService;
+    
+    public SearchController(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+    
+    /**
+     * Searches resumes and job descriptions.
+     * 
+     * @param q the query, in Lucene query syntax
+     * @param type {@code resume}, {@code job}, or {@code all}
+     * @param limit maximum number of hits
+     * @return hits ordered by relevance
+     */
+    @GetMapping
+    public ResponseEntity<SearchResult> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        SearchDocument.Type documentType = null;
+        if (!"all".equalsIgnoreCase(type)) {
+            documentType = SearchDocument.Type.fromValue(type);
+            if (documentType == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "type must be resume, job or all");
+            }
+        }
+        
+        return ResponseEntity.ok(searchIndexService.search(q, documentType, limit));
+    }
+}
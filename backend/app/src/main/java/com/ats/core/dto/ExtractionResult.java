@@ -0,0 +1,58 @@
+package com.ats.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ExtractionResult - DTO for the outcome of a text extraction.
+ * 
+ * <p>Carries the extracted text together with the budget outcome, so callers
+ * can tell a complete extraction apart from one that was truncated, timed
+ * out, rejected for size, or failed.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExtractionResult {
+    
+    /**
+     * Outcome of an extraction with respect to its budgets.
+     */
+    public enum Status {
+        /** The whole document was extracted. */
+        COMPLETE,
+        /** Extraction stopped at the character or page budget; text is partial. */
+        TRUNCATED,
+        /** Extraction exceeded its wall-clock budget and was interrupted. */
+        TIMED_OUT,
+        /** The input exceeded the maximum size and was not parsed. */
+        TOO_LARGE,
+        /** The file was empty or could not be parsed. */
+        FAILED
+    }
+    
+    private Status status;
+    private String text;
+    // Media type of the document, e.g. application/pdf; null if it was not parsed
+    private String format;
+    private int pageCount;
+    private long durationMillis;
+    
+    /**
+     * Creates a result without any extracted text.
+     * 
+     * @param status the extraction outcome
+     * @param durationMillis time spent before giving up
+     * @return result with empty text
+     */
+    public static ExtractionResult empty(Status status, long durationMillis) {
+        return ExtractionResult.builder()
+                .status(status)
+                .text("")
+                .durationMillis(durationMillis)
+                .build();
+    }
+}
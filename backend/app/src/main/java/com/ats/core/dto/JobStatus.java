@@ -0,0 +1,60 @@
+package com.ats.core.dto;
+
+import com.ats.core.model.Job;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * JobStatus - DTO for the progress of a queued job.
+ * 
+ * <p>{@code result} holds the job's output once it has succeeded: the
+ * upload response, the score, or the report download location.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobStatus {
+    
+    private UUID jobId;
+    
+    // "extract", "score" or "report"
+    private String type;
+    
+    // "queued", "running", "succeeded" or "dead"
+    private String state;
+    private int attempts;
+    private int maxAttempts;
+    private OffsetDateTime createdAt;
+    
+    // Next attempt of a queued job; later than now after a failed attempt
+    private OffsetDateTime runAt;
+    private OffsetDateTime finishedAt;
+    private String error;
+    
+    @JsonRawValue
+    private String result;
+    
+    public static JobStatus of(Job job) {
+        return JobStatus.builder()
+                .jobId(job.getId())
+                .type(job.getType().name().toLowerCase())
+                .state(job.getState().name().toLowerCase())
+                .attempts(job.getAttempts())
+                .maxAttempts(job.getMaxAttempts())
+                .createdAt(job.getCreatedAt())
+                .runAt(job.getState() == Job.State.QUEUED ? job.getRunAt() : null)
+                .finishedAt(job.getFinishedAt())
+                .error(job.getLastError())
+                .result(job.getResult())
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ats.core.dto;
+
+import com.ats.core.model.Score;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * NearDuplicate - DTO for an earlier upload whose text nearly matches a new resume.
+ * 
+ * <p>{@code similarity} is the Jaccard similarity of the two texts' word
+ * shingles, estimated from their MinHash signatures. The latest score of the
+ * earlier upload is included so clients can reuse it instead of scoring the
+ * copy again.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearDuplicate {
+    
+    private UUID resumeId;
+    private String filename;
+    private OffsetDateTime uploadedAt;
+    private double similarity;
+    
+    // Omitted when the earlier upload was never scored
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PreviousScore previousScore;
+    
+    /**
+     * The most recent score of the earlier upload.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PreviousScore {
+        
+        private UUID scoreId;
+        private double overall;
+        private double keywordMatch;
+        private double skillRelevance;
+        private double formatting;
+        private Long weightsVersion;
+        private boolean generalAnalysis;
+        private UUID jobDescriptionId;
+        private OffsetDateTime createdAt;
+        
+        public static PreviousScore of(Score score) {
+            return PreviousScore.builder()
+                    .scoreId(score.getId())
+                    .overall(score.getOverall())
+                    .keywordMatch(score.getKeywordMatch())
+                    .skillRelevance(score.getSkillRelevance())
+                    .formatting(score.getFormatting())
+                    .weightsVersion(score.getWeightsVersion())
+                    .generalAnalysis(Boolean.TRUE.equals(score.getGeneralAnalysis()))
+                    .jobDescriptionId(score.getJobDescription() != null ? score.getJobDescription().getId() : null)
+                    .createdAt(score.getCreatedAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ats.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScoreDistribution - DTO for the score distribution of a job description.
+ * 
+ * <p>Values are estimated from a quantile sketch, so ranks and counts are
+ * approximate (typically within one percentile).</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreDistribution {
+    
+    // Job description id, or "general" for general analysis
+    private String jobDescription;
+    private String component;
+    private int algorithmVersion;
+    private long count;
+    private double min;
+    private double max;
+    
+    // Score at each percentile, keyed "p10", "p50", ...
+    private Map<String, Double> percentiles;
+    private List<Bucket> histogram;
+    
+    // Share of scores (0-100) below the requested value; ties are not counted
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double percentileRank;
+    
+    /**
+     * One histogram bucket covering {@code [from, to)}; the last bucket includes 100.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        
+        private double from;
+        private double to;
+        private long count;
+    }
+}
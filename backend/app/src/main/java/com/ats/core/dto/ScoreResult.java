@@ -0,0 +1,66 @@
+package com.ats.core.dto;
+
+import com.ats.core.model.Score;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ScoreResult - DTO for ATS scoring results.
+ * 
+ * <p>Contains detailed scoring metrics including keyword matching,
+ * skill relevance, formatting quality, overall score, and personalized
+ * improvement tips for the candidate.</p>
+ * 
+ * <p>A stored score read back with {@link #of(Score)} carries its ID and
+ * time, but no per-profile overalls, which are not persisted.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreResult {
+    
+    // ID of the stored score
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID scoreId;
+    
+    private double keywordMatch;
+    private double skillRelevance;
+    private double formatting;
+    private double overall;
+    private List<String> improvementTips;
+    private long weightsVersion;
+    private boolean generalAnalysis;
+    
+    // Overall score per requested scoring profile, in request order
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Double> profileOveralls;
+    
+    // Set when read back from a stored score
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OffsetDateTime scoredAt;
+    
+    public static ScoreResult of(Score score) {
+        String tips = score.getTipsJson();
+        return ScoreResult.builder()
+                .scoreId(score.getId())
+                .keywordMatch(score.getKeywordMatch())
+                .skillRelevance(score.getSkillRelevance())
+                .formatting(score.getFormatting())
+                .overall(score.getOverall())
+                .improvementTips(tips == null || tips.isBlank() ? List.of() : Arrays.asList(tips.split("; ")))
+                .weightsVersion(score.getWeightsVersion() != null ? score.getWeightsVersion() : 0)
+                .generalAnalysis(Boolean.TRUE.equals(score.getGeneralAnalysis()))
+                .scoredAt(score.getCreatedAt())
+                .build();
+    }
+}
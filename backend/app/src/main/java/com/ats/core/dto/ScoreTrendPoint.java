@@ -0,0 +1,49 @@
+package com.ats.core.dto;
+
+import com.ats.core.model.ScoreDailyRollup;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * ScoreTrendPoint - DTO for one day of a resume's score trend.
+ * 
+ * <p>Aggregates the scores of one UTC day against one job description
+ * ({@code jobDescriptionId} is null for general analysis).</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreTrendPoint {
+    
+    private LocalDate day;
+    private UUID jobDescriptionId;
+    private long scoreCount;
+    private double overallAvg;
+    private double overallMin;
+    private double overallMax;
+    private double overallLast;
+    private double keywordMatchAvg;
+    private double skillRelevanceAvg;
+    private double formattingAvg;
+    
+    public static ScoreTrendPoint of(ScoreDailyRollup rollup) {
+        return ScoreTrendPoint.builder()
+                .day(rollup.getDay())
+                .jobDescriptionId(rollup.getJobDescriptionId())
+                .scoreCount(rollup.getScoreCount())
+                .overallAvg(rollup.getOverallAvg())
+                .overallMin(rollup.getOverallMin())
+                .overallMax(rollup.getOverallMax())
+                .overallLast(rollup.getOverallLast())
+                .keywordMatchAvg(rollup.getKeywordMatchAvg())
+                .skillRelevanceAvg(rollup.getSkillRelevanceAvg())
+                .formattingAvg(rollup.getFormattingAvg())
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ats.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * SearchResult - DTO for a full-text search over resumes and job descriptions.
+ * 
+ * <p>Hits are ordered by relevance. Highlights are fragments of the
+ * matching text with the matched terms wrapped in {@code <b>} tags.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResult {
+    
+    private String query;
+    
+    // Number of matching documents; hits holds at most the requested limit
+    private long totalHits;
+    
+    // False when counting stopped early and totalHits is a lower bound
+    private boolean totalHitsExact;
+    private long tookMs;
+    private List<Hit> hits;
+    
+    /**
+     * One matching resume or job description.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Hit {
+        
+        // "resume" or "job"
+        private String type;
+        private UUID id;
+        
+        // Resume filename or job description title
+        private String title;
+        private float score;
+        private List<String> highlights;
+    }
+}
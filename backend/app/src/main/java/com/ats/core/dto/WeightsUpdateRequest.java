@@ -0,0 +1,25 @@
+package com.ats.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * WeightsUpdateRequest - DTO for publishing new scoring weights.
+ * 
+ * <p>The three weights must be non-negative and add up to 1.0. Stored
+ * scores are recomputed with the new weights unless {@code recompute} is
+ * false.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeightsUpdateRequest {
+    
+    private Double keyword;
+    private Double skill;
+    private Double formatting;
+    private Boolean recompute;
+}
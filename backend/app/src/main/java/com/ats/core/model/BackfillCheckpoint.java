@@ -0,0 +1,80 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * BackfillCheckpoint Entity - Progress of a re-scoring backfill.
+ * 
+ * <p>One row per scoring algorithm version. The row is updated in the same
+ * transaction that inserts a chunk's scores, so after a crash the job
+ * resumes exactly after the last committed chunk. The optimistic version
+ * ensures only one node advances a checkpoint at a time.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "backfill_checkpoints")
+public class BackfillCheckpoint {
+    
+    @Id
+    private Integer algorithmVersion;
+    
+    // Last resume of the last committed chunk; null before the first chunk
+    private UUID lastResumeId;
+    
+    @Column(nullable = false)
+    private Long processedResumes;
+    
+    @Column(nullable = false)
+    private Long insertedScores;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+    
+    @Column(columnDefinition = "TEXT")
+    private String error;
+    
+    @Column(nullable = false)
+    private OffsetDateTime startedAt;
+    
+    @Column(nullable = false)
+    private OffsetDateTime updatedAt;
+    
+    private OffsetDateTime finishedAt;
+    
+    @Version
+    private Long revision;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
+        if (startedAt == null) {
+            startedAt = updatedAt;
+        }
+    }
+    
+    /**
+     * Lifecycle state of a backfill.
+     */
+    public enum State {
+        /** A node is (or was, until it crashed) walking the resumes. */
+        RUNNING,
+        /** Stopped on request; resumes from the checkpoint when started again. */
+        PAUSED,
+        /** Every resume was processed. */
+        COMPLETED,
+        /** Stopped by an error; resumes from the checkpoint when started again. */
+        FAILED
+    }
+}
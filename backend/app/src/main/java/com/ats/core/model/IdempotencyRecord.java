@@ -0,0 +1,76 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * IdempotencyRecord Entity - A request made with an {@code Idempotency-Key}.
+ * 
+ * <p>The first request with a key inserts the row while it runs and stores
+ * its response once it succeeds; retries with the same key get that
+ * response instead of running again. The row is the claim: a node only
+ * runs the request if its insert won, so duplicates arriving at different
+ * nodes are not run in parallel either.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+    
+    // Endpoint and client key, e.g. "upload:3f2b..."
+    @Id
+    @Column(length = 320)
+    private String id;
+    
+    // Hash of the request, so a key reused for a different request is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+    
+    // Identifies the request currently holding the key
+    @Column(nullable = false)
+    private UUID claim;
+    
+    private Integer statusCode;
+    
+    // Location header of the response, e.g. of a queued job
+    @Column(length = 512)
+    private String location;
+    
+    // JSON body of the response
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+    
+    // After this the key is forgotten and may be used again
+    @Column(nullable = false)
+    private OffsetDateTime expiresAt;
+    
+    // An in-progress claim older than this is treated as abandoned by a crashed node
+    @Column(nullable = false)
+    private OffsetDateTime lockedUntil;
+    
+    /**
+     * Progress of the request made with the key.
+     */
+    public enum State {
+        /** The first request is still running. */
+        IN_PROGRESS,
+        /** The first request succeeded; its response is stored. */
+        COMPLETED
+    }
+}
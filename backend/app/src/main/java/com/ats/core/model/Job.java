@@ -0,0 +1,118 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Job Entity - A unit of background work in the shared job queue.
+ * 
+ * <p>API nodes insert jobs; worker nodes claim them with
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED} and hold them under a lease
+ * that their heartbeat keeps extending. A job whose lease runs out (its
+ * worker died) is put back in the queue. Failed attempts are retried with
+ * exponential backoff until {@code maxAttempts}, after which the job is
+ * dead-lettered.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "jobs")
+public class Job {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+    
+    // JSON arguments, read by the job type's handler
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    // JSON output of a succeeded job
+    @Column(columnDefinition = "TEXT")
+    private String result;
+    
+    // Attempts started so far, including the running one
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(nullable = false)
+    private Integer maxAttempts;
+    
+    // Earliest time the job may be claimed; pushed back after a failed attempt
+    @Column(nullable = false)
+    private OffsetDateTime runAt;
+    
+    // Worker holding the lease of a running job
+    @Column(length = 128)
+    private String leaseOwner;
+    
+    private OffsetDateTime leaseExpiresAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+    
+    @Column(nullable = false)
+    private OffsetDateTime updatedAt;
+    
+    private OffsetDateTime finishedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
+        if (createdAt == null) {
+            createdAt = updatedAt;
+        }
+        if (runAt == null) {
+            runAt = createdAt;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+    
+    /**
+     * Kind of work, each drained by its own handler.
+     */
+    public enum Type {
+        /** Extract the text of a stored upload and save the resume. */
+        EXTRACT,
+        /** Score a resume against a job description. */
+        SCORE,
+        /** Render a PDF report and store it for download. */
+        REPORT
+    }
+    
+    /**
+     * Lifecycle state of a job.
+     */
+    public enum State {
+        /** Waiting for a worker, possibly until {@code runAt} after a failed attempt. */
+        QUEUED,
+        /** Claimed by the worker in {@code leaseOwner}. */
+        RUNNING,
+        /** Finished; {@code result} holds its output. */
+        SUCCEEDED,
+        /** Failed permanently or ran out of attempts; {@code lastError} says why. */
+        DEAD
+    }
+}
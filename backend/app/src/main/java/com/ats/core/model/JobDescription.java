@@ -1,10 +1,13 @@
 package com.ats.core.model;
 
+import com.ats.core.service.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -14,14 +17,19 @@ import java.util.UUID;
  * 
  * <p>This entity stores job description content that serves as the baseline
  * for comparing and scoring candidate resumes. Each job description contains
- * the required skills, qualifications, and keywords used for matching.</p>
+ * the required skills, qualifications, and keywords used for matching. Saved job descriptions are added to the
+ * full-text search index and kept in the second-level cache.</p>
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "job_descriptions")
+@Table(name = "job_descriptions", indexes = @Index(name = "idx_job_descriptions_updated_at",
+        columnList = "updatedAt"))
+@EntityListeners(SearchIndexListener.class)
+// Not edited once saved; evicting after commit is enough, no soft locks
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "job_descriptions")
 public class JobDescription {
     
     @Id
@@ -39,10 +47,15 @@ public class JobDescription {
     
     private UUID userId;
     
+    // Null for rows created before the column existed
+    private OffsetDateTime updatedAt;
+    
     @PrePersist
-    protected void onCreate() {
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
         if (createdAt == null) {
-            createdAt = OffsetDateTime.now();
+            createdAt = updatedAt;
         }
     }
 }
@@ -0,0 +1,100 @@
+package com.ats.core.model;
+
+import com.ats.core.service.search.SearchIndexListener;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Resume Entity - Represents uploaded resume documents in the ATS system.
+ * 
+ * <p>This entity stores resume metadata including the uploaded file information,
+ * extracted text content, and upload timestamps. Each resume can be analyzed
+ * against job descriptions to generate ATS scores. Saved resumes are added
+ * to the full-text search index.</p>
+ * 
+ * <p>Rows are kept in the second-level cache. The extracted text is loaded
+ * lazily (bytecode enhancement), so it stays out of the cached entry and out
+ * of every lookup that only needs metadata; read it through
+ * {@link com.ats.core.repository.ResumeRepository#findExtractedTextById}.</p>
+ * 
+ * <p>{@code updatedAt} is set on every insert and update through JPA; nodes
+ * follow it to index resumes saved through other nodes.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "resumes", indexes = {
+        @Index(name = "idx_resumes_storage_path", columnList = "storagePath"),
+        @Index(name = "idx_resumes_updated_at", columnList = "updatedAt")})
+@EntityListeners(SearchIndexListener.class)
+// Updated in place by tiering, the reconciler and extraction; soft locks keep a concurrent load from caching the old row
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "resumes")
+public class Resume {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private String filename;
+    
+    @Column(nullable = false)
+    private String storagePath;
+    
+    @Basic(fetch = FetchType.LAZY)
+    @Column(columnDefinition = "TEXT")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String extractedText;
+    
+    @Column(nullable = false)
+    private OffsetDateTime uploadTs;
+    
+    private UUID userId;
+    
+    // Null for rows created before storage tiers existed; treated as HOT
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private StorageTier storageTier;
+    
+    // Null for rows created before the column existed
+    private OffsetDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
+        if (uploadTs == null) {
+            uploadTs = updatedAt;
+        }
+        if (storageTier == null) {
+            storageTier = StorageTier.HOT;
+        }
+    }
+    
+    /**
+     * Lifecycle state of the stored original file.
+     */
+    public enum StorageTier {
+        /** Original is in primary storage. */
+        HOT,
+        /** Original was moved to cold storage by the retention policy. */
+        COLD,
+        /** Original was deleted by the retention policy; extracted text and scores are kept. */
+        PURGED,
+        /** Original was not found in storage by the reconciler. */
+        MISSING
+    }
+}
@@ -1,10 +1,13 @@
 package com.ats.core.model;
 
+import com.ats.core.service.distribution.ScoreDistributionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -15,7 +18,9 @@ import java.util.UUID;
  * <p>This entity stores comprehensive scoring metrics including keyword matching,
  * formatting quality, skill relevance, and overall ATS compatibility score.
  * It maintains relationships with both Resume and JobDescription entities and
- * stores improvement tips in JSON format.</p>
+ * stores improvement tips in JSON format. Saved scores are added to the
+ * per-job-description distribution sketches and kept in the second-level
+ * cache; bulk updates of {@code overall} invalidate the cached scores.</p>
  */
 @Data
 @NoArgsConstructor
@@ -23,6 +28,9 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "scores")
+@EntityListeners(ScoreDistributionListener.class)
+// Written once and only rewritten by bulk recomputation; evicting after commit is enough, no soft locks
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "scores")
 public class Score {
     
     @Id
@@ -52,6 +60,15 @@ public class Score {
     @Column(columnDefinition = "TEXT")
     private String tipsJson;
     
+    // Version of the scoring weights used for overall; null for scores created before versioning
+    private Long weightsVersion;
+    
+    // Scored without a job description, so overall is the formatting score alone
+    private Boolean generalAnalysis;
+    
+    // ScoringService.ALGORITHM_VERSION that computed the component scores; null for scores created before versioning
+    private Integer algorithmVersion;
+    
     @Column(nullable = false)
     private OffsetDateTime createdAt;
     
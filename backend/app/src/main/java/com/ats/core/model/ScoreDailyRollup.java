@@ -0,0 +1,66 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * ScoreDailyRollup Entity - Daily aggregate of the scores of one resume.
+ * 
+ * <p>One row per UTC day, resume and job description (null for scores
+ * without a stored job description), written by
+ * {@link com.ats.core.service.partition.ScorePartitionManager}. Rollups
+ * outlive the raw score partitions, so score trends remain available after
+ * old partitions are dropped. Uniqueness of (day, resume, job description)
+ * is enforced by an expression index created by the partition manager.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "score_daily_rollups")
+public class ScoreDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate day;
+    
+    @Column(nullable = false)
+    private UUID resumeId;
+    
+    private UUID jobDescriptionId;
+    
+    @Column(nullable = false)
+    private Long scoreCount;
+    
+    @Column(nullable = false)
+    private Double overallAvg;
+    
+    @Column(nullable = false)
+    private Double overallMin;
+    
+    @Column(nullable = false)
+    private Double overallMax;
+    
+    // Overall of the latest score of the day
+    @Column(nullable = false)
+    private Double overallLast;
+    
+    @Column(nullable = false)
+    private Double keywordMatchAvg;
+    
+    @Column(nullable = false)
+    private Double skillRelevanceAvg;
+    
+    @Column(nullable = false)
+    private Double formattingAvg;
+}
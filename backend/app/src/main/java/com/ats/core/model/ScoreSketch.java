@@ -0,0 +1,71 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * ScoreSketch Entity - Merged score distribution of one job description.
+ * 
+ * <p>Holds one serialized t-digest per score component for all scores of a
+ * job description (or of general analysis) computed by one scoring
+ * algorithm version. Nodes merge their locally collected sketches into this
+ * row under a row lock, so the row always covers every node's flushed
+ * scores. A row written by a rebuild covers the scores created before
+ * {@code rebuiltAt}; flushes only add scores created since.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "score_sketches")
+public class ScoreSketch {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(nullable = false)
+    private Long scoreCount;
+    
+    private byte[] keywordMatch;
+    
+    private byte[] skillRelevance;
+    
+    private byte[] formatting;
+    
+    private byte[] overall;
+    
+    // Null unless the row was written by a rebuild
+    private OffsetDateTime rebuiltAt;
+    
+    @Column(nullable = false)
+    private OffsetDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
+    }
+    
+    /**
+     * Identifies the sketch of one job description and algorithm version.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        // Job description id, or "general" for scores without a job description
+        @Column(length = 64)
+        private String sketchKey;
+        
+        private Integer algorithmVersion;
+    }
+}
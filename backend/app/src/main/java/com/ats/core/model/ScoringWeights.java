@@ -0,0 +1,48 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * ScoringWeights Entity - A published version of the overall-score weights.
+ * 
+ * <p>Every change to the weights inserts a new row; the row with the highest
+ * version is the active one. Scores record the version they were computed
+ * with, so stale scores can be found and recomputed.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "scoring_weights")
+public class ScoringWeights {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long version;
+    
+    @Column(nullable = false)
+    private Double keyword;
+    
+    @Column(nullable = false)
+    private Double skill;
+    
+    @Column(nullable = false)
+    private Double formatting;
+    
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ats.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Tombstone Entity - Records the deletion of a resume or job description.
+ * 
+ * <p>Rows are written by database triggers on {@code resumes} and
+ * {@code job_descriptions}, created by
+ * {@link com.ats.core.service.changes.TombstoneLog}, so a delete through any
+ * node or path is recorded. Each node follows the table to drop deleted
+ * rows from its local indexes. Tombstones are purged after
+ * {@code changes.tombstone-retention-days}.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tombstones", indexes = {
+    @Index(name = "idx_tombstones_deleted_at", columnList = "entityType, deletedAt")
+})
+public class Tombstone {
+    
+    // The ID of the deleted row
+    @Id
+    private UUID entityId;
+    
+    // Table the row was deleted from
+    @Column(nullable = false, length = 64)
+    private String entityType;
+    
+    @Column(nullable = false)
+    private OffsetDateTime deletedAt;
+}
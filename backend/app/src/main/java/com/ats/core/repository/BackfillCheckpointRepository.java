@@ -0,0 +1,34 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.BackfillCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BackfillCheckpoint Repository - Data access layer for backfill progress.
+ * 
+ * <p>Checkpoints are keyed by the scoring algorithm version they re-score to.
+ * A backfill locks its own checkpoint to commit a chunk, and a backfill to a
+ * newer version locks the older checkpoints when it starts, so a node still
+ * running an older version cannot commit scores after that start.</p>
+ */
+@Repository
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, Integer> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BackfillCheckpoint c WHERE c.algorithmVersion = :version")
+    Optional<BackfillCheckpoint> lockById(@Param("version") int version);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BackfillCheckpoint c WHERE c.algorithmVersion < :version ORDER BY c.algorithmVersion")
+    List<BackfillCheckpoint> lockOlderThan(@Param("version") int version);
+    
+    boolean existsByAlgorithmVersionGreaterThan(int version);
+}
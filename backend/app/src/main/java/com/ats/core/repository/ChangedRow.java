@@ -0,0 +1,16 @@
+package com.ats.core.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * ChangedRow - Id and last update time of a row, as read by a change tail.
+ * 
+ * @see com.ats.core.service.changes.ChangeTail
+ */
+public interface ChangedRow {
+    
+    UUID getId();
+    
+    OffsetDateTime getUpdatedAt();
+}
@@ -0,0 +1,76 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * IdempotencyRecord Repository - Data access layer for idempotency keys.
+ * 
+ * <p>Keys are claimed with single statements that either win or leave the
+ * row untouched, so concurrent requests with the same key on different
+ * nodes never both run.</p>
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    /**
+     * Claims an unused key.
+     * 
+     * @return 1 if the key was claimed, 0 if a row already exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, fingerprint, state, claim, created_at, expires_at, locked_until) "
+            + "VALUES (:id, :fingerprint, 'IN_PROGRESS', :claim, :now, :expiresAt, :lockedUntil) "
+            + "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int tryClaim(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("claim") UUID claim,
+                 @Param("now") OffsetDateTime now, @Param("expiresAt") OffsetDateTime expiresAt,
+                 @Param("lockedUntil") OffsetDateTime lockedUntil);
+    
+    /**
+     * Claims a key whose record expired, or whose first request was
+     * abandoned by a node that stopped before finishing it.
+     * 
+     * @return 1 if the key was claimed
+     */
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET fingerprint = :fingerprint, state = 'IN_PROGRESS', claim = :claim, "
+            + "status_code = NULL, location = NULL, response_body = NULL, created_at = :now, "
+            + "expires_at = :expiresAt, locked_until = :lockedUntil "
+            + "WHERE id = :id AND (expires_at < :now OR (state = 'IN_PROGRESS' AND locked_until < :now))",
+            nativeQuery = true)
+    int tryReclaim(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("claim") UUID claim,
+                   @Param("now") OffsetDateTime now, @Param("expiresAt") OffsetDateTime expiresAt,
+                   @Param("lockedUntil") OffsetDateTime lockedUntil);
+    
+    /**
+     * Stores the response of a claimed key.
+     * 
+     * @return 1 if the claim was still held
+     */
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET state = 'COMPLETED', status_code = :statusCode, "
+            + "location = :location, response_body = :responseBody "
+            + "WHERE id = :id AND state = 'IN_PROGRESS' AND claim = :claim", nativeQuery = true)
+    int complete(@Param("id") String id, @Param("claim") UUID claim,
+                 @Param("statusCode") int statusCode, @Param("location") String location,
+                 @Param("responseBody") String responseBody);
+    
+    /**
+     * Gives up a claimed key after its request failed, so a retry runs it again.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE id = :id AND state = 'IN_PROGRESS' AND claim = :claim",
+            nativeQuery = true)
+    int release(@Param("id") String id, @Param("claim") UUID claim);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,64 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.JobDescription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JobDescription Repository - Data access layer for JobDescription entities.
+ * 
+ * <p>Provides CRUD operations and custom query methods for managing job descriptions
+ * in the ATS system. Supports user-specific queries and keyword-based searching
+ * for job titles. The title lookup is a substring scan; full-text search
+ * over titles and content goes through
+ * {@link com.ats.core.service.search.SearchIndexService}.</p>
+ * 
+ * <p>The title lookup goes through the query cache. Its results are
+ * discarded when the table changes through this node, but a change through
+ * another node is only seen once the cached result expires
+ * ({@code default-query-results-region} in {@code hibernate-cache.conf}).
+ * A user's own job descriptions are not cached, so a user sees one just
+ * created through any node.</p>
+ */
+@Repository
+public interface JobDescriptionRepository extends JpaRepository<JobDescription, UUID> {
+    
+    List<JobDescription> findAllByUserId(UUID userId);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<JobDescription> findByTitleContainingIgnoreCase(String keyword);
+    
+    /**
+     * Returns the next page of job descriptions in primary-key order.
+     * 
+     * @param after exclusive lower bound of the id
+     * @param limit maximum number of rows
+     * @return job descriptions with an id greater than {@code after}, in order
+     */
+    @Query("SELECT j FROM JobDescription j WHERE j.id > :after ORDER BY j.id")
+    List<JobDescription> findPageAfter(@Param("after") UUID after, Limit limit);
+    
+    /**
+     * Returns the next page of job descriptions updated since a point in
+     * time, in {@code (updatedAt, id)} order.
+     * 
+     * @param since lower bound of the update time
+     * @param after exclusive lower bound of the id among rows updated exactly at {@code since}
+     * @param limit maximum number of rows
+     * @return ids and update times, oldest first
+     */
+    @Query("SELECT j.id AS id, j.updatedAt AS updatedAt FROM JobDescription j "
+            + "WHERE j.updatedAt > :since OR (j.updatedAt = :since AND j.id > :after) "
+            + "ORDER BY j.updatedAt, j.id")
+    List<ChangedRow> findChangedSince(@Param("since") OffsetDateTime since, @Param("after") UUID after, Limit limit);
+}
@@ -0,0 +1,97 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.Job;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Job Repository - Data access layer for the shared job queue.
+ * 
+ * <p>Claiming queries skip rows locked by other nodes, so any number of
+ * workers can poll the same table without waiting on each other. They must
+ * run inside a transaction that then updates the returned rows.</p>
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, UUID> {
+    
+    /**
+     * Locks the next runnable queued jobs of the given types, oldest first.
+     * 
+     * @param types names of the job types to claim
+     * @param now current time; jobs scheduled later are skipped
+     * @param limit maximum number of jobs
+     * @return locked jobs not locked by any other transaction
+     */
+    @Query(value = "SELECT * FROM jobs WHERE state = 'QUEUED' AND run_at <= :now AND type IN (:types) "
+            + "ORDER BY run_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Job> lockRunnable(@Param("types") Collection<String> types, @Param("now") OffsetDateTime now,
+                           @Param("limit") int limit);
+    
+    /**
+     * Locks running jobs whose lease has run out because their worker stopped
+     * sending heartbeats.
+     * 
+     * @param now current time
+     * @param limit maximum number of jobs
+     * @return locked jobs not locked by any other transaction
+     */
+    @Query(value = "SELECT * FROM jobs WHERE state = 'RUNNING' AND lease_expires_at < :now "
+            + "ORDER BY lease_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Job> lockExpiredLeases(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+    
+    /**
+     * Locks a job if the given worker still holds the lease of the given
+     * attempt; empty if the lease expired and the job moved on.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM Job j WHERE j.id = :id AND j.state = :state "
+            + "AND j.leaseOwner = :owner AND j.attempts = :attempt")
+    Optional<Job> findLeased(@Param("id") UUID id, @Param("state") Job.State state,
+                             @Param("owner") String owner, @Param("attempt") int attempt);
+    
+    @Modifying
+    @Query("UPDATE Job j SET j.leaseExpiresAt = :until "
+            + "WHERE j.id IN :ids AND j.state = :state AND j.leaseOwner = :owner")
+    int extendLeases(@Param("ids") Collection<UUID> ids, @Param("state") Job.State state,
+                     @Param("owner") String owner, @Param("until") OffsetDateTime until);
+    
+    @Modifying
+    @Query("DELETE FROM Job j WHERE j.state IN :states AND j.finishedAt < :before")
+    int deleteFinishedBefore(@Param("states") Collection<Job.State> states, @Param("before") OffsetDateTime before);
+    
+    /**
+     * Whether a job still needs a stored file: the upload of an extraction
+     * job (in its payload) or the output of a report job (in its result).
+     * The expression matches {@code idx_jobs_stored_file}.
+     * 
+     * @param filename name of the file in storage
+     * @return true if a retained job references the file
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM jobs WHERE type IN ('EXTRACT', 'REPORT') "
+            + "AND COALESCE(result::jsonb ->> 'storedFilename', payload::jsonb ->> 'storedFilename') = :filename)",
+            nativeQuery = true)
+    boolean existsReferencingFile(@Param("filename") String filename);
+    
+    @Query("SELECT j.type AS type, j.state AS state, COUNT(j) AS count FROM Job j GROUP BY j.type, j.state")
+    List<JobCount> countByTypeAndState();
+    
+    /**
+     * Number of jobs of one type in one state.
+     */
+    interface JobCount {
+        Job.Type getType();
+        Job.State getState();
+        long getCount();
+    }
+}
@@ -0,0 +1,138 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.Resume;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resume Repository - Data access layer for Resume entities.
+ * 
+ * <p>Provides CRUD operations and custom query methods for managing resume
+ * documents in the ATS system. Supports filename-based lookups, user-specific
+ * queries, and existence checks.</p>
+ */
+@Repository
+public interface ResumeRepository extends JpaRepository<Resume, UUID> {
+    
+    Optional<Resume> findByFilename(String filename);
+    
+    List<Resume> findAllByUserId(UUID userId);
+    
+    boolean existsByFilename(String filename);
+    
+    Optional<Resume> findByStoragePath(String storagePath);
+    
+    /**
+     * Returns the next page of resumes in primary-key order (keyset
+     * pagination), so each page is an index range scan regardless of how far
+     * the walk has progressed.
+     * 
+     * @param after exclusive lower bound
+     * @param limit maximum number of resumes
+     * @return resumes with an id greater than {@code after}, in id order
+     */
+    List<Resume> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+    
+    long countByIdGreaterThan(UUID after);
+    
+    /**
+     * Returns the next page of resume ids in primary-key order, without
+     * loading the rows.
+     * 
+     * @param after exclusive lower bound
+     * @param limit maximum number of ids
+     * @return ids greater than {@code after}, in order
+     */
+    @Query("SELECT r.id FROM Resume r WHERE r.id > :after ORDER BY r.id")
+    List<UUID> findIdsGreaterThan(@Param("after") UUID after, Limit limit);
+    
+    /**
+     * Returns the next page of resumes updated since a point in time, in
+     * {@code (updatedAt, id)} order (keyset pagination over
+     * {@code idx_resumes_updated_at}).
+     * 
+     * @param since lower bound of the update time
+     * @param after exclusive lower bound of the id among rows updated exactly at {@code since}
+     * @param limit maximum number of rows
+     * @return ids and update times, oldest first
+     */
+    @Query("SELECT r.id AS id, r.updatedAt AS updatedAt FROM Resume r "
+            + "WHERE r.updatedAt > :since OR (r.updatedAt = :since AND r.id > :after) "
+            + "ORDER BY r.updatedAt, r.id")
+    List<ChangedRow> findChangedSince(@Param("since") OffsetDateTime since, @Param("after") UUID after, Limit limit);
+    
+    /**
+     * Reads the extracted text of a resume, which is not part of the loaded
+     * (and cached) entity.
+     * 
+     * @param id the resume ID
+     * @return the extracted text, or empty if the resume does not exist or has no text
+     */
+    @Query("SELECT r.extractedText FROM Resume r WHERE r.id = :id")
+    Optional<String> findExtractedTextById(@Param("id") UUID id);
+    
+    /**
+     * Reads the extracted text of several resumes in one query, for jobs
+     * that work on detached entities.
+     * 
+     * @param ids the resume IDs
+     * @return id, filename and text of each existing resume
+     */
+    @Query("SELECT r.id AS id, r.filename AS filename, r.extractedText AS extractedText "
+            + "FROM Resume r WHERE r.id IN :ids")
+    List<ResumeText> findTextsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Returns the next page of storage paths of rows whose original should
+     * be in the hot tier (including rows marked missing), in byte order so
+     * they can be merged against a sorted storage listing. Keyset pagination
+     * over {@code idx_resumes_storage_path_c}, so each page is a short
+     * index range scan in its own transaction.
+     * 
+     * @param after exclusive lower bound of the storage path, in byte order
+     * @param uploadedBefore only rows uploaded before this time are returned
+     * @param limit maximum number of rows
+     * @return storage paths and tiers in ascending byte order
+     */
+    @Query(value = "SELECT storage_path AS \"storagePath\", storage_tier AS \"storageTier\" FROM resumes "
+            + "WHERE (storage_tier IS NULL OR storage_tier IN ('HOT', 'MISSING')) AND upload_ts < :uploadedBefore "
+            + "AND storage_path COLLATE \"C\" > :after "
+            + "ORDER BY storage_path COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<StoredPath> findHotStoragePathsAfter(@Param("after") String after,
+                                              @Param("uploadedBefore") OffsetDateTime uploadedBefore,
+                                              @Param("limit") int limit);
+    
+    @Modifying
+    @Query("UPDATE Resume r SET r.storageTier = :tier WHERE r.storagePath = :storagePath")
+    int updateStorageTier(@Param("storagePath") String storagePath, @Param("tier") Resume.StorageTier tier);
+    
+    /**
+     * Storage path and tier of a resume, as walked by the storage reconciler.
+     */
+    interface StoredPath {
+        String getStoragePath();
+        
+        String getStorageTier();
+    }
+    
+    /**
+     * Searchable fields of a resume, including its extracted text.
+     */
+    interface ResumeText {
+        UUID getId();
+        
+        String getFilename();
+        
+        String getExtractedText();
+    }
+}
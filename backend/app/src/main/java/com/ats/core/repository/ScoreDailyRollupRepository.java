@@ -0,0 +1,20 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.ScoreDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ScoreDailyRollup Repository - Data access layer for daily score aggregates.
+ * 
+ * <p>Serves score trends without touching the raw, partitioned scores table.</p>
+ */
+@Repository
+public interface ScoreDailyRollupRepository extends JpaRepository<ScoreDailyRollup, Long> {
+    
+    List<ScoreDailyRollup> findAllByResumeIdAndDayBetweenOrderByDayAsc(UUID resumeId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,155 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.Score;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Score Repository - Data access layer for Score entities.
+ * 
+ * <p>Provides CRUD operations and custom query methods for managing ATS scores.
+ * Supports retrieving scores by resume, finding the most recent score, and
+ * querying scores by job description.</p>
+ */
+@Repository
+public interface ScoreRepository extends JpaRepository<Score, UUID> {
+    
+    List<Score> findAllByResumeId(UUID resumeId);
+    
+    Optional<Score> findTopByResumeIdOrderByCreatedAtDesc(UUID resumeId);
+    
+    /**
+     * Identifies the latest score of a resume without loading it, so an
+     * unchanged score can be confirmed to a polling client cheaply. Scores
+     * from before weights were versioned report version 0, as in
+     * {@link com.ats.core.dto.ScoreResult}.
+     */
+    @Query("SELECT s.id AS id, COALESCE(s.weightsVersion, 0) AS weightsVersion FROM Score s "
+            + "WHERE s.resume.id = :resumeId ORDER BY s.createdAt DESC LIMIT 1")
+    Optional<ScoreVersion> findLatestVersionByResumeId(@Param("resumeId") UUID resumeId);
+    
+    List<Score> findAllByJobDescriptionId(UUID jobDescriptionId);
+    
+    /**
+     * Finds the id that closes a chunk of {@code chunkSize} scores after the
+     * given id, walking the primary key index.
+     * 
+     * @param after exclusive lower bound of the chunk
+     * @param offset chunk size minus one
+     * @return last id of the chunk, or empty if fewer rows remain
+     */
+    @Query(value = "SELECT id FROM scores WHERE id > :after ORDER BY id OFFSET :offset LIMIT 1", nativeQuery = true)
+    Optional<UUID> findChunkEnd(@Param("after") UUID after, @Param("offset") int offset);
+    
+    /**
+     * Recomputes {@code overall} from the stored component scores for one id
+     * range, skipping rows already at the target weights version. Scores from
+     * before versioning have no general-analysis flag; a score with zero
+     * keyword and skill components whose overall equals its formatting score
+     * was a general analysis.
+     * 
+     * @return number of rows updated
+     */
+    @Modifying
+    // Invalidates only the cached scores; an unqualified native update would clear every cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scores"))
+    @Query(value = "UPDATE scores SET "
+            + "general_analysis = COALESCE(general_analysis, "
+            + "  keyword_match = 0 AND skill_relevance = 0 AND overall = formatting), "
+            + "overall = CASE WHEN COALESCE(general_analysis, "
+            + "  keyword_match = 0 AND skill_relevance = 0 AND overall = formatting) THEN formatting "
+            + "  ELSE keyword_match * :keyword + skill_relevance * :skill + formatting * :formatting END, "
+            + "weights_version = :version "
+            + "WHERE id > :after AND id <= :upTo AND weights_version IS DISTINCT FROM :version",
+            nativeQuery = true)
+    int recomputeOverall(@Param("after") UUID after, @Param("upTo") UUID upTo, @Param("version") long version,
+                         @Param("keyword") double keyword, @Param("skill") double skill,
+                         @Param("formatting") double formatting);
+    
+    /**
+     * Finds the resume / job description pairs of the given resumes that
+     * have no score from the given algorithm version yet. A pair is only
+     * re-scorable if its job description is stored or it was a general
+     * analysis; scores against an ad-hoc job description text are skipped.
+     * 
+     * @param resumeIds resumes of the current backfill chunk
+     * @param version target algorithm version
+     * @return pairs to re-score; a null job description means general analysis
+     */
+    @Query(value = "SELECT DISTINCT s.resume_id AS \"resumeId\", s.job_description_id AS \"jobDescriptionId\" "
+            + "FROM scores s WHERE s.resume_id IN (:resumeIds) "
+            + "AND (s.job_description_id IS NOT NULL OR COALESCE(s.general_analysis, "
+            + "  s.keyword_match = 0 AND s.skill_relevance = 0 AND s.overall = s.formatting)) "
+            + "AND NOT EXISTS (SELECT 1 FROM scores t WHERE t.resume_id = s.resume_id "
+            + "  AND t.job_description_id IS NOT DISTINCT FROM s.job_description_id "
+            + "  AND (t.job_description_id IS NOT NULL OR t.general_analysis) "
+            + "  AND t.algorithm_version = :version)",
+            nativeQuery = true)
+    List<RescoreTarget> findRescoreTargets(@Param("resumeIds") Collection<UUID> resumeIds,
+                                           @Param("version") int version);
+    
+    /**
+     * Streams the component scores that feed the distribution sketches of one
+     * algorithm version, grouped by job description (general analysis first),
+     * so sketches can be rebuilt one job description at a time.
+     * 
+     * @param version algorithm version of the scores
+     * @param createdBefore only scores created before this are streamed
+     * @return scores with a stored job description or from general analysis
+     */
+    @Query(value = "SELECT job_description_id AS \"jobDescriptionId\", keyword_match AS \"keywordMatch\", "
+            + "skill_relevance AS \"skillRelevance\", formatting, overall FROM scores "
+            + "WHERE algorithm_version = :version AND (job_description_id IS NOT NULL OR general_analysis) "
+            + "AND created_at < :createdBefore ORDER BY job_description_id NULLS FIRST", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SketchSample> streamSketchSamples(@Param("version") int version,
+            @Param("createdBefore") OffsetDateTime createdBefore);
+    
+    /**
+     * A resume and the job description it was scored against.
+     */
+    interface RescoreTarget {
+        
+        UUID getResumeId();
+        
+        UUID getJobDescriptionId();
+    }
+    
+    /**
+     * Component scores of one score, for the distribution sketches.
+     */
+    interface SketchSample {
+        
+        UUID getJobDescriptionId();
+        
+        double getKeywordMatch();
+        
+        double getSkillRelevance();
+        
+        double getFormatting();
+        
+        double getOverall();
+    }
+    
+    /**
+     * A score and the weights version its overall was computed with; bulk
+     * recomputation changes the version, not the ID.
+     */
+    interface ScoreVersion {
+        UUID getId();
+        long getWeightsVersion();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.ScoreSketch;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ScoreSketch Repository - Data access layer for persisted score distribution sketches.
+ * 
+ * <p>Sketch rows are created empty and then locked for a read-merge-write, so
+ * concurrent flushes from several nodes never overwrite each other.</p>
+ */
+@Repository
+public interface ScoreSketchRepository extends JpaRepository<ScoreSketch, ScoreSketch.Key> {
+    
+    /**
+     * Creates an empty sketch row unless one exists.
+     */
+    @Modifying
+    // Touches no cached entity; without a query space every cache region would be cleared
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "score_sketches"))
+    @Query(value = "INSERT INTO score_sketches (sketch_key, algorithm_version, score_count, updated_at) "
+            + "VALUES (:sketchKey, :version, 0, now()) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("sketchKey") String sketchKey, @Param("version") int version);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScoreSketch s WHERE s.id = :id")
+    Optional<ScoreSketch> findForUpdate(@Param("id") ScoreSketch.Key id);
+    
+    /**
+     * Returns the sketches of one algorithm version written after the given time.
+     */
+    @Query("SELECT s FROM ScoreSketch s WHERE s.id.algorithmVersion = :version AND s.updatedAt > :since")
+    List<ScoreSketch> findUpdatedSince(@Param("version") int version, @Param("since") OffsetDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM ScoreSketch s WHERE s.id.algorithmVersion = :version")
+    int deleteByAlgorithmVersion(@Param("version") int version);
+}
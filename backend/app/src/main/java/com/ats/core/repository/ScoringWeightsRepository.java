@@ -0,0 +1,18 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.ScoringWeights;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * ScoringWeights Repository - Data access layer for versioned scoring weights.
+ * 
+ * <p>Provides lookup of the latest published weights version.</p>
+ */
+@Repository
+public interface ScoringWeightsRepository extends JpaRepository<ScoringWeights, Long> {
+    
+    Optional<ScoringWeights> findTopByOrderByVersionDesc();
+}
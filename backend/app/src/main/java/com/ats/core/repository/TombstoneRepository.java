@@ -0,0 +1,40 @@
+package com.ats.core.repository;
+
+import com.ats.core.model.Tombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tombstone Repository - Data access layer for the deletion log.
+ */
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, UUID> {
+    
+    /**
+     * Returns the next page of rows deleted from a table since a point in
+     * time, in {@code (deletedAt, entityId)} order.
+     * 
+     * @param entityType the table
+     * @param since lower bound of the deletion time
+     * @param after the last ID of the previous page with deletion time {@code since}
+     * @param limit page size
+     * @return the deleted rows' IDs, with the deletion time as update time
+     */
+    @Query("SELECT t.entityId AS id, t.deletedAt AS updatedAt FROM Tombstone t WHERE t.entityType = :entityType "
+            + "AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.entityId > :after)) "
+            + "ORDER BY t.deletedAt, t.entityId")
+    List<ChangedRow> findDeletedSince(@Param("entityType") String entityType, @Param("since") OffsetDateTime since,
+            @Param("after") UUID after, Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,445 @@
+package com.ats.core.service;
+
+import com.ats.core.dto.ExtractionResult;
+import com.ats.core.service.diagnostics.PipelineEvents;
+import com.ats.core.service.extraction.BudgetedContentHandler;
+import com.ats.core.service.extraction.BudgetedInputStream;
+import com.ats.core.service.extraction.DocxTextExtractor;
+import com.ats.core.service.extraction.PdfTextExtractor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.fork.ForkParser;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.parser.pdf.PDFParserConfig;
+import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.ToTextContentHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ExtractorService - Handles text extraction from resume documents.
+ * 
+ * <p>This service uses Apache Tika to extract text content from various
+ * document formats including PDF and DOCX. It provides robust error handling
+ * and ensures clean text output for downstream ATS processing.</p>
+ * 
+ * <p>Every extraction runs under configurable budgets: a maximum input size,
+ * a character write limit, a maximum page count and a wall-clock timeout that
+ * interrupts the parse. The outcome is reported as an {@link ExtractionResult}
+ * rather than a silent empty string.</p>
+ * 
+ * <p>In {@code forked} mode parsing is delegated to a pool of worker JVMs via
+ * Tika's {@link ForkParser}. Each worker runs with its own small heap, exits
+ * on {@link OutOfMemoryError} and is recycled after a fixed number of
+ * documents, so a malformed file can no longer exhaust the API server's heap.
+ * Only SAX events cross back into this JVM, where the budgets still apply.</p>
+ * 
+ * <p>In-process, PDFs and DOCX packages are recognized by their magic bytes
+ * and extracted directly, with PDFBox by {@link PdfTextExtractor} and with a
+ * streaming StAX reader by {@link DocxTextExtractor}, skipping Tika's
+ * detection and handler chain. Anything a fast path cannot handle falls back
+ * to Tika.</p>
+ * 
+ * <p>The Tika parser is built on first use rather than at startup, as
+ * building its registry of parsers takes over a second. Most uploads never
+ * reach it; {@link com.ats.core.service.warmup.StartupWarmup} builds it in the
+ * background once the application is ready.</p>
+ */
+@Slf4j
+@Service
+public class ExtractorService {
+    
+    private static final int MAGIC_LENGTH = 8;
+    private static final String PDF_MEDIA_TYPE = "application/pdf";
+    private static final String DOCX_MEDIA_TYPE =
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    
+    private final boolean forked;
+    private final int forkPoolSize;
+    private final String forkJavaCommand;
+    private final String forkWorkerHeap;
+    private final int forkMaxFilesPerWorker;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final boolean pdfFastPath;
+    private final DocxTextExtractor docxTextExtractor;
+    private final boolean docxFastPath;
+    private final ExecutorService extractionExecutor;
+    private final long maxInputBytes;
+    private final int maxChars;
+    private final int maxPages;
+    private final long timeoutMillis;
+    
+    private volatile Parser parser;
+    
+    public ExtractorService(
+            ExecutorService uploadExecutor,
+            PdfTextExtractor pdfTextExtractor,
+            @Value("${extraction.pdf-fast-path.enabled:true}") boolean pdfFastPath,
+            DocxTextExtractor docxTextExtractor,
+            @Value("${extraction.docx-fast-path.enabled:true}") boolean docxFastPath,
+            @Value("${extraction.max-input-bytes:10485760}") long maxInputBytes,
+            @Value("${extraction.max-chars:100000}") int maxChars,
+            @Value("${extraction.max-pages:50}") int maxPages,
+            @Value("${extraction.timeout-ms:15000}") long timeoutMillis,
+            @Value("${extraction.mode:in-process}") String mode,
+            @Value("${extraction.fork.pool-size:4}") int forkPoolSize,
+            @Value("${extraction.fork.java-command:java}") String forkJavaCommand,
+            @Value("${extraction.fork.worker-heap:256m}") String forkWorkerHeap,
+            @Value("${extraction.fork.max-files-per-worker:200}") int forkMaxFilesPerWorker) {
+        this.extractionExecutor = uploadExecutor;
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.pdfFastPath = pdfFastPath;
+        this.docxTextExtractor = docxTextExtractor;
+        this.docxFastPath = docxFastPath;
+        this.maxInputBytes = maxInputBytes;
+        this.maxChars = maxChars;
+        this.maxPages = maxPages;
+        this.timeoutMillis = timeoutMillis;
+        this.forked = "forked".equalsIgnoreCase(mode);
+        if (forked && NativeDetector.inNativeImage()) {
+            // Forked workers are started from this application's class path, which a native image has none of
+            throw new IllegalStateException("extraction.mode=forked is not supported in the native image");
+        }
+        this.forkPoolSize = forkPoolSize;
+        this.forkJavaCommand = forkJavaCommand;
+        this.forkWorkerHeap = forkWorkerHeap;
+        this.forkMaxFilesPerWorker = forkMaxFilesPerWorker;
+    }
+    
+    /**
+     * Shuts down the forked worker JVMs, if any were started.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (parser instanceof ForkParser forkParser) {
+            forkParser.close();
+        }
+    }
+    
+    /**
+     * Returns the Tika parser, building it on first use.
+     * 
+     * @return the in-process or forked parser
+     */
+    Parser parser() {
+        Parser result = parser;
+        if (result == null) {
+            synchronized (this) {
+                result = parser;
+                if (result == null) {
+                    long start = System.nanoTime();
+                    result = createParser();
+                    parser = result;
+                    log.info("Initialized Tika parser in {} ms", elapsedMillis(start));
+                }
+            }
+        }
+        return result;
+    }
+    
+    private Parser createParser() {
+        if (!forked) {
+            return new AutoDetectParser();
+        }
+        ForkParser forkParser = new ForkParser(ExtractorService.class.getClassLoader(), new AutoDetectParser());
+        forkParser.setPoolSize(forkPoolSize);
+        forkParser.setJavaCommand(List.of(
+                forkJavaCommand,
+                "-Xmx" + forkWorkerHeap,
+                "-XX:+ExitOnOutOfMemoryError",
+                "-Djava.awt.headless=true"));
+        forkParser.setMaxFilesProcessedPerServer(forkMaxFilesPerWorker);
+        if (timeoutMillis > 0) {
+            forkParser.setServerParseTimeoutMillis(timeoutMillis);
+        }
+        log.info("Text extraction runs in {} forked worker JVMs with {} heap each", forkPoolSize, forkWorkerHeap);
+        return forkParser;
+    }
+    
+    /**
+     * Extracts text content from an uploaded resume file.
+     * 
+     * @param file the uploaded multipart file
+     * @param useOcr flag to enable OCR of image-only content (requires Tesseract on the host)
+     * @return extraction result with text and budget outcome
+     * @throws ResponseStatusException 503 if the calling thread is interrupted while waiting
+     */
+    public ExtractionResult extract(MultipartFile file, boolean useOcr) {
+        if (file == null || file.isEmpty()) {
+            log.warn("Attempted to extract text from null or empty file");
+            return ExtractionResult.empty(ExtractionResult.Status.FAILED, 0);
+        }
+        
+        return extract(file, file.getOriginalFilename(), file.getSize(), useOcr);
+    }
+    
+    /**
+     * Extracts text content from any stream source within the configured budgets.
+     * 
+     * @param source the document content
+     * @param filename the original filename, used as a type detection hint
+     * @param size the content size in bytes, or -1 if unknown
+     * @param useOcr flag to enable OCR of image-only content
+     * @return extraction result with text and budget outcome
+     * @throws ResponseStatusException 503 if the calling thread is interrupted while waiting
+     */
+    public ExtractionResult extract(InputStreamSource source, String filename, long size, boolean useOcr) {
+        PipelineEvents.Extraction event = new PipelineEvents.Extraction();
+        event.begin();
+        ExtractionResult result = extractWithTimeout(source, filename, size, useOcr);
+        event.end();
+        if (event.shouldCommit()) {
+            event.filename = filename;
+            event.format = result.getFormat();
+            event.status = result.getStatus().name();
+            event.bytes = size;
+            event.chars = result.getText() != null ? result.getText().length() : 0;
+            event.pages = result.getPageCount();
+            event.commit();
+        }
+        return result;
+    }
+    
+    /**
+     * Runs an extraction on the extraction executor within the size and
+     * time budgets.
+     */
+    private ExtractionResult extractWithTimeout(InputStreamSource source, String filename, long size,
+                                                boolean useOcr) {
+        long start = System.nanoTime();
+        
+        if (maxInputBytes > 0 && size > maxInputBytes) {
+            log.warn("Skipping extraction of {} - {} bytes exceeds limit of {}", filename, size, maxInputBytes);
+            return ExtractionResult.empty(ExtractionResult.Status.TOO_LARGE, 0);
+        }
+        
+        Future<ExtractionResult> task = extractionExecutor.submit(
+                () -> extractWithinBudget(source, filename, useOcr, start));
+        
+        try {
+            return timeoutMillis > 0 ? task.get(timeoutMillis, TimeUnit.MILLISECONDS) : task.get();
+            
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.warn("Extraction of {} timed out after {} ms", filename, timeoutMillis);
+            return ExtractionResult.empty(ExtractionResult.Status.TIMED_OUT, elapsedMillis(start));
+        } catch (InterruptedException e) {
+            // The caller was cancelled; the document did not exceed its budget
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Extraction was interrupted");
+        } catch (ExecutionException e) {
+            log.warn("Failed to extract text from file: {}", filename, e.getCause());
+            return ExtractionResult.empty(ExtractionResult.Status.FAILED, elapsedMillis(start));
+        }
+    }
+    
+    /**
+     * Extracts text through the fastest applicable path: direct PDFBox for
+     * PDFs and streaming StAX for DOCX when running in-process without OCR,
+     * Tika for everything else.
+     * 
+     * @param source the document content
+     * @param filename the original filename
+     * @param useOcr flag to enable OCR
+     * @param start extraction start time from {@link System#nanoTime()}
+     * @return extraction result with trimmed text content
+     * @throws Exception if parsing fails for reasons other than an exhausted budget
+     */
+    private ExtractionResult extractWithinBudget(InputStreamSource source, String filename, boolean useOcr,
+                                                 long start) throws Exception {
+        if (!forked && !useOcr && (pdfFastPath || docxFastPath)) {
+            byte[] magic = readMagic(source);
+            try {
+                if (pdfFastPath && PdfTextExtractor.isPdf(magic)) {
+                    return extractPdf(source, start);
+                }
+                if (docxFastPath && DocxTextExtractor.isDocx(magic, filename)) {
+                    return extractDocx(source, start);
+                }
+            } catch (BudgetedInputStream.InputLimitExceededException e) {
+                return ExtractionResult.empty(ExtractionResult.Status.TOO_LARGE, elapsedMillis(start));
+            } catch (IOException | RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                // PDFBox and the StAX reader throw unchecked exceptions on some malformed files, too
+                log.debug("Fast path failed for {}, falling back to Tika: {}", filename, e.getMessage());
+            }
+        }
+        
+        return parseWithTika(source, filename, useOcr, start);
+    }
+    
+    /**
+     * Extracts a DOCX package with the streaming StAX reader under the
+     * character and input size budgets.
+     * 
+     * @param source the DOCX content
+     * @param start extraction start time from {@link System#nanoTime()}
+     * @return extraction result with trimmed text content
+     * @throws IOException if the package cannot be read or needs the full Tika parser
+     */
+    private ExtractionResult extractDocx(InputStreamSource source, long start) throws IOException {
+        DocxTextExtractor.DocxText docxText;
+        try (InputStream is = new BudgetedInputStream(source.getInputStream(), maxInputBytes)) {
+            docxText = docxTextExtractor.extract(is, maxChars);
+        }
+        
+        return ExtractionResult.builder()
+                .status(docxText.truncated() ? ExtractionResult.Status.TRUNCATED : ExtractionResult.Status.COMPLETE)
+                .text(docxText.text().trim())
+                .format(DOCX_MEDIA_TYPE)
+                .durationMillis(elapsedMillis(start))
+                .build();
+    }
+    
+    /**
+     * Extracts a PDF directly with PDFBox under the character and page budgets.
+     * 
+     * @param source the PDF content
+     * @param start extraction start time from {@link System#nanoTime()}
+     * @return extraction result with trimmed text content
+     * @throws IOException if the PDF cannot be read or parsed
+     * @throws InterruptedException if the extraction is interrupted
+     */
+    private ExtractionResult extractPdf(InputStreamSource source, long start)
+            throws IOException, InterruptedException {
+        PdfTextExtractor.PdfText pdfText = pdfTextExtractor.extract(
+                () -> new BudgetedInputStream(source.getInputStream(), maxInputBytes), maxPages);
+        String text = pdfText.text().trim();
+        boolean truncated = pdfText.extractedPages() < pdfText.totalPages();
+        
+        if (maxChars > 0 && text.length() > maxChars) {
+            text = text.substring(0, maxChars);
+            truncated = true;
+        }
+        
+        return ExtractionResult.builder()
+                .status(truncated ? ExtractionResult.Status.TRUNCATED : ExtractionResult.Status.COMPLETE)
+                .text(text)
+                .format(PDF_MEDIA_TYPE)
+                .pageCount(pdfText.extractedPages())
+                .durationMillis(elapsedMillis(start))
+                .build();
+    }
+    
+    /**
+     * Reads the leading bytes of a document for format detection.
+     * 
+     * @param source the document content
+     * @return up to the first {@value #MAGIC_LENGTH} bytes
+     * @throws IOException if the content cannot be read
+     */
+    private byte[] readMagic(InputStreamSource source) throws IOException {
+        try (InputStream is = source.getInputStream()) {
+            return is.readNBytes(MAGIC_LENGTH);
+        }
+    }
+    
+    /**
+     * Parses text content using Apache Tika under the character, page and
+     * input size budgets.
+     * 
+     * @param source the document content
+     * @param filename the original filename
+     * @param useOcr flag to enable OCR
+     * @param start extraction start time from {@link System#nanoTime()}
+     * @return extraction result with trimmed text content
+     * @throws Exception if parsing fails for reasons other than an exhausted budget
+     */
+    private ExtractionResult parseWithTika(InputStreamSource source, String filename, boolean useOcr, long start)
+            throws Exception {
+        StringWriter text = new StringWriter();
+        BudgetedContentHandler budget = new BudgetedContentHandler(
+                new ToTextContentHandler(text), maxChars, maxPages);
+        
+        Metadata metadata = new Metadata();
+        if (filename != null) {
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, filename);
+        }
+        
+        try (InputStream is = new BudgetedInputStream(source.getInputStream(), maxInputBytes)) {
+            parser().parse(is, new BodyContentHandler(budget), metadata, createParseContext(useOcr));
+            
+        } catch (Exception e) {
+            if (!budget.isLimitReached()) {
+                if (!Thread.currentThread().isInterrupted()
+                        && hasCause(e, BudgetedInputStream.InputLimitExceededException.class)) {
+                    return ExtractionResult.empty(ExtractionResult.Status.TOO_LARGE, elapsedMillis(start));
+                }
+                throw e;
+            }
+        }
+        
+        ExtractionResult.Status status = ExtractionResult.Status.COMPLETE;
+        if (budget.isLimitReached()) {
+            log.debug("Extraction of {} truncated after {} pages", filename, budget.getPageCount());
+            status = ExtractionResult.Status.TRUNCATED;
+        }
+        
+        return ExtractionResult.builder()
+                .status(status)
+                .text(text.toString().trim())
+                .format(metadata.get(Metadata.CONTENT_TYPE))
+                .pageCount(budget.getPageCount())
+                .durationMillis(elapsedMillis(start))
+                .build();
+    }
+    
+    /**
+     * Builds the parse context, enabling Tesseract OCR only when requested.
+     * 
+     * @param useOcr flag to enable OCR
+     * @return parse context for a single extraction
+     */
+    private ParseContext createParseContext(boolean useOcr) {
+        TesseractOCRConfig ocrConfig = new TesseractOCRConfig();
+        ocrConfig.setSkipOcr(!useOcr);
+        
+        PDFParserConfig pdfConfig = new PDFParserConfig();
+        pdfConfig.setOcrStrategy(useOcr ? PDFParserConfig.OCR_STRATEGY.AUTO : PDFParserConfig.OCR_STRATEGY.NO_OCR);
+        
+        ParseContext context = new ParseContext();
+        if (!forked) {
+            // Embedded documents are handled inside the worker JVM in forked mode
+            context.set(Parser.class, parser());
+        }
+        context.set(TesseractOCRConfig.class, ocrConfig);
+        context.set(PDFParserConfig.class, pdfConfig);
+        return context;
+    }
+    
+    private static boolean hasCause(Throwable t, Class<? extends Throwable> type) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
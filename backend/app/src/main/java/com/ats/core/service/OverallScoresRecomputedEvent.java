@@ -0,0 +1,10 @@
+package com.ats.core.service;
+
+/**
+ * OverallScoresRecomputedEvent - Published after stored overall scores were
+ * rewritten with a new weights version.
+ * 
+ * @param weightsVersion the weights version now applied to all stored scores
+ */
+public record OverallScoresRecomputedEvent(long weightsVersion) {
+}
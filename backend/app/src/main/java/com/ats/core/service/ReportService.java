@@ -1,20 +1,31 @@
 package com.ats.core.service;
 
+import com.ats.core.model.Job;
 import com.ats.core.model.Resume;
 import com.ats.core.model.Score;
 import com.ats.core.repository.ResumeRepository;
 import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.diagnostics.PipelineEvents;
+import com.ats.core.service.jobs.JobQueue;
+import com.ats.core.service.jobs.ReportJobHandler;
+import com.ats.core.service.storage.StorageService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +36,11 @@ import java.util.UUID;
  * 
  * <p>Creates professional PDF reports using Apache PDFBox that summarize
  * resume analysis including scores, metrics, and improvement recommendations.</p>
+ * 
+ * <p>Reports can also be generated by a worker through the job queue; those
+ * are kept in file storage and downloaded by the job's ID. A stored report
+ * lives as long as its job: once the job is purged ({@code jobs.retention-days}),
+ * the storage reconciler removes the file like any other orphan.</p>
  */
 @Slf4j
 @Service
@@ -32,13 +48,22 @@ public class ReportService {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     private static final int MAX_LINE_LENGTH = 80;
+    private static final String REPORT_FILENAME = "ats-report.pdf";
     
     private final ResumeRepository resumeRepository;
     private final ScoreRepository scoreRepository;
+    private final StorageService storageService;
+    private final JobQueue jobQueue;
     
-    public ReportService(ResumeRepository resumeRepository, ScoreRepository scoreRepository) {
+    public ReportService(
+            ResumeRepository resumeRepository,
+            ScoreRepository scoreRepository,
+            StorageService storageService,
+            JobQueue jobQueue) {
         this.resumeRepository = resumeRepository;
         this.scoreRepository = scoreRepository;
+        this.storageService = storageService;
+        this.jobQueue = jobQueue;
     }
     
     /**
@@ -59,6 +84,8 @@ public class ReportService {
         Score score = scoreRepository.findById(scoreId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Score not found"));
         
+        PipelineEvents.ReportRender event = new PipelineEvents.ReportRender();
+        event.begin();
         PDDocument document = new PDDocument();
         
         try {
@@ -142,6 +169,11 @@ public class ReportService {
             byte[] pdfBytes = outputStream.toByteArray();
             
             log.info("Successfully generated PDF report ({} bytes)", pdfBytes.length);
+            
+            event.resumeId = resumeId.toString();
+            event.scoreId = scoreId.toString();
+            event.bytes = pdfBytes.length;
+            event.commit();
             return pdfBytes;
             
         } catch (IOException e) {
@@ -157,15 +189,67 @@ public class ReportService {
     }
     
     /**
-     * Loads a generated PDF report.
+     * Loads a PDF report generated by a report job.
      * 
-     * @param reportId the report identifier
+     * @param reportId ID of the report job
      * @return PDF file as byte array
      */
     public byte[] loadReport(String reportId) {
-        log.warn("Direct report loading not implemented - reports are generated on-demand");
-        throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, 
-                "Direct report loading is not implemented. Use generatePdfReport instead.");
+        UUID jobId;
+        try {
+            jobId = UUID.fromString(reportId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reportId format");
+        }
+        
+        Job job = jobQueue.find(jobId)
+                .filter(found -> found.getType() == Job.Type.REPORT)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Report not found"));
+        switch (job.getState()) {
+            case QUEUED, RUNNING ->
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Report is still being generated");
+            case DEAD -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Report generation failed");
+            default -> {
+            }
+        }
+        
+        ReportJobHandler.Result result = jobQueue.readResult(job, ReportJobHandler.Result.class);
+        try (InputStream in = storageService.loadAsResource(result.storedFilename()).getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Report {} is no longer in storage: {}", reportId, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Report has expired");
+        }
+    }
+    
+    /**
+     * Queues the generation of a PDF report on the job queue.
+     * 
+     * @param resumeId the resume identifier
+     * @param scoreId the score identifier
+     * @param template the report template to use
+     * @return the queued report job; its ID is the report ID for download
+     */
+    public Job enqueueReport(UUID resumeId, UUID scoreId, String template) {
+        if (!resumeRepository.existsById(resumeId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Resume not found");
+        }
+        if (!scoreRepository.existsById(scoreId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Score not found");
+        }
+        return jobQueue.enqueue(Job.Type.REPORT, new ReportJobHandler.Payload(resumeId, scoreId, template));
+    }
+    
+    /**
+     * Generates a PDF report and stores it for later download.
+     * 
+     * @param resumeId the resume identifier
+     * @param scoreId the score identifier
+     * @param template the report template to use
+     * @return name of the stored report file
+     */
+    public String generateAndStore(UUID resumeId, UUID scoreId, String template) {
+        return storageService.store(new ReportFile(generatePdfReport(resumeId, scoreId, template)));
     }
     
     /**
@@ -233,4 +317,50 @@ public class ReportService {
         
         return lines;
     }
+    
+    /**
+     * A generated report in the shape the storage service accepts.
+     */
+    private record ReportFile(byte[] content) implements MultipartFile {
+        
+        @Override
+        public String getName() {
+            return "report";
+        }
+        
+        @Override
+        public String getOriginalFilename() {
+            return REPORT_FILENAME;
+        }
+        
+        @Override
+        public String getContentType() {
+            return MediaType.APPLICATION_PDF_VALUE;
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return content.length == 0;
+        }
+        
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+        
+        @Override
+        public byte[] getBytes() {
+            return content;
+        }
+        
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+        
+        @Override
+        public void transferTo(File destination) throws IOException {
+            Files.write(destination.toPath(), content);
+        }
+    }
 }
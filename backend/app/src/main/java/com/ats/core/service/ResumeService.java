@@ -0,0 +1,644 @@
+package com.ats.core.service;
+
+import com.ats.core.dto.ExtractionResult;
+import com.ats.core.dto.NearDuplicate;
+import com.ats.core.dto.ScoreTrendPoint;
+import com.ats.core.dto.ScoreResult;
+import com.ats.core.model.Job;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreDailyRollupRepository;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.dedup.NearDuplicateIndex;
+import com.ats.core.service.diagnostics.PipelineEvents;
+import com.ats.core.service.events.ResumeEvent;
+import com.ats.core.service.events.ResumeEventBus;
+import com.ats.core.service.jobs.ExtractionJobHandler;
+import com.ats.core.service.jobs.JobQueue;
+import com.ats.core.service.jobs.ScoringJobHandler;
+import com.ats.core.service.storage.StorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ResumeService - Orchestrates resume processing workflow.
+ * 
+ * <p>Coordinates file storage, text extraction, entity persistence, and
+ * ATS scoring operations. Acts as the primary service layer for resume
+ * management in the ATS system.</p>
+ * 
+ * <p>An upload is stored and then extracted. With
+ * {@code file.upload.concurrent-extraction} the storage write and the text
+ * extraction instead run as sibling virtual-thread tasks, since both read
+ * the multipart file independently, and are cancelled together if either
+ * fails. On a single core that was slower (see docs/architecture.md), so it
+ * is off by default.</p>
+ * 
+ * <p>Each upload is checked against the {@link NearDuplicateIndex}; a
+ * lightly edited copy of an earlier upload is flagged in the response
+ * together with the earlier upload's latest score.</p>
+ * 
+ * <p>Uploads and scoring can also be queued on the {@link JobQueue} instead
+ * of running in the request; a worker node then runs the same steps.</p>
+ * 
+ * <p>Each step is published on the {@link ResumeEventBus}, so clients can
+ * follow an upload and its scoring as a stream instead of polling.</p>
+ */
+@Slf4j
+@Service
+public class ResumeService {
+    
+    private final StorageService storageService;
+    private final ExtractorService extractorService;
+    private final ResumeRepository resumeRepository;
+    private final ScoreRepository scoreRepository;
+    private final ScoreDailyRollupRepository rollupRepository;
+    private final ScoringService scoringService;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final ExecutorService uploadExecutor;
+    private final boolean concurrentExtraction;
+    private final JobQueue jobQueue;
+    private final ResumeEventBus eventBus;
+    
+    // Async uploads being watched here whose outcome is not known yet
+    private final Set<UUID> followedUploads = ConcurrentHashMap.newKeySet();
+    
+    public ResumeService(
+            StorageService storageService,
+            ExtractorService extractorService,
+            ResumeRepository resumeRepository,
+            ScoreRepository scoreRepository,
+            ScoreDailyRollupRepository rollupRepository,
+            ScoringService scoringService,
+            NearDuplicateIndex nearDuplicateIndex,
+            ExecutorService uploadExecutor,
+            JobQueue jobQueue,
+            ResumeEventBus eventBus,
+            @Value("${file.upload.concurrent-extraction:false}") boolean concurrentExtraction) {
+        this.storageService = storageService;
+        this.extractorService = extractorService;
+        this.resumeRepository = resumeRepository;
+        this.scoreRepository = scoreRepository;
+        this.rollupRepository = rollupRepository;
+        this.scoringService = scoringService;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.uploadExecutor = uploadExecutor;
+        this.jobQueue = jobQueue;
+        this.eventBus = eventBus;
+        this.concurrentExtraction = concurrentExtraction;
+    }
+    
+    /**
+     * Stores an uploaded resume file and extracts its text content.
+     * 
+     * @param file the uploaded resume file
+     * @param jobDescription optional job description for context
+     * @param userId optional user identifier
+     * @return map containing resume metadata and text preview
+     */
+    public Map<String, Object> storeAndExtract(MultipartFile file, String jobDescription, String userId) {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File cannot be empty");
+        }
+        UUID owner = parseUserId(userId);
+        
+        StoredUpload upload = concurrentExtraction ? storeAndExtractConcurrently(file) : storeThenExtract(file);
+        log.info("Stored resume file: {} as {}", file.getOriginalFilename(), upload.storedFilename());
+        
+        return saveExtracted(file.getOriginalFilename(), upload.storedFilename(), upload.extraction(),
+                owner, null);
+    }
+    
+    /**
+     * Stores an uploaded resume file and queues its text extraction on the
+     * job queue, so any worker node can do the CPU-heavy part.
+     * 
+     * @param file the uploaded resume file
+     * @param userId optional user identifier
+     * @return the queued extraction job; its result is the upload response
+     */
+    public Job enqueueUpload(MultipartFile file, String userId) {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File cannot be empty");
+        }
+        UUID owner = parseUserId(userId);
+        
+        String storedFilename = storageService.store(file);
+        Job job;
+        try {
+            job = jobQueue.enqueue(Job.Type.EXTRACT,
+                    new ExtractionJobHandler.Payload(storedFilename, file.getOriginalFilename(), owner));
+        } catch (RuntimeException e) {
+            storageService.delete(storedFilename);
+            throw e;
+        }
+        eventBus.publish(job.getId(), ResumeEvent.Stage.STORED, Map.of("filename", storedFilename), false);
+        return job;
+    }
+    
+    /**
+     * Extracts the text of an already stored upload and saves the resume.
+     * Safe to repeat: a file that already has a resume is not saved again.
+     * 
+     * @param storedFilename name of the file in storage
+     * @param filename original filename
+     * @param userId optional user identifier
+     * @param jobId the extraction job, whose watchers are told the outcome
+     * @return map containing resume metadata and text preview
+     */
+    public Map<String, Object> extractStored(String storedFilename, String filename, UUID userId, UUID jobId)
+            throws IOException {
+        Optional<Resume> existing = resumeRepository.findByStoragePath(storedFilename);
+        if (existing.isPresent()) {
+            Resume resume = existing.get();
+            // A repeated attempt; the first one saved the resume but did not record the job's result
+            log.info("Resume {} was already saved for {}", resume.getId(), storedFilename);
+            Map<String, Object> response = uploadResponse(resume,
+                    resumeRepository.findExtractedTextById(resume.getId()).orElse(null));
+            eventBus.publish(jobId, ResumeEvent.Stage.EXTRACTED, response, true);
+            return response;
+        }
+        
+        Resource stored = storageService.loadAsResource(storedFilename);
+        ExtractionResult extraction = extractorService.extract(stored, filename, stored.contentLength(), false);
+        return saveExtracted(filename, storedFilename, extraction, userId, jobId);
+    }
+    
+    /**
+     * Saves the resume of a stored and extracted upload and checks it for
+     * near-duplicates. The upload response is also the last event of an
+     * async upload's stream.
+     */
+    private Map<String, Object> saveExtracted(String filename, String storedFilename, ExtractionResult extraction,
+                                              UUID userId, UUID jobId) {
+        String extractedText = extraction.getText();
+        
+        // Create and save Resume entity
+        Resume resume = Resume.builder()
+                .filename(filename)
+                .storagePath(storedFilename)
+                .extractedText(extractedText)
+                .userId(userId)
+                .build();
+        
+        resume = resumeRepository.save(resume);
+        log.info("Saved resume entity with ID: {}", resume.getId());
+        
+        UUID resumeId = resume.getId();
+        eventBus.publish(resumeId, ResumeEvent.Stage.STORED, Map.of("resumeId", resumeId, "filename", storedFilename),
+                false);
+        eventBus.publish(resumeId, ResumeEvent.Stage.EXTRACTED, Map.of("resumeId", resumeId,
+                "chars", extractedText != null ? extractedText.length() : 0,
+                "extractionStatus", extraction.getStatus()), false);
+        
+        // Prepare response
+        Map<String, Object> response = uploadResponse(resume, extractedText);
+        response.put("extractionStatus", extraction.getStatus());
+        
+        // Flag a lightly edited copy of an earlier upload and hand back its score
+        nearDuplicateIndex.register(resume.getId(), extractedText).stream()
+                .map(this::describeNearDuplicate)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .ifPresent(duplicate -> {
+                    log.info("Resume {} is a near-duplicate of {} (similarity {})",
+                            response.get("resumeId"), duplicate.getResumeId(), duplicate.getSimilarity());
+                    response.put("nearDuplicate", duplicate);
+                });
+        
+        if (jobId != null) {
+            eventBus.publish(jobId, ResumeEvent.Stage.EXTRACTED, response, true);
+        }
+        return response;
+    }
+    
+    /**
+     * Scores a resume against a job description.
+     * 
+     * @param resumeId the ID of the resume to score
+     * @param jobDescription the job description text (optional - if empty, scores based on general best practices)
+     * @return detailed scoring results
+     */
+    public ScoreResult scoreResume(UUID resumeId, String jobDescription) {
+        return scoreResume(resumeId, jobDescription, List.of(), null);
+    }
+    
+    /**
+     * Scores a resume against a job description and applies the given scoring
+     * profiles in the same pass. Without explicit profiles, the tenant's
+     * default profiles are applied.
+     * 
+     * @param resumeId the ID of the resume to score
+     * @param jobDescription the job description text (optional - if empty, scores based on general best practices)
+     * @param profiles names of the scoring profiles to apply; may be empty
+     * @param tenantId optional tenant whose default profiles apply when none are given
+     * @return detailed scoring results with one overall score per applied profile
+     */
+    public ScoreResult scoreResume(UUID resumeId, String jobDescription, List<String> profiles, String tenantId) {
+        Resume resume = getOrThrow(resumeId);
+        log.debug("Scoring resume ID: {} {}", resumeId, 
+                 (jobDescription != null && !jobDescription.isBlank()) ? "against job description" : "with general analysis");
+        
+        List<String> appliedProfiles = profiles.isEmpty() ? scoringService.defaultProfilesForTenant(tenantId) : profiles;
+        
+        // The cached entity carries no text; it is read on its own
+        String text = resumeRepository.findExtractedTextById(resumeId).orElse(null);
+        
+        try {
+            ScoreResult scoreResult = computeAndSave(resume, text, jobDescription, appliedProfiles);
+            eventBus.publish(resumeId, ResumeEvent.Stage.SCORED, scoreResult, true);
+            return scoreResult;
+        } catch (RuntimeException e) {
+            eventBus.publish(resumeId, ResumeEvent.Stage.FAILED, Map.of("error", "Scoring failed"), true);
+            throw e;
+        }
+    }
+    
+    /**
+     * Computes the score of a resume and saves it, publishing the
+     * tokenization step on the way and recording both as flight recorder
+     * events.
+     */
+    private ScoreResult computeAndSave(Resume resume, String text, String jobDescription,
+                                       List<String> appliedProfiles) {
+        UUID resumeId = resume.getId();
+        PipelineEvents.Scoring scoringEvent = new PipelineEvents.Scoring();
+        scoringEvent.begin();
+        PipelineEvents.Tokenize tokenizeEvent = new PipelineEvents.Tokenize();
+        tokenizeEvent.begin();
+        
+        // Compute score; only the active-weights overall is persisted
+        ScoreResult scoreResult = scoringService.computeScore(text, jobDescription, appliedProfiles,
+                (resumeTokens, jobDescriptionTokens) -> {
+                    tokenizeEvent.end();
+                    if (tokenizeEvent.shouldCommit()) {
+                        tokenizeEvent.resumeId = resumeId.toString();
+                        tokenizeEvent.resumeTokens = resumeTokens;
+                        tokenizeEvent.jobDescriptionTokens = jobDescriptionTokens;
+                        tokenizeEvent.commit();
+                    }
+                    eventBus.publish(resumeId, ResumeEvent.Stage.TOKENIZED,
+                            Map.of("resumeTokens", resumeTokens, "jobDescriptionTokens", jobDescriptionTokens), false);
+                });
+        
+        // Create and save Score entity
+        Score score = Score.builder()
+                .resume(resume)
+                .jobDescription(null) // Job description not persisted as entity in this flow
+                .keywordMatch(scoreResult.getKeywordMatch())
+                .formatting(scoreResult.getFormatting())
+                .skillRelevance(scoreResult.getSkillRelevance())
+                .overall(scoreResult.getOverall())
+                .tipsJson(String.join("; ", scoreResult.getImprovementTips()))
+                .weightsVersion(scoreResult.getWeightsVersion())
+                .generalAnalysis(scoreResult.isGeneralAnalysis())
+                .algorithmVersion(ScoringService.ALGORITHM_VERSION)
+                .build();
+        
+        score = scoreRepository.save(score);
+        scoreResult.setScoreId(score.getId());
+        log.info("Saved score for resume ID: {} with overall score: {}", resumeId, scoreResult.getOverall());
+        
+        scoringEvent.end();
+        if (scoringEvent.shouldCommit()) {
+            scoringEvent.resumeId = resumeId.toString();
+            scoringEvent.scoreId = score.getId().toString();
+            scoringEvent.profiles = appliedProfiles.size();
+            scoringEvent.generalAnalysis = scoreResult.isGeneralAnalysis();
+            scoringEvent.overall = scoreResult.getOverall();
+            scoringEvent.commit();
+        }
+        return scoreResult;
+    }
+    
+    /**
+     * Identifies the latest stored score of a resume without loading it or
+     * the resume. The resume is only looked up to tell why there is no score.
+     * 
+     * @param resumeId the ID of the resume
+     * @return the latest score's ID and weights version
+     */
+    public ScoreRepository.ScoreVersion getLatestScoreVersion(UUID resumeId) {
+        return scoreRepository.findLatestVersionByResumeId(resumeId)
+                .orElseThrow(() -> {
+                    getOrThrow(resumeId);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Resume has not been scored");
+                });
+    }
+    
+    /**
+     * Returns the latest stored score of a resume without scoring it again.
+     * 
+     * @param resumeId the ID of the resume
+     * @return the latest score
+     */
+    public ScoreResult getLatestScore(UUID resumeId) {
+        getOrThrow(resumeId);
+        return scoreRepository.findTopByResumeIdOrderByCreatedAtDesc(resumeId)
+                .map(ScoreResult::of)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Resume has not been scored"));
+    }
+    
+    /**
+     * Queues the scoring of a resume on the job queue.
+     * 
+     * @param resumeId the ID of the resume to score
+     * @param jobDescription the job description text (optional)
+     * @param profiles names of the scoring profiles to apply; may be empty
+     * @param tenantId optional tenant whose default profiles apply when none are given
+     * @return the queued scoring job; its result is the score
+     */
+    public Job enqueueScore(UUID resumeId, String jobDescription, List<String> profiles, String tenantId) {
+        getOrThrow(resumeId);
+        return jobQueue.enqueue(Job.Type.SCORE,
+                new ScoringJobHandler.Payload(resumeId, jobDescription, profiles, tenantId));
+    }
+    
+    /**
+     * Opens a stream of the processing events of a resume, or of an async
+     * upload by its job ID until the resume is saved.
+     * 
+     * <p>An upload may be run by a worker on another node, whose events never
+     * reach this node. Until its stream has ended, the job row is polled and
+     * its outcome published here once the job finishes.</p>
+     * 
+     * @param id the resume ID, or the job ID of an async upload
+     * @param lastEventId ID of the last event the client received, or null
+     * @return the event stream
+     */
+    public SseEmitter watch(UUID id, Long lastEventId) {
+        boolean follow = false;
+        if (!eventBus.hasEnded(id) && !resumeRepository.existsById(id)) {
+            Optional<Job> upload = jobQueue.find(id).filter(job -> job.getType() == Job.Type.EXTRACT);
+            if (upload.isEmpty() && !eventBus.hasRecentEvents(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Resume not found");
+            }
+            // Finished before anyone watched, or on another node: replay the outcome from the job
+            follow = upload.isPresent() && !publishOutcome(upload.get());
+        }
+        SseEmitter emitter = eventBus.subscribe(id, lastEventId);
+        if (follow) {
+            followedUploads.add(id);
+        }
+        return emitter;
+    }
+    
+    /**
+     * Publishes the outcome of the followed uploads that finished since the
+     * last poll. Uploads whose stream ended on this node, or that nobody
+     * watched for the event retention period, are no longer followed.
+     */
+    @Scheduled(fixedDelayString = "${events.follow-ms:1000}")
+    public void followUploads() {
+        if (followedUploads.isEmpty()) {
+            return;
+        }
+        followedUploads.removeIf(id -> eventBus.hasEnded(id) || !eventBus.hasRecentEvents(id));
+        Set<UUID> pending = Set.copyOf(followedUploads);
+        Set<UUID> found = new HashSet<>();
+        try {
+            for (Job upload : jobQueue.findAll(pending)) {
+                found.add(upload.getId());
+                if (publishOutcome(upload)) {
+                    followedUploads.remove(upload.getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll followed uploads: {}", e.getMessage());
+            return;
+        }
+        // Purged jobs have nothing left to report
+        pending.stream().filter(id -> !found.contains(id)).forEach(followedUploads::remove);
+    }
+    
+    /**
+     * Publishes the outcome of a finished upload job, unless its stream ended
+     * on this node already.
+     * 
+     * @param upload the extraction job
+     * @return whether the job has finished
+     */
+    private boolean publishOutcome(Job upload) {
+        if (upload.getState() == Job.State.SUCCEEDED) {
+            if (!eventBus.hasEnded(upload.getId())) {
+                eventBus.publish(upload.getId(), ResumeEvent.Stage.EXTRACTED, jobQueue.readResult(upload, Map.class),
+                        true);
+            }
+            return true;
+        }
+        if (upload.getState() == Job.State.DEAD) {
+            if (!eventBus.hasEnded(upload.getId())) {
+                eventBus.publish(upload.getId(), ResumeEvent.Stage.FAILED, Map.of("error",
+                        Objects.requireNonNullElse(upload.getLastError(), "Extraction failed")), true);
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the daily score aggregates of a resume.
+     * 
+     * @param resumeId the ID of the resume
+     * @param from first day (UTC) to include
+     * @param to last day (UTC) to include
+     * @return one aggregate per day and job description, oldest first
+     */
+    public List<ScoreTrendPoint> getScoreTrend(UUID resumeId, LocalDate from, LocalDate to) {
+        getOrThrow(resumeId);
+        return rollupRepository.findAllByResumeIdAndDayBetweenOrderByDayAsc(resumeId, from, to).stream()
+                .map(ScoreTrendPoint::of)
+                .toList();
+    }
+    
+    /**
+     * Loads the earlier upload of a near-duplicate match and its latest score.
+     * 
+     * @param match the index match
+     * @return the near-duplicate, or empty if the earlier resume is gone
+     */
+    private Optional<NearDuplicate> describeNearDuplicate(NearDuplicateIndex.Match match) {
+        Optional<Resume> earlier = resumeRepository.findById(match.resumeId());
+        if (earlier.isEmpty()) {
+            // Deleted before the index followed its tombstone
+            nearDuplicateIndex.remove(match.resumeId());
+        }
+        return earlier
+                .map(original -> NearDuplicate.builder()
+                        .resumeId(original.getId())
+                        .filename(original.getFilename())
+                        .uploadedAt(original.getUploadTs())
+                        .similarity(match.similarity())
+                        .previousScore(scoreRepository.findTopByResumeIdOrderByCreatedAtDesc(original.getId())
+                                .map(NearDuplicate.PreviousScore::of)
+                                .orElse(null))
+                        .build());
+    }
+    
+    /**
+     * Stores an upload and then extracts its text, removing the stored file
+     * again if the extraction fails.
+     * 
+     * @param file the uploaded resume file
+     * @return the stored filename and extraction result
+     */
+    private StoredUpload storeThenExtract(MultipartFile file) {
+        String storedFilename = storageService.store(file);
+        try {
+            return new StoredUpload(storedFilename, extractorService.extract(file, false));
+        } catch (RuntimeException e) {
+            try {
+                storageService.delete(storedFilename);
+            } catch (RuntimeException deleteFailure) {
+                log.warn("Failed to remove stored file {} after aborted upload", storedFilename, deleteFailure);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Runs the storage write and text extraction for an upload as two sibling
+     * virtual-thread tasks. The first failure cancels (interrupts) the other
+     * task, and a file that was already stored is removed again so a failed
+     * upload leaves no orphaned blob behind.
+     * 
+     * @param file the uploaded resume file
+     * @return the stored filename and extraction result
+     */
+    private StoredUpload storeAndExtractConcurrently(MultipartFile file) {
+        ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<>(uploadExecutor);
+        Future<Object> storeTask = completionService.submit(() -> storageService.store(file));
+        Future<Object> extractTask = completionService.submit(() -> extractorService.extract(file, false));
+        
+        try {
+            for (int completed = 0; completed < 2; completed++) {
+                Future<Object> done = completionService.take();
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    cancelUpload(storeTask, extractTask);
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new RuntimeException("Failed to process uploaded file", cause);
+                }
+            }
+            return new StoredUpload((String) storeTask.get(), (ExtractionResult) extractTask.get());
+            
+        } catch (InterruptedException e) {
+            cancelUpload(storeTask, extractTask);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upload processing was interrupted");
+        } catch (ExecutionException e) {
+            // Unreachable: both tasks were already checked above
+            throw new RuntimeException("Failed to process uploaded file", e.getCause());
+        }
+    }
+    
+    /**
+     * Cancels both upload tasks and deletes the stored file if the storage
+     * write had already completed.
+     * 
+     * @param storeTask the storage write task
+     * @param extractTask the text extraction task
+     */
+    private void cancelUpload(Future<Object> storeTask, Future<Object> extractTask) {
+        extractTask.cancel(true);
+        
+        if (!storeTask.cancel(true) && storeTask.state() == Future.State.SUCCESS) {
+            String storedFilename = (String) storeTask.resultNow();
+            try {
+                storageService.delete(storedFilename);
+            } catch (RuntimeException e) {
+                log.warn("Failed to remove stored file {} after aborted upload", storedFilename, e);
+            }
+        }
+    }
+    
+    /**
+     * Retrieves a resume by ID or throws an exception if not found.
+     * 
+     * @param resumeId the resume ID
+     * @return the resume entity
+     */
+    private Resume getOrThrow(UUID resumeId) {
+        return resumeRepository.findById(resumeId)
+                .orElseThrow(() -> {
+                    log.warn("Resume not found with ID: {}", resumeId);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Resume not found");
+                });
+    }
+    
+    /**
+     * Parses the optional user identifier of an upload before anything is stored.
+     */
+    private UUID parseUserId(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid userId format");
+        }
+    }
+    
+    private Map<String, Object> uploadResponse(Resume resume, String extractedText) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("resumeId", resume.getId());
+        response.put("filename", resume.getFilename());
+        response.put("storagePath", resume.getStoragePath());
+        response.put("extractedTextPreview", getTextPreview(extractedText, 500));
+        return response;
+    }
+    
+    /**
+     * Generates a text preview of specified length.
+     * 
+     * @param text the full text
+     * @param maxLength maximum preview length
+     * @return truncated text preview
+     */
+    private String getTextPreview(String text, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        
+        return text.substring(0, maxLength) + "...";
+    }
+    
+    /**
+     * Result of the concurrent storage and extraction steps of an upload.
+     */
+    private record StoredUpload(String storedFilename, ExtractionResult extraction) {
+    }
+}
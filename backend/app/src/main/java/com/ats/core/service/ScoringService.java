@@ -0,0 +1,187 @@
+package com.ats.core.service;
+
+import com.ats.core.config.ScoringProfilesProperties;
+import com.ats.core.dto.ScoreResult;
+import com.ats.core.scoring.ScoringEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScoringService - Core ATS scoring engine.
+ * 
+ * <p>Analyzes resumes against job descriptions using keyword matching,
+ * skill relevance analysis, and formatting quality assessment. Applies
+ * configurable weights to compute an overall ATS compatibility score
+ * and generates personalized improvement tips. The component scores and
+ * tips come from {@link ScoringEngine} in the scoring-core module.</p>
+ * 
+ * <p>Weights come from {@link ScoringWeightsService} and can change at
+ * runtime; each score reads one snapshot and records its version. Named
+ * profiles from {@link ScoringProfilesProperties} can be applied in the same
+ * pass: the component scores are weight-independent, so they are computed
+ * once and only the final weighted sum is repeated per profile.</p>
+ */
+@Slf4j
+@Service
+public class ScoringService {
+    
+    /**
+     * Version of the scoring algorithm, see {@link ScoringEngine#ALGORITHM_VERSION}.
+     */
+    public static final int ALGORITHM_VERSION = ScoringEngine.ALGORITHM_VERSION;
+    
+    private final ScoringWeightsService weightsService;
+    private final ScoringProfilesProperties profilesProperties;
+    
+    public ScoringService(ScoringWeightsService weightsService, ScoringProfilesProperties profilesProperties) {
+        this.weightsService = weightsService;
+        this.profilesProperties = profilesProperties;
+    }
+    
+    /**
+     * Computes comprehensive ATS score for a resume against a job description.
+     * 
+     * @param resumeText the extracted resume text
+     * @param jobDescription the job description text (can be null or empty for general analysis)
+     * @return detailed scoring results with improvement tips
+     */
+    public ScoreResult computeScore(String resumeText, String jobDescription) {
+        return computeScore(resumeText, jobDescription, List.of());
+    }
+    
+    /**
+     * Computes the ATS score with the active weights and additionally applies
+     * each requested profile. Normalization, tokenization and the component
+     * scores are computed once and shared by all profiles.
+     * 
+     * @param resumeText the extracted resume text
+     * @param jobDescription the job description text (can be null or empty for general analysis)
+     * @param requestedProfiles names of the profiles to apply; may be empty
+     * @return detailed scoring results, with one overall score per requested profile
+     */
+    public ScoreResult computeScore(String resumeText, String jobDescription, List<String> requestedProfiles) {
+        return computeScore(resumeText, jobDescription, requestedProfiles, Progress.NONE);
+    }
+    
+    /**
+     * Computes the ATS score like {@link #computeScore(String, String, List)}
+     * and reports its intermediate steps.
+     * 
+     * @param resumeText the extracted resume text
+     * @param jobDescription the job description text (can be null or empty for general analysis)
+     * @param requestedProfiles names of the profiles to apply; may be empty
+     * @param progress notified as the scoring proceeds
+     * @return detailed scoring results, with one overall score per requested profile
+     */
+    public ScoreResult computeScore(String resumeText, String jobDescription, List<String> requestedProfiles,
+                                    Progress progress) {
+        // One snapshot, so the overall score and the default profile agree on the weights version
+        ScoringWeightsService.Weights weights = weightsService.current();
+        List<String> profiles = requestedProfiles.stream().distinct().toList();
+        List<ScoringProfilesProperties.ProfileWeights> profileWeights = profiles.stream()
+                .map(name -> resolveProfile(name, weights))
+                .toList();
+        
+        ScoringEngine.Features features = computeFeatures(resumeText, jobDescription, progress);
+        
+        // If no job description provided, overall score is just formatting quality
+        double overall = features.overall(weights.keyword(), weights.skill(), weights.formatting());
+        
+        Map<String, Double> profileOveralls = null;
+        if (!profiles.isEmpty()) {
+            profileOveralls = new LinkedHashMap<>();
+            for (int i = 0; i < profiles.size(); i++) {
+                ScoringProfilesProperties.ProfileWeights profile = profileWeights.get(i);
+                profileOveralls.put(profiles.get(i),
+                        features.overall(profile.keyword(), profile.skill(), profile.formatting()));
+            }
+        }
+        
+        // Generate improvement tips
+        List<String> improvementTips = ScoringEngine.improvementTips(features);
+        
+        log.debug("Computed score - Overall: {}, Keyword: {}, Skill: {}, Formatting: {}, Profiles: {}", 
+                 overall, features.keywordMatch(), features.skillRelevance(), features.formatting(), profileOveralls);
+        
+        return ScoreResult.builder()
+                .keywordMatch(features.keywordMatch())
+                .skillRelevance(features.skillRelevance())
+                .formatting(features.formatting())
+                .overall(overall)
+                .improvementTips(improvementTips)
+                .weightsVersion(weights.version())
+                .generalAnalysis(features.generalAnalysis())
+                .profileOveralls(profileOveralls)
+                .build();
+    }
+    
+    /**
+     * Returns the profiles applied for a tenant that does not request any.
+     * 
+     * @param tenantId the tenant identifier, or null
+     * @return the tenant's default profiles, or an empty list
+     */
+    public List<String> defaultProfilesForTenant(String tenantId) {
+        if (tenantId == null || tenantId.isBlank()) {
+            return List.of();
+        }
+        return profilesProperties.tenantDefaults().getOrDefault(tenantId, List.of());
+    }
+    
+    /**
+     * Computes the weight-independent component scores of a resume.
+     * 
+     * @param resumeText the extracted resume text
+     * @param jobDescription the job description text (can be null or empty for general analysis)
+     * @param progress notified once the texts are tokenized
+     * @return component scores shared by every weighting
+     */
+    private ScoringEngine.Features computeFeatures(String resumeText, String jobDescription, Progress progress) {
+        // Normalize and tokenize texts
+        ScoringEngine.PreparedText resume = ScoringEngine.prepare(resumeText);
+        ScoringEngine.PreparedText jd = ScoringEngine.prepare(jobDescription);
+        progress.tokenized(resume.tokens().size(), jd.tokens().size());
+        
+        return ScoringEngine.features(resume, jd);
+    }
+    
+    /**
+     * Looks up the weights of a named profile; {@code default} is the given
+     * snapshot of the active versioned weights.
+     */
+    private ScoringProfilesProperties.ProfileWeights resolveProfile(String name, ScoringWeightsService.Weights current) {
+        if (ScoringProfilesProperties.DEFAULT_PROFILE.equals(name)) {
+            return new ScoringProfilesProperties.ProfileWeights(current.keyword(), current.skill(), current.formatting());
+        }
+        
+        ScoringProfilesProperties.ProfileWeights weights = profilesProperties.profiles().get(name);
+        if (weights == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown scoring profile: " + name);
+        }
+        return weights;
+    }
+    
+    /**
+     * Receives the intermediate steps of a scoring run.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        
+        Progress NONE = (resumeTokens, jobDescriptionTokens) -> {
+        };
+        
+        /**
+         * Called once both texts are normalized and tokenized.
+         * 
+         * @param resumeTokens number of resume tokens
+         * @param jobDescriptionTokens number of job description tokens; 0 for a general analysis
+         */
+        void tokenized(int resumeTokens, int jobDescriptionTokens);
+    }
+}
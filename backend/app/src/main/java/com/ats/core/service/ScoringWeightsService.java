@@ -0,0 +1,326 @@
+package com.ats.core.service;
+
+import com.ats.core.model.ScoringWeights;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.repository.ScoringWeightsRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ScoringWeightsService - Versioned, hot-swappable weights for the overall score.
+ * 
+ * <p>The active weights are an immutable {@link Weights} snapshot held in an
+ * atomic reference, so a score is always computed from one consistent
+ * version and an update never blocks scoring. Every update is persisted as a
+ * new version in {@code scoring_weights}; other nodes pick it up on their
+ * next refresh. The {@code scoring.weights.*} properties only seed the first
+ * version.</p>
+ * 
+ * <p>Because scores store their component values, a weights change never
+ * needs resumes to be re-extracted or re-tokenized. The recompute job
+ * rewrites {@code overall} with set-based updates over primary-key ranges,
+ * one transaction per chunk. Scores computed with the previous weights
+ * while the job was running are caught by further chunked passes, repeated
+ * until one updates nothing.</p>
+ */
+@Slf4j
+@Service
+public class ScoringWeightsService {
+    
+    private static final double SUM_TOLERANCE = 1e-6;
+    private static final UUID MIN_ID = new UUID(0, 0);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    
+    private final ScoringWeightsRepository weightsRepository;
+    private final ScoreRepository scoreRepository;
+    private final ExecutorService executor;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final double initialKeyword;
+    private final double initialSkill;
+    private final double initialFormatting;
+    private final int chunkSize;
+    
+    private final AtomicReference<Weights> current = new AtomicReference<>();
+    private final AtomicReference<RecomputeStatus> recompute = new AtomicReference<>();
+    
+    public ScoringWeightsService(
+            ScoringWeightsRepository weightsRepository,
+            ScoreRepository scoreRepository,
+            ExecutorService uploadExecutor,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${scoring.weights.keyword}") double keywordWeight,
+            @Value("${scoring.weights.skill}") double skillWeight,
+            @Value("${scoring.weights.formatting}") double formattingWeight,
+            @Value("${scoring.recompute.chunk-size:5000}") int chunkSize) {
+        this.weightsRepository = weightsRepository;
+        this.scoreRepository = scoreRepository;
+        this.executor = uploadExecutor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.initialKeyword = keywordWeight;
+        this.initialSkill = skillWeight;
+        this.initialFormatting = formattingWeight;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+    
+    @PostConstruct
+    public void init() {
+        ScoringWeights latest = weightsRepository.findTopByOrderByVersionDesc()
+                .orElseGet(() -> {
+                    validate(initialKeyword, initialSkill, initialFormatting);
+                    log.info("Seeding scoring weights from configuration");
+                    return weightsRepository.save(ScoringWeights.builder()
+                            .keyword(initialKeyword)
+                            .skill(initialSkill)
+                            .formatting(initialFormatting)
+                            .build());
+                });
+        current.set(Weights.of(latest));
+        log.info("Active scoring weights: {}", current.get());
+    }
+    
+    /**
+     * Returns the active weights.
+     * 
+     * @return current weights snapshot
+     */
+    public Weights current() {
+        return current.get();
+    }
+    
+    /**
+     * Publishes a new weights version and makes it active on this node.
+     * 
+     * @param keyword weight of the keyword match score
+     * @param skill weight of the skill relevance score
+     * @param formatting weight of the formatting score
+     * @return the new active weights
+     */
+    public Weights update(double keyword, double skill, double formatting) {
+        validate(keyword, skill, formatting);
+        
+        ScoringWeights saved = weightsRepository.save(ScoringWeights.builder()
+                .keyword(keyword)
+                .skill(skill)
+                .formatting(formatting)
+                .build());
+        Weights published = Weights.of(saved);
+        activate(published);
+        
+        log.info("Published scoring weights {}", published);
+        return published;
+    }
+    
+    /**
+     * Picks up weights published by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${scoring.weights.refresh-ms:30000}")
+    public void refresh() {
+        try {
+            weightsRepository.findTopByOrderByVersionDesc()
+                    .map(Weights::of)
+                    .ifPresent(latest -> {
+                        if (activate(latest)) {
+                            log.info("Loaded scoring weights {}", latest);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh scoring weights: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Starts recomputing stored overall scores with the active weights, unless
+     * a recomputation is already running.
+     * 
+     * @return status of the started (or already running) recomputation
+     */
+    public RecomputeStatus startRecompute() {
+        Weights weights = current.get();
+        RecomputeStatus started = RecomputeStatus.running(weights.version(), 0);
+        
+        RecomputeStatus previous;
+        do {
+            previous = recompute.get();
+            if (previous != null && previous.state() == RecomputeStatus.State.RUNNING
+                    && previous.version() >= weights.version()) {
+                return previous;
+            }
+        } while (!recompute.compareAndSet(previous, started));
+        
+        executor.submit(() -> runRecompute(weights, started.startedAt()));
+        return started;
+    }
+    
+    /**
+     * Returns the status of the most recent recomputation.
+     * 
+     * @return recomputation status, or empty if none has run since startup
+     */
+    public Optional<RecomputeStatus> getRecomputeStatus() {
+        return Optional.ofNullable(recompute.get());
+    }
+    
+    /**
+     * Walks the scores table in primary-key chunks, and walks it again until
+     * a pass finds no stragglers.
+     */
+    private void runRecompute(Weights weights, OffsetDateTime startedAt) {
+        long updated = 0;
+        log.info("Recomputing overall scores with weights version {}", weights.version());
+        
+        try {
+            // Scores computed with the old weights may land in ranges a pass already processed
+            long passRows;
+            do {
+                passRows = recomputePass(weights, startedAt, updated);
+                if (passRows < 0) {
+                    // A newer version was published; its own recomputation supersedes this one
+                    report(RecomputeStatus.finished(weights.version(), RecomputeStatus.State.SUPERSEDED,
+                            updated, startedAt, null));
+                    log.info("Recomputation for weights version {} superseded after {} rows",
+                            weights.version(), updated);
+                    return;
+                }
+                updated += passRows;
+            } while (passRows > 0);
+            
+            report(RecomputeStatus.finished(weights.version(), RecomputeStatus.State.COMPLETED,
+                    updated, startedAt, null));
+            log.info("Recomputed {} overall scores with weights version {}", updated, weights.version());
+            eventPublisher.publishEvent(new OverallScoresRecomputedEvent(weights.version()));
+            
+        } catch (RuntimeException e) {
+            report(RecomputeStatus.finished(weights.version(), RecomputeStatus.State.FAILED,
+                    updated, startedAt, e.getMessage()));
+            log.error("Recomputation for weights version {} failed after {} rows", weights.version(), updated, e);
+        }
+    }
+    
+    /**
+     * Recomputes the whole scores table once, one primary-key chunk per
+     * transaction.
+     * 
+     * @param updatedBefore rows updated by earlier passes, for progress reporting
+     * @return rows updated by this pass, or -1 if a newer weights version was published
+     */
+    private long recomputePass(Weights weights, OffsetDateTime startedAt, long updatedBefore) {
+        long updated = 0;
+        UUID after = MIN_ID;
+        while (after != null) {
+            if (current.get().version() != weights.version()) {
+                return -1;
+            }
+            UUID from = after;
+            UUID upTo = scoreRepository.findChunkEnd(from, chunkSize - 1).orElse(MAX_ID);
+            updated += updateRange(weights, from, upTo);
+            after = upTo.equals(MAX_ID) ? null : upTo;
+            report(RecomputeStatus.running(weights.version(), updatedBefore + updated, startedAt));
+        }
+        return updated;
+    }
+    
+    /**
+     * Records job progress unless a job for another version has taken over.
+     */
+    private void report(RecomputeStatus status) {
+        recompute.updateAndGet(existing -> existing != null && existing.version() != status.version()
+                ? existing : status);
+    }
+    
+    private int updateRange(Weights weights, UUID after, UUID upTo) {
+        Integer rows = transaction.execute(status -> scoreRepository.recomputeOverall(after, upTo,
+                weights.version(), weights.keyword(), weights.skill(), weights.formatting()));
+        return rows != null ? rows : 0;
+    }
+    
+    /**
+     * Makes a weights version active if it is newer than the current one.
+     * 
+     * @return true if the active weights changed
+     */
+    private boolean activate(Weights candidate) {
+        Weights previous;
+        do {
+            previous = current.get();
+            if (previous != null && previous.version() >= candidate.version()) {
+                return false;
+            }
+        } while (!current.compareAndSet(previous, candidate));
+        return true;
+    }
+    
+    private void validate(double keyword, double skill, double formatting) {
+        if (keyword < 0 || skill < 0 || formatting < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Weights must not be negative");
+        }
+        if (Math.abs(keyword + skill + formatting - 1.0) > SUM_TOLERANCE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Weights must add up to 1.0");
+        }
+    }
+    
+    /**
+     * Immutable snapshot of one weights version.
+     * 
+     * @param version the weights version
+     * @param keyword weight of the keyword match score
+     * @param skill weight of the skill relevance score
+     * @param formatting weight of the formatting score
+     */
+    public record Weights(long version, double keyword, double skill, double formatting) {
+        
+        static Weights of(ScoringWeights entity) {
+            return new Weights(entity.getVersion(), entity.getKeyword(), entity.getSkill(), entity.getFormatting());
+        }
+    }
+    
+    /**
+     * Progress of a recomputation job.
+     * 
+     * @param version the weights version being applied
+     * @param state current state of the job
+     * @param updatedRows number of scores rewritten so far
+     * @param startedAt when the job started
+     * @param finishedAt when the job ended, or null while running
+     * @param error failure message, if the job failed
+     */
+    public record RecomputeStatus(long version, State state, long updatedRows, OffsetDateTime startedAt,
+                                  OffsetDateTime finishedAt, String error) {
+        
+        public enum State {
+            RUNNING,
+            COMPLETED,
+            SUPERSEDED,
+            FAILED
+        }
+        
+        static RecomputeStatus running(long version, long updatedRows) {
+            return running(version, updatedRows, OffsetDateTime.now());
+        }
+        
+        static RecomputeStatus running(long version, long updatedRows, OffsetDateTime startedAt) {
+            return new RecomputeStatus(version, State.RUNNING, updatedRows, startedAt, null, null);
+        }
+        
+        static RecomputeStatus finished(long version, State state, long updatedRows, OffsetDateTime startedAt,
+                                        String error) {
+            return new RecomputeStatus(version, state, updatedRows, startedAt, OffsetDateTime.now(), error);
+        }
+    }
+}
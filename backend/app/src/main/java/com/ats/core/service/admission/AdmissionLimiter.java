@@ -0,0 +1,248 @@
+package com.ats.core.service.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AdmissionLimiter - Adaptive concurrency limit for extraction-heavy requests.
+ * 
+ * <p>Bounds the number of uploads and scoring requests processed at once.
+ * The limit adapts with AIMD: it grows additively while requests complete
+ * under the target latency and shrinks multiplicatively when latency or heap
+ * usage crosses its threshold. The upper bound is derived from the available
+ * heap so the limit can never admit more parses than the JVM can hold.</p>
+ * 
+ * <p>Requests that cannot be admitted immediately wait in a short bounded
+ * queue. Each user may hold at most a fixed share of the current limit, so a
+ * single bulk client cannot starve interactive users.</p>
+ */
+@Slf4j
+@Service
+public class AdmissionLimiter {
+    
+    private static final double DECREASE_FACTOR = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double heapHighWatermark;
+    private final int maxQueueSize;
+    private final long maxWaitNanos;
+    private final double userShare;
+    private final MemoryPoolMXBean tenuredPool = findTenuredPool();
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final Map<String, Integer> inFlightByUser = new HashMap<>();
+    
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    
+    public AdmissionLimiter(
+            @Value("${admission.initial-limit:0}") int initialLimit,
+            @Value("${admission.min-limit:1}") int minLimit,
+            @Value("${admission.max-limit:64}") int maxLimit,
+            @Value("${admission.heap-per-request-mb:64}") long heapPerRequestMb,
+            @Value("${admission.target-latency-ms:2000}") long targetLatencyMs,
+            @Value("${admission.heap-high-watermark:0.85}") double heapHighWatermark,
+            @Value("${admission.queue-size:16}") int maxQueueSize,
+            @Value("${admission.max-wait-ms:1000}") long maxWaitMs,
+            @Value("${admission.user-share:0.5}") double userShare) {
+        long heapBoundLimit = Runtime.getRuntime().maxMemory() / (heapPerRequestMb * 1024 * 1024);
+        
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = (int) Math.max(this.minLimit, Math.min(maxLimit, heapBoundLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.heapHighWatermark = heapHighWatermark;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.userShare = userShare;
+        
+        int startLimit = initialLimit > 0 ? initialLimit : Runtime.getRuntime().availableProcessors();
+        this.limit = Math.max(this.minLimit, Math.min(startLimit, this.maxLimit));
+        
+        log.info("Admission limiter initialized - limit: {}, range: [{}, {}], queue: {}",
+                (int) limit, this.minLimit, this.maxLimit, maxQueueSize);
+    }
+    
+    /**
+     * Attempts to admit a request, waiting briefly in the queue if the limit
+     * or the user's fair share is currently exhausted.
+     * 
+     * @param userKey identifier of the requesting user or client
+     * @return a permit that must be released, or null if the request is rejected
+     * @throws InterruptedException if interrupted while waiting in the queue
+     */
+    public Permit tryAcquire(String userKey) throws InterruptedException {
+        lock.lock();
+        try {
+            if (canAdmit(userKey)) {
+                return admit(userKey);
+            }
+            
+            if (waiting >= maxQueueSize) {
+                log.debug("Admission rejected for {} - queue full ({} waiting)", userKey, waiting);
+                return null;
+            }
+            
+            waiting++;
+            try {
+                long remainingNanos = maxWaitNanos;
+                while (!canAdmit(userKey)) {
+                    if (remainingNanos <= 0) {
+                        log.debug("Admission rejected for {} - waited {} ms", userKey,
+                                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+                        return null;
+                    }
+                    remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                }
+                return admit(userKey);
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the current concurrency limit.
+     * 
+     * @return current limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Returns whether foreground requests are queueing or hold at least half
+     * of the current limit. Background jobs use this to yield to user traffic.
+     * 
+     * @return true if the limiter is under load
+     */
+    public boolean isBusy() {
+        lock.lock();
+        try {
+            return waiting > 0 || inFlight * 2 >= (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Checks whether the global limit and the user's share allow another request.
+     * Must be called while holding the lock.
+     */
+    private boolean canAdmit(String userKey) {
+        int userLimit = Math.max(1, (int) Math.ceil(limit * userShare));
+        return inFlight < (int) limit && inFlightByUser.getOrDefault(userKey, 0) < userLimit;
+    }
+    
+    /**
+     * Records an admitted request. Must be called while holding the lock.
+     */
+    private Permit admit(String userKey) {
+        inFlight++;
+        inFlightByUser.merge(userKey, 1, Integer::sum);
+        return new Permit(userKey, System.nanoTime());
+    }
+    
+    /**
+     * Releases a permit and adjusts the limit based on the observed latency
+     * and current heap pressure.
+     */
+    private void release(Permit permit) {
+        long latencyNanos = System.nanoTime() - permit.startNanos;
+        boolean overloaded = latencyNanos > targetLatencyNanos || heapUsage() > heapHighWatermark;
+        
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            inFlightByUser.computeIfPresent(permit.userKey, (key, count) -> count > 1 ? count - 1 : null);
+            
+            if (overloaded) {
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the fraction of the heap in use. Prefers the tenured pool's
+     * usage after the last collection, which ignores short-lived garbage.
+     */
+    private double heapUsage() {
+        if (tenuredPool != null) {
+            MemoryUsage afterGc = tenuredPool.getCollectionUsage();
+            if (afterGc != null && afterGc.getMax() > 0) {
+                return (double) afterGc.getUsed() / afterGc.getMax();
+            }
+        }
+        
+        Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+    
+    /**
+     * Locates the old-generation heap pool of the active collector, if any.
+     */
+    private static MemoryPoolMXBean findTenuredPool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            String name = pool.getName();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()
+                    && (name.contains("Old") || name.contains("Tenured"))) {
+                return pool;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Permit - An admitted request slot, released exactly once when the
+     * request completes.
+     */
+    public final class Permit {
+        
+        private final String userKey;
+        private final long startNanos;
+        private boolean released;
+        
+        private Permit(String userKey, long startNanos) {
+            this.userKey = userKey;
+            this.startNanos = startNanos;
+        }
+        
+        /**
+         * Releases this permit and feeds its latency into the limit.
+         */
+        public synchronized void release() {
+            if (!released) {
+                released = true;
+                AdmissionLimiter.this.release(this);
+            }
+        }
+    }
+}
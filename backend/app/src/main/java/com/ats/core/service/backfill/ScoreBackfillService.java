@@ -0,0 +1,528 @@
+package com.ats.core.service.backfill;
+
+import com.ats.core.dto.ScoreResult;
+import com.ats.core.model.BackfillCheckpoint;
+import com.ats.core.model.JobDescription;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.BackfillCheckpointRepository;
+import com.ats.core.repository.JobDescriptionRepository;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.ScoringService;
+import com.ats.core.service.admission.AdmissionLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ScoreBackfillService - Re-scores the stored corpus after a scoring algorithm change.
+ * 
+ * <p>Walks {@code resumes} by primary key in keyset chunks. For every resume
+ * it re-scores each stored job description the resume was scored against
+ * (and general analysis, if it had one) that has no score from
+ * {@link ScoringService#ALGORITHM_VERSION} yet. A chunk is scored in parallel
+ * on a dedicated pool, and its new {@link Score} rows are batch-inserted in
+ * the same transaction that advances the {@link BackfillCheckpoint}, so a
+ * crash loses at most the chunk in flight and the job resumes on the next
+ * start. Existing scores are kept; readers already use the newest score.</p>
+ * 
+ * <p>Once a backfill to a newer algorithm version has started, a node still
+ * running this version drops the chunk it was about to commit and stops,
+ * since its scores would otherwise shadow the newer ones. The check runs
+ * under the checkpoint row locks, inside the transaction that would insert
+ * the scores.</p>
+ * 
+ * <p>The job is throttled to a fixed resume rate and pauses while the
+ * admission limiter reports foreground load, so it can run beside production
+ * traffic. Progress, throughput and ETA are published as Micrometer meters
+ * under {@code scoring.backfill}.</p>
+ */
+@Slf4j
+@Service
+public class ScoreBackfillService {
+    
+    private static final int VERSION = ScoringService.ALGORITHM_VERSION;
+    private static final UUID MIN_ID = new UUID(0, 0);
+    private static final long BUSY_BACKOFF_MILLIS = 500;
+    private static final double RATE_SMOOTHING = 0.2;
+    
+    private final ResumeRepository resumeRepository;
+    private final ScoreRepository scoreRepository;
+    private final JobDescriptionRepository jobDescriptionRepository;
+    private final BackfillCheckpointRepository checkpointRepository;
+    private final ScoringService scoringService;
+    private final AdmissionLimiter admissionLimiter;
+    private final ExecutorService executor;
+    private final TransactionTemplate transaction;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final long resumeIntervalNanos;
+    private final boolean resumeOnStartup;
+    
+    private final Counter processedCounter;
+    private final Counter insertedCounter;
+    private final Timer chunkTimer;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean pauseRequested;
+    private volatile boolean shuttingDown;
+    private volatile BackfillCheckpoint checkpoint;
+    private volatile long remainingResumes = -1;
+    private volatile double resumesPerSecond;
+    
+    public ScoreBackfillService(
+            ResumeRepository resumeRepository,
+            ScoreRepository scoreRepository,
+            JobDescriptionRepository jobDescriptionRepository,
+            BackfillCheckpointRepository checkpointRepository,
+            ScoringService scoringService,
+            AdmissionLimiter admissionLimiter,
+            ExecutorService uploadExecutor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${scoring.backfill.chunk-size:200}") int chunkSize,
+            @Value("${scoring.backfill.parallelism:0}") int parallelism,
+            @Value("${scoring.backfill.max-resumes-per-second:50}") int maxResumesPerSecond,
+            @Value("${scoring.backfill.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.resumeRepository = resumeRepository;
+        this.scoreRepository = scoreRepository;
+        this.jobDescriptionRepository = jobDescriptionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.scoringService = scoringService;
+        this.admissionLimiter = admissionLimiter;
+        this.executor = uploadExecutor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+        this.resumeIntervalNanos = maxResumesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxResumesPerSecond : 0;
+        this.resumeOnStartup = resumeOnStartup;
+        
+        String version = String.valueOf(VERSION);
+        this.processedCounter = Counter.builder("scoring.backfill.resumes")
+                .description("Resumes processed by the re-scoring backfill")
+                .tag("algorithm.version", version)
+                .register(meterRegistry);
+        this.insertedCounter = Counter.builder("scoring.backfill.scores")
+                .description("Scores inserted by the re-scoring backfill")
+                .tag("algorithm.version", version)
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("scoring.backfill.chunk")
+                .description("Time to score and commit one backfill chunk")
+                .tag("algorithm.version", version)
+                .register(meterRegistry);
+        Gauge.builder("scoring.backfill.throughput", this, service -> service.resumesPerSecond)
+                .description("Smoothed backfill throughput")
+                .baseUnit("resumes/s")
+                .tag("algorithm.version", version)
+                .register(meterRegistry);
+        Gauge.builder("scoring.backfill.remaining", this, service -> Math.max(0, service.remainingResumes))
+                .description("Resumes left to process")
+                .baseUnit("resumes")
+                .tag("algorithm.version", version)
+                .register(meterRegistry);
+        Gauge.builder("scoring.backfill.eta", this, service -> service.etaSeconds().orElse(0L))
+                .description("Estimated time until the backfill completes")
+                .baseUnit("seconds")
+                .tag("algorithm.version", version)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Stops the job at the next chunk boundary without marking it paused, so
+     * it resumes from its checkpoint on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Resumes a backfill that was still running when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        try {
+            Optional<BackfillCheckpoint> interrupted = checkpointRepository.findById(VERSION)
+                    .filter(existing -> existing.getState() == BackfillCheckpoint.State.RUNNING);
+            if (interrupted.isPresent()) {
+                log.info("Resuming interrupted backfill for algorithm version {} after resume {}",
+                        VERSION, interrupted.get().getLastResumeId());
+                start();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to resume interrupted backfill: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Starts (or resumes from its checkpoint) the backfill to the current
+     * algorithm version, unless it is already running on this node or has
+     * completed.
+     * 
+     * @return status of the backfill
+     */
+    public BackfillStatus start() {
+        if (!running.compareAndSet(false, true)) {
+            return getStatus().orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Backfill is starting"));
+        }
+        
+        try {
+            BackfillCheckpoint started = transaction.execute(status -> {
+                // Waits for chunks of older versions in flight; later ones are dropped
+                checkpointRepository.lockOlderThan(VERSION);
+                if (checkpointRepository.existsByAlgorithmVersionGreaterThan(VERSION)) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Scores are being backfilled to a newer algorithm version");
+                }
+                BackfillCheckpoint existing = checkpointRepository.findById(VERSION)
+                        .orElseGet(() -> BackfillCheckpoint.builder()
+                                .algorithmVersion(VERSION)
+                                .processedResumes(0L)
+                                .insertedScores(0L)
+                                .build());
+                if (existing.getState() == BackfillCheckpoint.State.COMPLETED) {
+                    return existing;
+                }
+                existing.setState(BackfillCheckpoint.State.RUNNING);
+                existing.setError(null);
+                return checkpointRepository.save(existing);
+            });
+            checkpoint = started;
+            
+            if (started.getState() == BackfillCheckpoint.State.COMPLETED) {
+                running.set(false);
+                return status(started);
+            }
+            
+            pauseRequested = false;
+            executor.submit(this::run);
+            return status(started);
+            
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            running.set(false);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Backfill checkpoint was changed by another node");
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+    
+    /**
+     * Asks the running backfill to stop after the current chunk.
+     * 
+     * @return status of the backfill, or empty if none was ever started
+     */
+    public Optional<BackfillStatus> pause() {
+        if (running.get()) {
+            pauseRequested = true;
+        }
+        return getStatus();
+    }
+    
+    /**
+     * Returns the progress of the backfill to the current algorithm version.
+     * 
+     * @return backfill status, or empty if none was ever started
+     */
+    public Optional<BackfillStatus> getStatus() {
+        BackfillCheckpoint current = running.get() ? checkpoint : checkpointRepository.findById(VERSION).orElse(null);
+        return Optional.ofNullable(current).map(this::status);
+    }
+    
+    private void run() {
+        UUID after = checkpoint.getLastResumeId() != null ? checkpoint.getLastResumeId() : MIN_ID;
+        log.info("Backfilling scores to algorithm version {} from resume {}", VERSION, after);
+        
+        try {
+            remainingResumes = resumeRepository.countByIdGreaterThan(after);
+            long nextChunkNanos = System.nanoTime();
+            long lastChunkEnd = System.nanoTime();
+            
+            while (!stopRequested()) {
+                if (!waitForSlot(nextChunkNanos)) {
+                    break;
+                }
+                long chunkStart = System.nanoTime();
+                
+                List<Resume> resumes = resumeRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(chunkSize));
+                if (resumes.isEmpty()) {
+                    finish(BackfillCheckpoint.State.COMPLETED, null);
+                    log.info("Backfill to algorithm version {} completed - {} resumes, {} scores inserted",
+                            VERSION, checkpoint.getProcessedResumes(), checkpoint.getInsertedScores());
+                    return;
+                }
+                
+                List<Score> scores = scoreChunk(resumes);
+                if (!commitChunk(resumes.get(resumes.size() - 1).getId(), resumes.size(), scores)) {
+                    finish(BackfillCheckpoint.State.PAUSED, "Superseded by a newer algorithm version");
+                    log.warn("Backfill to algorithm version {} superseded by a newer version; dropped {} scores "
+                            + "after resume {}", VERSION, scores.size(), after);
+                    return;
+                }
+                after = checkpoint.getLastResumeId();
+                
+                long now = System.nanoTime();
+                recordChunk(resumes.size(), scores.size(), now - chunkStart, now - lastChunkEnd);
+                lastChunkEnd = now;
+                nextChunkNanos = chunkStart + resumes.size() * resumeIntervalNanos;
+            }
+            
+            if (!shuttingDown) {
+                finish(BackfillCheckpoint.State.PAUSED, null);
+                log.info("Backfill to algorithm version {} paused after resume {}", VERSION, after);
+            }
+            
+        } catch (InterruptedException e) {
+            // Left RUNNING so the next start resumes from the checkpoint
+            Thread.currentThread().interrupt();
+            log.warn("Backfill to algorithm version {} interrupted after resume {}", VERSION, after);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Backfill checkpoint for algorithm version {} was advanced by another node; stopping", VERSION);
+        } catch (RuntimeException e) {
+            if (shuttingDown) {
+                log.warn("Backfill to algorithm version {} stopped by shutdown after resume {}", VERSION, after);
+                return;
+            }
+            finish(BackfillCheckpoint.State.FAILED, e.getMessage());
+            log.error("Backfill to algorithm version {} failed after resume {}", VERSION, after, e);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Scores the missing resume / job description pairs of one chunk on the
+     * scoring pool.
+     */
+    private List<Score> scoreChunk(List<Resume> resumes) throws InterruptedException {
+        Map<UUID, Resume> resumesById = resumes.stream()
+                .collect(Collectors.toMap(Resume::getId, Function.identity()));
+        List<ScoreRepository.RescoreTarget> targets = scoreRepository.findRescoreTargets(resumesById.keySet(), VERSION);
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        
+        Set<UUID> jobDescriptionIds = targets.stream()
+                .map(ScoreRepository.RescoreTarget::getJobDescriptionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, JobDescription> jobDescriptions = jobDescriptionRepository.findAllById(jobDescriptionIds).stream()
+                .collect(Collectors.toMap(JobDescription::getId, Function.identity()));
+        
+        // The page holds detached entities without their lazily loaded text
+        Set<UUID> targetResumeIds = targets.stream()
+                .map(ScoreRepository.RescoreTarget::getResumeId)
+                .collect(Collectors.toSet());
+        Map<UUID, String> texts = new HashMap<>();
+        for (ResumeRepository.ResumeText text : resumeRepository.findTextsByIdIn(targetResumeIds)) {
+            texts.put(text.getId(), text.getExtractedText());
+        }
+        
+        try {
+            return pool.submit(() -> targets.parallelStream()
+                    .map(target -> rescore(resumesById.get(target.getResumeId()), texts.get(target.getResumeId()),
+                            target.getJobDescriptionId() != null
+                                    ? jobDescriptions.get(target.getJobDescriptionId()) : null))
+                    .toList()).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to score backfill chunk", e.getCause());
+        }
+    }
+    
+    private Score rescore(Resume resume, String text, JobDescription jobDescription) {
+        ScoreResult result = scoringService.computeScore(text,
+                jobDescription != null ? jobDescription.getContent() : null);
+        return Score.builder()
+                .resume(resume)
+                .jobDescription(jobDescription)
+                .keywordMatch(result.getKeywordMatch())
+                .formatting(result.getFormatting())
+                .skillRelevance(result.getSkillRelevance())
+                .overall(result.getOverall())
+                .tipsJson(String.join("; ", result.getImprovementTips()))
+                .weightsVersion(result.getWeightsVersion())
+                .generalAnalysis(result.isGeneralAnalysis())
+                .algorithmVersion(VERSION)
+                .build();
+    }
+    
+    /**
+     * Inserts a chunk's scores and advances the checkpoint in one transaction.
+     * Fails if another node advanced the checkpoint in the meantime.
+     * 
+     * @return false, with nothing written, if a backfill to a newer
+     *         algorithm version has started
+     */
+    private boolean commitChunk(UUID lastResumeId, int resumeCount, List<Score> scores) {
+        long expectedRevision = checkpoint.getRevision();
+        BackfillCheckpoint committed = transaction.execute(status -> {
+            BackfillCheckpoint current = lockCheckpoint(expectedRevision);
+            // Checked under the lock a newer version's start waits for
+            if (checkpointRepository.existsByAlgorithmVersionGreaterThan(VERSION)) {
+                return null;
+            }
+            scoreRepository.saveAll(scores);
+            current.setLastResumeId(lastResumeId);
+            current.setProcessedResumes(current.getProcessedResumes() + resumeCount);
+            current.setInsertedScores(current.getInsertedScores() + scores.size());
+            return current;
+        });
+        if (committed == null) {
+            return false;
+        }
+        checkpoint = committed;
+        return true;
+    }
+    
+    private void finish(BackfillCheckpoint.State state, String error) {
+        long expectedRevision = checkpoint.getRevision();
+        try {
+            checkpoint = transaction.execute(status -> {
+                BackfillCheckpoint current = lockCheckpoint(expectedRevision);
+                current.setState(state);
+                current.setError(error);
+                if (state == BackfillCheckpoint.State.COMPLETED) {
+                    current.setFinishedAt(OffsetDateTime.now());
+                }
+                return current;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to record backfill state {}: {}", state, e.getMessage());
+        }
+    }
+    
+    private BackfillCheckpoint lockCheckpoint(long expectedRevision) {
+        BackfillCheckpoint current = checkpointRepository.lockById(VERSION)
+                .orElseThrow(() -> new IllegalStateException("Backfill checkpoint was deleted"));
+        if (current.getRevision() != expectedRevision) {
+            throw new OptimisticLockingFailureException("Backfill checkpoint was advanced by another node");
+        }
+        return current;
+    }
+    
+    private void recordChunk(int resumeCount, int scoreCount, long chunkNanos, long sinceLastChunkNanos) {
+        processedCounter.increment(resumeCount);
+        insertedCounter.increment(scoreCount);
+        chunkTimer.record(chunkNanos, TimeUnit.NANOSECONDS);
+        remainingResumes = Math.max(0, remainingResumes - resumeCount);
+        
+        // Measured end to end, including throttling, so the ETA reflects the configured rate
+        double rate = resumeCount / Math.max(1e-9, sinceLastChunkNanos / 1e9);
+        resumesPerSecond = resumesPerSecond == 0 ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * resumesPerSecond;
+        
+        log.debug("Backfill chunk - {} resumes, {} scores, {} ms, {} resumes/s, {} remaining",
+                resumeCount, scoreCount, TimeUnit.NANOSECONDS.toMillis(chunkNanos),
+                Math.round(resumesPerSecond), remainingResumes);
+    }
+    
+    /**
+     * Blocks until the throttle allows the next chunk and the admission
+     * limiter reports no foreground load.
+     * 
+     * @return false if the job was asked to stop while waiting
+     */
+    private boolean waitForSlot(long slotNanos) throws InterruptedException {
+        while (!stopRequested()) {
+            long waitNanos = slotNanos - System.nanoTime();
+            if (admissionLimiter.isBusy()) {
+                TimeUnit.MILLISECONDS.sleep(BUSY_BACKOFF_MILLIS);
+            } else if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(BUSY_BACKOFF_MILLIS)));
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean stopRequested() {
+        return pauseRequested || shuttingDown;
+    }
+    
+    private Optional<Long> etaSeconds() {
+        if (!running.get() || remainingResumes < 0 || resumesPerSecond <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Math.round(remainingResumes / resumesPerSecond));
+    }
+    
+    private BackfillStatus status(BackfillCheckpoint current) {
+        boolean local = running.get();
+        return new BackfillStatus(
+                VERSION,
+                current.getState(),
+                local,
+                current.getLastResumeId(),
+                current.getProcessedResumes(),
+                current.getInsertedScores(),
+                local && remainingResumes >= 0 ? remainingResumes : null,
+                local ? resumesPerSecond : null,
+                etaSeconds().orElse(null),
+                current.getStartedAt(),
+                current.getUpdatedAt(),
+                current.getFinishedAt(),
+                current.getError());
+    }
+    
+    /**
+     * Progress of the backfill to one algorithm version.
+     * 
+     * @param algorithmVersion the algorithm version scores are backfilled to
+     * @param state persisted state of the backfill
+     * @param runningOnThisNode whether this node is executing the backfill
+     * @param lastResumeId last resume of the last committed chunk
+     * @param processedResumes resumes processed so far
+     * @param insertedScores scores inserted so far
+     * @param remainingResumes resumes left, when running on this node
+     * @param resumesPerSecond smoothed throughput, when running on this node
+     * @param etaSeconds estimated seconds until completion, when running on this node
+     * @param startedAt when the backfill was first started
+     * @param updatedAt when the checkpoint was last written
+     * @param finishedAt when the backfill completed
+     * @param error failure message, if the backfill failed
+     */
+    public record BackfillStatus(int algorithmVersion, BackfillCheckpoint.State state, boolean runningOnThisNode,
+                                 UUID lastResumeId, long processedResumes, long insertedScores,
+                                 Long remainingResumes, Double resumesPerSecond, Long etaSeconds,
+                                 OffsetDateTime startedAt, OffsetDateTime updatedAt, OffsetDateTime finishedAt,
+                                 String error) {
+    }
+}
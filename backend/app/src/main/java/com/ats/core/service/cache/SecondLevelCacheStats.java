@@ -0,0 +1,102 @@
+package com.ats.core.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * SecondLevelCacheStats - Hit rates of the Hibernate second-level cache.
+ * 
+ * <p>Publishes hits, misses and puts of every entity region and of the
+ * query cache as {@code hibernate.cache.*} counters tagged by region, and
+ * serves the same numbers to the admin API. Counts come from Hibernate's
+ * statistics, which cover this node only.</p>
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheStats {
+    
+    private final Statistics statistics;
+    private final List<String> entityRegions;
+    
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.statistics = sessionFactory.getStatistics();
+        
+        // The region list also holds the query results region, which has its own statistics
+        String queryRegion = sessionFactory.getCache().getDefaultQueryResultsCache().getRegion().getName();
+        this.entityRegions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .filter(region -> !region.equals(queryRegion))
+                .sorted()
+                .toList();
+        
+        for (String region : entityRegions) {
+            register(meterRegistry, region, "hit", CacheRegionStatistics::getHitCount);
+            register(meterRegistry, region, "miss", CacheRegionStatistics::getMissCount);
+            FunctionCounter.builder("hibernate.cache.puts", statistics,
+                            stats -> stats.getDomainDataRegionStatistics(region).getPutCount())
+                    .description("Entries put into a second-level cache region")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("hibernate.cache.query.requests", statistics, Statistics::getQueryCacheHitCount)
+                .description("Lookups in the query cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("hibernate.cache.query.requests", statistics, Statistics::getQueryCacheMissCount)
+                .description("Lookups in the query cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        log.info("Second-level cache regions: {}", String.join(", ", entityRegions));
+    }
+    
+    private void register(MeterRegistry meterRegistry, String region, String result,
+                          ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder("hibernate.cache.requests", statistics,
+                        stats -> count.applyAsLong(stats.getDomainDataRegionStatistics(region)))
+                .description("Lookups in a second-level cache region")
+                .tag("region", region)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Returns the counts of every entity region and of the query cache.
+     * 
+     * @return region name to its counts, with the query cache last
+     */
+    public Map<String, RegionStats> snapshot() {
+        Map<String, RegionStats> regions = new LinkedHashMap<>();
+        for (String region : entityRegions) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            regions.put(region, RegionStats.of(stats.getHitCount(), stats.getMissCount(), stats.getPutCount()));
+        }
+        regions.put("query", RegionStats.of(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        return regions;
+    }
+    
+    /**
+     * Counts of one cache region since startup.
+     * 
+     * @param hitRatio hits over all lookups, or 0 before the first lookup
+     */
+    public record RegionStats(long hits, long misses, long puts, double hitRatio) {
+        
+        static RegionStats of(long hits, long misses, long puts) {
+            long lookups = hits + misses;
+            return new RegionStats(hits, misses, puts, lookups == 0 ? 0 : (double) hits / lookups);
+        }
+    }
+}
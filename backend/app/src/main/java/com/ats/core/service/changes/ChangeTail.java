@@ -0,0 +1,117 @@
+package com.ats.core.service.changes;
+
+import com.ats.core.repository.ChangedRow;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * ChangeTail - Follows the rows of a table through their {@code updated_at} column.
+ * 
+ * <p>Used by the node-local indexes to pick up rows written through other
+ * nodes. Each poll reads, in keyset pages, the rows updated since the
+ * watermark minus an overlap window, then moves the watermark to the time
+ * the poll started, or to the newest update time it saw if that is later.
+ * The overlap covers rows that commit after a later timestamp was already
+ * read (a long transaction, or another node's clock running behind), so it
+ * must exceed both. Rows seen again inside the overlap with an unchanged
+ * update time are not reported twice.</p>
+ * 
+ * <p>Not thread-safe; each index polls its tail from one thread. The
+ * watermark may be read from any thread.</p>
+ */
+public class ChangeTail {
+    
+    private static final UUID MIN_ID = new UUID(0, 0);
+    
+    private final Query query;
+    private final Duration overlap;
+    private final int pageSize;
+    private final Map<UUID, Instant> seen = new HashMap<>();
+    private volatile Instant watermark;
+    
+    /**
+     * @param query reads a page of changed rows
+     * @param start rows updated before this (minus the overlap) are not reported
+     * @param overlap how far behind the watermark each poll starts
+     * @param pageSize rows per query
+     */
+    public ChangeTail(Query query, Instant start, Duration overlap, int pageSize) {
+        this.query = query;
+        this.watermark = start;
+        this.overlap = overlap;
+        this.pageSize = Math.max(1, pageSize);
+    }
+    
+    /**
+     * Reads the rows changed since the previous poll.
+     * 
+     * @param onPage receives the ids of changed rows, one page at a time
+     * @return number of changed rows reported
+     */
+    public long poll(Consumer<List<UUID>> onPage) {
+        Instant started = Instant.now();
+        Instant newest = watermark;
+        Instant from = watermark.minus(overlap);
+        OffsetDateTime since = OffsetDateTime.ofInstant(from, ZoneOffset.UTC);
+        UUID after = MIN_ID;
+        long reported = 0;
+        List<ChangedRow> rows;
+        do {
+            rows = query.changedSince(since, after, Limit.of(pageSize));
+            List<UUID> changed = new ArrayList<>(rows.size());
+            for (ChangedRow row : rows) {
+                if (!row.getUpdatedAt().toInstant().equals(seen.get(row.getId()))) {
+                    changed.add(row.getId());
+                }
+            }
+            if (!changed.isEmpty()) {
+                // A failing consumer leaves the page unmarked, so the next poll reports it again
+                onPage.accept(changed);
+                reported += changed.size();
+            }
+            for (ChangedRow row : rows) {
+                Instant updatedAt = row.getUpdatedAt().toInstant();
+                seen.put(row.getId(), updatedAt);
+                if (updatedAt.isAfter(newest)) {
+                    newest = updatedAt;
+                }
+            }
+            if (!rows.isEmpty()) {
+                ChangedRow last = rows.get(rows.size() - 1);
+                since = last.getUpdatedAt();
+                after = last.getId();
+            }
+        } while (rows.size() == pageSize);
+        
+        watermark = newest.isAfter(started) ? newest : started;
+        Instant horizon = watermark.minus(overlap);
+        seen.values().removeIf(updatedAt -> updatedAt.isBefore(horizon));
+        return reported;
+    }
+    
+    /**
+     * @return the start of the last poll, or the newest update time seen if later
+     */
+    public Instant watermark() {
+        return watermark;
+    }
+    
+    /**
+     * A keyset query over {@code (updated_at, id)}, such as
+     * {@link com.ats.core.repository.ResumeRepository#findChangedSince}.
+     */
+    @FunctionalInterface
+    public interface Query {
+        List<ChangedRow> changedSince(OffsetDateTime since, UUID after, Limit limit);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ats.core.service.changes;
+
+import com.ats.core.repository.TombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+/**
+ * TombstoneLog - Log of deleted resumes and job descriptions.
+ * 
+ * <p>A {@link ChangeTail} over {@code updated_at} cannot see a deleted row,
+ * so deletes are recorded in the {@code tombstones} table by database
+ * triggers, whichever node or statement ran them, and followed with a
+ * change tail of their own. Tombstones are kept for
+ * {@code changes.tombstone-retention-days}; an index that has not caught up
+ * within that period must be rebuilt instead.</p>
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory")
+public class TombstoneLog {
+    
+    /** Tombstones of deleted resumes. */
+    public static final String RESUMES = "resumes";
+    /** Tombstones of deleted job descriptions. */
+    public static final String JOB_DESCRIPTIONS = "job_descriptions";
+    
+    private final TombstoneRepository tombstoneRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+    
+    public TombstoneLog(
+            TombstoneRepository tombstoneRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${changes.tombstone-retention-days:30}") long retentionDays) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.jdbc = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofDays(Math.max(1, retentionDays));
+    }
+    
+    /**
+     * Creates the triggers that record deletes. Nodes starting together may
+     * race on the function; the loser logs the error and the winner's
+     * definition is the same.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            jdbc.execute("CREATE OR REPLACE FUNCTION record_tombstone() RETURNS trigger AS $$ BEGIN "
+                    + "INSERT INTO tombstones (entity_id, entity_type, deleted_at) "
+                    + "VALUES (OLD.id, TG_TABLE_NAME, clock_timestamp()) "
+                    + "ON CONFLICT (entity_id) DO UPDATE SET entity_type = EXCLUDED.entity_type, "
+                    + "deleted_at = EXCLUDED.deleted_at; "
+                    + "RETURN OLD; END $$ LANGUAGE plpgsql");
+            for (String table : new String[]{RESUMES, JOB_DESCRIPTIONS}) {
+                String trigger = "trg_" + table + "_tombstone";
+                jdbc.execute("DO $$ BEGIN IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = '" + trigger
+                        + "') THEN CREATE TRIGGER " + trigger + " AFTER DELETE ON " + table
+                        + " FOR EACH ROW EXECUTE FUNCTION record_tombstone(); END IF; END $$");
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to create the tombstone triggers; deletes will not reach other nodes' indexes", e);
+        }
+    }
+    
+    /**
+     * A change tail query over the tombstones of one table.
+     * 
+     * @param table {@link #RESUMES} or {@link #JOB_DESCRIPTIONS}
+     */
+    public ChangeTail.Query deletionsFrom(String table) {
+        return (since, after, limit) -> tombstoneRepository.findDeletedSince(table, since, after, limit);
+    }
+    
+    /**
+     * Whether the tombstones of deletes after a point in time are still all
+     * kept, so a tail starting there misses none.
+     * 
+     * @param since the point in time
+     * @param margin extra time to allow for, e.g. a tail's overlap
+     */
+    public boolean covers(Instant since, Duration margin) {
+        return since.minus(margin).isAfter(Instant.now().minus(retention));
+    }
+    
+    /**
+     * Deletes tombstones past the retention period.
+     */
+    @Scheduled(cron = "${changes.tombstone-purge-cron:0 50 3 * * *}")
+    public void purge() {
+        try {
+            int deleted = transaction.execute(status -> tombstoneRepository.deleteDeletedBefore(
+                    OffsetDateTime.now().minus(retention)));
+            log.info("Purged {} tombstones older than {} days", deleted, retention.toDays());
+        } catch (RuntimeException e) {
+            log.warn("Tombstone purge failed: {}", e.getMessage());
+        }
+    }
+}
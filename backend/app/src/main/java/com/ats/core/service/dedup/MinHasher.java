@@ -0,0 +1,111 @@
+package com.ats.core.service.dedup;
+
+import com.ats.core.util.Tokenizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHasher - MinHash signatures over word shingles.
+ * 
+ * <p>Each shingle of {@code shingleSize} consecutive tokens is hashed once
+ * to 64 bits; the {@code i}-th signature value is the minimum of a
+ * multiply-shift hash {@code (a[i] * x + b[i]) >>> 32} over all shingles.
+ * The fraction of equal positions in two signatures estimates the Jaccard
+ * similarity of their shingle sets.</p>
+ * 
+ * <p>The hash coefficients are derived from {@code seed}, so signatures stay
+ * comparable across restarts as long as the seed, the number of hashes and
+ * the shingle size do not change.</p>
+ */
+final class MinHasher {
+    
+    private final int shingleSize;
+    private final long[] multipliers;
+    private final long[] increments;
+    
+    MinHasher(int numHashes, int shingleSize, long seed) {
+        this.shingleSize = shingleSize;
+        this.multipliers = new long[numHashes];
+        this.increments = new long[numHashes];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+    
+    /**
+     * Computes the signature of a text.
+     * 
+     * @param text extracted resume text
+     * @return the signature, or null if the text has fewer tokens than one shingle
+     */
+    int[] signature(String text) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        if (tokens.size() < shingleSize) {
+            return null;
+        }
+        
+        long[] tokenHashes = new long[tokens.size()];
+        for (int i = 0; i < tokenHashes.length; i++) {
+            tokenHashes[i] = hash(tokens.get(i));
+        }
+        
+        long[] minimums = new long[multipliers.length];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        for (int start = 0; start + shingleSize <= tokenHashes.length; start++) {
+            long shingle = 0;
+            for (int j = start; j < start + shingleSize; j++) {
+                shingle = mix(shingle * 0x9E3779B97F4A7C15L + tokenHashes[j]);
+            }
+            for (int i = 0; i < multipliers.length; i++) {
+                long value = (multipliers[i] * shingle + increments[i]) >>> 32;
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        
+        int[] signature = new int[minimums.length];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = (int) minimums[i];
+        }
+        return signature;
+    }
+    
+    /**
+     * Fraction of positions at which two signatures agree.
+     */
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+    
+    /**
+     * 64-bit FNV-1a over the characters of a token.
+     */
+    private static long hash(String token) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * SplitMix64 finalizer, so shingles that share tokens get unrelated hashes.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
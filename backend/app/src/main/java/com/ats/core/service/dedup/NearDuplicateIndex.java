@@ -0,0 +1,510 @@
+package com.ats.core.service.dedup;
+
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.service.admission.AdmissionLimiter;
+import com.ats.core.service.changes.ChangeTail;
+import com.ats.core.service.changes.TombstoneLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NearDuplicateIndex - Detects re-uploads of lightly edited resumes.
+ * 
+ * <p>Every resume's extracted text gets a {@link MinHasher} signature. The
+ * signature is split into {@code bands} bands, and each band is hashed into
+ * a bucket (locality-sensitive hashing). Two texts share at least one bucket
+ * with high probability once their Jaccard similarity clears roughly
+ * {@code (1/bands)^(1/rows)}, so a lookup only compares the signatures in
+ * its own buckets instead of the whole corpus. Candidates are then checked
+ * against {@code dedup.threshold}.</p>
+ * 
+ * <p>The index lives in memory and every signature is appended to a local
+ * file, which is replayed on startup. The file is only a cache: after
+ * startup, resumes it does not cover (uploads through other nodes, or a
+ * lost file) are indexed from their stored text in the background. While
+ * running, resumes saved through other nodes are picked up by following
+ * their {@code updated_at} column every {@code dedup.tail-ms}.</p>
+ * 
+ * <p>Deleted resumes are removed by following the {@link TombstoneLog}.
+ * Entries replayed from the file whose resume was deleted while the node
+ * was down are dropped by the startup catch-up, which then rewrites the
+ * file without them.</p>
+ */
+@Slf4j
+@Service
+public class NearDuplicateIndex {
+    
+    private static final int NUM_HASHES = 128;
+    private static final long SEED = 0x6D696E68617368L;
+    private static final int FILE_MAGIC = 0x4D484931;
+    private static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES;
+    private static final int RECORD_BYTES = Long.BYTES * 2 + Integer.BYTES * NUM_HASHES;
+    // Boilerplate shared by many resumes would make a bucket a linear scan; later entries skip it
+    private static final int MAX_BUCKET_SIZE = 256;
+    private static final int CATCH_UP_PAGE_SIZE = 500;
+    private static final long BUSY_BACKOFF_MILLIS = 500;
+    private static final UUID MIN_ID = new UUID(0, 0);
+    
+    private final ResumeRepository resumeRepository;
+    private final TombstoneLog tombstoneLog;
+    private final AdmissionLimiter admissionLimiter;
+    private final ExecutorService executor;
+    private final boolean enabled;
+    private final Path location;
+    private final double threshold;
+    private final int shingleSize;
+    private final int bands;
+    private final int rows;
+    private final MinHasher hasher;
+    private final Duration tailOverlap;
+    private final Timer lookupTimer;
+    
+    private final ConcurrentHashMap<UUID, int[]> signatures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, UUID[]> buckets = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private FileChannel appendChannel;
+    // Created once the application is ready; the startup catch-up covers everything before
+    private volatile ChangeTail tail;
+    private volatile ChangeTail deletions;
+    
+    public NearDuplicateIndex(
+            ResumeRepository resumeRepository,
+            TombstoneLog tombstoneLog,
+            AdmissionLimiter admissionLimiter,
+            ExecutorService uploadExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${dedup.enabled:true}") boolean enabled,
+            @Value("${dedup.location:./dedup/minhash.idx}") String location,
+            @Value("${dedup.threshold:0.8}") double threshold,
+            @Value("${dedup.shingle-size:3}") int shingleSize,
+            @Value("${dedup.bands:16}") int bands,
+            @Value("${dedup.tail-overlap-seconds:120}") long tailOverlapSeconds) {
+        if (bands <= 0 || NUM_HASHES % bands != 0) {
+            throw new IllegalArgumentException("dedup.bands must divide " + NUM_HASHES);
+        }
+        this.resumeRepository = resumeRepository;
+        this.tombstoneLog = tombstoneLog;
+        this.admissionLimiter = admissionLimiter;
+        this.executor = uploadExecutor;
+        this.enabled = enabled;
+        this.location = Paths.get(location);
+        this.threshold = threshold;
+        this.shingleSize = Math.max(1, shingleSize);
+        this.bands = bands;
+        this.rows = NUM_HASHES / bands;
+        this.hasher = new MinHasher(NUM_HASHES, this.shingleSize, SEED);
+        this.tailOverlap = Duration.ofSeconds(tailOverlapSeconds);
+        
+        this.lookupTimer = Timer.builder("resume.dedup.lookup")
+                .description("Time to sign an uploaded resume and look up near-duplicates")
+                .register(meterRegistry);
+        Gauge.builder("resume.dedup.indexed", signatures, ConcurrentHashMap::size)
+                .description("Resumes in the near-duplicate index")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(location.toAbsolutePath().getParent());
+            load();
+            appendChannel = FileChannel.open(location, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            if (appendChannel.size() == 0) {
+                writeFully(header());
+            }
+        } catch (IOException e) {
+            // Lookups still work from memory; the next start re-indexes from the database
+            log.warn("Near-duplicate index file {} is unavailable: {}", location.toAbsolutePath(), e.getMessage());
+            closeQuietly();
+        }
+        log.info("Loaded {} resume signatures into the near-duplicate index", signatures.size());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCatchUp() {
+        if (enabled) {
+            Instant start = Instant.now();
+            tail = new ChangeTail(resumeRepository::findChangedSince, start, tailOverlap, CATCH_UP_PAGE_SIZE);
+            deletions = new ChangeTail(tombstoneLog.deletionsFrom(TombstoneLog.RESUMES), start, tailOverlap,
+                    CATCH_UP_PAGE_SIZE);
+            Set<UUID> replayed = new HashSet<>(signatures.keySet());
+            executor.submit(() -> indexMissingResumes(replayed));
+        }
+    }
+    
+    /**
+     * Indexes resumes saved since the last run through other nodes, and
+     * removes deleted ones; this node's own uploads are already indexed by
+     * {@link #register}.
+     */
+    @Scheduled(fixedDelayString = "${dedup.tail-ms:5000}")
+    public void followChanges() {
+        if (tail == null) {
+            return;
+        }
+        try {
+            long indexed = tail.poll(this::indexMissing);
+            long removed = deletions.poll(ids -> ids.forEach(this::remove));
+            if (indexed + removed > 0) {
+                log.debug("Checked {} changed and {} deleted resumes for the near-duplicate index", indexed, removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to follow resume changes: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        closeQuietly();
+    }
+    
+    /**
+     * Finds the indexed resumes similar to a newly stored resume, then adds
+     * the new resume to the index.
+     * 
+     * <p>All matches are returned, most similar first, so the caller can
+     * pass over one deleted since the index last followed the tombstones.</p>
+     * 
+     * @param resumeId the ID of the new resume
+     * @param text its extracted text
+     * @return earlier resumes at or above the similarity threshold, most similar first
+     */
+    public List<Match> register(UUID resumeId, String text) {
+        if (!enabled) {
+            return List.of();
+        }
+        long started = System.nanoTime();
+        int[] signature = hasher.signature(text);
+        if (signature == null) {
+            return List.of();
+        }
+        List<Match> matches = findSimilar(resumeId, signature);
+        add(resumeId, signature);
+        lookupTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+    
+    /**
+     * Removes a resume from the in-memory index. The file keeps its record
+     * until the next startup rewrites it.
+     */
+    public void remove(UUID resumeId) {
+        int[] signature = signatures.remove(resumeId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfPresent(bucketKey(signature, band), (key, members) -> {
+                UUID[] kept = Arrays.stream(members).filter(id -> !id.equals(resumeId)).toArray(UUID[]::new);
+                return kept.length == 0 ? null : kept;
+            });
+        }
+    }
+    
+    /**
+     * Compares the signature against every resume sharing one of its buckets.
+     */
+    private List<Match> findSimilar(UUID resumeId, int[] signature) {
+        Set<UUID> compared = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (int band = 0; band < bands; band++) {
+            UUID[] candidates = buckets.get(bucketKey(signature, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (UUID candidate : candidates) {
+                if (candidate.equals(resumeId) || !compared.add(candidate)) {
+                    continue;
+                }
+                int[] other = signatures.get(candidate);
+                if (other == null) {
+                    // Removed while this lookup ran
+                    continue;
+                }
+                double similarity = MinHasher.similarity(signature, other);
+                if (similarity >= threshold) {
+                    matches.add(new Match(candidate, similarity));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed());
+        return matches;
+    }
+    
+    private void add(UUID resumeId, int[] signature) {
+        if (!index(resumeId, signature)) {
+            return;
+        }
+        ByteBuffer record = record(resumeId, signature);
+        synchronized (writeLock) {
+            if (appendChannel == null) {
+                return;
+            }
+            try {
+                writeFully(record);
+            } catch (IOException e) {
+                log.warn("Failed to append to near-duplicate index file: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Adds a signature to the in-memory index.
+     * 
+     * @return false if the resume was already indexed
+     */
+    private boolean index(UUID resumeId, int[] signature) {
+        if (signatures.putIfAbsent(resumeId, signature) != null) {
+            return false;
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.compute(bucketKey(signature, band), (key, members) -> {
+                if (members == null) {
+                    return new UUID[]{resumeId};
+                }
+                if (members.length >= MAX_BUCKET_SIZE) {
+                    return members;
+                }
+                UUID[] grown = Arrays.copyOf(members, members.length + 1);
+                grown[members.length] = resumeId;
+                return grown;
+            });
+        }
+        return true;
+    }
+    
+    private long bucketKey(int[] signature, int band) {
+        long hash = band + 1;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = MinHasher.mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+    
+    /**
+     * Replays the index file. A record cut off by a crash is truncated; a
+     * file written with other parameters is discarded.
+     */
+    private void load() throws IOException {
+        if (!Files.exists(location)) {
+            return;
+        }
+        long size = Files.size(location);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(location)))) {
+            if (size < HEADER_BYTES || !matchesHeader(in)) {
+                log.warn("Discarding near-duplicate index file {} written with other parameters", location);
+                Files.delete(location);
+                return;
+            }
+            long records = (size - HEADER_BYTES) / RECORD_BYTES;
+            for (long r = 0; r < records; r++) {
+                UUID resumeId = new UUID(in.readLong(), in.readLong());
+                int[] signature = new int[NUM_HASHES];
+                for (int i = 0; i < NUM_HASHES; i++) {
+                    signature[i] = in.readInt();
+                }
+                index(resumeId, signature);
+            }
+            long complete = HEADER_BYTES + records * RECORD_BYTES;
+            if (complete < size) {
+                log.warn("Truncating incomplete record at the end of {}", location);
+                try (FileChannel channel = FileChannel.open(location, StandardOpenOption.WRITE)) {
+                    channel.truncate(complete);
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Unexpected end of " + location, e);
+        }
+    }
+    
+    private boolean matchesHeader(DataInputStream in) throws IOException {
+        return in.readInt() == FILE_MAGIC
+                && in.readInt() == NUM_HASHES
+                && in.readInt() == shingleSize
+                && in.readLong() == SEED;
+    }
+    
+    private ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(FILE_MAGIC)
+                .putInt(NUM_HASHES)
+                .putInt(shingleSize)
+                .putLong(SEED)
+                .flip();
+    }
+    
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            appendChannel.write(buffer);
+        }
+    }
+    
+    private ByteBuffer record(UUID resumeId, int[] signature) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES)
+                .putLong(resumeId.getMostSignificantBits())
+                .putLong(resumeId.getLeastSignificantBits());
+        for (int value : signature) {
+            record.putInt(value);
+        }
+        return record.flip();
+    }
+    
+    /**
+     * Rewrites the index file from memory, dropping the records of removed
+     * resumes. Appends wait for the rewrite; one that indexed its resume in
+     * memory before the rewrite read it is written twice, which the replay
+     * ignores.
+     */
+    private void rewrite() throws IOException {
+        synchronized (writeLock) {
+            if (appendChannel == null) {
+                return;
+            }
+            Path rewritten = location.resolveSibling(location.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(rewritten, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(channel, header());
+                for (var entry : signatures.entrySet()) {
+                    write(channel, record(entry.getKey(), entry.getValue()));
+                }
+                channel.force(false);
+            }
+            appendChannel.close();
+            appendChannel = null;
+            Files.move(rewritten, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            appendChannel = FileChannel.open(location, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+    
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Indexes stored resumes the file did not cover, walking resume ids in
+     * keyset pages and loading text only for the missing ones. Replayed
+     * entries the walk does not meet were deleted while the node was down;
+     * they are removed and the file is rewritten without them.
+     * 
+     * @param replayed the resumes loaded from the file; consumed by the walk
+     */
+    private void indexMissingResumes(Set<UUID> replayed) {
+        long indexed = 0;
+        try {
+            UUID after = MIN_ID;
+            while (true) {
+                List<UUID> ids = resumeRepository.findIdsGreaterThan(after, Limit.of(CATCH_UP_PAGE_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                after = ids.get(ids.size() - 1);
+                ids.forEach(replayed::remove);
+                if (ids.stream().allMatch(signatures::containsKey)) {
+                    continue;
+                }
+                while (admissionLimiter.isBusy()) {
+                    TimeUnit.MILLISECONDS.sleep(BUSY_BACKOFF_MILLIS);
+                }
+                indexed += indexMissing(ids);
+            }
+            if (indexed > 0) {
+                log.info("Indexed {} stored resumes missing from the near-duplicate index", indexed);
+            }
+            if (!replayed.isEmpty()) {
+                replayed.forEach(this::remove);
+                rewrite();
+                log.info("Removed {} deleted resumes from the near-duplicate index", replayed.size());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to rewrite near-duplicate index file: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Near-duplicate catch-up failed after {} resumes", indexed, e);
+        }
+    }
+    
+    /**
+     * Signs and adds those of the given resumes that are not indexed yet.
+     * 
+     * @return number of resumes added
+     */
+    private int indexMissing(List<UUID> ids) {
+        List<UUID> missing = ids.stream().filter(id -> !signatures.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        int indexed = 0;
+        for (ResumeRepository.ResumeText resume : resumeRepository.findTextsByIdIn(missing)) {
+            int[] signature = hasher.signature(resume.getExtractedText());
+            if (signature != null) {
+                add(resume.getId(), signature);
+                indexed++;
+            }
+        }
+        return indexed;
+    }
+    
+    private void closeQuietly() {
+        synchronized (writeLock) {
+            if (appendChannel == null) {
+                return;
+            }
+            try {
+                appendChannel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close near-duplicate index file", e);
+            }
+            appendChannel = null;
+        }
+    }
+    
+    /**
+     * An indexed resume similar to the one being registered.
+     * 
+     * @param resumeId the earlier resume
+     * @param similarity estimated Jaccard similarity of the word shingles (0-1)
+     */
+    public record Match(UUID resumeId, double similarity) {
+    }
+}
@@ -0,0 +1,244 @@
+package com.ats.core.service.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * FlightRecorderService - Java Flight Recorder recordings of the resume pipeline.
+ * 
+ * <p>A continuous recording of only the {@link PipelineEvents} runs from
+ * startup. It keeps the last few minutes within a fixed size on disk, so when
+ * a node slows down its per-request stage timings can be dumped after the
+ * fact. It records only those events, a handful per request and without
+ * stack traces, and is meant to be left on in production.</p>
+ * 
+ * <p>An on-demand recording can be started for a bounded time, optionally
+ * with the JVM's default event set (GC, locks, I/O, allocation samples) for
+ * a fuller picture, then stopped and downloaded. Only one runs at a time.</p>
+ * 
+ * <p>Recordings are handed out as temporary files for the caller to stream
+ * and delete, since an on-demand recording may be up to
+ * {@code flight-recorder.max-size-mb} large.</p>
+ */
+@Slf4j
+@Service
+public class FlightRecorderService {
+    
+    private static final String CONTINUOUS_NAME = "ats-pipeline";
+    private static final String ON_DEMAND_NAME = "ats-on-demand";
+    
+    private final boolean continuousEnabled;
+    private final Duration continuousMaxAge;
+    private final long continuousMaxBytes;
+    private final Duration maxDuration;
+    private final long maxBytes;
+    
+    private Recording continuous;
+    private Recording onDemand;
+    
+    public FlightRecorderService(
+            @Value("${flight-recorder.continuous.enabled:true}") boolean continuousEnabled,
+            @Value("${flight-recorder.continuous.max-age-minutes:15}") long continuousMaxAgeMinutes,
+            @Value("${flight-recorder.continuous.max-size-mb:16}") long continuousMaxSizeMb,
+            @Value("${flight-recorder.max-duration-minutes:30}") long maxDurationMinutes,
+            @Value("${flight-recorder.max-size-mb:128}") long maxSizeMb) {
+        this.continuousEnabled = continuousEnabled;
+        this.continuousMaxAge = Duration.ofMinutes(continuousMaxAgeMinutes);
+        this.continuousMaxBytes = continuousMaxSizeMb * 1024 * 1024;
+        this.maxDuration = Duration.ofMinutes(maxDurationMinutes);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+    
+    @PostConstruct
+    public synchronized void init() {
+        if (!continuousEnabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Java Flight Recorder is not available; pipeline events are not recorded");
+            return;
+        }
+        continuous = new Recording();
+        continuous.setName(CONTINUOUS_NAME);
+        enablePipelineEvents(continuous);
+        continuous.setToDisk(true);
+        continuous.setMaxAge(continuousMaxAge);
+        continuous.setMaxSize(continuousMaxBytes);
+        continuous.start();
+        log.info("Recording pipeline events continuously (last {} min, up to {} MB)",
+                continuousMaxAge.toMinutes(), continuousMaxBytes / (1024 * 1024));
+    }
+    
+    /**
+     * Starts an on-demand recording. It stops by itself after the given
+     * duration and is kept until downloaded with {@link #stop()}.
+     * 
+     * @param duration how long to record; capped at the configured maximum
+     * @param jvmEvents whether to also record the JVM's default event set
+     * @return status of the started recording
+     */
+    public synchronized RecordingStatus start(Duration duration, boolean jvmEvents) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Java Flight Recorder is not available");
+        }
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A recording is already running");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duration must be positive");
+        }
+        if (onDemand != null) {
+            // A finished recording nobody downloaded
+            onDemand.close();
+        }
+        
+        Recording recording;
+        try {
+            recording = jvmEvents ? new Recording(Configuration.getConfiguration("default")) : new Recording();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot read the default JFR configuration", e);
+        }
+        recording.setName(ON_DEMAND_NAME);
+        enablePipelineEvents(recording);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxBytes);
+        recording.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        recording.start();
+        onDemand = recording;
+        log.info("Started on-demand flight recording for {} s (JVM events: {})",
+                recording.getDuration().toSeconds(), jvmEvents);
+        return RecordingStatus.of(recording);
+    }
+    
+    /**
+     * Stops the on-demand recording, if still running, and dumps its data.
+     * 
+     * @return a temporary file with the recording in JFR format; the caller deletes it
+     */
+    public synchronized Path stop() {
+        if (onDemand == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No recording was started");
+        }
+        Recording recording = onDemand;
+        onDemand = null;
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            return dump(recording);
+        } finally {
+            recording.close();
+        }
+    }
+    
+    /**
+     * Dumps what the continuous recording currently holds.
+     * 
+     * @return a temporary file with the recording in JFR format; the caller deletes it
+     */
+    public synchronized Path dumpContinuous() {
+        if (continuous == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Continuous recording is disabled");
+        }
+        return dump(continuous);
+    }
+    
+    /**
+     * Describes the continuous and the on-demand recording.
+     * 
+     * @return one status per recording; null where there is none
+     */
+    public synchronized Status status() {
+        return new Status(continuous != null ? RecordingStatus.of(continuous) : null,
+                onDemand != null ? RecordingStatus.of(onDemand) : null);
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (onDemand != null) {
+            onDemand.close();
+        }
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+    
+    private static void enablePipelineEvents(Recording recording) {
+        for (Class<? extends Event> type : PipelineEvents.TYPES) {
+            recording.enable(type).withoutStackTrace().withThreshold(Duration.ZERO);
+        }
+    }
+    
+    private static Path dump(Recording recording) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("ats-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            delete(file);
+            throw new IllegalStateException("Failed to dump flight recording", e);
+        }
+    }
+    
+    /**
+     * Removes a dumped recording that could not be sent.
+     * 
+     * @param file the file returned by {@link #stop()} or {@link #dumpContinuous()}; may be null
+     */
+    public static void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to remove dumped recording {}", file, e);
+        }
+    }
+    
+    /**
+     * The recordings of this node.
+     */
+    public record Status(RecordingStatus continuous, RecordingStatus onDemand) {
+    }
+    
+    /**
+     * State and bounds of one recording.
+     * 
+     * @param name recording name
+     * @param state NEW, RUNNING, STOPPED or CLOSED
+     * @param startTime when recording began; null if not started
+     * @param durationSeconds time after which it stops by itself; null if it runs until stopped
+     * @param maxAgeSeconds age after which data is discarded; null if unbounded
+     * @param maxSizeBytes size after which the oldest data is discarded
+     * @param sizeBytes data recorded so far
+     */
+    public record RecordingStatus(String name, RecordingState state, Instant startTime, Long durationSeconds,
+                                  Long maxAgeSeconds, long maxSizeBytes, long sizeBytes) {
+        
+        static RecordingStatus of(Recording recording) {
+            return new RecordingStatus(recording.getName(), recording.getState(), recording.getStartTime(),
+                    recording.getDuration() != null ? recording.getDuration().toSeconds() : null,
+                    recording.getMaxAge() != null ? recording.getMaxAge().toSeconds() : null,
+                    recording.getMaxSize(), recording.getSize());
+        }
+    }
+}
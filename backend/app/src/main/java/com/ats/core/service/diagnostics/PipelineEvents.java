@@ -0,0 +1,141 @@
+package com.ats.core.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+/**
+ * PipelineEvents - Java Flight Recorder events for the stages of resume processing.
+ * 
+ * <p>Each event times one stage of one request and carries the IDs needed to
+ * line it up with the others. Events cost next to nothing while no recording
+ * is running; with one running they are written to thread-local buffers,
+ * without stack traces, and fields that take work to compute are only filled
+ * in when {@code shouldCommit()} says the event will be kept.</p>
+ * 
+ * <p>Open a dump in JDK Mission Control, or list it with
+ * {@code jfr print --categories ATS recording.jfr}.</p>
+ */
+public final class PipelineEvents {
+    
+    static final String CATEGORY = "ATS";
+    
+    /** Every pipeline event type, as enabled by the recordings of {@link FlightRecorderService}. */
+    static final List<Class<? extends Event>> TYPES = List.of(
+            StorageWrite.class, Extraction.class, Tokenize.class, Scoring.class, ReportRender.class);
+    
+    private PipelineEvents() {
+        // Private constructor to prevent instantiation
+    }
+    
+    @Name("com.ats.StorageWrite")
+    @Label("Storage Write")
+    @Description("An upload or report written to file storage")
+    @Category({CATEGORY, "Pipeline"})
+    @StackTrace(false)
+    public static final class StorageWrite extends Event {
+        
+        @Label("Stored Filename")
+        public String storedFilename;
+        
+        @Label("Backend")
+        @Description("local or s3")
+        public String backend;
+        
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+    
+    @Name("com.ats.Extraction")
+    @Label("Text Extraction")
+    @Description("Text extraction of one document; runs before the resume is saved, so it is identified by filename")
+    @Category({CATEGORY, "Pipeline"})
+    @StackTrace(false)
+    public static final class Extraction extends Event {
+        
+        @Label("Filename")
+        public String filename;
+        
+        @Label("Format")
+        @Description("Detected media type of the document")
+        public String format;
+        
+        @Label("Status")
+        public String status;
+        
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+        
+        @Label("Characters")
+        public int chars;
+        
+        @Label("Pages")
+        public int pages;
+    }
+    
+    @Name("com.ats.Tokenize")
+    @Label("Normalize and Tokenize")
+    @Description("Normalization and tokenization of a resume and its job description before scoring")
+    @Category({CATEGORY, "Pipeline"})
+    @StackTrace(false)
+    public static final class Tokenize extends Event {
+        
+        @Label("Resume ID")
+        public String resumeId;
+        
+        @Label("Resume Tokens")
+        public int resumeTokens;
+        
+        @Label("Job Description Tokens")
+        public int jobDescriptionTokens;
+    }
+    
+    @Name("com.ats.Scoring")
+    @Label("Scoring")
+    @Description("Scoring of a resume, including tokenization and saving the score")
+    @Category({CATEGORY, "Pipeline"})
+    @StackTrace(false)
+    public static final class Scoring extends Event {
+        
+        @Label("Resume ID")
+        public String resumeId;
+        
+        @Label("Score ID")
+        public String scoreId;
+        
+        @Label("Profiles")
+        @Description("Scoring profiles applied in addition to the active weights")
+        public int profiles;
+        
+        @Label("General Analysis")
+        public boolean generalAnalysis;
+        
+        @Label("Overall")
+        public double overall;
+    }
+    
+    @Name("com.ats.ReportRender")
+    @Label("PDF Report Render")
+    @Category({CATEGORY, "Pipeline"})
+    @StackTrace(false)
+    public static final class ReportRender extends Event {
+        
+        @Label("Resume ID")
+        public String resumeId;
+        
+        @Label("Score ID")
+        public String scoreId;
+        
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+}
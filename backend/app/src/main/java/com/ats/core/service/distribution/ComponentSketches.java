@@ -0,0 +1,90 @@
+package com.ats.core.service.distribution;
+
+import com.ats.core.model.ScoreSketch;
+import com.tdunning.math.stats.MergingDigest;
+import com.tdunning.math.stats.TDigest;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ComponentSketches - One t-digest per score component.
+ * 
+ * <p>Not thread-safe; callers confine each instance to one thread or guard it
+ * with a map's per-key atomicity.</p>
+ */
+final class ComponentSketches {
+    
+    // ~1% worst-case rank error in the tails, a few KB per digest
+    private static final double COMPRESSION = 100;
+    
+    private final Map<ScoreComponent, TDigest> digests = new EnumMap<>(ScoreComponent.class);
+    
+    ComponentSketches() {
+        for (ScoreComponent component : ScoreComponent.values()) {
+            digests.put(component, new MergingDigest(COMPRESSION));
+        }
+    }
+    
+    void add(double keywordMatch, double skillRelevance, double formatting, double overall) {
+        digests.get(ScoreComponent.KEYWORD_MATCH).add(keywordMatch);
+        digests.get(ScoreComponent.SKILL_RELEVANCE).add(skillRelevance);
+        digests.get(ScoreComponent.FORMATTING).add(formatting);
+        digests.get(ScoreComponent.OVERALL).add(overall);
+    }
+    
+    void merge(ComponentSketches other) {
+        digests.forEach((component, digest) -> digest.add(other.digests.get(component)));
+    }
+    
+    ComponentSketches copy() {
+        ComponentSketches copy = new ComponentSketches();
+        copy.merge(this);
+        return copy;
+    }
+    
+    long count() {
+        return digests.get(ScoreComponent.OVERALL).size();
+    }
+    
+    TDigest digest(ScoreComponent component) {
+        return digests.get(component);
+    }
+    
+    /**
+     * Reads the sketches stored in an entity; missing digests are empty.
+     */
+    static ComponentSketches from(ScoreSketch entity) {
+        ComponentSketches sketches = new ComponentSketches();
+        sketches.read(ScoreComponent.KEYWORD_MATCH, entity.getKeywordMatch());
+        sketches.read(ScoreComponent.SKILL_RELEVANCE, entity.getSkillRelevance());
+        sketches.read(ScoreComponent.FORMATTING, entity.getFormatting());
+        sketches.read(ScoreComponent.OVERALL, entity.getOverall());
+        return sketches;
+    }
+    
+    /**
+     * Writes the sketches into an entity.
+     */
+    void writeTo(ScoreSketch entity) {
+        entity.setScoreCount(count());
+        entity.setKeywordMatch(bytes(ScoreComponent.KEYWORD_MATCH));
+        entity.setSkillRelevance(bytes(ScoreComponent.SKILL_RELEVANCE));
+        entity.setFormatting(bytes(ScoreComponent.FORMATTING));
+        entity.setOverall(bytes(ScoreComponent.OVERALL));
+    }
+    
+    private void read(ScoreComponent component, byte[] bytes) {
+        if (bytes != null) {
+            digests.put(component, MergingDigest.fromBytes(ByteBuffer.wrap(bytes)));
+        }
+    }
+    
+    private byte[] bytes(ScoreComponent component) {
+        TDigest digest = digests.get(component);
+        ByteBuffer buffer = ByteBuffer.allocate(digest.byteSize());
+        digest.asBytes(buffer);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ats.core.service.distribution;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ScoreComponent - Score values tracked by the distribution sketches.
+ */
+public enum ScoreComponent {
+    KEYWORD_MATCH("keywordMatch"),
+    SKILL_RELEVANCE("skillRelevance"),
+    FORMATTING("formatting"),
+    OVERALL("overall");
+    
+    private final String fieldName;
+    
+    ScoreComponent(String fieldName) {
+        this.fieldName = fieldName;
+    }
+    
+    /**
+     * Returns the JSON field name of the component, as used in score responses.
+     */
+    public String fieldName() {
+        return fieldName;
+    }
+    
+    /**
+     * Looks up a component by its JSON field name.
+     * 
+     * @param name the field name, e.g. {@code keywordMatch}
+     * @return the component
+     */
+    public static ScoreComponent fromFieldName(String name) {
+        for (ScoreComponent component : values()) {
+            if (component.fieldName.equalsIgnoreCase(name)) {
+                return component;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown score component: " + name);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ats.core.service.distribution;
+
+import com.ats.core.model.Score;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ScoreDistributionListener - Feeds saved scores into the distribution sketches.
+ * 
+ * <p>Registered as a JPA entity listener on {@link Score} and instantiated by
+ * Spring. The score is recorded only after its transaction commits, so a
+ * rolled-back insert never reaches a sketch.</p>
+ */
+@Component
+public class ScoreDistributionListener {
+    
+    // Resolved lazily: entity listeners are created while the EntityManagerFactory is built
+    private final ObjectProvider<ScoreDistributionService> distributionService;
+    
+    public ScoreDistributionListener(ObjectProvider<ScoreDistributionService> distributionService) {
+        this.distributionService = distributionService;
+    }
+    
+    @PostPersist
+    public void onScoreSaved(Score score) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            distributionService.getObject().record(score);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                distributionService.getObject().record(score);
+            }
+        });
+    }
+}
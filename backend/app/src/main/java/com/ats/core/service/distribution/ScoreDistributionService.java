@@ -0,0 +1,391 @@
+package com.ats.core.service.distribution;
+
+import com.ats.core.dto.ScoreDistribution;
+import com.ats.core.model.Score;
+import com.ats.core.model.ScoreSketch;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.repository.ScoreSketchRepository;
+import com.ats.core.service.OverallScoresRecomputedEvent;
+import com.ats.core.service.ScoringService;
+import com.tdunning.math.stats.TDigest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * ScoreDistributionService - Per-job-description score distributions from quantile sketches.
+ * 
+ * <p>Keeps a t-digest per score component for every job description (and
+ * one for general analysis), so percentile ranks and histograms are served
+ * in constant time instead of loading and sorting every score. Sketches
+ * only cover scores of the current {@link ScoringService#ALGORITHM_VERSION};
+ * scores against an ad-hoc job description text are not comparable and are
+ * left out.</p>
+ * 
+ * <p>Each saved score is added to a local delta once its transaction
+ * commits. A scheduled flush merges the deltas into the shared
+ * {@code score_sketches} rows under a row lock, which is how sketches from
+ * several nodes are combined, and then reloads rows changed by other nodes.
+ * Queries merge the shared snapshot with the unflushed local delta. A node
+ * that crashes loses at most one flush interval of updates; a rebuild from
+ * the scores table, which also runs after overall scores are recomputed,
+ * restores exact coverage.</p>
+ * 
+ * <p>A rebuild counts the scores created before its start and stamps that
+ * time on the rows it writes. Deltas keep each score's creation time until
+ * they are flushed, and a flush, on any node, only adds the scores created
+ * after the stamp of the row it merges into, so no score is counted by both.
+ * A score whose transaction commits after the rebuild's scan started, but
+ * which was created before it, is missed until the next rebuild.</p>
+ */
+@Slf4j
+@Service
+public class ScoreDistributionService {
+    
+    public static final String GENERAL_KEY = "general";
+    
+    private static final int VERSION = ScoringService.ALGORITHM_VERSION;
+    // Rows are stamped before their transaction commits; re-reading a window covers late commits
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final double[] PERCENTILES = {10, 25, 50, 75, 90, 99};
+    private static final double MAX_SCORE = 100.0;
+    
+    private final ScoreSketchRepository sketchRepository;
+    private final ScoreRepository scoreRepository;
+    private final TransactionTemplate transaction;
+    
+    private final ConcurrentHashMap<String, List<Sample>> deltas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicReference<OffsetDateTime> lastRefresh = new AtomicReference<>();
+    
+    public ScoreDistributionService(
+            ScoreSketchRepository sketchRepository,
+            ScoreRepository scoreRepository,
+            PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.scoreRepository = scoreRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshots() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Failed to load score sketches: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    /**
+     * Adds a committed score to the local sketches.
+     * 
+     * @param score the saved score
+     */
+    public void record(Score score) {
+        String key = sketchKey(score);
+        if (key == null) {
+            return;
+        }
+        Sample sample = new Sample(score.getCreatedAt().toInstant(), score.getKeywordMatch(),
+                score.getSkillRelevance(), score.getFormatting(), score.getOverall());
+        deltas.compute(key, (k, delta) -> {
+            List<Sample> samples = delta != null ? delta : new ArrayList<>();
+            samples.add(sample);
+            return samples;
+        });
+    }
+    
+    /**
+     * Merges local deltas into the shared sketches and reloads sketches
+     * changed by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${scoring.distribution.flush-ms:10000}")
+    public void flushAndRefresh() {
+        try {
+            flush();
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Failed to synchronize score sketches: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Returns the distribution of one score component for a job description.
+     * 
+     * @param key job description id, or {@value #GENERAL_KEY}
+     * @param component the score component
+     * @param value optional score to rank within the distribution
+     * @param bins number of equal-width histogram buckets over 0-100
+     * @return the distribution
+     */
+    public ScoreDistribution getDistribution(String key, ScoreComponent component, Double value, int bins) {
+        ComponentSketches sketches = current(key);
+        if (sketches == null || sketches.count() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No scores recorded for " + key);
+        }
+        TDigest digest = sketches.digest(component);
+        long count = digest.size();
+        
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (int) percentile, digest.quantile(percentile / 100));
+        }
+        
+        double width = MAX_SCORE / bins;
+        double[] shares = new double[bins];
+        double below = 0;
+        for (int i = 0; i < bins; i++) {
+            // Buckets are [from, to); the last one is closed so a score of 100 is counted
+            double upTo = i == bins - 1 ? 1.0 : rankBelow(digest, (i + 1) * width);
+            shares[i] = (upTo - below) * count;
+            below = upTo;
+        }
+        long[] counts = apportion(shares, count);
+        List<ScoreDistribution.Bucket> histogram = new ArrayList<>(bins);
+        for (int i = 0; i < bins; i++) {
+            histogram.add(new ScoreDistribution.Bucket(i * width, i == bins - 1 ? MAX_SCORE : (i + 1) * width,
+                    counts[i]));
+        }
+        
+        return ScoreDistribution.builder()
+                .jobDescription(key)
+                .component(component.fieldName())
+                .algorithmVersion(VERSION)
+                .count(count)
+                .min(digest.getMin())
+                .max(digest.getMax())
+                .percentiles(percentiles)
+                .histogram(histogram)
+                .percentileRank(value != null ? 100 * rankBelow(digest, value) : null)
+                .build();
+    }
+    
+    /**
+     * Rebuilds the shared sketches of the current algorithm version from the
+     * scores table.
+     * 
+     * @return number of scores read
+     */
+    public long rebuild() {
+        log.info("Rebuilding score sketches for algorithm version {}", VERSION);
+        Long scanned = transaction.execute(status -> {
+            sketchRepository.deleteByAlgorithmVersion(VERSION);
+            // Taken once the old rows are locked, so no flush can add a later score to a row being replaced.
+            // Scores created from now on reach the rebuilt rows through the deltas of the node that saved them.
+            OffsetDateTime rebuiltAt = OffsetDateTime.now();
+            long rows = 0;
+            String currentKey = null;
+            ComponentSketches sketches = null;
+            try (Stream<ScoreRepository.SketchSample> samples = scoreRepository.streamSketchSamples(VERSION,
+                    rebuiltAt)) {
+                for (ScoreRepository.SketchSample sample : (Iterable<ScoreRepository.SketchSample>) samples::iterator) {
+                    String key = sample.getJobDescriptionId() != null
+                            ? sample.getJobDescriptionId().toString() : GENERAL_KEY;
+                    if (!key.equals(currentKey)) {
+                        saveRebuilt(currentKey, sketches, rebuiltAt);
+                        currentKey = key;
+                        sketches = new ComponentSketches();
+                    }
+                    sketches.add(sample.getKeywordMatch(), sample.getSkillRelevance(), sample.getFormatting(),
+                            sample.getOverall());
+                    rows++;
+                }
+            }
+            saveRebuilt(currentKey, sketches, rebuiltAt);
+            return rows;
+        });
+        
+        snapshots.clear();
+        lastRefresh.set(null);
+        refresh();
+        log.info("Rebuilt score sketches for algorithm version {} from {} scores", VERSION, scanned);
+        return scanned != null ? scanned : 0;
+    }
+    
+    @EventListener
+    public void onOverallScoresRecomputed(OverallScoresRecomputedEvent event) {
+        log.info("Overall scores recomputed with weights version {}; rebuilding score sketches",
+                event.weightsVersion());
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild score sketches", e);
+        }
+    }
+    
+    /**
+     * Merges each local delta into its shared row, leaving out the scores a
+     * rebuild of the row already counted. A delta that fails to flush is
+     * merged back and retried on the next flush.
+     */
+    private void flush() {
+        for (String key : List.copyOf(deltas.keySet())) {
+            List<Sample> delta = deltas.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                Snapshot merged = transaction.execute(status -> {
+                    sketchRepository.insertIfAbsent(key, VERSION);
+                    // Waits for a rebuild that is replacing the row; a row it deleted is retried next time
+                    ScoreSketch row = sketchRepository.findForUpdate(new ScoreSketch.Key(key, VERSION))
+                            .orElseThrow(() -> new IllegalStateException("Score sketch row vanished: " + key));
+                    Snapshot shared = Snapshot.of(row);
+                    shared.add(delta);
+                    shared.sketches().writeTo(row);
+                    return shared;
+                });
+                snapshots.put(key, merged);
+            } catch (RuntimeException e) {
+                deltas.merge(key, delta, (pending, failed) -> {
+                    pending.addAll(failed);
+                    return pending;
+                });
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Reloads shared rows written since the last refresh.
+     */
+    private void refresh() {
+        OffsetDateTime started = OffsetDateTime.now();
+        OffsetDateTime previous = lastRefresh.get();
+        OffsetDateTime since = previous != null
+                ? previous.minus(REFRESH_OVERLAP) : OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+        
+        List<ScoreSketch> rows = sketchRepository.findUpdatedSince(VERSION, since);
+        for (ScoreSketch row : rows) {
+            snapshots.put(row.getId().getSketchKey(), Snapshot.of(row));
+        }
+        lastRefresh.set(started);
+        if (!rows.isEmpty()) {
+            log.debug("Loaded {} score sketches", rows.size());
+        }
+    }
+    
+    /**
+     * Combines the shared snapshot with this node's unflushed delta.
+     */
+    private ComponentSketches current(String key) {
+        Snapshot snapshot = snapshots.get(key);
+        Snapshot combined = snapshot != null ? snapshot.copy() : new Snapshot(new ComponentSketches(), null);
+        deltas.computeIfPresent(key, (k, delta) -> {
+            combined.add(delta);
+            return delta;
+        });
+        return snapshot != null || combined.sketches().count() > 0 ? combined.sketches() : null;
+    }
+    
+    private String sketchKey(Score score) {
+        if (score.getAlgorithmVersion() == null || score.getAlgorithmVersion() != VERSION) {
+            return null;
+        }
+        if (score.getJobDescription() != null) {
+            return score.getJobDescription().getId().toString();
+        }
+        return Boolean.TRUE.equals(score.getGeneralAnalysis()) ? GENERAL_KEY : null;
+    }
+    
+    private void saveRebuilt(String key, ComponentSketches sketches, OffsetDateTime rebuiltAt) {
+        if (key == null) {
+            return;
+        }
+        ScoreSketch row = ScoreSketch.builder().id(new ScoreSketch.Key(key, VERSION)).rebuiltAt(rebuiltAt).build();
+        sketches.writeTo(row);
+        sketchRepository.save(row);
+    }
+    
+    /**
+     * Rounds the shares of a total to whole numbers that add up to it, giving
+     * the units left after rounding down to the largest remainders.
+     */
+    static long[] apportion(double[] shares, long total) {
+        long[] counts = new long[shares.length];
+        long assigned = 0;
+        for (int i = 0; i < shares.length; i++) {
+            counts[i] = (long) Math.floor(Math.max(0, shares[i]));
+            assigned += counts[i];
+        }
+        Integer[] byRemainder = new Integer[shares.length];
+        for (int i = 0; i < shares.length; i++) {
+            byRemainder[i] = i;
+        }
+        Arrays.sort(byRemainder, Comparator.comparingDouble((Integer i) -> counts[i] - shares[i]));
+        for (int i = 0; assigned < total && i < byRemainder.length; i++, assigned++) {
+            counts[byRemainder[i]]++;
+        }
+        return counts;
+    }
+    
+    /**
+     * A committed score not yet flushed.
+     */
+    private record Sample(Instant createdAt, double keywordMatch, double skillRelevance, double formatting,
+            double overall) {
+    }
+    
+    /**
+     * The sketches of a shared row and the rebuild time stamped on it.
+     * Scores created before that time are already counted.
+     */
+    private record Snapshot(ComponentSketches sketches, Instant rebuiltAt) {
+        
+        static Snapshot of(ScoreSketch row) {
+            return new Snapshot(ComponentSketches.from(row),
+                    row.getRebuiltAt() != null ? row.getRebuiltAt().toInstant() : null);
+        }
+        
+        Snapshot copy() {
+            return new Snapshot(sketches.copy(), rebuiltAt);
+        }
+        
+        void add(List<Sample> samples) {
+            for (Sample sample : samples) {
+                if (rebuiltAt == null || !sample.createdAt().isBefore(rebuiltAt)) {
+                    sketches.add(sample.keywordMatch(), sample.skillRelevance(), sample.formatting(),
+                            sample.overall());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Fraction of values strictly below {@code x}. The digest splits the mass
+     * of a repeated value around it, and scores repeat often; evaluating just
+     * below {@code x} keeps ties out of the rank.
+     */
+    private static double rankBelow(TDigest digest, double x) {
+        if (x <= digest.getMin()) {
+            return 0;
+        }
+        return x > digest.getMax() ? 1 : digest.cdf(Math.nextDown(x));
+    }
+}
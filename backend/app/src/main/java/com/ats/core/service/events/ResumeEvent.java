@@ -0,0 +1,38 @@
+package com.ats.core.service.events;
+
+/**
+ * ResumeEvent - One step of a resume's processing pipeline, as streamed to watchers.
+ * 
+ * @param id sequence number within the resume's stream, used as the SSE event ID
+ * @param stage pipeline stage that was reached
+ * @param data details of the stage, sent as JSON
+ * @param last whether the stream ends after this event
+ */
+public record ResumeEvent(long id, Stage stage, Object data, boolean last) {
+    
+    public enum Stage {
+        /** The upload was written to storage. */
+        STORED("stored"),
+        /** The text was extracted and the resume saved. */
+        EXTRACTED("extracted"),
+        /** The resume and job description were tokenized for scoring. */
+        TOKENIZED("tokenized"),
+        /** The score was computed and saved; the data is the score. */
+        SCORED("scored"),
+        /** Processing failed. */
+        FAILED("failed");
+        
+        private final String value;
+        
+        Stage(String value) {
+            this.value = value;
+        }
+        
+        /**
+         * Name used as the SSE event name.
+         */
+        public String value() {
+            return value;
+        }
+    }
+}
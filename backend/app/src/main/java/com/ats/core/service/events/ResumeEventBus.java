@@ -0,0 +1,315 @@
+package com.ats.core.service.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ResumeEventBus - In-process stream of pipeline events per resume.
+ * 
+ * <p>Each resume (or the job of an async upload) has a topic that keeps the
+ * events of its latest run for a while, so a watcher that connects late,
+ * or reconnects with {@code Last-Event-ID}, is replayed what it missed.
+ * Publishing never blocks: every watcher has a bounded buffer, and a slow
+ * watcher loses its oldest pending events rather than holding up the
+ * pipeline or growing without limit.</p>
+ * 
+ * <p>Watchers hold no thread while waiting. A buffer is flushed to its
+ * connection by a virtual thread started only when events are pending, so
+ * thousands of open streams cost memory, not platform threads.</p>
+ * 
+ * <p>Events only reach watchers connected to the node that did the work.
+ * For async uploads run by another node, {@code ResumeService} polls the
+ * job row and publishes the outcome here.</p>
+ */
+@Slf4j
+@Service
+public class ResumeEventBus {
+    
+    // Queued like an event, sent as a keep-alive comment
+    private static final ResumeEvent PING = new ResumeEvent(0, null, null, false);
+    
+    private final Map<UUID, Topic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger watchers = new AtomicInteger();
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMillis;
+    private final Duration retention;
+    private final Counter droppedCounter;
+    
+    public ResumeEventBus(
+            MeterRegistry meterRegistry,
+            @Value("${events.buffer-size:32}") int bufferSize,
+            @Value("${events.replay-size:16}") int replaySize,
+            @Value("${events.timeout-ms:300000}") long timeoutMillis,
+            @Value("${events.retention-minutes:10}") long retentionMinutes) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.replaySize = Math.max(1, replaySize);
+        this.timeoutMillis = timeoutMillis;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        
+        this.droppedCounter = Counter.builder("resume.events.dropped")
+                .description("Events dropped because a watcher fell behind")
+                .register(meterRegistry);
+        Gauge.builder("resume.events.watchers", watchers, AtomicInteger::get)
+                .description("Open resume event streams")
+                .register(meterRegistry);
+        Gauge.builder("resume.events.topics", topics, Map::size)
+                .description("Resumes with recent events")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Publishes an event to the current watchers of a resume and keeps it
+     * for later ones.
+     * 
+     * @param subject the resume, or the job of an async upload
+     * @param stage the stage that was reached
+     * @param data details, serialized as JSON
+     * @param last whether the stream ends with this event
+     */
+    public void publish(UUID subject, ResumeEvent.Stage stage, Object data, boolean last) {
+        while (!topics.computeIfAbsent(subject, id -> new Topic()).publish(stage, data, last)) {
+            // The topic was just retired; the next lookup creates a fresh one
+        }
+    }
+    
+    /**
+     * Whether the subject published events recently.
+     */
+    public boolean hasRecentEvents(UUID subject) {
+        return topics.containsKey(subject);
+    }
+    
+    /**
+     * Whether the latest run of the subject ended with an event marked as last.
+     */
+    public boolean hasEnded(UUID subject) {
+        Topic topic = topics.get(subject);
+        return topic != null && topic.hasEnded();
+    }
+    
+    /**
+     * Opens a stream of a resume's events. Kept events after
+     * {@code lastEventId} are sent first; the stream completes after an
+     * event marked as last, or when it times out.
+     * 
+     * @param subject the resume, or the job of an async upload
+     * @param lastEventId ID of the last event the watcher received, or null
+     * @return the stream to return from the request handler
+     */
+    public SseEmitter subscribe(UUID subject, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        long afterId = lastEventId != null ? lastEventId : 0;
+        Watcher watcher;
+        do {
+            watcher = new Watcher(topics.computeIfAbsent(subject, id -> new Topic()), emitter);
+        } while (!watcher.topic.subscribe(watcher, afterId));
+        
+        Watcher subscribed = watcher;
+        emitter.onCompletion(subscribed::close);
+        emitter.onTimeout(subscribed::close);
+        emitter.onError(error -> subscribed.close());
+        return emitter;
+    }
+    
+    /**
+     * Sends a comment to every open stream so proxies keep idle connections
+     * open and disconnected watchers are noticed, and forgets topics that
+     * have been quiet for the retention period.
+     */
+    @Scheduled(fixedDelayString = "${events.ping-ms:15000}")
+    public void maintain() {
+        long cutoff = System.nanoTime() - retention.toNanos();
+        topics.forEach((subject, topic) -> {
+            topic.ping();
+            topics.computeIfPresent(subject, (id, current) -> current.retireIfIdle(cutoff) ? null : current);
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(Topic::completeAll);
+        senders.close();
+    }
+    
+    /**
+     * Events of one subject and the watchers following them.
+     */
+    private final class Topic {
+        
+        private final Deque<ResumeEvent> recent = new ArrayDeque<>();
+        private final Set<Watcher> subscribed = ConcurrentHashMap.newKeySet();
+        private long lastId;
+        private long lastActivity = System.nanoTime();
+        private boolean retired;
+        
+        synchronized boolean publish(ResumeEvent.Stage stage, Object data, boolean last) {
+            if (retired) {
+                return false;
+            }
+            ResumeEvent event = new ResumeEvent(++lastId, stage, data, last);
+            if (!recent.isEmpty() && recent.getLast().last()) {
+                // A new run, e.g. a re-score; late watchers follow it instead of the finished one
+                recent.clear();
+            }
+            if (recent.size() == replaySize) {
+                recent.removeFirst();
+            }
+            recent.addLast(event);
+            lastActivity = System.nanoTime();
+            for (Watcher watcher : subscribed) {
+                watcher.offer(event);
+            }
+            return true;
+        }
+        
+        synchronized boolean hasEnded() {
+            return !recent.isEmpty() && recent.getLast().last();
+        }
+        
+        synchronized boolean subscribe(Watcher watcher, long afterId) {
+            if (retired) {
+                return false;
+            }
+            subscribed.add(watcher);
+            watchers.incrementAndGet();
+            lastActivity = System.nanoTime();
+            for (ResumeEvent event : recent) {
+                if (event.id() > afterId) {
+                    watcher.offer(event);
+                }
+            }
+            return true;
+        }
+        
+        void unsubscribe(Watcher watcher) {
+            if (subscribed.remove(watcher)) {
+                watchers.decrementAndGet();
+            }
+        }
+        
+        void ping() {
+            for (Watcher watcher : subscribed) {
+                watcher.offer(PING);
+            }
+        }
+        
+        synchronized boolean retireIfIdle(long cutoff) {
+            retired = subscribed.isEmpty() && lastActivity - cutoff < 0;
+            return retired;
+        }
+        
+        void completeAll() {
+            for (Watcher watcher : List.copyOf(subscribed)) {
+                watcher.close();
+                watcher.emitter.complete();
+            }
+        }
+    }
+    
+    /**
+     * One open stream with its buffer of events not yet sent.
+     */
+    private final class Watcher {
+        
+        private final Topic topic;
+        private final SseEmitter emitter;
+        private final Deque<ResumeEvent> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+        
+        Watcher(Topic topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+        
+        void offer(ResumeEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (event == PING && !pending.isEmpty()) {
+                    // Pending events keep the connection alive already
+                    return;
+                }
+                if (pending.size() == bufferSize) {
+                    pending.removeFirst();
+                    droppedCounter.increment();
+                }
+                pending.addLast(event);
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            senders.execute(this::send);
+        }
+        
+        private void send() {
+            while (true) {
+                List<ResumeEvent> batch;
+                synchronized (this) {
+                    if (pending.isEmpty() || closed) {
+                        sending = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                }
+                try {
+                    for (ResumeEvent event : batch) {
+                        if (event == PING) {
+                            emitter.send(SseEmitter.event().comment("ping"));
+                            continue;
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id()))
+                                .name(event.stage().value())
+                                .data(event.data(), MediaType.APPLICATION_JSON));
+                        if (event.last()) {
+                            close();
+                            emitter.complete();
+                            return;
+                        }
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The watcher disconnected or the stream already ended
+                    log.debug("Resume event stream closed: {}", e.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+        
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            topic.unsubscribe(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ats.core.service.extraction;
+
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+/**
+ * BudgetedContentHandler - Enforces character, page and interruption budgets during a parse.
+ * 
+ * <p>Counts the characters written and the {@code <div class="page">} elements
+ * Tika emits for paged formats, and aborts the parse once either budget is used
+ * up. After that no further content is forwarded, even if a parser (or the
+ * fork protocol) swallows the abort and keeps producing events. Every SAX
+ * callback also checks the thread's interrupt flag, so a timed-out parse stops
+ * at the next piece of content instead of running to completion.</p>
+ */
+public class BudgetedContentHandler extends ContentHandlerDecorator {
+    
+    private final int maxChars;
+    private final int maxPages;
+    private int charCount;
+    private int pageCount;
+    private boolean limitReached;
+    
+    /**
+     * @param handler the handler receiving the document content
+     * @param maxChars maximum number of characters to forward, or 0 for no limit
+     * @param maxPages maximum number of pages to extract, or 0 for no limit
+     */
+    public BudgetedContentHandler(ContentHandler handler, int maxChars, int maxPages) {
+        super(handler);
+        this.maxChars = maxChars;
+        this.maxPages = maxPages;
+    }
+    
+    @Override
+    public void startElement(String uri, String localName, String name, Attributes atts) throws SAXException {
+        checkBudget();
+        
+        if ("div".equals(localName) && "page".equals(atts.getValue("class"))) {
+            if (maxPages > 0 && pageCount >= maxPages) {
+                exhaust("Page limit of " + maxPages + " reached");
+            }
+            pageCount++;
+        }
+        
+        super.startElement(uri, localName, name, atts);
+    }
+    
+    @Override
+    public void endElement(String uri, String localName, String name) throws SAXException {
+        checkBudget();
+        super.endElement(uri, localName, name);
+    }
+    
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        checkBudget();
+        
+        if (maxChars > 0 && charCount + length > maxChars) {
+            super.characters(ch, start, maxChars - charCount);
+            charCount = maxChars;
+            exhaust("Character limit of " + maxChars + " reached");
+        }
+        
+        charCount += length;
+        super.characters(ch, start, length);
+    }
+    
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        checkBudget();
+        super.ignorableWhitespace(ch, start, length);
+    }
+    
+    public int getPageCount() {
+        return pageCount;
+    }
+    
+    /**
+     * Returns whether the character or page budget was used up.
+     * 
+     * @return true if the extracted content is truncated
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+    
+    private void checkBudget() throws SAXException {
+        if (limitReached) {
+            throw new BudgetExceededException("Extraction budget exhausted");
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new BudgetExceededException("Extraction interrupted");
+        }
+    }
+    
+    private void exhaust(String message) throws SAXException {
+        limitReached = true;
+        throw new BudgetExceededException(message);
+    }
+    
+    /**
+     * Thrown from a SAX callback to abort a parse that exhausted its budget.
+     */
+    public static class BudgetExceededException extends SAXException {
+        
+        public BudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
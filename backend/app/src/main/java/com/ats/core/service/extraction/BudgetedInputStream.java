@@ -0,0 +1,57 @@
+package com.ats.core.service.extraction;
+
+import org.apache.commons.io.input.ProxyInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * BudgetedInputStream - Enforces size and interruption budgets on parser input.
+ * 
+ * <p>Fails once more than the allowed number of bytes has been read, which
+ * covers sources whose size is unknown up front, and turns a thread interrupt
+ * into an {@link InterruptedIOException} on the next read so parsers blocked
+ * in I/O give up promptly.</p>
+ */
+public class BudgetedInputStream extends ProxyInputStream {
+    
+    private final long maxBytes;
+    private long bytesRead;
+    
+    /**
+     * @param in the underlying stream
+     * @param maxBytes maximum number of bytes that may be read, or 0 for no limit
+     */
+    public BudgetedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+    
+    @Override
+    protected void beforeRead(int n) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Extraction interrupted");
+        }
+    }
+    
+    @Override
+    protected void afterRead(int n) throws IOException {
+        if (n > 0) {
+            bytesRead += n;
+            if (maxBytes > 0 && bytesRead > maxBytes) {
+                throw new InputLimitExceededException(maxBytes);
+            }
+        }
+    }
+    
+    /**
+     * Thrown when the input grows beyond its byte budget.
+     */
+    public static class InputLimitExceededException extends IOException {
+        
+        public InputLimitExceededException(long maxBytes) {
+            super("Input exceeds the maximum size of " + maxBytes + " bytes");
+        }
+    }
+}
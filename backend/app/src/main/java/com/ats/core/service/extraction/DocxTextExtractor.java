@@ -0,0 +1,300 @@
+package com.ats.core.service.extraction;
+
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * DocxTextExtractor - Streaming StAX text extraction for DOCX documents.
+ * 
+ * <p>Reads only the parts that carry resume text ({@code word/document.xml}
+ * plus headers and footers) and streams them through a StAX reader, emitting
+ * text runs, tabs, breaks and paragraph ends directly. No OOXML object model
+ * is built. Header text is placed before the body and footer text after it,
+ * matching the reading order of the rendered document. Sections usually
+ * carry several headers and footers (first page, even pages, default) with
+ * the same text, so each distinct header and footer text is kept once.</p>
+ * 
+ * <p>The package is read in a single pass with {@link ZipInputStream}, so the
+ * upload never has to be buffered or spooled again. Inflated bytes are capped
+ * to defuse zip bombs. Documents this extractor does not understand (Strict
+ * OOXML, {@code altChunk} imports, a missing main part) are reported with
+ * {@link UnsupportedDocumentException} so the caller can fall back to Tika.</p>
+ */
+@Component
+public class DocxTextExtractor {
+    
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+    
+    private static final String MAIN_PART = "word/document.xml";
+    private static final Pattern HEADER_PART = Pattern.compile("word/header\\d*\\.xml");
+    private static final Pattern FOOTER_PART = Pattern.compile("word/footer\\d*\\.xml");
+    
+    private static final String WORDPROCESSING_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String STRICT_WORDPROCESSING_NS = "http://purl.oclc.org/ooxml/wordprocessingml/main";
+    private static final String MARKUP_COMPATIBILITY_NS = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+    
+    private final XMLInputFactory xmlInputFactory;
+    private final long maxInflatedBytes;
+    
+    public DocxTextExtractor(
+            @Value("${extraction.docx-fast-path.max-inflated-bytes:52428800}") long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+    
+    /**
+     * Checks whether a document looks like a DOCX package.
+     * 
+     * @param head the first bytes of the document
+     * @param filename the original filename, or null if unknown
+     * @return true if the document is a zip package with a Word extension
+     */
+    public static boolean isDocx(byte[] head, String filename) {
+        if (head.length < ZIP_MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < ZIP_MAGIC.length; i++) {
+            if (head[i] != ZIP_MAGIC[i]) {
+                return false;
+            }
+        }
+        String name = filename != null ? filename.toLowerCase() : "";
+        return name.endsWith(".docx") || name.endsWith(".docm") || name.endsWith(".dotx");
+    }
+    
+    /**
+     * Extracts the text of a DOCX package.
+     * 
+     * @param docx the package content; not closed by this method
+     * @param maxChars maximum number of characters to extract, or 0 for no limit
+     * @return extracted text and whether it was truncated
+     * @throws UnsupportedDocumentException if the package needs the full Tika parser
+     * @throws IOException if the package cannot be read or exceeds the inflated size budget
+     */
+    public DocxText extract(InputStream docx, int maxChars) throws IOException {
+        ZipInputStream zip = new ZipInputStream(docx);
+        BudgetedInputStream inflated = new BudgetedInputStream(zip, maxInflatedBytes);
+        
+        StringBuilder headers = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        StringBuilder footers = new StringBuilder();
+        Set<String> seenHeaders = new HashSet<>();
+        Set<String> seenFooters = new HashSet<>();
+        boolean foundMainPart = false;
+        
+        try {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                String name = entry.getName();
+                boolean complete;
+                if (MAIN_PART.equals(name)) {
+                    foundMainPart = true;
+                    complete = streamPart(inflated, new TextSink(body, maxChars));
+                } else if (HEADER_PART.matcher(name).matches()) {
+                    complete = streamDistinctPart(inflated, headers, seenHeaders, maxChars);
+                } else if (FOOTER_PART.matcher(name).matches()) {
+                    complete = streamDistinctPart(inflated, footers, seenFooters, maxChars);
+                } else {
+                    continue;
+                }
+                
+                if (!complete) {
+                    return new DocxText(join(headers, body, footers, maxChars), true);
+                }
+            }
+        } catch (XMLStreamException e) {
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof BudgetedInputStream.InputLimitExceededException limitExceeded) {
+                    throw limitExceeded;
+                }
+            }
+            throw new UnsupportedDocumentException("Malformed DOCX part: " + e.getMessage());
+        }
+        
+        if (!foundMainPart) {
+            throw new UnsupportedDocumentException("DOCX main part " + MAIN_PART + " not found");
+        }
+        
+        String text = join(headers, body, footers, maxChars);
+        boolean truncated = maxChars > 0 && headers.length() + body.length() + footers.length() > maxChars;
+        return new DocxText(text, truncated);
+    }
+    
+    /**
+     * Streams one WordprocessingML part into a text sink.
+     * 
+     * @return false if the character budget was used up
+     */
+    private boolean streamPart(InputStream part, TextSink sink) throws XMLStreamException, IOException {
+        // The JDK's StAX reader closes its input at end of document, which would close the zip
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(CloseShieldInputStream.wrap(part));
+        try {
+            boolean inText = false;
+            int runDepth = 0;
+            int skipDepth = 0;
+            
+            while (reader.hasNext()) {
+                int event = reader.next();
+                
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("DOCX extraction interrupted");
+                    }
+                    
+                    String ns = reader.getNamespaceURI();
+                    String local = reader.getLocalName();
+                    
+                    if (skipDepth > 0) {
+                        skipDepth++;
+                    } else if (MARKUP_COMPATIBILITY_NS.equals(ns) && "Fallback".equals(local)) {
+                        // Fallback repeats the content of the preceding mc:Choice
+                        skipDepth = 1;
+                    } else if (STRICT_WORDPROCESSING_NS.equals(ns)) {
+                        throw new UnsupportedDocumentException("Strict OOXML is not supported");
+                    } else if (WORDPROCESSING_NS.equals(ns)) {
+                        switch (local) {
+                            case "r" -> runDepth++;
+                            case "t" -> inText = true;
+                            // Outside a run, w:tab defines a tab stop rather than a tab character
+                            case "tab" -> {
+                                if (runDepth > 0) {
+                                    sink.append('\t');
+                                }
+                            }
+                            case "br", "cr" -> {
+                                if (runDepth > 0) {
+                                    sink.append('\n');
+                                }
+                            }
+                            case "altChunk" -> throw new UnsupportedDocumentException("altChunk imports are not supported");
+                            default -> {
+                            }
+                        }
+                    }
+                    
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (skipDepth > 0) {
+                        skipDepth--;
+                    } else if (WORDPROCESSING_NS.equals(reader.getNamespaceURI())) {
+                        switch (reader.getLocalName()) {
+                            case "r" -> runDepth--;
+                            case "t" -> inText = false;
+                            case "p", "tr" -> sink.append('\n');
+                            case "tc" -> sink.append('\t');
+                            default -> {
+                            }
+                        }
+                    }
+                    
+                } else if (inText && skipDepth == 0
+                        && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    sink.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                
+                if (sink.isFull()) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            reader.close();
+        }
+    }
+    
+    /**
+     * Streams a header or footer part and appends its text to the group
+     * unless it is blank or the group already holds the same text.
+     * 
+     * @return false if the character budget was used up
+     */
+    private boolean streamDistinctPart(InputStream part, StringBuilder group, Set<String> seen, int maxChars)
+            throws XMLStreamException, IOException {
+        StringBuilder text = new StringBuilder();
+        boolean complete = streamPart(part, new TextSink(text, maxChars));
+        String key = text.toString().strip();
+        if (!key.isEmpty() && seen.add(key)) {
+            group.append(text);
+        }
+        return complete && (maxChars <= 0 || group.length() < maxChars);
+    }
+    
+    private static String join(StringBuilder headers, StringBuilder body, StringBuilder footers, int maxChars) {
+        StringBuilder text = new StringBuilder(headers.length() + body.length() + footers.length() + 2);
+        text.append(headers);
+        if (!headers.isEmpty()) {
+            text.append('\n');
+        }
+        text.append(body);
+        if (!footers.isEmpty()) {
+            text.append('\n').append(footers);
+        }
+        if (maxChars > 0 && text.length() > maxChars) {
+            text.setLength(maxChars);
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Bounded text buffer for one group of parts.
+     */
+    private static final class TextSink {
+        
+        private final StringBuilder target;
+        private final int maxChars;
+        
+        TextSink(StringBuilder target, int maxChars) {
+            this.target = target;
+            this.maxChars = maxChars;
+        }
+        
+        void append(char c) {
+            if (!isFull()) {
+                target.append(c);
+            }
+        }
+        
+        void append(char[] chars, int start, int length) {
+            int room = maxChars > 0 ? maxChars - target.length() : length;
+            target.append(chars, start, Math.min(length, Math.max(0, room)));
+        }
+        
+        boolean isFull() {
+            return maxChars > 0 && target.length() >= maxChars;
+        }
+    }
+    
+    /**
+     * Text extracted from a DOCX package.
+     * 
+     * @param text the extracted text
+     * @param truncated whether the character budget was reached
+     */
+    public record DocxText(String text, boolean truncated) {
+    }
+    
+    /**
+     * Signals a DOCX package that needs the full Tika parser.
+     */
+    public static class UnsupportedDocumentException extends IOException {
+        
+        public UnsupportedDocumentException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.ats.core.service.idempotency;
+
+import com.ats.core.model.IdempotencyRecord;
+import com.ats.core.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService - Runs a request at most once per {@code Idempotency-Key}.
+ * 
+ * <p>The first request with a key claims it in the {@code idempotency_keys}
+ * table and runs; a successful response is stored there and in a local
+ * in-memory cache, and later requests with the key get it back until the
+ * key expires. Duplicates that arrive while the first request is still
+ * running wait for its response instead of running in parallel: on the
+ * same node they wait on the first request directly, on other nodes they
+ * poll the table. Failed requests, including non-2xx responses, give the
+ * key up; duplicates that were waiting for them then claim the key and run
+ * themselves, on the same node as on any other, and so does a later retry.</p>
+ * 
+ * <p>Each key is bound to a fingerprint of its request; reusing a key for
+ * a different request is rejected with {@code 422 Unprocessable Entity}.</p>
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    
+    /**
+     * Header set on responses served from a stored response.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration lock;
+    private final long waitMillis;
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter replayedCounter;
+    
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.enabled:true}") boolean enabled,
+            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${idempotency.lock-seconds:300}") long lockSeconds,
+            @Value("${idempotency.wait-ms:30000}") long waitMillis,
+            @Value("${idempotency.cache-size:10000}") long cacheSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = objectMapper.copy().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lock = Duration.ofSeconds(lockSeconds);
+        this.waitMillis = waitMillis;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(this.ttl)
+                .build();
+        this.replayedCounter = Counter.builder("idempotency.replayed")
+                .description("Requests answered with the stored response of an earlier request with the same key")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Runs a request unless a request with the same key already ran or is
+     * running, in which case its response is returned.
+     * 
+     * @param scope the endpoint, so keys of different endpoints do not collide
+     * @param key the client's {@code Idempotency-Key}, or null to just run the request
+     * @param fingerprint hash of the request, see {@link #fingerprint(Object...)}
+     * @param request runs the request
+     * @return the response of the request, or of the earlier one
+     */
+    public ResponseEntity<?> execute(String scope, String key, String fingerprint,
+                                     Supplier<ResponseEntity<?>> request) {
+        if (!enabled || key == null) {
+            return request.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        
+        StoredResponse cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, fingerprint);
+        }
+        
+        while (true) {
+            CompletableFuture<StoredResponse> first = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, first);
+            if (running != null) {
+                // A duplicate of a request running on this node
+                StoredResponse stored = await(running);
+                if (stored != null) {
+                    return replay(stored, fingerprint);
+                }
+                // The first request gave the key up; claim it as a duplicate on another node would
+                continue;
+            }
+            
+            StoredResponse stored = null;
+            try {
+                Outcome outcome = claimAndRun(id, fingerprint, request);
+                stored = outcome.stored();
+                return outcome.response() != null ? outcome.response() : replay(stored, fingerprint);
+            } finally {
+                // Removed first, so a duplicate woken with null does not find this request again
+                inFlight.remove(id, first);
+                first.complete(stored);
+            }
+        }
+    }
+    
+    /**
+     * Hashes the parts of a request. Maps and lists are hashed as JSON with
+     * sorted keys, uploaded files by their name and content.
+     * 
+     * @param parts request parameters, body and files; nulls are allowed
+     * @return hex SHA-256 of the parts
+     */
+    public String fingerprint(Object... parts) {
+        MessageDigest digest = sha256();
+        for (Object part : parts) {
+            if (part instanceof MultipartFile file) {
+                digest.update(String.valueOf(file.getOriginalFilename()).getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = file.getInputStream()) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read uploaded file", e);
+                }
+            } else if (part instanceof Map<?, ?> || part instanceof Iterable<?>) {
+                digest.update(toJson(canonicalMapper, part).getBytes(StandardCharsets.UTF_8));
+            } else {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            }
+            // Separator, so ("ab", "c") and ("a", "bc") differ
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    /**
+     * Removes expired keys.
+     */
+    @Scheduled(cron = "${idempotency.purge-cron:0 50 3 * * *}")
+    public void purgeExpired() {
+        Integer deleted = transaction.execute(status -> repository.deleteExpired(OffsetDateTime.now()));
+        log.info("Purged {} expired idempotency keys", deleted);
+    }
+    
+    /**
+     * Claims the key and runs the request, or waits for the request that
+     * holds the key on another node.
+     */
+    private Outcome claimAndRun(String id, String fingerprint, Supplier<ResponseEntity<?>> request) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        while (true) {
+            UUID claim = UUID.randomUUID();
+            if (tryClaim(id, fingerprint, claim)) {
+                return run(id, claim, fingerprint, request);
+            }
+            
+            Optional<IdempotencyRecord> existing = repository.findById(id);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!record.getFingerprint().equals(fingerprint)) {
+                    throw mismatch();
+                }
+                if (record.getState() == IdempotencyRecord.State.COMPLETED
+                        && record.getExpiresAt().isAfter(OffsetDateTime.now())) {
+                    StoredResponse stored = StoredResponse.of(record);
+                    completed.put(id, stored);
+                    return new Outcome(null, stored);
+                }
+            }
+            
+            if (System.nanoTime() - deadline > 0) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+    }
+    
+    private boolean tryClaim(String id, String fingerprint, UUID claim) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Integer claimed = transaction.execute(status -> {
+            int inserted = repository.tryClaim(id, fingerprint, claim, now, now.plus(ttl), now.plus(lock));
+            return inserted > 0 ? inserted
+                    : repository.tryReclaim(id, fingerprint, claim, now, now.plus(ttl), now.plus(lock));
+        });
+        return claimed != null && claimed > 0;
+    }
+    
+    private Outcome run(String id, UUID claim, String fingerprint, Supplier<ResponseEntity<?>> request) {
+        ResponseEntity<?> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            release(id, claim);
+            throw e;
+        }
+        
+        URI location = response.getHeaders().getLocation();
+        StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(),
+                location != null ? location.toString() : null, toJson(objectMapper, response.getBody()));
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(id, claim);
+            return new Outcome(response, null);
+        }
+        
+        try {
+            Integer saved = transaction.execute(status -> repository.complete(id, claim, stored.statusCode(),
+                    stored.location(), stored.body()));
+            if (saved == null || saved == 0) {
+                log.warn("Idempotency key {} was reclaimed before its response was stored", id);
+            }
+        } catch (RuntimeException e) {
+            // The request itself succeeded; a retry after the lock expires runs it again
+            log.warn("Failed to store the response for idempotency key {}: {}", id, e.getMessage());
+        }
+        completed.put(id, stored);
+        return new Outcome(response, stored);
+    }
+    
+    private void release(String id, UUID claim) {
+        try {
+            transaction.execute(status -> repository.release(id, claim));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release idempotency key {}; it is reclaimed after its lock expires", id);
+        }
+    }
+    
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            // Not reached: a failed first request completes the future with null
+            throw new IllegalStateException("Request failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request was interrupted");
+        }
+    }
+    
+    private ResponseEntity<?> replay(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw mismatch();
+        }
+        replayedCounter.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.location() != null) {
+            builder.header(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.body() == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.body());
+    }
+    
+    private static ResponseStatusException mismatch() {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a different request");
+    }
+    
+    private static String toJson(ObjectMapper mapper, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize response", e);
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request was interrupted");
+        }
+    }
+    
+    /**
+     * A response as stored for a key.
+     */
+    private record StoredResponse(String fingerprint, int statusCode, String location, String body) {
+        
+        static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(record.getFingerprint(), record.getStatusCode(), record.getLocation(),
+                    record.getResponseBody());
+        }
+    }
+    
+    /**
+     * Result of claiming a key: the live response if this request ran, and
+     * the response as stored, or null if the key was given up.
+     */
+    private record Outcome(ResponseEntity<?> response, StoredResponse stored) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.model.Job;
+import com.ats.core.service.ResumeService;
+import com.ats.core.service.events.ResumeEvent;
+import com.ats.core.service.events.ResumeEventBus;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ExtractionJobHandler - Extracts the text of a queued upload and saves the resume.
+ * 
+ * <p>The file was stored by the API node that accepted the upload, so
+ * workers on other hosts need shared (S3) storage. The result is the same
+ * response a synchronous upload returns, and is also the last event of the
+ * job's event stream; failed attempts are published there too.</p>
+ */
+@Component
+public class ExtractionJobHandler implements JobHandler<ExtractionJobHandler.Payload> {
+    
+    private final ResumeService resumeService;
+    private final ResumeEventBus eventBus;
+    
+    public ExtractionJobHandler(ResumeService resumeService, ResumeEventBus eventBus) {
+        this.resumeService = resumeService;
+        this.eventBus = eventBus;
+    }
+    
+    @Override
+    public Job.Type type() {
+        return Job.Type.EXTRACT;
+    }
+    
+    @Override
+    public Class<Payload> payloadType() {
+        return Payload.class;
+    }
+    
+    @Override
+    public Object handle(Payload payload, Job job) throws Exception {
+        try {
+            return resumeService.extractStored(payload.storedFilename(), payload.filename(), payload.userId(),
+                    job.getId());
+        } catch (Exception e) {
+            boolean retrying = !JobQueue.isFinalFailure(job, e);
+            eventBus.publish(job.getId(), ResumeEvent.Stage.FAILED, Map.of("error", JobQueue.describe(e),
+                    "attempt", job.getAttempts(), "retrying", retrying), !retrying);
+            throw e;
+        }
+    }
+    
+    /**
+     * Arguments of an extraction job.
+     * 
+     * @param storedFilename name of the uploaded file in storage
+     * @param filename original filename
+     * @param userId optional user identifier
+     */
+    public record Payload(String storedFilename, String filename, UUID userId) {
+    }
+}
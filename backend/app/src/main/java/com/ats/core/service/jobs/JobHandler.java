@@ -0,0 +1,37 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.model.Job;
+
+/**
+ * JobHandler - Performs the work of one job type.
+ * 
+ * <p>Implementations are Spring beans picked up by the {@link JobWorker}.
+ * A job may run more than once (after a worker crash or a lost lease), so
+ * handlers should be safe to repeat. Throwing a
+ * {@link org.springframework.web.server.ResponseStatusException} with a 4xx
+ * status marks the failure as permanent; any other exception is retried.</p>
+ * 
+ * @param <P> type of the job's payload
+ */
+public interface JobHandler<P> {
+    
+    /**
+     * The job type this handler drains.
+     */
+    Job.Type type();
+    
+    /**
+     * Type the payload is read as.
+     */
+    Class<P> payloadType();
+    
+    /**
+     * Runs one attempt of a job.
+     * 
+     * @param payload the job's arguments
+     * @param job the claimed job
+     * @return the job's result, stored as JSON
+     * @throws Exception if the attempt failed
+     */
+    Object handle(P payload, Job job) throws Exception;
+}
@@ -0,0 +1,458 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.model.Job;
+import com.ats.core.repository.JobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * JobQueue - Database-backed queue shared by all nodes.
+ * 
+ * <p>Jobs live in the {@code jobs} table, so any node can enqueue and any
+ * worker can drain, and the queue survives restarts. Workers claim jobs
+ * with {@code SELECT ... FOR UPDATE SKIP LOCKED}: concurrent claimers never
+ * block each other or receive the same job, so workers can be added without
+ * coordinating them.</p>
+ * 
+ * <p>A claimed job carries a lease that its worker extends with heartbeats.
+ * Completion and failure are only recorded while the lease is held, so a
+ * worker that stalled past its lease cannot overwrite the outcome of the
+ * retry. Failed attempts are retried with exponential backoff and jitter;
+ * client errors (4xx) and jobs out of attempts are dead-lettered and stay
+ * in the table until retried through the admin API or purged.</p>
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory")
+public class JobQueue {
+    
+    private static final int REAP_BATCH_SIZE = 100;
+    private static final int MAX_ERROR_LENGTH = 2000;
+    
+    private final JobRepository jobRepository;
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    
+    // Refreshed with every lease reaping pass; read by the queue gauges
+    private volatile Map<Job.Type, Map<Job.State, Long>> counts = Map.of();
+    
+    public JobQueue(
+            JobRepository jobRepository,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${jobs.max-attempts:5}") int maxAttempts,
+            @Value("${jobs.lease-seconds:60}") long leaseSeconds,
+            @Value("${jobs.retry.initial-delay-ms:2000}") long initialDelayMillis,
+            @Value("${jobs.retry.max-delay-ms:300000}") long maxDelayMillis,
+            @Value("${jobs.retention-days:7}") long retentionDays) {
+        this.jobRepository = jobRepository;
+        this.jdbc = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lease = Duration.ofSeconds(Math.max(5, leaseSeconds));
+        this.initialBackoff = Duration.ofMillis(Math.max(1, initialDelayMillis));
+        this.maxBackoff = Duration.ofMillis(Math.max(initialDelayMillis, maxDelayMillis));
+        this.retention = Duration.ofDays(Math.max(1, retentionDays));
+        
+        for (Job.Type type : Job.Type.values()) {
+            for (Job.State state : List.of(Job.State.QUEUED, Job.State.RUNNING, Job.State.DEAD)) {
+                Gauge.builder("jobs.count", this, queue -> queue.count(type, state))
+                        .description("Jobs in the shared queue")
+                        .tag("type", type.name().toLowerCase())
+                        .tag("state", state.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
+    }
+    
+    /**
+     * Creates the claiming indexes, and the index of the stored files jobs
+     * refer to. Partial indexes keep the claiming indexes as small as the
+     * queue, no matter how many finished jobs are retained.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_jobs_queued ON jobs (run_at) WHERE state = 'QUEUED'");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_jobs_leased ON jobs (lease_expires_at) WHERE state = 'RUNNING'");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_jobs_stored_file ON jobs "
+                    + "((COALESCE(result::jsonb ->> 'storedFilename', payload::jsonb ->> 'storedFilename'))) "
+                    + "WHERE type IN ('EXTRACT', 'REPORT')");
+        } catch (RuntimeException e) {
+            log.error("Failed to create job queue indexes; claiming will scan the jobs table", e);
+        }
+    }
+    
+    /**
+     * Duration of a lease; workers must heartbeat well within it.
+     */
+    public Duration lease() {
+        return lease;
+    }
+    
+    /**
+     * Adds a job to the queue.
+     * 
+     * @param type kind of work
+     * @param payload arguments for the type's handler, stored as JSON
+     * @return the queued job
+     */
+    public Job enqueue(Job.Type type, Object payload) {
+        Job job = jobRepository.save(Job.builder()
+                .type(type)
+                .state(Job.State.QUEUED)
+                .payload(toJson(payload))
+                .maxAttempts(maxAttempts)
+                .build());
+        log.debug("Enqueued {} job {}", type, job.getId());
+        return job;
+    }
+    
+    public Optional<Job> find(UUID jobId) {
+        return jobRepository.findById(jobId);
+    }
+    
+    /**
+     * Loads several jobs at once; purged jobs are left out.
+     */
+    public List<Job> findAll(Collection<UUID> jobIds) {
+        return jobRepository.findAllById(jobIds);
+    }
+    
+    /**
+     * Reads the payload of a job.
+     * 
+     * @param job the job
+     * @param payloadType type the payload was enqueued as
+     * @return the payload
+     */
+    public <P> P readPayload(Job job, Class<P> payloadType) {
+        try {
+            return objectMapper.readValue(job.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable payload of job " + job.getId(), e);
+        }
+    }
+    
+    /**
+     * Reads the result of a succeeded job.
+     * 
+     * @param job the job
+     * @param resultType type the result was written as
+     * @return the result
+     */
+    public <R> R readResult(Job job, Class<R> resultType) {
+        try {
+            return objectMapper.readValue(job.getResult(), resultType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable result of job " + job.getId(), e);
+        }
+    }
+    
+    /**
+     * Whether a retained job refers to a stored file: the upload an
+     * extraction job reads, or the report a report job wrote. Such files are
+     * not orphans even though no resume row points to them.
+     * 
+     * @param filename name of the file in storage
+     * @return true if the file must be kept for a job
+     */
+    public boolean referencesFile(String filename) {
+        return jobRepository.existsReferencingFile(filename);
+    }
+    
+    /**
+     * Claims runnable jobs and leases them to a worker.
+     * 
+     * @param types job types the worker handles
+     * @param owner the worker's ID
+     * @param limit maximum number of jobs
+     * @return claimed jobs, now running under the worker's lease
+     */
+    public List<Job> claim(Set<Job.Type> types, String owner, int limit) {
+        List<String> typeNames = types.stream().map(Job.Type::name).toList();
+        return transaction.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<Job> jobs = jobRepository.lockRunnable(typeNames, now, limit);
+            for (Job job : jobs) {
+                job.setState(Job.State.RUNNING);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setLeaseOwner(owner);
+                job.setLeaseExpiresAt(now.plus(lease));
+            }
+            return jobRepository.saveAll(jobs);
+        });
+    }
+    
+    /**
+     * Extends the leases a worker still holds.
+     * 
+     * @param jobIds the worker's running jobs
+     * @param owner the worker's ID
+     * @return number of leases extended
+     */
+    public int heartbeat(Collection<UUID> jobIds, String owner) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        return transaction.execute(status -> jobRepository.extendLeases(jobIds, Job.State.RUNNING, owner,
+                OffsetDateTime.now().plus(lease)));
+    }
+    
+    /**
+     * Records the result of a job.
+     * 
+     * @param job the job as claimed
+     * @param result output of the handler, stored as JSON
+     * @return false if the lease was lost and the result was discarded
+     */
+    public boolean complete(Job job, Object result) {
+        String json = toJson(result);
+        return updateLeased(job, leased -> {
+            leased.setState(Job.State.SUCCEEDED);
+            leased.setResult(json);
+            leased.setLastError(null);
+            leased.setFinishedAt(OffsetDateTime.now());
+            log.debug("Job {} succeeded on attempt {}", job.getId(), job.getAttempts());
+        });
+    }
+    
+    /**
+     * Records a failed attempt. The job is retried after a backoff unless the
+     * failure was permanent or it has no attempts left.
+     * 
+     * @param job the job as claimed
+     * @param error cause of the failure
+     * @return false if the lease was lost and the failure was discarded
+     */
+    public boolean fail(Job job, Throwable error) {
+        String message = describe(error);
+        return updateLeased(job, leased -> {
+            leased.setLastError(message);
+            if (isFinalFailure(leased, error)) {
+                deadLetter(leased);
+            } else {
+                retryLater(leased);
+            }
+        });
+    }
+    
+    /**
+     * Returns a job to the queue without counting the attempt, for a worker
+     * that is shutting down.
+     * 
+     * @param job the job as claimed
+     * @return false if the lease was already lost
+     */
+    public boolean release(Job job) {
+        return updateLeased(job, leased -> {
+            leased.setState(Job.State.QUEUED);
+            leased.setAttempts(leased.getAttempts() - 1);
+            leased.setRunAt(OffsetDateTime.now());
+            leased.setLeaseOwner(null);
+            leased.setLeaseExpiresAt(null);
+        });
+    }
+    
+    /**
+     * Queues a dead-lettered job again with a fresh set of attempts.
+     * 
+     * @param jobId the job
+     * @return the queued job
+     */
+    public Job retry(UUID jobId) {
+        return transaction.execute(status -> {
+            Job job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found"));
+            if (job.getState() != Job.State.DEAD) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Only dead jobs can be retried");
+            }
+            job.setState(Job.State.QUEUED);
+            job.setAttempts(0);
+            job.setRunAt(OffsetDateTime.now());
+            job.setFinishedAt(null);
+            log.info("Dead {} job {} queued for retry", job.getType(), jobId);
+            return jobRepository.save(job);
+        });
+    }
+    
+    /**
+     * Requeues (or dead-letters) jobs whose worker stopped sending heartbeats,
+     * and refreshes the queue gauges. Runs on every node; the row locks make
+     * concurrent passes harmless.
+     */
+    @Scheduled(fixedDelayString = "${jobs.reaper-ms:15000}")
+    public void reapExpiredLeases() {
+        try {
+            int reaped;
+            do {
+                reaped = transaction.execute(status -> {
+                    List<Job> expired = jobRepository.lockExpiredLeases(OffsetDateTime.now(), REAP_BATCH_SIZE);
+                    for (Job job : expired) {
+                        log.warn("Lease of {} job {} held by {} expired on attempt {}",
+                                job.getType(), job.getId(), job.getLeaseOwner(), job.getAttempts());
+                        job.setLastError("Lease expired; worker " + job.getLeaseOwner() + " stopped responding");
+                        if (job.getAttempts() >= job.getMaxAttempts()) {
+                            deadLetter(job);
+                        } else {
+                            retryLater(job);
+                        }
+                    }
+                    jobRepository.saveAll(expired);
+                    return expired.size();
+                });
+            } while (reaped == REAP_BATCH_SIZE);
+            
+            refreshCounts();
+        } catch (RuntimeException e) {
+            log.warn("Job lease reaping failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Deletes succeeded and dead jobs past the retention period.
+     */
+    @Scheduled(cron = "${jobs.purge-cron:0 45 3 * * *}")
+    public void purgeFinished() {
+        try {
+            int deleted = transaction.execute(status -> jobRepository.deleteFinishedBefore(
+                    List.of(Job.State.SUCCEEDED, Job.State.DEAD), OffsetDateTime.now().minus(retention)));
+            log.info("Purged {} finished jobs older than {} days", deleted, retention.toDays());
+        } catch (RuntimeException e) {
+            log.warn("Job purge failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Counts jobs per type and state.
+     * 
+     * @return counts, read from the database
+     */
+    public Map<Job.Type, Map<Job.State, Long>> counts() {
+        refreshCounts();
+        return counts;
+    }
+    
+    private void refreshCounts() {
+        Map<Job.Type, Map<Job.State, Long>> fresh = new EnumMap<>(Job.Type.class);
+        for (JobRepository.JobCount count : jobRepository.countByTypeAndState()) {
+            fresh.computeIfAbsent(count.getType(), type -> new EnumMap<>(Job.State.class))
+                    .put(count.getState(), count.getCount());
+        }
+        counts = fresh;
+    }
+    
+    private long count(Job.Type type, Job.State state) {
+        return counts.getOrDefault(type, Map.of()).getOrDefault(state, 0L);
+    }
+    
+    private boolean updateLeased(Job job, Consumer<Job> update) {
+        Boolean updated = transaction.execute(status -> jobRepository
+                .findLeased(job.getId(), Job.State.RUNNING, job.getLeaseOwner(), job.getAttempts())
+                .map(leased -> {
+                    update.accept(leased);
+                    jobRepository.save(leased);
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(updated)) {
+            log.warn("Lease of {} job {} attempt {} was lost; its outcome is discarded",
+                    job.getType(), job.getId(), job.getAttempts());
+            return false;
+        }
+        return true;
+    }
+    
+    private void deadLetter(Job job) {
+        job.setState(Job.State.DEAD);
+        job.setFinishedAt(OffsetDateTime.now());
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        log.error("{} job {} dead-lettered after {} attempts: {}",
+                job.getType(), job.getId(), job.getAttempts(), job.getLastError());
+    }
+    
+    /**
+     * Puts a job back in the queue after an exponentially growing delay. Half
+     * of the delay is random, so jobs that failed together do not all retry
+     * at the same moment.
+     */
+    private void retryLater(Job job) {
+        int exponent = Math.min(job.getAttempts() - 1, 30);
+        long delayMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << exponent);
+        delayMillis = delayMillis / 2 + ThreadLocalRandom.current().nextLong(delayMillis / 2 + 1);
+        
+        job.setState(Job.State.QUEUED);
+        job.setRunAt(OffsetDateTime.now().plusNanos(delayMillis * 1_000_000));
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        log.info("{} job {} failed on attempt {}/{}, retrying in {} ms: {}", job.getType(), job.getId(),
+                job.getAttempts(), job.getMaxAttempts(), delayMillis, job.getLastError());
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize job data", e);
+        }
+    }
+    
+    /**
+     * Whether a failed attempt dead-letters the job: the failure was
+     * permanent (a client error) or no attempts are left.
+     * 
+     * @param job the job as claimed
+     * @param error cause of the failure
+     * @return true if the job is not retried
+     */
+    public static boolean isFinalFailure(Job job, Throwable error) {
+        boolean permanent = error instanceof ResponseStatusException statusException
+                && statusException.getStatusCode().is4xxClientError();
+        return permanent || job.getAttempts() >= job.getMaxAttempts();
+    }
+    
+    /**
+     * Short description of a failure, as recorded on the job.
+     */
+    public static String describe(Throwable error) {
+        String message = error instanceof ResponseStatusException statusException
+                ? statusException.getStatusCode().value() + " " + statusException.getReason()
+                : error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,260 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.model.Job;
+import com.ats.core.service.admission.AdmissionLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JobWorker - Drains the shared {@link JobQueue} on this node.
+ * 
+ * <p>A poller thread claims as many jobs as there are free worker threads
+ * and hands them to a fixed pool, so a node never holds more leases than it
+ * can run. While a job runs, its lease is extended by a heartbeat; on
+ * shutdown, jobs that did not finish in time are released back to the
+ * queue instead of waiting for their leases to expire.</p>
+ * 
+ * <p>Disable it ({@code jobs.worker.enabled=false}) on nodes that should only
+ * serve HTTP, and restrict {@code jobs.worker.types} to dedicate nodes to,
+ * for example, CPU-heavy extraction. On nodes that also serve requests,
+ * claiming pauses while the admission limiter reports foreground load.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "jobs.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class JobWorker {
+    
+    private static final long BUSY_BACKOFF_MILLIS = 500;
+    private static final long INTERRUPT_GRACE_MILLIS = 2000;
+    
+    private final JobQueue jobQueue;
+    private final AdmissionLimiter admissionLimiter;
+    private final Map<Job.Type, JobHandler<?>> handlers = new EnumMap<>(Job.Type.class);
+    private final Set<Job.Type> types;
+    private final int concurrency;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long shutdownGraceMillis;
+    private final String workerId;
+    private final ExecutorService pool;
+    private final Semaphore slots;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<UUID, Job> running = new ConcurrentHashMap<>();
+    private volatile Thread poller;
+    private volatile boolean stopping;
+    private volatile boolean interrupted;
+    
+    public JobWorker(
+            JobQueue jobQueue,
+            AdmissionLimiter admissionLimiter,
+            List<JobHandler<?>> handlers,
+            MeterRegistry meterRegistry,
+            @Value("${jobs.worker.types:extract,score,report}") String types,
+            @Value("${jobs.worker.concurrency:0}") int concurrency,
+            @Value("${jobs.worker.batch-size:10}") int batchSize,
+            @Value("${jobs.worker.poll-ms:500}") long pollIntervalMillis,
+            @Value("${jobs.worker.shutdown-grace-ms:20000}") long shutdownGraceMillis) {
+        this.jobQueue = jobQueue;
+        this.admissionLimiter = admissionLimiter;
+        this.meterRegistry = meterRegistry;
+        for (JobHandler<?> handler : handlers) {
+            this.handlers.put(handler.type(), handler);
+        }
+        this.types = EnumSet.noneOf(Job.Type.class);
+        Arrays.stream(types.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .map(type -> Job.Type.valueOf(type.toUpperCase()))
+                .filter(this.handlers::containsKey)
+                .forEach(this.types::add);
+        this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMillis = Math.max(10, pollIntervalMillis);
+        this.shutdownGraceMillis = Math.max(0, shutdownGraceMillis);
+        this.workerId = hostName() + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.concurrency,
+                task -> Thread.ofPlatform().name("job-worker-" + threads.incrementAndGet()).unstarted(task));
+        this.slots = new Semaphore(this.concurrency);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (types.isEmpty()) {
+            log.warn("Job worker has no job types to drain");
+            return;
+        }
+        // Not a daemon: on a worker node without a web server, this thread keeps the process alive
+        poller = Thread.ofPlatform().name("job-poller").start(this::poll);
+        log.info("Job worker {} draining {} with {} threads", workerId, types, concurrency);
+    }
+    
+    /**
+     * Stops claiming, gives running jobs the grace period to finish, then
+     * interrupts them and returns their jobs to the queue.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        Thread current = poller;
+        if (current != null) {
+            current.interrupt();
+        }
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(shutdownGraceMillis, TimeUnit.MILLISECONDS)) {
+                interrupted = true;
+                pool.shutdownNow();
+                pool.awaitTermination(INTERRUPT_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // A job that still finishes now loses its lease to the release; its outcome is discarded
+        for (Job job : running.values()) {
+            try {
+                if (jobQueue.release(job)) {
+                    log.info("Released {} job {} back to the queue", job.getType(), job.getId());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to release job {}; it is retried once its lease expires", job.getId());
+            }
+        }
+    }
+    
+    /**
+     * Extends the leases of the jobs running on this node.
+     */
+    @Scheduled(fixedDelayString = "${jobs.worker.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        try {
+            int extended = jobQueue.heartbeat(Set.copyOf(running.keySet()), workerId);
+            log.debug("Extended {} of {} job leases", extended, running.size());
+        } catch (RuntimeException e) {
+            log.warn("Job heartbeat failed: {}", e.getMessage());
+        }
+    }
+    
+    private void poll() {
+        while (!stopping) {
+            try {
+                if (admissionLimiter.isBusy()) {
+                    Thread.sleep(BUSY_BACKOFF_MILLIS);
+                    continue;
+                }
+                
+                // Claim only what the pool can start right away
+                slots.acquire();
+                int free = 1;
+                while (free < batchSize && slots.tryAcquire()) {
+                    free++;
+                }
+                
+                List<Job> claimed;
+                try {
+                    claimed = jobQueue.claim(types, workerId, free);
+                } catch (RuntimeException e) {
+                    slots.release(free);
+                    log.warn("Failed to claim jobs: {}", e.getMessage());
+                    Thread.sleep(pollIntervalMillis);
+                    continue;
+                }
+                slots.release(free - claimed.size());
+                
+                for (Job job : claimed) {
+                    running.put(job.getId(), job);
+                    pool.execute(() -> run(job));
+                }
+                if (claimed.isEmpty()) {
+                    // Jittered so idle workers do not poll in lockstep
+                    Thread.sleep(pollIntervalMillis / 2 + ThreadLocalRandom.current().nextLong(pollIntervalMillis));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep polling; e.g. the pool rejected work because shutdown began
+                log.warn("Job polling failed: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void run(Job job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "succeeded";
+        try {
+            Object result = handle(handlers.get(job.getType()), job);
+            if (!jobQueue.complete(job, result)) {
+                outcome = "lost";
+            }
+        } catch (Exception e) {
+            if (interrupted) {
+                // Interrupted by shutdown; the job is released, not failed
+                outcome = "released";
+                return;
+            }
+            log.warn("{} job {} attempt {} failed: {}", job.getType(), job.getId(), job.getAttempts(), e.getMessage());
+            outcome = "failed";
+            try {
+                jobQueue.fail(job, e);
+            } catch (RuntimeException failure) {
+                log.error("Failed to record failure of job {}; it is retried once its lease expires", job.getId(),
+                        failure);
+            }
+        } finally {
+            if (!"released".equals(outcome)) {
+                running.remove(job.getId());
+            }
+            slots.release();
+            sample.stop(Timer.builder("jobs.run")
+                    .description("Time to run one job attempt")
+                    .tag("type", job.getType().name().toLowerCase())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private <P> Object handle(JobHandler<P> handler, Job job) throws Exception {
+        return handler.handle(jobQueue.readPayload(job, handler.payloadType()), job);
+    }
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.model.Job;
+import com.ats.core.service.ReportService;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * ReportJobHandler - Generates and stores the PDF report of a queued report request.
+ * 
+ * <p>The job's ID doubles as the report ID: the report is downloaded from
+ * {@code /api/report/download/{jobId}} once the job has succeeded.</p>
+ */
+@Component
+public class ReportJobHandler implements JobHandler<ReportJobHandler.Payload> {
+    
+    private final ReportService reportService;
+    
+    public ReportJobHandler(ReportService reportService) {
+        this.reportService = reportService;
+    }
+    
+    @Override
+    public Job.Type type() {
+        return Job.Type.REPORT;
+    }
+    
+    @Override
+    public Class<Payload> payloadType() {
+        return Payload.class;
+    }
+    
+    @Override
+    public Object handle(Payload payload, Job job) {
+        String storedFilename = reportService.generateAndStore(payload.resumeId(), payload.scoreId(),
+                payload.template());
+        return new Result(storedFilename, "/api/report/download/" + job.getId());
+    }
+    
+    /**
+     * Arguments of a report job.
+     * 
+     * @param resumeId the resume the report is about
+     * @param scoreId the score the report presents
+     * @param template the report template to use
+     */
+    public record Payload(UUID resumeId, UUID scoreId, String template) {
+    }
+    
+    /**
+     * Result of a report job.
+     * 
+     * @param storedFilename name of the report file in storage
+     * @param downloadUrl where the report can be downloaded
+     */
+    public record Result(String storedFilename, String downloadUrl) {
+    }
+}
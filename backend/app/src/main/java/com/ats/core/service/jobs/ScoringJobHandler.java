@@ -0,0 +1,51 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.model.Job;
+import com.ats.core.service.ResumeService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ScoringJobHandler - Scores a resume for a queued scoring request.
+ * 
+ * <p>The result is the same score a synchronous request returns. A repeated
+ * attempt stores the score again, as a repeated request would.</p>
+ */
+@Component
+public class ScoringJobHandler implements JobHandler<ScoringJobHandler.Payload> {
+    
+    private final ResumeService resumeService;
+    
+    public ScoringJobHandler(ResumeService resumeService) {
+        this.resumeService = resumeService;
+    }
+    
+    @Override
+    public Job.Type type() {
+        return Job.Type.SCORE;
+    }
+    
+    @Override
+    public Class<Payload> payloadType() {
+        return Payload.class;
+    }
+    
+    @Override
+    public Object handle(Payload payload, Job job) {
+        return resumeService.scoreResume(payload.resumeId(), payload.jobDescription(),
+                payload.profiles() != null ? payload.profiles() : List.of(), payload.tenantId());
+    }
+    
+    /**
+     * Arguments of a scoring job.
+     * 
+     * @param resumeId the resume to score
+     * @param jobDescription the job description text; may be empty
+     * @param profiles names of the scoring profiles to apply; may be empty
+     * @param tenantId optional tenant whose default profiles apply when none are given
+     */
+    public record Payload(UUID resumeId, String jobDescription, List<String> profiles, String tenantId) {
+    }
+}
@@ -0,0 +1,414 @@
+package com.ats.core.service.partition;
+
+import com.ats.core.model.Score;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ScorePartitionManager - Monthly partitions, daily rollups and retention for {@code scores}.
+ * 
+ * <p>Hibernate's {@code ddl-auto: update} creates {@code scores} as a plain
+ * table; this manager converts it once into a table range-partitioned by
+ * {@code created_at}. The existing table is attached as-is as the partition
+ * for everything before the next month ({@code scores_before_yyyyMM}), so no
+ * rows are copied. Monthly partitions ({@code scores_pyyyyMM}) are created
+ * ahead of time, and the primary key becomes {@code (id, created_at)} as
+ * PostgreSQL requires the partition key in unique constraints.</p>
+ * 
+ * <p>Attaching the existing table would scan it under an ACCESS EXCLUSIVE
+ * lock to check the partition bound. The bound is therefore first added as
+ * a {@code NOT VALID} check constraint and validated in its own transaction,
+ * which only blocks schema changes, not reads and writes. The attach then
+ * skips its scan, and scores are blocked only for the renames and the attach
+ * itself. A conversion still validating at the end of a month rejects
+ * scores created after midnight UTC until it finishes.</p>
+ * 
+ * <p>Each day the scores of complete days are aggregated per resume and job
+ * description into {@code score_daily_rollups}; the last rolled-up day is
+ * kept in {@code score_rollup_watermark}, so days without scores are
+ * stepped over rather than revisited. Then partitions whose month
+ * lies entirely before the retention window are dropped, so their rows
+ * survive only as rollups. DDL and rollups run under a PostgreSQL advisory
+ * lock so several nodes can run maintenance at the same time.</p>
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory")
+public class ScorePartitionManager {
+    
+    // Arbitrary key of the advisory lock that serializes maintenance across nodes
+    private static final long MAINTENANCE_LOCK = 0x5C0_2E5L;
+    private static final String NIL_UUID = "'00000000-0000-0000-0000-000000000000'::uuid";
+    private static final String BOUND_CONSTRAINT = "scores_partition_bound";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("scores_(p|before_)(\\d{6})");
+    private static final int MAX_ROLLUP_DAYS_PER_TRANSACTION = 31;
+    
+    private final JdbcTemplate jdbc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    
+    public ScorePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager,
+            @Value("${scoring.partitions.enabled:true}") boolean enabled,
+            @Value("${scoring.partitions.premake-months:3}") int premakeMonths,
+            @Value("${scoring.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbc = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.retentionMonths = retentionMonths;
+    }
+    
+    /**
+     * Prepares the schema before the application serves requests, so the
+     * partition for the current month always exists.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            prepareSchema(today());
+        } catch (RuntimeException e) {
+            log.error("Failed to prepare scores partitions; scores stay in their current layout", e);
+        }
+    }
+    
+    @Scheduled(cron = "${scoring.partitions.cron:0 15 2 * * *}")
+    public void scheduledMaintenance() {
+        try {
+            runMaintenance();
+        } catch (RuntimeException e) {
+            log.error("Score partition maintenance failed", e);
+        }
+    }
+    
+    /**
+     * Creates upcoming partitions, rolls up complete days and drops expired
+     * partitions.
+     * 
+     * @return what the run changed
+     */
+    public MaintenanceReport runMaintenance() {
+        LocalDate today = today();
+        prepareSchema(today);
+        int rolledDays = rollUp(today);
+        List<String> dropped = dropExpiredPartitions(today);
+        
+        MaintenanceReport report = new MaintenanceReport(rolledDays, dropped);
+        log.info("Score partition maintenance finished - {}", report);
+        return report;
+    }
+    
+    private void prepareSchema(LocalDate today) {
+        YearMonth firstPartitionMonth = YearMonth.from(today).plusMonths(1);
+        if (enabled && isPlainTable()) {
+            try {
+                validateBound(firstPartitionMonth);
+            } catch (RuntimeException e) {
+                // Left in place, the check would reject scores once the next month starts
+                jdbc.execute("ALTER TABLE IF EXISTS scores DROP CONSTRAINT IF EXISTS " + BOUND_CONSTRAINT);
+                throw e;
+            }
+        }
+        transaction.executeWithoutResult(status -> {
+            lock();
+            if (enabled) {
+                convertToPartitioned(firstPartitionMonth);
+                ensurePartitions(YearMonth.from(today));
+            }
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_scores_resume_created ON scores (resume_id, created_at DESC)");
+            jdbc.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_score_rollups_resume_day ON score_daily_rollups "
+                    + "(resume_id, day, (COALESCE(job_description_id, " + NIL_UUID + ")))");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS score_rollup_watermark ("
+                    + "id boolean PRIMARY KEY DEFAULT true CHECK (id), rolled_through date NOT NULL)");
+        });
+    }
+    
+    /**
+     * Proves that every existing score lies before the first monthly
+     * partition, without blocking writes: the check is added without a scan,
+     * then validated under a SHARE UPDATE EXCLUSIVE lock.
+     */
+    private void validateBound(YearMonth firstPartitionMonth) {
+        boolean added = Boolean.TRUE.equals(transaction.execute(status -> {
+            lock();
+            if (!isPlainTable()) {
+                return false;
+            }
+            jdbc.execute("ALTER TABLE scores DROP CONSTRAINT IF EXISTS " + BOUND_CONSTRAINT + ", "
+                    + "ADD CONSTRAINT " + BOUND_CONSTRAINT + " CHECK (created_at IS NOT NULL AND created_at < "
+                    + boundary(firstPartitionMonth) + ") NOT VALID");
+            return true;
+        }));
+        if (added) {
+            log.info("Validating that existing scores lie before {}", firstPartitionMonth);
+            transaction.executeWithoutResult(status -> {
+                lock();
+                if (isPlainTable()) {
+                    jdbc.execute("ALTER TABLE scores VALIDATE CONSTRAINT " + BOUND_CONSTRAINT);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Turns the plain {@code scores} table into the first partition of a new
+     * partitioned {@code scores} table, keeping its name-independent
+     * constraints.
+     */
+    private void convertToPartitioned(YearMonth firstPartitionMonth) {
+        if (!isPlainTable()) {
+            return;
+        }
+        
+        String legacy = "scores_before_" + firstPartitionMonth.format(SUFFIX);
+        log.info("Converting scores to a partitioned table; existing rows become partition {}", legacy);
+        
+        List<Map<String, Object>> foreignKeys = jdbc.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint "
+                        + "WHERE conrelid = 'scores'::regclass AND contype = 'f'");
+        
+        jdbc.execute("ALTER TABLE scores RENAME TO " + legacy);
+        jdbc.execute("ALTER TABLE " + legacy + " RENAME CONSTRAINT scores_pkey TO " + legacy + "_pkey");
+        jdbc.execute("ALTER INDEX IF EXISTS idx_scores_resume_created RENAME TO " + legacy + "_resume_created_idx");
+        
+        jdbc.execute("CREATE TABLE scores (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) "
+                + "PARTITION BY RANGE (created_at)");
+        // Copied with the other checks, but it bounds only the first partition
+        jdbc.execute("ALTER TABLE scores DROP CONSTRAINT IF EXISTS " + BOUND_CONSTRAINT);
+        jdbc.execute("ALTER TABLE scores ADD CONSTRAINT scores_pkey PRIMARY KEY (id, created_at)");
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            // Same names as Hibernate generated, so schema updates recognize them
+            jdbc.execute("ALTER TABLE scores ADD CONSTRAINT " + foreignKey.get("conname") + " "
+                    + foreignKey.get("definition"));
+        }
+        
+        jdbc.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT " + legacy + "_pkey, "
+                + "ADD CONSTRAINT " + legacy + "_pkey PRIMARY KEY (id, created_at)");
+        // The validated bound check lets the attach skip scanning the rows
+        jdbc.execute("ALTER TABLE scores ATTACH PARTITION " + legacy
+                + " FOR VALUES FROM (MINVALUE) TO (" + boundary(firstPartitionMonth) + ")");
+        jdbc.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT IF EXISTS " + BOUND_CONSTRAINT);
+    }
+    
+    private void ensurePartitions(YearMonth currentMonth) {
+        if (!isPartitioned()) {
+            return;
+        }
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            String name = "scores_p" + month.format(SUFFIX);
+            if (hasPartitionCovering(month)) {
+                continue;
+            }
+            log.info("Creating scores partition {}", name);
+            jdbc.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF scores FOR VALUES FROM ("
+                    + boundary(month) + ") TO (" + boundary(month.plusMonths(1)) + ")");
+        }
+    }
+    
+    /**
+     * Aggregates every complete day after the last rolled-up day. Days are
+     * recomputed in full, so a run that is cut short is simply repeated.
+     * 
+     * @return number of days rolled up
+     */
+    private int rollUp(LocalDate today) {
+        int days = 0;
+        int rolled;
+        while ((rolled = rollUpNextRange(today)) > 0) {
+            days += rolled;
+        }
+        return days;
+    }
+    
+    /**
+     * Aggregates the next range of complete days and advances the watermark
+     * past it in the same transaction, whether or not the range held any
+     * scores. The range is chosen under the maintenance lock, so a node that
+     * waited for another one continues after the days it rolled up, and no
+     * partition is dropped in between.
+     * 
+     * @return number of days rolled up; 0 once every complete day is
+     */
+    private int rollUpNextRange(LocalDate today) {
+        Integer days = transaction.execute(status -> {
+            lock();
+            LocalDate from = nextDayToRollUp();
+            if (from == null || !from.isBefore(today)) {
+                return 0;
+            }
+            LocalDate to = from.plusDays(MAX_ROLLUP_DAYS_PER_TRANSACTION);
+            if (to.isAfter(today)) {
+                to = today;
+            }
+            rollUpRange(from, to);
+            jdbc.update("INSERT INTO score_rollup_watermark (rolled_through) VALUES (?) "
+                    + "ON CONFLICT (id) DO UPDATE SET rolled_through = EXCLUDED.rolled_through", to.minusDays(1));
+            return (int) (to.toEpochDay() - from.toEpochDay());
+        });
+        return days != null ? days : 0;
+    }
+    
+    /**
+     * Returns the day after the watermark. Before the first watermark is
+     * written it continues after existing rollups, or starts at the first
+     * score.
+     * 
+     * @return first day to roll up, or null while there are no scores
+     */
+    private LocalDate nextDayToRollUp() {
+        LocalDate rolledThrough = jdbc.query("SELECT rolled_through FROM score_rollup_watermark",
+                rs -> rs.next() ? rs.getObject(1, LocalDate.class) : null);
+        if (rolledThrough == null) {
+            rolledThrough = jdbc.queryForObject("SELECT max(day) FROM score_daily_rollups", LocalDate.class);
+        }
+        if (rolledThrough != null) {
+            return rolledThrough.plusDays(1);
+        }
+        return jdbc.queryForObject("SELECT CAST(min(created_at) AT TIME ZONE 'UTC' AS date) FROM scores",
+                LocalDate.class);
+    }
+    
+    private void rollUpRange(LocalDate from, LocalDate to) {
+        int rows = jdbc.update(
+                "INSERT INTO score_daily_rollups (day, resume_id, job_description_id, score_count, "
+                        + "overall_avg, overall_min, overall_max, overall_last, "
+                        + "keyword_match_avg, skill_relevance_avg, formatting_avg) "
+                        + "SELECT CAST(created_at AT TIME ZONE 'UTC' AS date), resume_id, job_description_id, count(*), "
+                        + "avg(overall), min(overall), max(overall), (array_agg(overall ORDER BY created_at DESC))[1], "
+                        + "avg(keyword_match), avg(skill_relevance), avg(formatting) "
+                        + "FROM scores WHERE created_at >= ? AND created_at < ? "
+                        + "GROUP BY 1, resume_id, job_description_id "
+                        + "ON CONFLICT (resume_id, day, (COALESCE(job_description_id, " + NIL_UUID + "))) DO UPDATE SET "
+                        + "score_count = EXCLUDED.score_count, overall_avg = EXCLUDED.overall_avg, "
+                        + "overall_min = EXCLUDED.overall_min, overall_max = EXCLUDED.overall_max, "
+                        + "overall_last = EXCLUDED.overall_last, keyword_match_avg = EXCLUDED.keyword_match_avg, "
+                        + "skill_relevance_avg = EXCLUDED.skill_relevance_avg, formatting_avg = EXCLUDED.formatting_avg",
+                from.atStartOfDay().atOffset(ZoneOffset.UTC), to.atStartOfDay().atOffset(ZoneOffset.UTC));
+        log.debug("Rolled up scores from {} to {} into {} rows", from, to, rows);
+    }
+    
+    /**
+     * Drops partitions that end before the retention window. Must run after
+     * {@link #rollUp}, so their days are aggregated before the rows go.
+     * 
+     * @return names of the dropped partitions
+     */
+    private List<String> dropExpiredPartitions(LocalDate today) {
+        List<String> dropped = new ArrayList<>();
+        if (!enabled || retentionMonths <= 0 || !isPartitioned()) {
+            return dropped;
+        }
+        
+        // Every expired partition ends before today, and all days before today were just rolled up
+        YearMonth cutoff = YearMonth.from(today).minusMonths(retentionMonths);
+        for (String partition : partitionNames()) {
+            YearMonth end = partitionEnd(partition);
+            if (end == null || end.isAfter(cutoff)) {
+                continue;
+            }
+            transaction.executeWithoutResult(status -> {
+                lock();
+                jdbc.execute("DROP TABLE IF EXISTS " + partition);
+            });
+            log.info("Dropped expired scores partition {}", partition);
+            dropped.add(partition);
+        }
+        if (!dropped.isEmpty()) {
+            // Dropped rows bypass Hibernate, so cached scores from those months would outlive them
+            entityManagerFactory.getCache().evict(Score.class);
+        }
+        return dropped;
+    }
+    
+    private boolean hasPartitionCovering(YearMonth month) {
+        for (String partition : partitionNames()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth named = YearMonth.parse(matcher.group(2), SUFFIX);
+            boolean monthly = "p".equals(matcher.group(1));
+            if (monthly ? named.equals(month) : month.isBefore(named)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * First month after a partition, derived from its name.
+     */
+    private YearMonth partitionEnd(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        YearMonth month = YearMonth.parse(matcher.group(2), SUFFIX);
+        return "p".equals(matcher.group(1)) ? month.plusMonths(1) : month;
+    }
+    
+    private List<String> partitionNames() {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'scores'::regclass ORDER BY c.relname", String.class);
+    }
+    
+    private boolean isPartitioned() {
+        return "p".equals(scoresKind());
+    }
+    
+    private boolean isPlainTable() {
+        return "r".equals(scoresKind());
+    }
+    
+    private String scoresKind() {
+        return jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass('scores')",
+                String.class);
+    }
+    
+    private void lock() {
+        jdbc.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, MAINTENANCE_LOCK);
+    }
+    
+    private static String boundary(YearMonth month) {
+        return "'" + month.atDay(1) + " 00:00:00+00'";
+    }
+    
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+    
+    /**
+     * Outcome of a maintenance run.
+     * 
+     * @param rolledUpDays number of days aggregated into score_daily_rollups
+     * @param droppedPartitions partitions dropped by the retention policy
+     */
+    public record MaintenanceReport(int rolledUpDays, List<String> droppedPartitions) {
+    }
+}
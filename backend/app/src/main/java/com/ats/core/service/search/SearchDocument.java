@@ -0,0 +1,67 @@
+package com.ats.core.service.search;
+
+import com.ats.core.model.JobDescription;
+import com.ats.core.model.Resume;
+import com.ats.core.repository.ResumeRepository;
+
+import java.util.UUID;
+
+/**
+ * SearchDocument - Snapshot of an entity's searchable fields.
+ * 
+ * <p>Taken when the entity is persisted, so indexing can run on another
+ * thread after the transaction has ended.</p>
+ * 
+ * @param type kind of entity
+ * @param id the entity ID
+ * @param title resume filename or job description title
+ * @param content extracted resume text or job description content
+ */
+public record SearchDocument(Type type, UUID id, String title, String content) {
+    
+    public enum Type {
+        RESUME("resume"),
+        JOB_DESCRIPTION("job");
+        
+        private final String value;
+        
+        Type(String value) {
+            this.value = value;
+        }
+        
+        /**
+         * Name used in the index and the search API.
+         */
+        public String value() {
+            return value;
+        }
+        
+        /**
+         * Resolves a type from its API name.
+         * 
+         * @param value "resume" or "job"
+         * @return the type, or null if unknown
+         */
+        public static Type fromValue(String value) {
+            for (Type type : values()) {
+                if (type.value.equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+    
+    public static SearchDocument of(Resume resume) {
+        return new SearchDocument(Type.RESUME, resume.getId(), resume.getFilename(), resume.getExtractedText());
+    }
+    
+    public static SearchDocument of(ResumeRepository.ResumeText resume) {
+        return new SearchDocument(Type.RESUME, resume.getId(), resume.getFilename(), resume.getExtractedText());
+    }
+    
+    public static SearchDocument of(JobDescription jobDescription) {
+        return new SearchDocument(Type.JOB_DESCRIPTION, jobDescription.getId(), jobDescription.getTitle(),
+                jobDescription.getContent());
+    }
+}
@@ -0,0 +1,75 @@
+package com.ats.core.service.search;
+
+import com.ats.core.model.JobDescription;
+import com.ats.core.model.Resume;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * SearchIndexListener - Queues saved and deleted resumes and job descriptions for indexing.
+ * 
+ * <p>Registered as a JPA entity listener on {@link Resume} and
+ * {@link JobDescription} and instantiated by Spring. The searchable fields
+ * are captured at flush time and handed to the index only after the
+ * transaction commits, so a rolled-back insert never becomes searchable.
+ * Deleted entities are removed from the index after their transaction
+ * commits; other nodes learn of the delete from the tombstone log.</p>
+ */
+@Component
+public class SearchIndexListener {
+    
+    // Resolved lazily: entity listeners are created while the EntityManagerFactory is built
+    private final ObjectProvider<SearchIndexService> searchIndexService;
+    
+    public SearchIndexListener(ObjectProvider<SearchIndexService> searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        SearchDocument document;
+        if (entity instanceof Resume resume) {
+            if (!Hibernate.isPropertyInitialized(resume, "extractedText")) {
+                // Updated without loading its lazy text, so nothing searchable changed
+                return;
+            }
+            document = SearchDocument.of(resume);
+        } else if (entity instanceof JobDescription jobDescription) {
+            document = SearchDocument.of(jobDescription);
+        } else {
+            return;
+        }
+        
+        afterCommit(() -> searchIndexService.getObject().indexAsync(document));
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof Resume resume) {
+            afterCommit(() -> searchIndexService.getObject().deleteAsync(SearchDocument.Type.RESUME, resume.getId()));
+        } else if (entity instanceof JobDescription jobDescription) {
+            afterCommit(() -> searchIndexService.getObject().deleteAsync(SearchDocument.Type.JOB_DESCRIPTION,
+                    jobDescription.getId()));
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,545 @@
+package com.ats.core.service.search;
+
+import com.ats.core.dto.SearchResult;
+import com.ats.core.model.JobDescription;
+import com.ats.core.repository.JobDescriptionRepository;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.service.changes.ChangeTail;
+import com.ats.core.service.changes.TombstoneLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.uhighlight.CustomSeparatorBreakIterator;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.Passage;
+import org.apache.lucene.search.uhighlight.PassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.BreakIterator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * SearchIndexService - Embedded full-text search over resumes and job descriptions.
+ * 
+ * <p>Keeps a Lucene index in a local directory opened with
+ * {@link MMapDirectory}, so segments are served from the page cache rather
+ * than the Java heap. Resumes are indexed by filename and extracted text,
+ * job descriptions by title and content. Lookups go through the inverted
+ * index, so latency depends on the number of matches rather than on the
+ * size of the tables.</p>
+ * 
+ * <p>Saved entities are indexed asynchronously once their transaction
+ * commits (see {@link SearchIndexListener}). A scheduled near-real-time
+ * refresh makes new documents searchable within {@code search.refresh-ms}
+ * without a commit; commits, which make the index durable, run on a longer
+ * interval and at shutdown.</p>
+ * 
+ * <p>Each node keeps its own index. Rows saved through other nodes (async
+ * uploads extracted on a worker, for example) are picked up by following
+ * their {@code updated_at} column every {@code search.tail-ms}, and rows
+ * deleted anywhere by following the {@link TombstoneLog}. Every commit
+ * stores how far the tails got in the commit's user data; on startup the
+ * tails resume from there, which also covers updates lost in a crash
+ * before the last commit. An index without a watermark (a fresh node or a
+ * lost index), or one older than the tombstones kept, is rebuilt from the
+ * database in the background instead.</p>
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+    
+    static final String FIELD_KEY = "key";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_ID = "id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_CONTENT = "content";
+    // Rebuild that last wrote the document; older ones are gone from the database
+    static final String FIELD_GENERATION = "generation";
+    static final String COMMIT_WATERMARK = "watermark";
+    
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(FIELD_TITLE, 2f, FIELD_CONTENT, 1f);
+    private static final FieldType TEXT_WITH_OFFSETS = textWithOffsets();
+    private static final int REINDEX_PAGE_SIZE = 500;
+    private static final int HIGHLIGHT_PASSAGES = 3;
+    private static final int HIGHLIGHT_MAX_LENGTH = 100_000;
+    private static final int PASSAGE_MIN_LENGTH = 80;
+    private static final UUID MIN_ID = new UUID(0, 0);
+    private static final PassageFormatter PASSAGES = new PassageListFormatter();
+    
+    private final ResumeRepository resumeRepository;
+    private final JobDescriptionRepository jobDescriptionRepository;
+    private final TombstoneLog tombstoneLog;
+    private final ExecutorService executor;
+    private final Path location;
+    private final Duration tailOverlap;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Object rebuildLock = new Object();
+    
+    private MMapDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    // Created once the application is ready; the startup catch-up covers everything before
+    private volatile ChangeTail resumeTail;
+    private volatile ChangeTail jobDescriptionTail;
+    private volatile ChangeTail resumeDeletions;
+    private volatile ChangeTail jobDescriptionDeletions;
+    private volatile String generation = UUID.randomUUID().toString();
+    // While set, commits carry no watermark, so a crash mid-rebuild leads to another rebuild
+    private volatile boolean rebuilding;
+    private Instant committedWatermark;
+    
+    public SearchIndexService(
+            ResumeRepository resumeRepository,
+            JobDescriptionRepository jobDescriptionRepository,
+            TombstoneLog tombstoneLog,
+            ExecutorService uploadExecutor,
+            @Value("${search.index.location:./search-index}") String location,
+            @Value("${search.tail-overlap-seconds:120}") long tailOverlapSeconds) {
+        this.resumeRepository = resumeRepository;
+        this.jobDescriptionRepository = jobDescriptionRepository;
+        this.tombstoneLog = tombstoneLog;
+        this.executor = uploadExecutor;
+        this.location = Paths.get(location);
+        this.tailOverlap = Duration.ofSeconds(tailOverlapSeconds);
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(location);
+        directory = new MMapDirectory(location);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (COMMIT_WATERMARK.equals(entry.getKey())) {
+                committedWatermark = Instant.parse(entry.getValue());
+            }
+        }
+        log.info("Opened search index at {} with {} documents, up to date as of {}", location.toAbsolutePath(),
+                writer.getDocStats().numDocs, committedWatermark);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCatchUp() {
+        Instant now = Instant.now();
+        boolean rebuild = committedWatermark == null || !tombstoneLog.covers(committedWatermark, tailOverlap);
+        // The tails catch up from the watermark; a rebuild covers everything before now
+        Instant start = rebuild ? now : committedWatermark;
+        resumeTail = new ChangeTail(resumeRepository::findChangedSince, start, tailOverlap, REINDEX_PAGE_SIZE);
+        jobDescriptionTail = new ChangeTail(jobDescriptionRepository::findChangedSince, start, tailOverlap,
+                REINDEX_PAGE_SIZE);
+        resumeDeletions = new ChangeTail(tombstoneLog.deletionsFrom(TombstoneLog.RESUMES), start, tailOverlap,
+                REINDEX_PAGE_SIZE);
+        jobDescriptionDeletions = new ChangeTail(tombstoneLog.deletionsFrom(TombstoneLog.JOB_DESCRIPTIONS), start,
+                tailOverlap, REINDEX_PAGE_SIZE);
+        if (!rebuild) {
+            log.info("Search index catches up on changes since {}", committedWatermark);
+            return;
+        }
+        log.info("Search index has no recent watermark; rebuilding");
+        executor.submit(() -> {
+            try {
+                reindexAll();
+            } catch (RuntimeException e) {
+                log.error("Search index rebuild failed", e);
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() throws IOException {
+        try {
+            commit();
+            searcherManager.close();
+            writer.close();
+        } finally {
+            directory.close();
+        }
+    }
+    
+    /**
+     * Indexes a document on a background thread.
+     * 
+     * @param document the searchable fields of a saved entity
+     */
+    public void indexAsync(SearchDocument document) {
+        executor.submit(() -> {
+            try {
+                index(document);
+            } catch (RuntimeException e) {
+                log.warn("Failed to index {} {}: {}", document.type().value(), document.id(), e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Removes a deleted entity's document on a background thread.
+     * 
+     * @param type the type of the entity
+     * @param id the ID of the entity
+     */
+    public void deleteAsync(SearchDocument.Type type, UUID id) {
+        executor.submit(() -> {
+            try {
+                delete(type, id);
+            } catch (RuntimeException e) {
+                log.warn("Failed to remove {} {} from the index: {}", type.value(), id, e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Makes recently indexed documents searchable.
+     */
+    @Scheduled(fixedDelayString = "${search.refresh-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Failed to refresh the search index: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Indexes resumes and job descriptions saved since the last run, and
+     * removes those deleted since, including changes made through other nodes.
+     */
+    @Scheduled(fixedDelayString = "${search.tail-ms:5000}")
+    public void tail() {
+        if (resumeTail == null) {
+            return;
+        }
+        try {
+            long changed = resumeTail.poll(ids -> resumeRepository.findTextsByIdIn(ids)
+                    .forEach(resume -> index(SearchDocument.of(resume))));
+            changed += jobDescriptionTail.poll(ids -> jobDescriptionRepository.findAllById(ids)
+                    .forEach(jobDescription -> index(SearchDocument.of(jobDescription))));
+            changed += resumeDeletions.poll(ids -> ids.forEach(id -> delete(SearchDocument.Type.RESUME, id)));
+            changed += jobDescriptionDeletions.poll(ids -> ids.forEach(
+                    id -> delete(SearchDocument.Type.JOB_DESCRIPTION, id)));
+            if (changed > 0) {
+                log.debug("Indexed {} changed documents", changed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to index changed documents: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Persists indexed documents so they survive a restart, together with the
+     * point in time up to which the tails applied every change.
+     */
+    @Scheduled(fixedDelayString = "${search.commit-ms:60000}")
+    public synchronized void commit() {
+        try {
+            if (!writer.isOpen()) {
+                return;
+            }
+            Instant watermark = appliedWatermark();
+            if (watermark != null && !watermark.equals(committedWatermark)) {
+                writer.setLiveCommitData(Map.of(COMMIT_WATERMARK, watermark.toString()).entrySet());
+                committedWatermark = watermark;
+            }
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to commit the search index: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Searches resumes and job descriptions.
+     * 
+     * <p>Supports the Lucene query syntax: phrases ({@code "spring boot"}),
+     * {@code AND}/{@code OR}/{@code NOT}, {@code +}/{@code -}, grouping,
+     * prefix ({@code kube*}) and field queries ({@code title:engineer}).
+     * Terms without an operator must all match.</p>
+     * 
+     * @param queryText the query
+     * @param type restricts hits to one type, or null for both
+     * @param limit maximum number of hits
+     * @return hits ordered by relevance, with highlighted fragments
+     */
+    @SuppressWarnings("unchecked")
+    public SearchResult search(String queryText, SearchDocument.Type type, int limit) {
+        long started = System.nanoTime();
+        Query query = parse(queryText, type);
+        
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the search index", e);
+        }
+        try {
+            TopDocs topDocs = searcher.search(query, limit);
+            int[] docIds = Arrays.stream(topDocs.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc).toArray();
+            Object[] highlights = new PassageHighlighter(UnifiedHighlighter.builder(searcher, analyzer)
+                    .withMaxLength(HIGHLIGHT_MAX_LENGTH)
+                    .withFormatter(PASSAGES)
+                    .withBreakIterator(SearchIndexService::passageBreaks))
+                    .highlightPassages(FIELD_CONTENT, query, docIds);
+            
+            List<SearchResult.Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                Document document = searcher.storedFields().document(scoreDoc.doc);
+                hits.add(SearchResult.Hit.builder()
+                        .type(document.get(FIELD_TYPE))
+                        .id(UUID.fromString(document.get(FIELD_ID)))
+                        .title(document.get(FIELD_TITLE))
+                        .score(scoreDoc.score)
+                        .highlights(highlights[i] != null ? (List<String>) highlights[i] : List.of())
+                        .build());
+            }
+            
+            return SearchResult.builder()
+                    .query(queryText)
+                    .totalHits(topDocs.totalHits.value)
+                    .totalHitsExact(topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO)
+                    .tookMs((System.nanoTime() - started) / 1_000_000)
+                    .hits(hits)
+                    .build();
+                    
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.debug("Failed to release searcher", e);
+            }
+        }
+    }
+    
+    /**
+     * Re-indexes every stored resume and job description, and removes the
+     * documents of rows that no longer exist.
+     * 
+     * @return number of documents indexed per type
+     */
+    public Map<String, Long> reindexAll() {
+        synchronized (rebuildLock) {
+            return rebuild();
+        }
+    }
+    
+    private Map<String, Long> rebuild() {
+        rebuilding = true;
+        try {
+            writer.setLiveCommitData(Map.<String, String>of().entrySet());
+            committedWatermark = null;
+            generation = UUID.randomUUID().toString();
+            long resumes = reindex(SearchDocument.Type.RESUME);
+            long jobDescriptions = reindex(SearchDocument.Type.JOB_DESCRIPTION);
+            return Map.of(SearchDocument.Type.RESUME.value(), resumes,
+                    SearchDocument.Type.JOB_DESCRIPTION.value(), jobDescriptions);
+        } finally {
+            rebuilding = false;
+        }
+    }
+    
+    /**
+     * Re-indexes one type from the database, walking its rows in keyset
+     * pages, then deletes the documents of the type not written since the rebuild
+     * started. Documents are replaced by key, so concurrent saves are never
+     * duplicated.
+     */
+    private long reindex(SearchDocument.Type type) {
+        long indexed = 0;
+        if (type == SearchDocument.Type.RESUME) {
+            UUID after = MIN_ID;
+            List<UUID> page;
+            while (!(page = resumeRepository.findIdsGreaterThan(after, Limit.of(REINDEX_PAGE_SIZE))).isEmpty()) {
+                for (ResumeRepository.ResumeText resume : resumeRepository.findTextsByIdIn(page)) {
+                    index(SearchDocument.of(resume));
+                    indexed++;
+                }
+                after = page.get(page.size() - 1);
+            }
+        } else {
+            UUID after = MIN_ID;
+            List<JobDescription> page;
+            while (!(page = jobDescriptionRepository.findPageAfter(after, Limit.of(REINDEX_PAGE_SIZE))).isEmpty()) {
+                for (JobDescription jobDescription : page) {
+                    index(SearchDocument.of(jobDescription));
+                    indexed++;
+                }
+                after = page.get(page.size() - 1).getId();
+            }
+        }
+        try {
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new TermQuery(new Term(FIELD_TYPE, type.value())), BooleanClause.Occur.FILTER)
+                    .add(new TermQuery(new Term(FIELD_GENERATION, generation)), BooleanClause.Occur.MUST_NOT)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove deleted " + type.value() + " documents", e);
+        }
+        commit();
+        refresh();
+        log.info("Indexed {} {} documents", indexed, type.value());
+        return indexed;
+    }
+    
+    private void index(SearchDocument document) {
+        Document doc = new Document();
+        String key = document.type().value() + ":" + document.id();
+        doc.add(new StringField(FIELD_KEY, key, Field.Store.NO));
+        doc.add(new StringField(FIELD_TYPE, document.type().value(), Field.Store.YES));
+        doc.add(new StringField(FIELD_ID, document.id().toString(), Field.Store.YES));
+        doc.add(new StringField(FIELD_GENERATION, generation, Field.Store.NO));
+        doc.add(new Field(FIELD_TITLE, nullToEmpty(document.title()), TEXT_WITH_OFFSETS));
+        doc.add(new Field(FIELD_CONTENT, nullToEmpty(document.content()), TEXT_WITH_OFFSETS));
+        try {
+            writer.updateDocument(new Term(FIELD_KEY, key), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index " + key, e);
+        }
+    }
+    
+    private Query parse(String queryText, SearchDocument.Type type) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{FIELD_TITLE, FIELD_CONTENT}, analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query query;
+        try {
+            query = parser.parse(queryText);
+        } catch (ParseException | IndexSearcher.TooManyClauses e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search query: " + e.getMessage());
+        }
+        if (type == null) {
+            return query;
+        }
+        return new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_TYPE, type.value())), BooleanClause.Occur.FILTER)
+                .build();
+    }
+    
+    private void delete(SearchDocument.Type type, UUID id) {
+        String key = type.value() + ":" + id;
+        try {
+            writer.deleteDocuments(new Term(FIELD_KEY, key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove " + key, e);
+        }
+    }
+    
+    /**
+     * The oldest watermark of the tails: every change before it is in the
+     * index. Null before the tails start or during a rebuild.
+     */
+    private Instant appliedWatermark() {
+        List<ChangeTail> tails = Arrays.asList(resumeTail, jobDescriptionTail, resumeDeletions,
+                jobDescriptionDeletions);
+        if (rebuilding || tails.contains(null)) {
+            return null;
+        }
+        return tails.stream().map(ChangeTail::watermark).min(Instant::compareTo).orElseThrow();
+    }
+    
+    /**
+     * Resumes are line-oriented and often have no sentence punctuation, so
+     * passages are lines, merged until they give some context.
+     */
+    private static BreakIterator passageBreaks() {
+        // Alignment 0.5 extends a short line on both sides, so the match stays near the middle
+        return LengthGoalBreakIterator.createMinLength(new CustomSeparatorBreakIterator('\n'), PASSAGE_MIN_LENGTH,
+                0.5f);
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+    
+    /**
+     * Exposes the highlighter's per-document formatter output, which the
+     * public methods convert to a single string.
+     */
+    private static final class PassageHighlighter extends UnifiedHighlighter {
+        
+        PassageHighlighter(UnifiedHighlighter.Builder builder) {
+            super(builder);
+        }
+        
+        Object[] highlightPassages(String field, Query query, int[] docIds) throws IOException {
+            return highlightFieldsAsObjects(new String[]{field}, query, docIds, new int[]{HIGHLIGHT_PASSAGES})
+                    .get(field);
+        }
+    }
+    
+    /**
+     * Formats each passage on its own, so hits list fragments separately
+     * instead of joined with ellipses.
+     */
+    private static final class PassageListFormatter extends PassageFormatter {
+        
+        private final DefaultPassageFormatter single = new DefaultPassageFormatter();
+        
+        @Override
+        public Object format(Passage[] passages, String content) {
+            return Arrays.stream(passages)
+                    .map(passage -> single.format(new Passage[]{passage}, content).strip())
+                    .toList();
+        }
+    }
+    
+    /**
+     * Tokenized, stored text with offsets in the postings, so the highlighter
+     * does not need to re-analyze stored text.
+     */
+    private static FieldType textWithOffsets() {
+        FieldType type = new FieldType();
+        type.setTokenized(true);
+        type.setStored(true);
+        type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        type.freeze();
+        return type;
+    }
+}
@@ -0,0 +1,524 @@
+package com.ats.core.service.storage;
+
+import com.ats.core.service.diagnostics.PipelineEvents;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LocalStorageService - Local filesystem implementation of StorageService.
+ * 
+ * <p>Stores uploaded resume files on the local filesystem with unique
+ * generated filenames. Automatically creates the storage directory on
+ * initialization if it doesn't exist.</p>
+ * 
+ * <p>Files are spread over a two-level sharded layout derived from the
+ * stored name ({@code ab/cd/abcd1234-....pdf}), so no directory grows past
+ * a few thousand entries. The stored name alone determines the path, which
+ * keeps {@link #loadAsResource} and {@link #delete} O(1). Generated names
+ * always start with four hex characters; any other name, such as a legacy
+ * upload, is kept in a separate {@code other} directory. Files left in the
+ * legacy flat layout are still found, and can be moved into their shards
+ * with {@link #migrateToShardedLayout()}, on startup or through the admin
+ * API.</p>
+ * 
+ * <p>The cold tier is a separate directory with the same sharded layout,
+ * holding gzip-compressed originals. Cold files are decompressed on the fly
+ * when loaded.</p>
+ * 
+ * <p>The directory is private to the node unless {@code file.storage.shared}
+ * declares it the only one, as on a single node or a volume every node
+ * mounts.</p>
+ * 
+ * <p>Active unless {@code file.storage.type} selects another backend.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalStorageService implements StorageService {
+    
+    private static final String PART_SUFFIX = ".part";
+    private static final String COLD_SUFFIX = ".gz";
+    private static final String OTHER_DIRECTORY = "other";
+    private static final Pattern SHARD_DIRECTORY = Pattern.compile("[0-9a-f]{2}");
+    private static final Pattern SHARD_PREFIX = Pattern.compile("[0-9a-f]{4}.*", Pattern.DOTALL);
+    
+    private final Path storageLocation;
+    private final Path coldLocation;
+    private final boolean fsync;
+    private final boolean migrateOnStartup;
+    private final boolean shared;
+    
+    public LocalStorageService(
+            @Value("${file.storage.location}") String storagePath,
+            @Value("${file.storage.cold-location:./uploads-cold}") String coldPath,
+            @Value("${file.storage.durability:none}") String durability,
+            @Value("${file.storage.migrate-on-startup:false}") boolean migrateOnStartup,
+            @Value("${file.storage.shared:true}") boolean shared) {
+        this.storageLocation = Paths.get(storagePath);
+        this.coldLocation = Paths.get(coldPath);
+        this.fsync = "fsync".equalsIgnoreCase(durability);
+        this.migrateOnStartup = migrateOnStartup;
+        this.shared = shared;
+    }
+    
+    @PostConstruct
+    public void init() {
+        try {
+            if (!Files.exists(storageLocation)) {
+                Files.createDirectories(storageLocation);
+                log.info("Created storage directory at: {}", storageLocation.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            log.error("Failed to create storage directory", e);
+            throw new RuntimeException("Could not initialize storage location", e);
+        }
+        
+        if (migrateOnStartup) {
+            Thread.ofVirtual().name("storage-migration").start(this::migrateToShardedLayout);
+        }
+    }
+    
+    @Override
+    public String store(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Cannot store empty file");
+        }
+        
+        PipelineEvents.StorageWrite event = new PipelineEvents.StorageWrite();
+        event.begin();
+        Path partFile = null;
+        try {
+            String originalFilename = file.getOriginalFilename();
+            String extension = "";
+            
+            if (originalFilename != null && originalFilename.contains(".")) {
+                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            }
+            
+            String uniqueFilename = UUID.randomUUID() + extension;
+            Path destinationFile = shardedPath(uniqueFilename);
+            Files.createDirectories(destinationFile.getParent());
+            
+            // Write under a temporary name so a crashed write never leaves a partial file behind
+            partFile = destinationFile.resolveSibling(uniqueFilename + PART_SUFFIX);
+            writeFile(file, partFile);
+            Files.move(partFile, destinationFile, StandardCopyOption.ATOMIC_MOVE);
+            partFile = null;
+            
+            if (fsync) {
+                forceDirectory(destinationFile.getParent());
+            }
+            log.info("Stored file: {} as {}", originalFilename, uniqueFilename);
+            
+            event.storedFilename = uniqueFilename;
+            event.backend = "local";
+            event.bytes = file.getSize();
+            event.commit();
+            return uniqueFilename;
+            
+        } catch (IOException e) {
+            log.error("Failed to store file: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Failed to store file", e);
+        } finally {
+            if (partFile != null) {
+                try {
+                    Files.deleteIfExists(partFile);
+                } catch (IOException e) {
+                    log.warn("Failed to remove partial file: {}", partFile, e);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public Resource loadAsResource(String filename) {
+        try {
+            Path file = resolveExisting(filename);
+            Path coldFile = coldPath(filename);
+            if (!Files.exists(file) && Files.exists(coldFile)) {
+                return new ColdResource(filename, coldFile);
+            }
+            
+            Resource resource = new UrlResource(file.toUri());
+            
+            if (resource.exists() && resource.isReadable()) {
+                return resource;
+            } else {
+                log.warn("File not found or not readable: {}", filename);
+                throw new RuntimeException("File not found: " + filename);
+            }
+            
+        } catch (Exception e) {
+            log.error("Failed to load file: {}", filename, e);
+            throw new RuntimeException("Failed to load file: " + filename, e);
+        }
+    }
+    
+    @Override
+    public void delete(String filename) {
+        try {
+            Path file = resolveExisting(filename);
+            boolean deleted = Files.deleteIfExists(file) | Files.deleteIfExists(coldPath(filename));
+            
+            if (deleted) {
+                log.info("Deleted file: {}", filename);
+            } else {
+                log.warn("File not found for deletion: {}", filename);
+            }
+            
+        } catch (IOException e) {
+            log.error("Failed to delete file: {}", filename, e);
+            throw new RuntimeException("Failed to delete file: " + filename, e);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Walks the shard directories in name order and sorts one leaf
+     * directory at a time, so only a single leaf is ever held in memory.
+     * Because shards are named after the leading characters of the stored
+     * name, the shards list in sorted order; files found in a leaf that
+     * does not match their name are skipped. Names without a hex prefix are
+     * sorted separately and merged in, so the listing is globally sorted.</p>
+     * 
+     * @throws IllegalStateException if files of the legacy flat layout remain
+     */
+    @Override
+    public Stream<StoredObject> listStored() {
+        List<Path> flatFiles = sortedChildren(storageLocation, path -> Files.isRegularFile(path)
+                && !path.getFileName().toString().endsWith(PART_SUFFIX));
+        if (!flatFiles.isEmpty()) {
+            throw new IllegalStateException("Storage still contains " + flatFiles.size()
+                    + " files in the flat layout; run migrateToShardedLayout() first");
+        }
+        
+        Stream<StoredObject> sharded = sortedChildren(storageLocation, this::isShardDirectory).stream()
+                .flatMap(level1 -> sortedChildren(level1, this::isShardDirectory).stream())
+                .flatMap(level2 -> sortedChildren(level2, this::isStoredFile).stream()
+                        .filter(file -> isInOwnShard(level2, file)))
+                .mapMulti(this::toStoredObject);
+        List<StoredObject> other = sortedChildren(storageLocation.resolve(OTHER_DIRECTORY), this::isStoredFile)
+                .stream()
+                .<StoredObject>mapMulti(this::toStoredObject)
+                .toList();
+        return other.isEmpty() ? sharded : mergeSorted(sharded, other);
+    }
+    
+    @Override
+    public boolean isShared() {
+        return shared;
+    }
+    
+    @Override
+    public void moveToColdTier(String filename) {
+        Path source = resolveExisting(filename);
+        Path target = coldPath(filename);
+        Path partFile = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        
+        try {
+            Files.createDirectories(target.getParent());
+            try (InputStream in = Files.newInputStream(source);
+                 FileChannel channel = FileChannel.open(partFile,
+                         StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 GZIPOutputStream out = new BestCompressionGzipOutputStream(Channels.newOutputStream(channel))) {
+                in.transferTo(out);
+                out.finish();
+                if (fsync) {
+                    channel.force(true);
+                }
+            }
+            Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE);
+            if (fsync) {
+                forceDirectory(target.getParent());
+            }
+            
+            long hotSize = Files.size(source);
+            Files.delete(source);
+            log.info("Moved {} to cold tier ({} -> {} bytes)", filename, hotSize, Files.size(target));
+            
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(partFile);
+            } catch (IOException cleanupFailure) {
+                e.addSuppressed(cleanupFailure);
+            }
+            log.error("Failed to move file to cold tier: {}", filename, e);
+            throw new RuntimeException("Failed to move file to cold tier: " + filename, e);
+        }
+    }
+    
+    /**
+     * Moves every file of the legacy flat layout into its shard directory.
+     * Safe to run while the service is handling traffic: reads fall back to
+     * the flat path until a file has been moved, and each move is atomic.
+     * 
+     * @return number of files migrated
+     */
+    public int migrateToShardedLayout() {
+        int migrated = 0;
+        log.info("Migrating flat storage directory {} to sharded layout", storageLocation.toAbsolutePath());
+        
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(storageLocation, Files::isRegularFile)) {
+            for (Path flatFile : files) {
+                String filename = flatFile.getFileName().toString();
+                if (filename.endsWith(PART_SUFFIX)) {
+                    continue;
+                }
+                
+                Path target = shardedPath(filename);
+                Files.createDirectories(target.getParent());
+                Files.move(flatFile, target, StandardCopyOption.ATOMIC_MOVE);
+                migrated++;
+                
+                if (migrated % 10_000 == 0) {
+                    log.info("Migrated {} files to sharded layout", migrated);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Storage migration stopped after {} files", migrated, e);
+            throw new RuntimeException("Failed to migrate storage layout", e);
+        }
+        
+        log.info("Storage migration complete - {} files moved", migrated);
+        return migrated;
+    }
+    
+    /**
+     * Returns the shard path of a stored file: two directory levels named
+     * after the first four hex characters of the stored name, or the
+     * {@code other} directory for names that do not start with four hex
+     * characters.
+     * 
+     * @param filename the stored filename
+     * @return path of the file in the sharded layout
+     */
+    Path shardedPath(String filename) {
+        validateFilename(filename);
+        if (!SHARD_PREFIX.matcher(filename).matches()) {
+            return storageLocation.resolve(OTHER_DIRECTORY).resolve(filename);
+        }
+        return storageLocation.resolve(filename.substring(0, 2)).resolve(filename.substring(2, 4)).resolve(filename);
+    }
+    
+    private Path coldPath(String filename) {
+        Path hot = shardedPath(filename);
+        return coldLocation.resolve(storageLocation.relativize(hot.getParent())).resolve(filename + COLD_SUFFIX);
+    }
+    
+    private boolean isShardDirectory(Path path) {
+        return SHARD_DIRECTORY.matcher(path.getFileName().toString()).matches() && Files.isDirectory(path);
+    }
+    
+    private boolean isStoredFile(Path path) {
+        String name = path.getFileName().toString();
+        return !name.startsWith(".") && !name.endsWith(PART_SUFFIX) && Files.isRegularFile(path);
+    }
+    
+    private boolean isInOwnShard(Path leaf, Path file) {
+        String prefix = leaf.getParent().getFileName().toString() + leaf.getFileName();
+        if (file.getFileName().toString().startsWith(prefix)) {
+            return true;
+        }
+        log.warn("Skipping {} - it is not in its shard directory", file);
+        return false;
+    }
+    
+    /**
+     * Merges two listings that are each sorted by filename into one sorted
+     * listing. The second one is small and fully loaded.
+     */
+    private static Stream<StoredObject> mergeSorted(Stream<StoredObject> first, List<StoredObject> second) {
+        Iterator<StoredObject> left = first.iterator();
+        Iterator<StoredObject> right = second.iterator();
+        Iterator<StoredObject> merged = new Iterator<>() {
+            private StoredObject nextLeft = left.hasNext() ? left.next() : null;
+            private StoredObject nextRight = right.hasNext() ? right.next() : null;
+            
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+            
+            @Override
+            public StoredObject next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                StoredObject next;
+                if (nextRight == null
+                        || (nextLeft != null && nextLeft.filename().compareTo(nextRight.filename()) < 0)) {
+                    next = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    next = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close);
+    }
+    
+    /**
+     * Returns the matching entries of one directory sorted by name.
+     */
+    private List<Path> sortedChildren(Path directory, DirectoryStream.Filter<Path> filter) {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, filter)) {
+            stream.forEach(children::add);
+        } catch (NoSuchFileException e) {
+            return children;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + directory, e);
+        }
+        children.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+        return children;
+    }
+    
+    private void toStoredObject(Path file, Consumer<StoredObject> sink) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            sink.accept(new StoredObject(file.getFileName().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toInstant()));
+        } catch (NoSuchFileException e) {
+            // Deleted while listing
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read attributes of " + file, e);
+        }
+    }
+    
+    /**
+     * Resolves a stored file, falling back to the legacy flat layout for
+     * files that have not been migrated yet.
+     */
+    private Path resolveExisting(String filename) {
+        Path sharded = shardedPath(filename);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        
+        Path flat = storageLocation.resolve(filename);
+        return Files.exists(flat) ? flat : sharded;
+    }
+    
+    /**
+     * Copies the upload into the destination file. The upload is copied
+     * rather than moved with {@link MultipartFile#transferTo}, because text
+     * extraction reads the same upload concurrently. Tomcat opens an upload
+     * it spooled to disk with {@link Files#newInputStream}, whose
+     * {@code transferTo} into a file channel copies file to file.
+     */
+    private void writeFile(MultipartFile file, Path destination) throws IOException {
+        try (InputStream in = file.getInputStream();
+             FileChannel target = FileChannel.open(destination,
+                     StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            in.transferTo(Channels.newOutputStream(target));
+            
+            if (fsync) {
+                target.force(true);
+            }
+        }
+    }
+    
+    /**
+     * Flushes a directory so a newly created entry survives a crash.
+     */
+    private void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform allows opening directories; the file itself is already durable
+            log.debug("Could not fsync directory {}: {}", directory, e.getMessage());
+        }
+    }
+    
+    private void validateFilename(String filename) {
+        if (filename == null || filename.isBlank() || filename.contains("/") || filename.contains("\\")
+                || filename.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid stored filename: " + filename);
+        }
+    }
+    
+    /**
+     * Gzip stream that trades CPU for size; cold files are written once and rarely read.
+     */
+    private static class BestCompressionGzipOutputStream extends GZIPOutputStream {
+        
+        BestCompressionGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+    
+    /**
+     * Resource view of a cold-tier file that decompresses on every read.
+     */
+    private static class ColdResource extends AbstractResource {
+        
+        private final String filename;
+        private final Path coldFile;
+        
+        ColdResource(String filename, Path coldFile) {
+            this.filename = filename;
+            this.coldFile = coldFile;
+        }
+        
+        @Override
+        public boolean exists() {
+            return Files.exists(coldFile);
+        }
+        
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+        
+        @Override
+        public String getDescription() {
+            return "cold-tier file [" + coldFile + "]";
+        }
+        
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new GZIPInputStream(Files.newInputStream(coldFile), 64 * 1024);
+        }
+    }
+}
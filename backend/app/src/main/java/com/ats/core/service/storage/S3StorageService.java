@@ -0,0 +1,538 @@
+package com.ats.core.service.storage;
+
+import com.ats.core.service.diagnostics.PipelineEvents;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.MetadataDirective;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.StorageClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * S3StorageService - S3-compatible object storage implementation of StorageService.
+ * 
+ * <p>Lets several API nodes share one bucket instead of an NFS mount. Works
+ * with AWS S3 and with S3-compatible stores such as MinIO; set
+ * {@code file.storage.s3.endpoint} and path-style access for the latter.
+ * Active when {@code file.storage.type=s3}.</p>
+ * 
+ * <p>Uploads larger than one part are streamed as a multipart upload. Parts
+ * are read from the upload sequentially and sent in parallel, with at most
+ * {@code upload-parallelism} part buffers in memory at a time. The first
+ * failed part stops the upload; once the parts still in flight have
+ * finished, the upload is aborted so no orphaned parts are billed.</p>
+ * 
+ * <p>{@link #loadAsResource} fetches objects with parallel ranged GETs into a
+ * local read-through cache and serves them from disk. The cache is bounded by
+ * size and evicts the least recently used blobs.</p>
+ * 
+ * <p>The cold tier is an in-place change of the object's storage class
+ * (Standard-IA by default), so cold objects stay readable without a
+ * restore.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3")
+public class S3StorageService implements StorageService {
+    
+    // S3 rejects multipart parts smaller than 5 MB (except the last one)
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final String PART_SUFFIX = ".part";
+    
+    private final S3Client s3;
+    private final ExecutorService executor;
+    private final String bucket;
+    private final String keyPrefix;
+    private final int partSize;
+    private final int uploadParallelism;
+    private final long rangeSize;
+    private final Path cacheLocation;
+    private final long cacheMaxBytes;
+    private final StorageClass coldStorageClass;
+    
+    // Access-ordered: iteration starts at the least recently used blob
+    private final LinkedHashMap<String, Long> cacheEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+    
+    public S3StorageService(
+            ExecutorService uploadExecutor,
+            @Value("${file.storage.s3.bucket}") String bucket,
+            @Value("${file.storage.s3.key-prefix:resumes/}") String keyPrefix,
+            @Value("${file.storage.s3.region:us-east-1}") String region,
+            @Value("${file.storage.s3.endpoint:}") String endpoint,
+            @Value("${file.storage.s3.path-style-access:false}") boolean pathStyleAccess,
+            @Value("${file.storage.s3.access-key:}") String accessKey,
+            @Value("${file.storage.s3.secret-key:}") String secretKey,
+            @Value("${file.storage.s3.part-size:8388608}") int partSize,
+            @Value("${file.storage.s3.upload-parallelism:4}") int uploadParallelism,
+            @Value("${file.storage.s3.range-size:8388608}") long rangeSize,
+            @Value("${file.storage.s3.cold-storage-class:STANDARD_IA}") String coldStorageClass,
+            @Value("${file.storage.s3.cache.location:./cache/blobs}") String cachePath,
+            @Value("${file.storage.s3.cache.max-bytes:536870912}") long cacheMaxBytes) {
+        this.executor = uploadExecutor;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix;
+        this.partSize = (int) Math.max(MIN_PART_SIZE, partSize);
+        this.uploadParallelism = Math.max(1, uploadParallelism);
+        this.rangeSize = Math.max(1, rangeSize);
+        this.cacheLocation = Paths.get(cachePath);
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.coldStorageClass = StorageClass.fromValue(coldStorageClass);
+        if (this.coldStorageClass == StorageClass.UNKNOWN_TO_SDK_VERSION) {
+            throw new IllegalArgumentException("Unknown S3 storage class: " + coldStorageClass);
+        }
+        
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        
+        var builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .forcePathStyle(pathStyleAccess);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        this.s3 = builder.build();
+    }
+    
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(cacheLocation);
+            loadCacheIndex();
+        } catch (IOException e) {
+            log.error("Failed to initialize blob cache", e);
+            throw new RuntimeException("Could not initialize blob cache location", e);
+        }
+        
+        try {
+            s3.headBucket(request -> request.bucket(bucket));
+            log.info("Using S3 bucket {} (cache at {})", bucket, cacheLocation.toAbsolutePath());
+        } catch (SdkException e) {
+            // Don't block startup; the bucket may be created after the service comes up
+            log.warn("S3 bucket {} is not accessible: {}", bucket, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        s3.close();
+    }
+    
+    @Override
+    public String store(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Cannot store empty file");
+        }
+        
+        String originalFilename = file.getOriginalFilename();
+        String extension = "";
+        
+        if (originalFilename != null && originalFilename.contains(".")) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        
+        String uniqueFilename = UUID.randomUUID() + extension;
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+        
+        PipelineEvents.StorageWrite event = new PipelineEvents.StorageWrite();
+        event.begin();
+        try (InputStream in = file.getInputStream()) {
+            if (file.getSize() <= partSize) {
+                s3.putObject(request -> request.bucket(bucket).key(key(uniqueFilename)).contentType(contentType),
+                        RequestBody.fromInputStream(in, file.getSize()));
+            } else {
+                uploadMultipart(in, key(uniqueFilename), contentType);
+            }
+            log.info("Stored file: {} as {} in bucket {}", originalFilename, uniqueFilename, bucket);
+            
+            event.storedFilename = uniqueFilename;
+            event.backend = "s3";
+            event.bytes = file.getSize();
+            event.commit();
+            return uniqueFilename;
+            
+        } catch (IOException | SdkException e) {
+            log.error("Failed to store file: {}", originalFilename, e);
+            throw new RuntimeException("Failed to store file", e);
+        }
+    }
+    
+    @Override
+    public Resource loadAsResource(String filename) {
+        try {
+            Path cached = cachedFile(filename);
+            if (Files.exists(cached)) {
+                touchCacheEntry(filename, cached);
+            } else {
+                download(filename, cached);
+            }
+            return new UrlResource(cached.toUri());
+            
+        } catch (NoSuchKeyException e) {
+            log.warn("File not found in bucket {}: {}", bucket, filename);
+            throw new RuntimeException("File not found: " + filename, e);
+        } catch (Exception e) {
+            log.error("Failed to load file: {}", filename, e);
+            throw new RuntimeException("Failed to load file: " + filename, e);
+        }
+    }
+    
+    @Override
+    public void delete(String filename) {
+        try {
+            s3.deleteObject(request -> request.bucket(bucket).key(key(filename)));
+            evictCacheEntry(filename);
+            log.info("Deleted file: {}", filename);
+            
+        } catch (SdkException | IOException e) {
+            log.error("Failed to delete file: {}", filename, e);
+            throw new RuntimeException("Failed to delete file: " + filename, e);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>S3 lists keys in UTF-8 binary order, which matches {@link String}
+     * order for the ASCII names this service generates. Pages are fetched
+     * lazily as the stream is consumed.</p>
+     */
+    @Override
+    public Stream<StoredObject> listStored() {
+        String coldClass = coldStorageClass.toString();
+        return s3.listObjectsV2Paginator(request -> request.bucket(bucket).prefix(keyPrefix))
+                .contents().stream()
+                .filter(object -> !coldClass.equals(object.storageClassAsString()))
+                .map(object -> new StoredObject(object.key().substring(keyPrefix.length()), object.size(),
+                        object.lastModified()))
+                .filter(object -> !object.filename().contains("/"));
+    }
+    
+    @Override
+    public boolean isShared() {
+        // One bucket for all nodes
+        return true;
+    }
+    
+    @Override
+    public void moveToColdTier(String filename) {
+        try {
+            String key = key(filename);
+            s3.copyObject(request -> request
+                    .sourceBucket(bucket).sourceKey(key)
+                    .destinationBucket(bucket).destinationKey(key)
+                    .storageClass(coldStorageClass)
+                    .metadataDirective(MetadataDirective.COPY));
+            evictCacheEntry(filename);
+            log.info("Moved {} to storage class {}", filename, coldStorageClass);
+            
+        } catch (SdkException | IOException e) {
+            log.error("Failed to move file to cold tier: {}", filename, e);
+            throw new RuntimeException("Failed to move file to cold tier: " + filename, e);
+        }
+    }
+    
+    /**
+     * Streams an upload as a multipart upload, sending parts in parallel while
+     * the next part is read. A failed part is noticed before the next part is
+     * read, so the rest of the upload is neither read nor sent.
+     */
+    private void uploadMultipart(InputStream in, String key, String contentType) throws IOException {
+        String uploadId = s3.createMultipartUpload(request -> request.bucket(bucket).key(key).contentType(contentType))
+                .uploadId();
+        Semaphore buffers = new Semaphore(uploadParallelism);
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        
+        try {
+            for (int partNumber = 1; ; partNumber++) {
+                buffers.acquire();
+                throwIfFailed(parts);
+                byte[] buffer = in.readNBytes(partSize);
+                if (buffer.length == 0 && partNumber > 1) {
+                    buffers.release();
+                    break;
+                }
+                
+                int number = partNumber;
+                parts.add(executor.submit(() -> {
+                    try {
+                        if (aborted.get()) {
+                            throw new CancellationException("Multipart upload aborted");
+                        }
+                        String eTag = s3.uploadPart(request -> request.bucket(bucket).key(key)
+                                        .uploadId(uploadId).partNumber(number),
+                                RequestBody.fromBytes(buffer)).eTag();
+                        return CompletedPart.builder().partNumber(number).eTag(eTag).build();
+                    } finally {
+                        buffers.release();
+                    }
+                }));
+                
+                if (buffer.length < partSize) {
+                    break;
+                }
+            }
+            
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completedParts.add(part.get());
+            }
+            s3.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completedParts)));
+            log.debug("Uploaded {} in {} parts", key, completedParts.size());
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortMultipart(key, uploadId, parts, aborted);
+            throw new InterruptedIOException("Multipart upload interrupted");
+        } catch (ExecutionException e) {
+            abortMultipart(key, uploadId, parts, aborted);
+            throw new IOException("Multipart upload failed", e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(key, uploadId, parts, aborted);
+            throw e;
+        }
+    }
+    
+    private static void throwIfFailed(List<Future<CompletedPart>> parts) throws ExecutionException {
+        for (Future<CompletedPart> part : parts) {
+            if (part.state() == Future.State.FAILED) {
+                throw new ExecutionException(part.exceptionNow());
+            }
+        }
+    }
+    
+    /**
+     * Aborts a multipart upload. Parts not started yet are skipped, and parts
+     * in flight are waited for first: a part that completes after the abort
+     * would be stored, and billed, again.
+     */
+    private void abortMultipart(String key, String uploadId, List<Future<CompletedPart>> parts,
+                                AtomicBoolean aborted) {
+        aborted.set(true);
+        boolean interrupted = Thread.interrupted();
+        for (Future<CompletedPart> part : parts) {
+            if (interrupted) {
+                // Not waiting any longer; a part that lands after the abort may be left behind
+                part.cancel(true);
+                continue;
+            }
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                part.cancel(true);
+            } catch (ExecutionException | CancellationException e) {
+                // The failure being handled, or a part skipped after it
+            }
+        }
+        try {
+            s3.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (SdkException e) {
+            log.warn("Failed to abort multipart upload {} for {}", uploadId, key, e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Downloads an object into the cache with parallel ranged GETs, each
+     * writing its range at its own offset of the cache file.
+     */
+    private void download(String filename, Path cached) throws IOException, InterruptedException {
+        long size = s3.headObject(request -> request.bucket(bucket).key(key(filename))).contentLength();
+        Path partFile = cached.resolveSibling(cached.getFileName() + "." + UUID.randomUUID() + PART_SUFFIX);
+        
+        try (FileChannel target = FileChannel.open(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            List<Future<Void>> ranges = new ArrayList<>();
+            for (long start = 0; start < size; start += rangeSize) {
+                long rangeStart = start;
+                long rangeEnd = Math.min(start + rangeSize, size) - 1;
+                ranges.add(executor.submit(() -> {
+                    downloadRange(filename, rangeStart, rangeEnd, target);
+                    return null;
+                }));
+            }
+            
+            try {
+                for (Future<Void> range : ranges) {
+                    range.get();
+                }
+            } catch (ExecutionException e) {
+                ranges.forEach(range -> range.cancel(true));
+                if (e.getCause() instanceof NoSuchKeyException noSuchKey) {
+                    throw noSuchKey;
+                }
+                throw new IOException("Ranged download failed", e.getCause());
+            } catch (InterruptedException e) {
+                ranges.forEach(range -> range.cancel(true));
+                throw e;
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+        
+        // Concurrent loads of the same blob each download; the last move wins with identical content
+        Files.move(partFile, cached, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        addCacheEntry(filename, size);
+        log.debug("Cached {} ({} bytes) from bucket {}", filename, size, bucket);
+    }
+    
+    private void downloadRange(String filename, long start, long end, FileChannel target) throws IOException {
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(request -> request.bucket(bucket)
+                .key(key(filename)).range("bytes=" + start + "-" + end))) {
+            byte[] buffer = new byte[64 * 1024];
+            long position = start;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    position += target.write(chunk, position);
+                }
+            }
+        }
+    }
+    
+    private String key(String filename) {
+        if (filename == null || filename.isBlank() || filename.contains("/") || filename.contains("\\")
+                || filename.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid stored filename: " + filename);
+        }
+        return keyPrefix + filename;
+    }
+    
+    private Path cachedFile(String filename) {
+        key(filename);
+        return cacheLocation.resolve(filename);
+    }
+    
+    /**
+     * Rebuilds the LRU index from the cache directory, oldest access first,
+     * and removes partial downloads left by a previous run.
+     */
+    private void loadCacheIndex() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheLocation, Files::isRegularFile)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(PART_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparing(file -> file.toFile().lastModified()));
+        
+        synchronized (cacheEntries) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                cacheEntries.put(file.getFileName().toString(), size);
+                cacheBytes += size;
+            }
+        }
+        evictOverflow();
+    }
+    
+    private void touchCacheEntry(String filename, Path cached) {
+        synchronized (cacheEntries) {
+            cacheEntries.get(filename);
+        }
+        try {
+            // Persist the access time so the LRU order survives restarts
+            Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not update access time of cached blob {}", filename);
+        }
+    }
+    
+    private void addCacheEntry(String filename, long size) {
+        synchronized (cacheEntries) {
+            Long previous = cacheEntries.put(filename, size);
+            cacheBytes += size - (previous != null ? previous : 0);
+        }
+        evictOverflow();
+    }
+    
+    private void evictCacheEntry(String filename) throws IOException {
+        synchronized (cacheEntries) {
+            Long size = cacheEntries.remove(filename);
+            if (size != null) {
+                cacheBytes -= size;
+            }
+        }
+        Files.deleteIfExists(cachedFile(filename));
+    }
+    
+    private void evictOverflow() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (cacheEntries) {
+            Iterator<Map.Entry<String, Long>> eldest = cacheEntries.entrySet().iterator();
+            // Keep the most recent blob even if it alone exceeds the budget; it is about to be served
+            while (cacheBytes > cacheMaxBytes && cacheEntries.size() > 1 && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                cacheBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        
+        for (String filename : evicted) {
+            try {
+                Files.deleteIfExists(cacheLocation.resolve(filename));
+            } catch (IOException e) {
+                log.warn("Failed to evict cached blob {}", filename, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.ats.core.service.storage;
+
+import com.ats.core.model.Resume;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.service.admission.AdmissionLimiter;
+import com.ats.core.service.jobs.JobQueue;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * StorageReconciler - Background consistency and retention pass over stored files.
+ * 
+ * <p>Walks the storage listing and the {@code resumes.storage_path} column
+ * together as a sorted merge, so memory use is constant no matter how many
+ * files exist. Both sides arrive in byte order: the storage services list in
+ * name order and the database is read in keyset pages ordered with
+ * {@code COLLATE "C"}, each page in its own short transaction, so a long
+ * pass never holds a snapshot that would keep vacuum from cleaning
+ * {@code resumes}.</p>
+ * 
+ * <ul>
+ *   <li>A file without a row is an orphan (for example an upload whose row
+ *       failed to save) and is deleted once it is older than the grace
+ *       period, unless a job still refers to it: the upload of a queued or
+ *       dead-lettered extraction job, or the output of a report job.</li>
+ *   <li>A row without a file is marked {@link Resume.StorageTier#MISSING};
+ *       if the file shows up again, the row goes back to
+ *       {@link Resume.StorageTier#HOT}.</li>
+ *   <li>A matched file older than the retention age is deleted or moved to
+ *       the cold tier, depending on the retention policy. The row, its
+ *       extracted text and its scores are kept.</li>
+ * </ul>
+ * 
+ * <p>Work is paced by separate scan and mutation rates, and pauses while the
+ * admission limiter reports foreground load, so the pass never competes with
+ * uploads for disk or network I/O. A pass is idempotent; a pass that is cut
+ * short is simply completed by the next one.</p>
+ * 
+ * <p>Only one node reconciles at a time: a pass holds a PostgreSQL session
+ * advisory lock and is skipped on nodes that cannot take it. A pass is also
+ * skipped when the storage is private to the node (local storage not
+ * declared shared), because another node's files would look missing and
+ * their rows would be marked so.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "reconciler.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageReconciler {
+    
+    // Files are written shortly before their row; rows are only read once older than the grace period
+    private static final Duration UPLOAD_SLACK = Duration.ofHours(1);
+    private static final long BUSY_BACKOFF_MILLIS = 500;
+    private static final int ROW_PAGE_SIZE = 1000;
+    // Arbitrary key of the advisory lock that elects the reconciling node
+    static final long RECONCILE_LOCK = 0x5245434F4E43494CL;
+    
+    private final StorageService storageService;
+    private final ResumeRepository resumeRepository;
+    private final JobQueue jobQueue;
+    private final AdmissionLimiter admissionLimiter;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Duration orphanGrace;
+    private final RetentionPolicy retentionPolicy;
+    private final Duration retentionAge;
+    private final boolean dryRun;
+    private final long scanIntervalNanos;
+    private final long mutationIntervalNanos;
+    
+    public StorageReconciler(
+            StorageService storageService,
+            ResumeRepository resumeRepository,
+            JobQueue jobQueue,
+            AdmissionLimiter admissionLimiter,
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${reconciler.orphan-grace-hours:24}") long orphanGraceHours,
+            @Value("${reconciler.retention.policy:none}") String retentionPolicy,
+            @Value("${reconciler.retention.after-days:365}") long retentionDays,
+            @Value("${reconciler.dry-run:false}") boolean dryRun,
+            @Value("${reconciler.scan-rate:2000}") int scanRate,
+            @Value("${reconciler.mutation-rate:20}") int mutationRate) {
+        this.storageService = storageService;
+        this.resumeRepository = resumeRepository;
+        this.jobQueue = jobQueue;
+        this.admissionLimiter = admissionLimiter;
+        this.dataSource = dataSource;
+        this.jdbc = jdbcTemplate;
+        this.orphanGrace = Duration.ofHours(orphanGraceHours);
+        this.retentionPolicy = RetentionPolicy.valueOf(retentionPolicy.toUpperCase());
+        this.retentionAge = Duration.ofDays(retentionDays);
+        this.dryRun = dryRun;
+        this.scanIntervalNanos = scanRate > 0 ? TimeUnit.SECONDS.toNanos(1) / scanRate : 0;
+        this.mutationIntervalNanos = mutationRate > 0 ? TimeUnit.SECONDS.toNanos(1) / mutationRate : 0;
+        
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Creates the index the row pages are read through: the merge compares
+     * in byte order, which the default-collation index on storage_path does
+     * not provide.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_resumes_storage_path_c ON resumes (storage_path COLLATE \"C\")");
+        } catch (RuntimeException e) {
+            log.error("Failed to create the reconciler index; each page will sort the resumes table", e);
+        }
+    }
+    
+    @Scheduled(cron = "${reconciler.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Storage reconciliation interrupted");
+        } catch (RuntimeException e) {
+            log.error("Storage reconciliation failed", e);
+        }
+    }
+    
+    /**
+     * Runs one reconciliation pass, unless the storage is private to this
+     * node or another node is already reconciling.
+     * 
+     * @return counts of what the pass found and changed, or empty if it was skipped
+     * @throws InterruptedException if interrupted while pacing
+     */
+    public Optional<ReconcileReport> reconcile() throws InterruptedException {
+        if (!storageService.isShared()) {
+            log.warn("Skipping storage reconciliation: storage is private to this node "
+                    + "(set file.storage.shared=true if this is the only node or the volume is shared)");
+            return Optional.empty();
+        }
+        // A session lock on a dedicated connection; the pass itself runs in short transactions on others
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection)) {
+                log.info("Skipping storage reconciliation: another node is reconciling");
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(runPass());
+            } finally {
+                unlock(lockConnection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to take the reconciliation lock", e);
+        }
+    }
+    
+    private ReconcileReport runPass() throws InterruptedException {
+        Instant start = Instant.now();
+        Instant rowCutoff = start.minus(orphanGrace);
+        Instant orphanCutoff = rowCutoff.minus(UPLOAD_SLACK);
+        Instant retentionCutoff = start.minus(retentionAge);
+        log.info("Starting storage reconciliation - retention: {}{}", retentionPolicy, dryRun ? " (dry run)" : "");
+        
+        Pass pass = new Pass(orphanCutoff, retentionCutoff);
+        try (Stream<StoredObject> files = storageService.listStored()) {
+            pass.merge(files.iterator(), new RowPages(OffsetDateTime.ofInstant(rowCutoff, ZoneOffset.UTC)));
+        }
+        
+        ReconcileReport report = pass.report(Duration.between(start, Instant.now()));
+        log.info("Storage reconciliation finished - {}", report);
+        return report;
+    }
+    
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, RECONCILE_LOCK);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+    
+    private static void unlock(Connection connection) throws SQLException {
+        // The pooled connection outlives the pass, so the lock must be released explicitly
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, RECONCILE_LOCK);
+            statement.execute();
+        }
+    }
+    
+    /**
+     * Reads the rows to merge one keyset page at a time, each page in its
+     * own read-only transaction.
+     */
+    private class RowPages implements Iterator<ResumeRepository.StoredPath> {
+        
+        private final OffsetDateTime uploadedBefore;
+        private Iterator<ResumeRepository.StoredPath> page = Collections.emptyIterator();
+        private String after = "";
+        private boolean exhausted;
+        
+        RowPages(OffsetDateTime uploadedBefore) {
+            this.uploadedBefore = uploadedBefore;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !exhausted) {
+                List<ResumeRepository.StoredPath> rows = readTransaction.execute(status ->
+                        resumeRepository.findHotStoragePathsAfter(after, uploadedBefore, ROW_PAGE_SIZE));
+                exhausted = rows.size() < ROW_PAGE_SIZE;
+                if (!rows.isEmpty()) {
+                    after = rows.get(rows.size() - 1).getStoragePath();
+                }
+                page = rows.iterator();
+            }
+            return page.hasNext();
+        }
+        
+        @Override
+        public ResumeRepository.StoredPath next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
+    
+    /**
+     * State of a single reconciliation pass.
+     */
+    private class Pass {
+        
+        private final Instant orphanCutoff;
+        private final Instant retentionCutoff;
+        private long nextScanNanos = System.nanoTime();
+        private long nextMutationNanos = System.nanoTime();
+        
+        private long scanned;
+        private long orphans;
+        private long missing;
+        private long restored;
+        private long retained;
+        
+        Pass(Instant orphanCutoff, Instant retentionCutoff) {
+            this.orphanCutoff = orphanCutoff;
+            this.retentionCutoff = retentionCutoff;
+        }
+        
+        void merge(Iterator<StoredObject> files, Iterator<ResumeRepository.StoredPath> rows)
+                throws InterruptedException {
+            StoredObject file = nextFile(files, null);
+            ResumeRepository.StoredPath row = nextRow(rows, null);
+            
+            while (file != null || row != null) {
+                int order = file == null ? 1 : row == null ? -1 : file.filename().compareTo(row.getStoragePath());
+                
+                if (order < 0) {
+                    handleOrphan(file);
+                    file = nextFile(files, file);
+                } else if (order > 0) {
+                    handleMissing(row);
+                    row = nextRow(rows, row);
+                } else {
+                    if (isMissing(row)) {
+                        handleReappeared(row);
+                    }
+                    applyRetention(file);
+                    file = nextFile(files, file);
+                    row = nextRow(rows, row);
+                }
+            }
+        }
+        
+        private StoredObject nextFile(Iterator<StoredObject> files, StoredObject previous) throws InterruptedException {
+            if (!files.hasNext()) {
+                return null;
+            }
+            pace(true);
+            StoredObject next = files.next();
+            scanned++;
+            // A merge over unsorted input would report matched files as orphans; refuse to continue
+            if (previous != null && next.filename().compareTo(previous.filename()) <= 0) {
+                throw new IllegalStateException("Storage listing is not sorted at " + next.filename());
+            }
+            return next;
+        }
+        
+        private ResumeRepository.StoredPath nextRow(Iterator<ResumeRepository.StoredPath> rows,
+                                                    ResumeRepository.StoredPath previous) {
+            while (rows.hasNext()) {
+                ResumeRepository.StoredPath next = rows.next();
+                if (previous == null || next.getStoragePath().compareTo(previous.getStoragePath()) > 0) {
+                    return next;
+                }
+                if (!next.getStoragePath().equals(previous.getStoragePath())) {
+                    throw new IllegalStateException("Database storage paths are not in byte order at "
+                            + next.getStoragePath());
+                }
+            }
+            return null;
+        }
+        
+        private void handleOrphan(StoredObject file) throws InterruptedException {
+            if (!file.lastModified().isBefore(orphanCutoff) || jobQueue.referencesFile(file.filename())) {
+                return;
+            }
+            orphans++;
+            log.info("Orphaned file without resume row: {} ({} bytes, modified {})",
+                    file.filename(), file.size(), file.lastModified());
+            if (!dryRun) {
+                pace(false);
+                storageService.delete(file.filename());
+            }
+        }
+        
+        private void handleMissing(ResumeRepository.StoredPath row) throws InterruptedException {
+            if (isMissing(row)) {
+                // Already marked by an earlier pass
+                return;
+            }
+            missing++;
+            log.warn("Resume row references missing file: {}", row.getStoragePath());
+            if (!dryRun) {
+                pace(false);
+                updateTier(row.getStoragePath(), Resume.StorageTier.MISSING);
+            }
+        }
+        
+        private void handleReappeared(ResumeRepository.StoredPath row) throws InterruptedException {
+            restored++;
+            log.info("File marked missing is back in storage: {}", row.getStoragePath());
+            if (!dryRun) {
+                pace(false);
+                updateTier(row.getStoragePath(), Resume.StorageTier.HOT);
+            }
+        }
+        
+        private boolean isMissing(ResumeRepository.StoredPath row) {
+            return Resume.StorageTier.MISSING.name().equals(row.getStorageTier());
+        }
+        
+        private void applyRetention(StoredObject file) throws InterruptedException {
+            if (retentionPolicy == RetentionPolicy.NONE || !file.lastModified().isBefore(retentionCutoff)) {
+                return;
+            }
+            retained++;
+            if (dryRun) {
+                log.info("Retention would {} {}", retentionPolicy == RetentionPolicy.DELETE ? "delete" : "archive",
+                        file.filename());
+                return;
+            }
+            
+            pace(false);
+            // Update the row first: a row marked COLD or PURGED whose file still exists is harmless
+            if (retentionPolicy == RetentionPolicy.DELETE) {
+                updateTier(file.filename(), Resume.StorageTier.PURGED);
+                storageService.delete(file.filename());
+            } else {
+                updateTier(file.filename(), Resume.StorageTier.COLD);
+                storageService.moveToColdTier(file.filename());
+            }
+        }
+        
+        private void updateTier(String storagePath, Resume.StorageTier tier) {
+            writeTransaction.executeWithoutResult(status -> resumeRepository.updateStorageTier(storagePath, tier));
+        }
+        
+        /**
+         * Blocks until the next scan or mutation slot, and while foreground
+         * requests are keeping the admission limiter busy.
+         */
+        private void pace(boolean scan) throws InterruptedException {
+            while (admissionLimiter.isBusy()) {
+                TimeUnit.MILLISECONDS.sleep(BUSY_BACKOFF_MILLIS);
+            }
+            
+            long now = System.nanoTime();
+            long slot = scan ? nextScanNanos : nextMutationNanos;
+            if (slot > now) {
+                TimeUnit.NANOSECONDS.sleep(slot - now);
+            }
+            long next = Math.max(slot, now) + (scan ? scanIntervalNanos : mutationIntervalNanos);
+            if (scan) {
+                nextScanNanos = next;
+            } else {
+                nextMutationNanos = next;
+            }
+        }
+        
+        ReconcileReport report(Duration duration) {
+            return new ReconcileReport(scanned, orphans, missing, restored, retained, dryRun, duration);
+        }
+    }
+    
+    /**
+     * What happens to originals older than the retention age.
+     */
+    public enum RetentionPolicy {
+        NONE,
+        DELETE,
+        COLD
+    }
+    
+    /**
+     * Outcome of a reconciliation pass.
+     * 
+     * @param scanned number of stored files examined
+     * @param orphans files without a resume row that were (or would be) deleted
+     * @param missing resume rows whose file was not found
+     * @param restored rows marked missing whose file was found again
+     * @param retained files that were (or would be) deleted or moved to the cold tier
+     * @param dryRun whether changes were only reported
+     * @param duration wall-clock duration of the pass
+     */
+    public record ReconcileReport(long scanned, long orphans, long missing, long restored, long retained,
+                                  boolean dryRun, Duration duration) {
+    }
+}
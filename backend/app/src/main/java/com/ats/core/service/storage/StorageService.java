@@ -3,6 +3,8 @@ package com.ats.core.service.storage;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.stream.Stream;
+
 /**
  * StorageService - Interface for file storage operations.
  * 
@@ -34,4 +36,31 @@ public interface StorageService {
      * @param filename the name of the file to delete
      */
     void delete(String filename);
+    
+    /**
+     * Lists the files in the hot tier in ascending filename order, as
+     * defined by {@link String#compareTo}. The listing is produced lazily so
+     * callers can walk very large stores without holding it in memory.
+     * 
+     * @return sorted stream of stored files; must be closed by the caller
+     */
+    Stream<StoredObject> listStored();
+    
+    /**
+     * Moves a stored file to cheaper cold storage. The file stays loadable
+     * through {@link #loadAsResource} but no longer appears in
+     * {@link #listStored()}.
+     * 
+     * @param filename the name of the file to move
+     */
+    void moveToColdTier(String filename);
+    
+    /**
+     * Whether every node stores into and lists the same files. Only then
+     * does {@link #listStored()} cover every resume row, which the storage
+     * reconciler relies on.
+     * 
+     * @return true if the storage is shared by all nodes
+     */
+    boolean isShared();
 }
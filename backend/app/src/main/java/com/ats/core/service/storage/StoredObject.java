@@ -0,0 +1,13 @@
+package com.ats.core.service.storage;
+
+import java.time.Instant;
+
+/**
+ * StoredObject - Listing entry of a file held by a StorageService.
+ * 
+ * @param filename the stored filename, as returned by {@link StorageService#store}
+ * @param size size of the stored file in bytes
+ * @param lastModified time the file was last written
+ */
+public record StoredObject(String filename, long size, Instant lastModified) {
+}
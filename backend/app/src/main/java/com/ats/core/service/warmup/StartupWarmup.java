@@ -0,0 +1,116 @@
+package com.ats.core.service.warmup;
+
+import com.ats.core.dto.ExtractionResult;
+import com.ats.core.scoring.ScoringEngine;
+import com.ats.core.service.ExtractorService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StartupWarmup - Initializes the document libraries in the background once the application is ready.
+ * 
+ * <p>Tika and PDFBox are no longer initialized while the context starts, so
+ * the node accepts traffic sooner. Left alone, that cost would move to the
+ * first upload and the first report instead. Right after readiness this
+ * component renders a one-page PDF with the report fonts, extracts it through
+ * the PDF fast path, runs a plain text document through Tika, which builds
+ * the Tika parser, and scores the result, all on one background thread.</p>
+ * 
+ * <p>A request arriving meanwhile simply initializes what it needs itself.
+ * Disable with {@code startup.warmup.enabled=false} on nodes where the CPU is
+ * better left to the first requests.</p>
+ */
+@Slf4j
+@Component
+public class StartupWarmup {
+    
+    private static final String SAMPLE_TEXT = """
+            Jane Doe
+            jane.doe@example.com | +1 555 0100
+            EXPERIENCE
+            - Built Java and Spring Boot services backed by PostgreSQL
+            SKILLS
+            Java, Spring, SQL, Docker
+            """;
+    
+    private final ExtractorService extractorService;
+    private final boolean enabled;
+    
+    public StartupWarmup(
+            ExtractorService extractorService,
+            @Value("${startup.warmup.enabled:true}") boolean enabled) {
+        this.extractorService = extractorService;
+        this.enabled = enabled;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            Thread.ofVirtual().name("startup-warmup").start(this::warmUp);
+        }
+    }
+    
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            byte[] pdf = renderSamplePdf();
+            ExtractionResult pdfResult = extractorService.extract(
+                    new ByteArrayResource(pdf), "warmup.pdf", pdf.length, false);
+            
+            byte[] text = SAMPLE_TEXT.getBytes(StandardCharsets.UTF_8);
+            ExtractionResult textResult = extractorService.extract(
+                    new ByteArrayResource(text), "warmup.txt", text.length, false);
+            
+            ScoringEngine.features(ScoringEngine.prepare(textResult.getText()),
+                    ScoringEngine.prepare("Java Spring PostgreSQL developer"));
+            
+            log.info("Warmed up document extraction in {} ms (PDF: {}, text: {})",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    pdfResult.getStatus(), textResult.getStatus());
+        } catch (IOException | RuntimeException e) {
+            // Whatever was not warmed up initializes on first use instead
+            log.warn("Startup warm-up failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Renders a one-page PDF with the fonts used by the PDF reports.
+     * 
+     * @return the PDF content
+     * @throws IOException if rendering fails
+     */
+    private static byte[] renderSamplePdf() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                float y = 700;
+                for (String line : SAMPLE_TEXT.split("\n")) {
+                    contentStream.beginText();
+                    contentStream.setFont(line.equals(line.toUpperCase())
+                            ? PDType1Font.HELVETICA_BOLD : PDType1Font.HELVETICA, 12);
+                    contentStream.newLineAtOffset(50, y);
+                    contentStream.showText(line);
+                    contentStream.endText();
+                    y -= 20;
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ats.core;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * PostgresIntegrationTest - Base class of tests that need the real database.
+ * 
+ * <p>Starts one embedded PostgreSQL server per test JVM and points the
+ * application context at it, so queries that only PostgreSQL supports
+ * ({@code SKIP LOCKED}, advisory locks, partitioning) run as in production.
+ * Subclasses share the application context. Background work that would
+ * race with the tests (the job worker, the reconciler, the warm-up) is
+ * disabled; tests drive those services directly.</p>
+ */
+@SpringBootTest(properties = {
+        "jobs.worker.enabled=false",
+        "jobs.max-attempts=3",
+        "reconciler.enabled=false",
+        "startup.warmup.enabled=false",
+        "flight-recorder.continuous.enabled=false",
+        "logging.level.com.ats.core=INFO"
+})
+public abstract class PostgresIntegrationTest {
+    
+    private static final EmbeddedPostgres POSTGRES = start();
+    private static final Path WORK_DIR = createWorkDir();
+    
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("file.storage.location", () -> WORK_DIR.resolve("uploads").toString());
+        registry.add("file.storage.cold-location", () -> WORK_DIR.resolve("uploads-cold").toString());
+        registry.add("search.index.location", () -> WORK_DIR.resolve("search-index").toString());
+        registry.add("dedup.location", () -> WORK_DIR.resolve("dedup/minhash.idx").toString());
+    }
+    
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // The JVM is exiting; the data directory is temporary
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+    
+    private static Path createWorkDir() {
+        try {
+            return Files.createTempDirectory("ats-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
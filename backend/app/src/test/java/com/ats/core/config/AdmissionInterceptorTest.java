@@ -0,0 +1,55 @@
+package com.ats.core.config;
+
+import com.ats.core.service.admission.AdmissionLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionInterceptorTest {
+    
+    @Test
+    void rejectionsAreCountedAndAnsweredWith429() throws Exception {
+        AdmissionLimiter admissionLimiter = mock(AdmissionLimiter.class);
+        when(admissionLimiter.tryAcquire("user:42")).thenReturn(null);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(admissionLimiter, meterRegistry, 3);
+        
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/resume/upload");
+            request.setQueryString("userId=42");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            
+            assertThat(interceptor.preHandle(request, response, new Object())).isFalse();
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+            assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        }
+        assertThat(meterRegistry.get("admission.rejected").counter().count()).isEqualTo(2);
+    }
+    
+    @Test
+    void userKeyComesFromTheQueryStringAndNotFromHeadersOrTheBody() throws Exception {
+        AdmissionLimiter admissionLimiter = mock(AdmissionLimiter.class);
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(admissionLimiter, new SimpleMeterRegistry(), 3);
+        
+        MockHttpServletRequest fromQuery = new MockHttpServletRequest("POST", "/api/resume/upload");
+        fromQuery.setQueryString("async=true&userId=jane%40example.com");
+        interceptor.preHandle(fromQuery, new MockHttpServletResponse(), new Object());
+        
+        MockHttpServletRequest fromHeaderAndBody = new MockHttpServletRequest("POST", "/api/resume/upload");
+        fromHeaderAndBody.setRemoteAddr("10.0.0.7");
+        fromHeaderAndBody.addHeader("X-User-Id", "rotated-1");
+        fromHeaderAndBody.addParameter("userId", "rotated-2");
+        interceptor.preHandle(fromHeaderAndBody, new MockHttpServletResponse(), new Object());
+        
+        verify(admissionLimiter).tryAcquire("user:jane@example.com");
+        verify(admissionLimiter).tryAcquire("addr:10.0.0.7");
+    }
+}
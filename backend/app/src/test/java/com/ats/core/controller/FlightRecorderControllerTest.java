@@ -0,0 +1,51 @@
+package com.ats.core.controller;
+
+import com.ats.core.service.diagnostics.FlightRecorderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderControllerTest {
+    
+    private final FlightRecorderService service = new FlightRecorderService(true, 15, 16, 30, 128);
+    private final FlightRecorderController controller = new FlightRecorderController(service);
+    
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+    
+    @Test
+    void streamsTheDumpWithoutLeavingItOnDisk() throws Exception {
+        service.init();
+        List<Path> before = dumpedFiles();
+        
+        ResponseEntity<Resource> response = controller.dump();
+        
+        assertThat(dumpedFiles()).containsExactlyInAnyOrderElementsOf(before);
+        try (InputStream in = response.getBody().getInputStream()) {
+            byte[] data = in.readAllBytes();
+            assertThat(data).hasSize((int) response.getHeaders().getContentLength());
+            // JFR chunk magic
+            assertThat(Arrays.copyOf(data, 4)).containsExactly('F', 'L', 'R', 0);
+        }
+    }
+    
+    private static List<Path> dumpedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().matches("ats-.*\\.jfr")).toList();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ats.core.controller;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.dto.ScoreResult;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResumeControllerTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private ResumeController resumeController;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private ScoreRepository scoreRepository;
+    
+    @Test
+    void scoresWithoutWeightsVersionAreNotModifiedForTheirOwnETag() {
+        Resume resume = saveResume();
+        // Scored before weights were versioned
+        scoreRepository.save(Score.builder()
+                .resume(resume)
+                .keywordMatch(70.0)
+                .formatting(80.0)
+                .skillRelevance(60.0)
+                .overall(69.0)
+                .weightsVersion(null)
+                .build());
+        
+        ResponseEntity<ScoreResult> first = getLatestScore(resume.getId(), null);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String eTag = first.getHeaders().getETag();
+        assertThat(eTag).endsWith("-0\"");
+        
+        ResponseEntity<ScoreResult> second = getLatestScore(resume.getId(), eTag);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+    
+    @Test
+    void missingScoresAndResumesAreTold() {
+        Resume resume = saveResume();
+        
+        assertThatThrownBy(() -> getLatestScore(resume.getId(), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Resume has not been scored");
+        assertThatThrownBy(() -> getLatestScore(UUID.randomUUID(), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Resume not found");
+    }
+    
+    private ResponseEntity<ScoreResult> getLatestScore(UUID resumeId, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resume/" + resumeId + "/score");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return resumeController.getLatestScore(resumeId, null,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+    
+    private Resume saveResume() {
+        return resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText("text")
+                .build());
+    }
+}
@@ -0,0 +1,40 @@
+package com.ats.core.service;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.dto.ExtractionResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExtractorServiceTest extends PostgresIntegrationTest {
+    
+    private static final byte[] TEXT = "Java developer with Spring Boot experience".getBytes(StandardCharsets.UTF_8);
+    
+    @Autowired
+    private ExtractorService extractorService;
+    
+    @Test
+    void interruptedCallerIsNotReportedAsTimedOut() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> extractorService.extract(new ByteArrayResource(TEXT), "cv.txt", TEXT.length,
+                    false))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        
+        ExtractionResult result = extractorService.extract(new ByteArrayResource(TEXT), "cv.txt", TEXT.length, false);
+        assertThat(result.getStatus()).isEqualTo(ExtractionResult.Status.COMPLETE);
+        assertThat(result.getText()).contains("Spring Boot");
+    }
+}
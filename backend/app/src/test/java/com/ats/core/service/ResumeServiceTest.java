@@ -0,0 +1,63 @@
+package com.ats.core.service;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.Job;
+import com.ats.core.repository.JobRepository;
+import com.ats.core.service.events.ResumeEventBus;
+import com.ats.core.service.jobs.ExtractionJobHandler;
+import com.ats.core.service.jobs.JobQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResumeServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private ResumeService resumeService;
+    
+    @Autowired
+    private JobQueue jobQueue;
+    
+    @Autowired
+    private JobRepository jobRepository;
+    
+    @Autowired
+    private ResumeEventBus eventBus;
+    
+    @BeforeEach
+    void emptyQueue() {
+        jobRepository.deleteAll();
+    }
+    
+    @Test
+    void watchPublishesTheOutcomeOfAnUploadRunByAnotherNode() {
+        Job upload = jobQueue.enqueue(Job.Type.EXTRACT,
+                new ExtractionJobHandler.Payload("ab/upload.pdf", "cv.pdf", null));
+        
+        resumeService.watch(upload.getId(), null);
+        resumeService.followUploads();
+        assertThat(eventBus.hasEnded(upload.getId())).isFalse();
+        
+        // Another node's worker runs the job; its events stay on that node
+        Job claimed = jobQueue.claim(Set.of(Job.Type.EXTRACT), "other-node", 1).get(0);
+        jobQueue.complete(claimed, Map.of("resumeId", UUID.randomUUID()));
+        resumeService.followUploads();
+        
+        assertThat(eventBus.hasEnded(upload.getId())).isTrue();
+    }
+    
+    @Test
+    void watchRejectsUnknownIds() {
+        assertThatThrownBy(() -> resumeService.watch(UUID.randomUUID(), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Resume not found");
+    }
+}
@@ -0,0 +1,50 @@
+package com.ats.core.service;
+
+import com.ats.core.config.ScoringProfilesProperties;
+import com.ats.core.dto.ScoreResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScoringServiceTest {
+    
+    private static final String RESUME = "Backend engineer with Java, Spring Boot, PostgreSQL and Docker experience";
+    private static final String JOB = "Looking for a Java engineer who knows Kubernetes and Go";
+    
+    @Test
+    void theDefaultProfileUsesTheSameWeightsAsTheOverallScore() {
+        ScoringWeightsService weightsService = mock(ScoringWeightsService.class);
+        // Weights change between two reads of the active version
+        when(weightsService.current()).thenReturn(
+                new ScoringWeightsService.Weights(1, 0.5, 0.3, 0.2),
+                new ScoringWeightsService.Weights(2, 0.1, 0.1, 0.8));
+        ScoringService scoringService = new ScoringService(weightsService, new ScoringProfilesProperties(
+                Map.of("engineering", new ScoringProfilesProperties.ProfileWeights(0.6, 0.3, 0.1)), Map.of()));
+        
+        ScoreResult result = scoringService.computeScore(RESUME, JOB, List.of("default", "engineering"));
+        
+        assertThat(result.getWeightsVersion()).isEqualTo(1);
+        assertThat(result.getProfileOveralls()).containsEntry("default", result.getOverall());
+        verify(weightsService, times(1)).current();
+    }
+    
+    @Test
+    void tenantDefaultsMustNameDefinedProfiles() {
+        Map<String, ScoringProfilesProperties.ProfileWeights> profiles =
+                Map.of("engineering", new ScoringProfilesProperties.ProfileWeights(0.6, 0.3, 0.1));
+        
+        assertThat(new ScoringProfilesProperties(profiles, Map.of("acme", List.of("default", "engineering")))
+                .tenantDefaults()).containsKey("acme");
+        assertThatThrownBy(() -> new ScoringProfilesProperties(profiles, Map.of("acme", List.of("enginering"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("'enginering' of tenant 'acme'");
+    }
+}
@@ -0,0 +1,98 @@
+package com.ats.core.service;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.repository.ScoringWeightsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoringWeightsServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private ScoringWeightsService weightsService;
+    
+    @Autowired
+    private ScoringWeightsRepository weightsRepository;
+    
+    @Autowired
+    private ScoreRepository scoreRepository;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private ExecutorService uploadExecutor;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @AfterEach
+    void restoreWeights() {
+        ScoringWeightsService.Weights original = weightsService.current();
+        weightsService.update(original.keyword(), original.skill(), original.formatting());
+    }
+    
+    @Test
+    void recomputesEveryScoreInChunkedPasses() throws Exception {
+        Resume resume = resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText("text")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            scoreRepository.save(Score.builder()
+                    .resume(resume)
+                    .keywordMatch(80.0)
+                    .skillRelevance(60.0)
+                    .formatting(40.0)
+                    .overall(0.0)
+                    .build());
+        }
+        // Chunks of two rows, so the pass spans several transactions
+        ScoringWeightsService service = new ScoringWeightsService(weightsRepository, scoreRepository,
+                uploadExecutor, transactionManager, event -> {
+                }, 0.4, 0.3, 0.3, 2);
+        service.init();
+        ScoringWeightsService.Weights weights = service.update(0.5, 0.3, 0.2);
+        
+        service.startRecompute();
+        ScoringWeightsService.RecomputeStatus status = awaitFinished(service);
+        
+        assertThat(status.state()).isEqualTo(ScoringWeightsService.RecomputeStatus.State.COMPLETED);
+        assertThat(status.updatedRows()).isGreaterThanOrEqualTo(5);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM scores WHERE weights_version IS DISTINCT FROM ?",
+                Long.class, weights.version())).isZero();
+        assertThat(jdbc.queryForList("SELECT overall FROM scores WHERE resume_id = ?", Double.class, resume.getId()))
+                .hasSize(5)
+                .allSatisfy(overall -> assertThat(overall).isCloseTo(0.5 * 80 + 0.3 * 60 + 0.2 * 40, within(1e-9)));
+    }
+    
+    private static ScoringWeightsService.RecomputeStatus awaitFinished(ScoringWeightsService service)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            ScoringWeightsService.RecomputeStatus status = service.getRecomputeStatus().orElseThrow();
+            if (status.state() != ScoringWeightsService.RecomputeStatus.State.RUNNING) {
+                return status;
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        throw new AssertionError("Recomputation did not finish");
+    }
+}
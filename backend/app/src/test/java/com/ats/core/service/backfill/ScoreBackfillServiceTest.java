@@ -0,0 +1,147 @@
+package com.ats.core.service.backfill;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.BackfillCheckpoint;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.BackfillCheckpointRepository;
+import com.ats.core.repository.JobDescriptionRepository;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.ScoringService;
+import com.ats.core.service.admission.AdmissionLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScoreBackfillServiceTest extends PostgresIntegrationTest {
+    
+    private static final int VERSION = ScoringService.ALGORITHM_VERSION;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private ScoreRepository scoreRepository;
+    
+    @Autowired
+    private JobDescriptionRepository jobDescriptionRepository;
+    
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ScoringService scoringService;
+    
+    @Autowired
+    private ExecutorService uploadExecutor;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private ScoreBackfillService backfill;
+    
+    @BeforeEach
+    void createBackfill() {
+        checkpointRepository.deleteAll();
+        AdmissionLimiter admissionLimiter = mock(AdmissionLimiter.class);
+        when(admissionLimiter.isBusy()).thenAnswer(invocation -> busy.get());
+        backfill = new ScoreBackfillService(resumeRepository, scoreRepository, jobDescriptionRepository,
+                checkpointRepository, scoringService, admissionLimiter, uploadExecutor, transactionManager,
+                new SimpleMeterRegistry(), 200, 1, 0, false);
+    }
+    
+    @AfterEach
+    void removeCheckpoints() {
+        backfill.shutdown();
+        checkpointRepository.deleteAll();
+    }
+    
+    @Test
+    void refusesToStartOnceANewerVersionIsBackfilled() {
+        startNewerVersion();
+        
+        assertThatThrownBy(() -> backfill.start())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(checkpointRepository.existsById(VERSION)).isFalse();
+    }
+    
+    @Test
+    void dropsTheChunkInFlightWhenANewerVersionStarts() throws Exception {
+        Resume resume = resumeWithOldScore();
+        busy.set(true);
+        backfill.start();
+        
+        // The job waits for a slot with a chunk to go while a newer build starts its backfill
+        startNewerVersion();
+        busy.set(false);
+        
+        BackfillCheckpoint checkpoint = awaitStopped();
+        assertThat(checkpoint.getState()).isEqualTo(BackfillCheckpoint.State.PAUSED);
+        assertThat(checkpoint.getError()).contains("Superseded");
+        assertThat(checkpoint.getInsertedScores()).isZero();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM scores WHERE resume_id = ? AND algorithm_version = ?",
+                Long.class, resume.getId(), VERSION)).isZero();
+    }
+    
+    private Resume resumeWithOldScore() {
+        Resume resume = resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath("cv.pdf")
+                .extractedText("Java developer with Spring Boot and PostgreSQL experience")
+                .uploadTs(OffsetDateTime.now())
+                .build());
+        scoreRepository.save(Score.builder()
+                .resume(resume)
+                .keywordMatch(0.0)
+                .formatting(50.0)
+                .skillRelevance(0.0)
+                .overall(50.0)
+                .generalAnalysis(true)
+                .algorithmVersion(VERSION - 1)
+                .build());
+        return resume;
+    }
+    
+    private void startNewerVersion() {
+        checkpointRepository.save(BackfillCheckpoint.builder()
+                .algorithmVersion(VERSION + 1)
+                .processedResumes(0L)
+                .insertedScores(0L)
+                .state(BackfillCheckpoint.State.RUNNING)
+                .build());
+    }
+    
+    private BackfillCheckpoint awaitStopped() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            ScoreBackfillService.BackfillStatus status = backfill.getStatus().orElseThrow();
+            if (!status.runningOnThisNode()) {
+                return checkpointRepository.findById(VERSION).orElseThrow();
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        throw new AssertionError("Backfill did not stop");
+    }
+}
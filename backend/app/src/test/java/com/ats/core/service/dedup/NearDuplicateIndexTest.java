@@ -0,0 +1,168 @@
+package com.ats.core.service.dedup;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.Resume;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.service.admission.AdmissionLimiter;
+import com.ats.core.service.changes.TombstoneLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearDuplicateIndexTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private TombstoneLog tombstoneLog;
+    
+    @Autowired
+    private AdmissionLimiter admissionLimiter;
+    
+    @TempDir
+    private Path dir;
+    
+    private final List<NearDuplicateIndex> indexes = new ArrayList<>();
+    private final List<ExecutorService> executors = new ArrayList<>();
+    
+    @AfterEach
+    void close() {
+        indexes.forEach(NearDuplicateIndex::shutdown);
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+    
+    @Test
+    void returnsEveryMatchMostSimilarFirst() {
+        NearDuplicateIndex index = start();
+        String text = words(400, 1);
+        Resume original = saveResume(text);
+        Resume lightlyEdited = saveResume(edit(text, 10));
+        index.register(original.getId(), original.getExtractedText());
+        index.register(lightlyEdited.getId(), lightlyEdited.getExtractedText());
+        
+        // The same upload looked up twice; a resume never matches itself
+        UUID upload = UUID.randomUUID();
+        
+        assertThat(index.register(upload, text)).extracting(NearDuplicateIndex.Match::resumeId)
+                .containsExactly(original.getId(), lightlyEdited.getId());
+        
+        index.remove(original.getId());
+        assertThat(index.register(upload, text)).extracting(NearDuplicateIndex.Match::resumeId)
+                .containsExactly(lightlyEdited.getId());
+    }
+    
+    @Test
+    void followsDeletesThroughTheTombstones() {
+        NearDuplicateIndex index = start();
+        String text = words(400, 2);
+        Resume resume = saveResume(text);
+        index.register(resume.getId(), text);
+        
+        resumeRepository.delete(resume);
+        index.followChanges();
+        
+        assertThat(index.register(UUID.randomUUID(), text)).isEmpty();
+    }
+    
+    @Test
+    void dropsResumesDeletedWhileTheNodeWasDown() throws Exception {
+        String text = words(400, 3);
+        Resume kept = saveResume(words(400, 4));
+        Resume deleted = saveResume(text);
+        NearDuplicateIndex before = start();
+        before.register(kept.getId(), kept.getExtractedText());
+        before.register(deleted.getId(), text);
+        before.shutdown();
+        assertThat(recordedIds()).contains(kept.getId(), deleted.getId());
+        
+        resumeRepository.delete(deleted);
+        NearDuplicateIndex after = start();
+        
+        assertThat(recordedIds()).contains(kept.getId()).doesNotContain(deleted.getId());
+        assertThat(after.register(UUID.randomUUID(), text)).isEmpty();
+        assertThat(after.register(UUID.randomUUID(), kept.getExtractedText()))
+                .extracting(NearDuplicateIndex.Match::resumeId).contains(kept.getId());
+    }
+    
+    /**
+     * Starts an index on the shared file and waits for its startup catch-up.
+     */
+    private NearDuplicateIndex start() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executors.add(executor);
+        NearDuplicateIndex index = new NearDuplicateIndex(resumeRepository, tombstoneLog, admissionLimiter, executor,
+                new SimpleMeterRegistry(), true, dir.resolve("minhash.idx").toString(), 0.8, 3, 16, 120);
+        indexes.add(index);
+        index.init();
+        index.startCatchUp();
+        awaitIdle(executor);
+        return index;
+    }
+    
+    private static void awaitIdle(ExecutorService executor) {
+        try {
+            executor.submit(() -> { }).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Reads the resume ids of the records in the index file.
+     */
+    private List<UUID> recordedIds() throws IOException {
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(dir.resolve("minhash.idx")));
+        file.position(Integer.BYTES * 3 + Long.BYTES);
+        List<UUID> ids = new ArrayList<>();
+        while (file.hasRemaining()) {
+            ids.add(new UUID(file.getLong(), file.getLong()));
+            file.position(file.position() + Integer.BYTES * 128);
+        }
+        return ids;
+    }
+    
+    private Resume saveResume(String text) {
+        return resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText(text)
+                .uploadTs(OffsetDateTime.now())
+                .storageTier(Resume.StorageTier.HOT)
+                .build());
+    }
+    
+    private static String words(int count, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count)
+                .mapToObj(i -> "w" + random.nextInt(5000))
+                .collect(Collectors.joining(" "));
+    }
+    
+    private static String edit(String text, int changes) {
+        String[] words = text.split(" ");
+        for (int i = 0; i < changes; i++) {
+            words[i * words.length / changes] = "edited" + i;
+        }
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ats.core.service.distribution;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.dto.ScoreDistribution;
+import com.ats.core.model.JobDescription;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.JobDescriptionRepository;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.ScoringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreDistributionServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private ScoreDistributionService distributionService;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private JobDescriptionRepository jobDescriptionRepository;
+    
+    @Autowired
+    private ScoreRepository scoreRepository;
+    
+    @Test
+    void scoresPendingDuringARebuildAreCountedOnce() {
+        JobDescription jobDescription = jobDescriptionRepository.save(JobDescription.builder()
+                .title("Engineer")
+                .content("Java")
+                .build());
+        String key = jobDescription.getId().toString();
+        for (double overall : new double[]{10, 20, 30}) {
+            saveScore(jobDescription, overall);
+        }
+        
+        // The three scores are still in this node's delta when the rebuild counts them
+        distributionService.rebuild();
+        assertThat(count(key)).isEqualTo(3);
+        distributionService.flushAndRefresh();
+        assertThat(count(key)).isEqualTo(3);
+        
+        saveScore(jobDescription, 40);
+        assertThat(count(key)).isEqualTo(4);
+        distributionService.flushAndRefresh();
+        assertThat(count(key)).isEqualTo(4);
+    }
+    
+    @Test
+    void histogramCountsAddUpToTheTotal() {
+        JobDescription jobDescription = jobDescriptionRepository.save(JobDescription.builder()
+                .title("Analyst")
+                .content("SQL")
+                .build());
+        for (double overall : new double[]{5, 15, 35, 55, 65, 85, 95}) {
+            saveScore(jobDescription, overall);
+        }
+        distributionService.flushAndRefresh();
+        
+        ScoreDistribution distribution = distributionService.getDistribution(jobDescription.getId().toString(),
+                ScoreComponent.OVERALL, null, 3);
+        
+        assertThat(distribution.getHistogram().stream().mapToLong(ScoreDistribution.Bucket::getCount).sum())
+                .isEqualTo(distribution.getCount());
+    }
+    
+    @Test
+    void apportionGivesTheRoundedOffUnitsToTheLargestRemainders() {
+        // Rounding each share would give 4 of 2, or 9 of 10
+        assertThat(ScoreDistributionService.apportion(new double[]{0.5, 0.5, 0.5, 0.5}, 2)).containsExactly(1, 1, 0, 0);
+        long[] thirds = ScoreDistributionService.apportion(new double[]{10 / 3.0, 10 / 3.0, 10 / 3.0 + 1e-9}, 10);
+        assertThat(Arrays.stream(thirds).sum()).isEqualTo(10);
+        assertThat(thirds).containsExactly(3, 3, 4);
+    }
+    
+    private long count(String key) {
+        return distributionService.getDistribution(key, ScoreComponent.OVERALL, null, 4).getCount();
+    }
+    
+    private void saveScore(JobDescription jobDescription, double overall) {
+        Resume resume = resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText("text")
+                .build());
+        scoreRepository.save(Score.builder()
+                .resume(resume)
+                .jobDescription(jobDescription)
+                .keywordMatch(overall)
+                .skillRelevance(overall)
+                .formatting(overall)
+                .overall(overall)
+                .algorithmVersion(ScoringService.ALGORITHM_VERSION)
+                .build());
+    }
+}
@@ -0,0 +1,68 @@
+package com.ats.core.service.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocxTextExtractorTest {
+    
+    private final DocxTextExtractor extractor = new DocxTextExtractor(1024 * 1024);
+    
+    @Test
+    void keepsEachDistinctHeaderAndFooterOnce() throws Exception {
+        Map<String, String> parts = new LinkedHashMap<>();
+        // First page, default and even page headers of one section, as Word writes them
+        parts.put("word/header1.xml", part("Jane Doe - jane@example.com"));
+        parts.put("word/header2.xml", part("Jane Doe - jane@example.com"));
+        parts.put("word/header3.xml", part(""));
+        parts.put("word/document.xml", part("Senior Java developer"));
+        parts.put("word/footer1.xml", part("Page"));
+        parts.put("word/footer2.xml", part("Page"));
+        parts.put("word/footer3.xml", part("Jane Doe - jane@example.com"));
+        
+        DocxTextExtractor.DocxText text = extractor.extract(new ByteArrayInputStream(docx(parts)), 0);
+        
+        assertThat(text.truncated()).isFalse();
+        assertThat(text.text()).isEqualTo("Jane Doe - jane@example.com\n\nSenior Java developer\n\n"
+                + "Page\nJane Doe - jane@example.com\n");
+    }
+    
+    @Test
+    void stopsAtTheCharacterBudgetInAHeader() throws Exception {
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("word/header1.xml", part("Jane Doe - jane@example.com"));
+        parts.put("word/document.xml", part("Senior Java developer"));
+        
+        DocxTextExtractor.DocxText text = extractor.extract(new ByteArrayInputStream(docx(parts)), 8);
+        
+        assertThat(text.truncated()).isTrue();
+        assertThat(text.text()).isEqualTo("Jane Doe");
+    }
+    
+    private static String part(String paragraph) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<w:hdr xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                + "<w:p><w:r><w:t>" + paragraph + "</w:t></w:r></w:p></w:hdr>";
+    }
+    
+    private static byte[] docx(Map<String, String> parts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> part : parts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(part.getKey()));
+                zip.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
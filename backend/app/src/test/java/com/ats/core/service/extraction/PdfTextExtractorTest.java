@@ -0,0 +1,67 @@
+package com.ats.core.service.extraction;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfTextExtractorTest {
+    
+    @Test
+    void parallelRangesGiveTheSameTextAsOnePass() throws Exception {
+        ByteArrayResource pdf = new ByteArrayResource(pdf(20));
+        // No heap budget: every load spills to a temp file
+        PdfTextExtractor sequential = new PdfTextExtractor(1000, 16, 0, 1);
+        PdfTextExtractor parallel = new PdfTextExtractor(4, 2, 0, 3);
+        try {
+            PdfTextExtractor.PdfText expected = sequential.extract(pdf, 0);
+            PdfTextExtractor.PdfText actual = parallel.extract(pdf, 0);
+            
+            assertThat(actual).isEqualTo(expected);
+            assertThat(actual.text()).contains("Page 1 ", "Page 20 ");
+            assertThat(actual.text().indexOf("Page 9 ")).isLessThan(actual.text().indexOf("Page 10 "));
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    void stopsAtThePageBudget() throws Exception {
+        PdfTextExtractor extractor = new PdfTextExtractor(64, 16, 1024, 0);
+        try {
+            PdfTextExtractor.PdfText text = extractor.extract(new ByteArrayResource(pdf(5)), 2);
+            
+            assertThat(text.extractedPages()).isEqualTo(2);
+            assertThat(text.totalPages()).isEqualTo(5);
+            assertThat(text.text()).contains("Page 2 ").doesNotContain("Page 3 ");
+        } finally {
+            extractor.shutdown();
+        }
+    }
+    
+    private static byte[] pdf(int pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 720);
+                    content.showText("Page " + i + " experience with Java and Spring");
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ats.core.service.idempotency;
+
+import com.ats.core.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest extends PostgresIntegrationTest {
+    
+    private static final String SCOPE = "test";
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void claimsTheKeyRunsOnceAndReplaysTheResponse() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("resumeId", 1));
+        AtomicInteger runs = new AtomicInteger();
+        
+        ResponseEntity<?> first = idempotencyService.execute(SCOPE, key, fingerprint,
+                () -> ResponseEntity.ok(Map.of("run", runs.incrementAndGet())));
+        ResponseEntity<?> second = idempotencyService.execute(SCOPE, key, fingerprint,
+                () -> ResponseEntity.ok(Map.of("run", runs.incrementAndGet())));
+        
+        assertThat(runs).hasValue(1);
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(second.getBody()).isEqualTo("{\"run\":1}");
+        assertThat(state(key)).isEqualTo("COMPLETED");
+    }
+    
+    @Test
+    void reclaimsAKeyAbandonedByAStoppedNode() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint("abandoned");
+        OffsetDateTime now = OffsetDateTime.now();
+        jdbc.update("INSERT INTO idempotency_keys (id, fingerprint, state, claim, created_at, expires_at, "
+                + "locked_until) VALUES (?, ?, 'IN_PROGRESS', ?, ?, ?, ?)", SCOPE + ":" + key, fingerprint, UUID.randomUUID(),
+                now.minusMinutes(10), now.plusHours(1), now.minusMinutes(5));
+        
+        ResponseEntity<?> response = idempotencyService.execute(SCOPE, key, fingerprint,
+                () -> ResponseEntity.ok(Map.of("reclaimed", true)));
+        
+        assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(state(key)).isEqualTo("COMPLETED");
+    }
+    
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(SCOPE, key, idempotencyService.fingerprint("first"),
+                () -> ResponseEntity.ok(Map.of()));
+        
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, key, idempotencyService.fingerprint("second"),
+                () -> ResponseEntity.ok(Map.of())))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        
+        // A key stored by another node is checked the same way
+        String otherKey = UUID.randomUUID().toString();
+        OffsetDateTime now = OffsetDateTime.now();
+        jdbc.update("INSERT INTO idempotency_keys (id, fingerprint, state, claim, status_code, created_at, "
+                + "expires_at, locked_until) VALUES (?, ?, 'COMPLETED', ?, 200, ?, ?, ?)", SCOPE + ":" + otherKey,
+                idempotencyService.fingerprint("first"), UUID.randomUUID(), now, now.plusHours(1), now.plusMinutes(5));
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, otherKey, idempotencyService.fingerprint("second"),
+                () -> ResponseEntity.ok(Map.of())))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+    
+    @Test
+    void duplicateWaitingOnAFailedRequestRunsAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint("flaky");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger duplicateRuns = new AtomicInteger();
+        
+        CompletableFuture<ResponseEntity<?>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(SCOPE, key, fingerprint, () -> {
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "flaky"));
+                }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<?>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(SCOPE, key, fingerprint, () -> {
+                    duplicateRuns.incrementAndGet();
+                    return ResponseEntity.ok(Map.of("retried", true));
+                }));
+        
+        // The duplicate waits for the first request instead of running beside it
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(duplicateRuns).hasValue(0);
+        release.countDown();
+        
+        assertThat(first.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        ResponseEntity<?> retried = duplicate.get(10, TimeUnit.SECONDS);
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(duplicateRuns).hasValue(1);
+        assertThat(state(key)).isEqualTo("COMPLETED");
+    }
+    
+    private String state(String key) {
+        return jdbc.queryForObject("SELECT state FROM idempotency_keys WHERE id = ?", String.class, SCOPE + ":" + key);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.ats.core.service.jobs;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.Job;
+import com.ats.core.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class JobQueueTest extends PostgresIntegrationTest {
+    
+    private static final Set<Job.Type> SCORE = Set.of(Job.Type.SCORE);
+    
+    @Autowired
+    private JobQueue jobQueue;
+    
+    @Autowired
+    private JobRepository jobRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @BeforeEach
+    void emptyQueue() {
+        jobRepository.deleteAll();
+    }
+    
+    @Test
+    void claimSkipsJobsLockedByAnotherWorker() throws Exception {
+        enqueue(10);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        // Worker A locks four jobs and keeps its transaction open
+        CompletableFuture<List<UUID>> workerA = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    List<UUID> ids = jobRepository.lockRunnable(List.of(Job.Type.SCORE.name()),
+                            OffsetDateTime.now(), 4).stream().map(Job::getId).toList();
+                    locked.countDown();
+                    await(release);
+                    return ids;
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        // Worker B is not blocked by A's locks and gets only the rest
+        List<Job> claimedByB = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> jobQueue.claim(SCORE, "worker-b", 10));
+        release.countDown();
+        List<UUID> lockedByA = workerA.get(10, TimeUnit.SECONDS);
+        
+        assertThat(lockedByA).hasSize(4);
+        assertThat(claimedByB).hasSize(6)
+                .allSatisfy(job -> {
+                    assertThat(job.getState()).isEqualTo(Job.State.RUNNING);
+                    assertThat(job.getLeaseOwner()).isEqualTo("worker-b");
+                    assertThat(job.getAttempts()).isEqualTo(1);
+                })
+                .extracting(Job::getId)
+                .doesNotContainAnyElementsOf(lockedByA);
+    }
+    
+    @Test
+    void concurrentWorkersNeverClaimTheSameJob() throws Exception {
+        enqueue(200);
+        
+        List<CompletableFuture<List<UUID>>> workers = IntStream.range(0, 4)
+                .mapToObj(worker -> CompletableFuture.supplyAsync(() -> {
+                    List<UUID> claimed = new ArrayList<>();
+                    List<Job> batch;
+                    while (!(batch = jobQueue.claim(SCORE, "worker-" + worker, 7)).isEmpty()) {
+                        batch.forEach(job -> claimed.add(job.getId()));
+                    }
+                    return claimed;
+                }))
+                .toList();
+        
+        Set<UUID> distinct = new HashSet<>();
+        int total = 0;
+        for (CompletableFuture<List<UUID>> worker : workers) {
+            List<UUID> claimed = worker.get(60, TimeUnit.SECONDS);
+            total += claimed.size();
+            distinct.addAll(claimed);
+        }
+        assertThat(total).isEqualTo(200);
+        assertThat(distinct).hasSize(200);
+    }
+    
+    @Test
+    void reaperRequeuesJobsWhoseLeaseExpired() {
+        enqueue(1);
+        Job claimed = jobQueue.claim(SCORE, "stalled-worker", 1).get(0);
+        expireLease(claimed.getId());
+        
+        jobQueue.reapExpiredLeases();
+        
+        Job reaped = jobRepository.findById(claimed.getId()).orElseThrow();
+        assertThat(reaped.getState()).isEqualTo(Job.State.QUEUED);
+        assertThat(reaped.getAttempts()).isEqualTo(1);
+        assertThat(reaped.getLeaseOwner()).isNull();
+        assertThat(reaped.getLastError()).contains("Lease expired");
+        assertThat(reaped.getRunAt()).isAfter(OffsetDateTime.now());
+        
+        // The stalled worker's late outcome is discarded
+        assertThat(jobQueue.complete(claimed, Map.of("late", true))).isFalse();
+        assertThat(jobRepository.findById(claimed.getId()).orElseThrow().getState()).isEqualTo(Job.State.QUEUED);
+    }
+    
+    @Test
+    void reaperDeadLettersExpiredJobsWithoutAttemptsLeft() {
+        UUID jobId = enqueue(1).get(0);
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            makeRunnable(jobId);
+            Job claimed = jobQueue.claim(SCORE, "stalled-worker", 1).get(0);
+            assertThat(claimed.getAttempts()).isEqualTo(attempt);
+            expireLease(jobId);
+            jobQueue.reapExpiredLeases();
+        }
+        
+        Job dead = jobRepository.findById(jobId).orElseThrow();
+        assertThat(dead.getState()).isEqualTo(Job.State.DEAD);
+        assertThat(dead.getFinishedAt()).isNotNull();
+    }
+    
+    @Test
+    void failedJobsAreRetriedUntilTheyRunOutOfAttempts() {
+        UUID jobId = enqueue(1).get(0);
+        for (int attempt = 1; attempt < 3; attempt++) {
+            makeRunnable(jobId);
+            Job claimed = jobQueue.claim(SCORE, "worker", 1).get(0);
+            assertThat(jobQueue.fail(claimed, new IllegalStateException("attempt " + attempt))).isTrue();
+            
+            Job retried = jobRepository.findById(jobId).orElseThrow();
+            assertThat(retried.getState()).isEqualTo(Job.State.QUEUED);
+            assertThat(retried.getRunAt()).isAfter(OffsetDateTime.now());
+            // Backing off: not claimable until run_at
+            assertThat(jobQueue.claim(SCORE, "worker", 1)).isEmpty();
+        }
+        
+        makeRunnable(jobId);
+        Job lastAttempt = jobQueue.claim(SCORE, "worker", 1).get(0);
+        jobQueue.fail(lastAttempt, new IllegalStateException("attempt 3"));
+        
+        Job dead = jobRepository.findById(jobId).orElseThrow();
+        assertThat(dead.getState()).isEqualTo(Job.State.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLastError()).isEqualTo("IllegalStateException: attempt 3");
+        
+        Job requeued = jobQueue.retry(jobId);
+        assertThat(requeued.getState()).isEqualTo(Job.State.QUEUED);
+        assertThat(requeued.getAttempts()).isZero();
+        assertThat(jobQueue.claim(SCORE, "worker", 1)).extracting(Job::getId).containsExactly(jobId);
+    }
+    
+    @Test
+    void clientErrorsAreDeadLetteredAtOnce() {
+        enqueue(1);
+        Job claimed = jobQueue.claim(SCORE, "worker", 1).get(0);
+        
+        jobQueue.fail(claimed, new ResponseStatusException(HttpStatus.NOT_FOUND, "Resume not found"));
+        
+        Job dead = jobRepository.findById(claimed.getId()).orElseThrow();
+        assertThat(dead.getState()).isEqualTo(Job.State.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(1);
+        assertThat(dead.getLastError()).isEqualTo("404 Resume not found");
+    }
+    
+    @Test
+    void storedFilesOfExtractionAndReportJobsAreReferenced() {
+        jobQueue.enqueue(Job.Type.EXTRACT, new ExtractionJobHandler.Payload("ab/upload.pdf", "cv.pdf", null));
+        jobQueue.enqueue(Job.Type.REPORT, new ReportJobHandler.Payload(UUID.randomUUID(), UUID.randomUUID(), null));
+        Job report = jobQueue.claim(Set.of(Job.Type.REPORT), "worker", 1).get(0);
+        jobQueue.complete(report, new ReportJobHandler.Result("cd/report.pdf", "/api/report/download/" + report.getId()));
+        
+        assertThat(jobQueue.referencesFile("ab/upload.pdf")).isTrue();
+        assertThat(jobQueue.referencesFile("cd/report.pdf")).isTrue();
+        assertThat(jobQueue.referencesFile("ef/orphan.pdf")).isFalse();
+    }
+    
+    private List<UUID> enqueue(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> jobQueue.enqueue(Job.Type.SCORE,
+                        new ScoringJobHandler.Payload(UUID.randomUUID(), null, List.of(), null)).getId())
+                .toList();
+    }
+    
+    private void expireLease(UUID jobId) {
+        jdbc.update("UPDATE jobs SET lease_expires_at = now() - interval '1 second' WHERE id = ?", jobId);
+    }
+    
+    private void makeRunnable(UUID jobId) {
+        jdbc.update("UPDATE jobs SET run_at = now() - interval '1 second' WHERE id = ?", jobId);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
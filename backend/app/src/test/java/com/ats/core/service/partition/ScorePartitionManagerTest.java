@@ -0,0 +1,151 @@
+package com.ats.core.service.partition;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.dto.ScoreTrendPoint;
+import com.ats.core.model.Resume;
+import com.ats.core.model.Score;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.repository.ScoreRepository;
+import com.ats.core.service.ResumeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScorePartitionManagerTest extends PostgresIntegrationTest {
+    
+    // Same key as ScorePartitionManager.MAINTENANCE_LOCK
+    private static final long MAINTENANCE_LOCK = 0x5C0_2E5L;
+    
+    @Autowired
+    private ScorePartitionManager partitionManager;
+    
+    @Autowired
+    private ResumeService resumeService;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private ScoreRepository scoreRepository;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void convertsScoresWithoutLeavingTheBoundCheckBehind() {
+        assertThat(jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'scores'", String.class))
+                .isEqualTo("p");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM pg_constraint WHERE conname = 'scores_partition_bound'",
+                Long.class)).isZero();
+    }
+    
+    @Test
+    void rollUpWaitsForTheMaintenanceLockAndIsServedAsATrend() throws Exception {
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        resetRollups();
+        Resume resume = saveResume();
+        scoreOn(resume, yesterday, 60.0);
+        scoreOn(resume, yesterday, 80.0);
+        
+        CompletableFuture<ScorePartitionManager.MaintenanceReport> maintenance;
+        try (Connection otherNode = dataSource.getConnection(); Statement statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + MAINTENANCE_LOCK + ")");
+            maintenance = CompletableFuture.supplyAsync(partitionManager::runMaintenance);
+            
+            assertThatThrownBy(() -> maintenance.get(1, TimeUnit.SECONDS)).isInstanceOf(TimeoutException.class);
+            
+            statement.execute("SELECT pg_advisory_unlock(" + MAINTENANCE_LOCK + ")");
+        }
+        assertThat(maintenance.get(60, TimeUnit.SECONDS).rolledUpDays()).isPositive();
+        
+        List<ScoreTrendPoint> trend = resumeService.getScoreTrend(resume.getId(), yesterday, yesterday);
+        assertThat(trend).singleElement().satisfies(point -> {
+            assertThat(point.getDay()).isEqualTo(yesterday);
+            assertThat(point.getScoreCount()).isEqualTo(2);
+            assertThat(point.getOverallAvg()).isEqualTo(70.0);
+            assertThat(point.getOverallMin()).isEqualTo(60.0);
+            assertThat(point.getOverallMax()).isEqualTo(80.0);
+        });
+    }
+    
+    @Test
+    void rollUpStepsOverDaysWithoutScores() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        resetRollups();
+        Resume resume = saveResume();
+        // Nothing on the day in between, and nothing yesterday
+        scoreOn(resume, today.minusDays(4), 50.0);
+        scoreOn(resume, today.minusDays(2), 70.0);
+        
+        CompletableFuture<ScorePartitionManager.MaintenanceReport> maintenance =
+                CompletableFuture.supplyAsync(partitionManager::runMaintenance);
+        assertThat(maintenance.get(60, TimeUnit.SECONDS).rolledUpDays()).isGreaterThanOrEqualTo(4);
+        assertThat(jdbc.queryForObject("SELECT rolled_through FROM score_rollup_watermark", LocalDate.class))
+                .isEqualTo(today.minusDays(1));
+        assertThat(resumeService.getScoreTrend(resume.getId(), today.minusDays(4), today.minusDays(1)))
+                .extracting(ScoreTrendPoint::getDay)
+                .containsExactly(today.minusDays(4), today.minusDays(2));
+        
+        // The next run has nothing left to do
+        assertThat(partitionManager.runMaintenance().rolledUpDays()).isZero();
+    }
+    
+    @Test
+    void rollUpPassesAWindowWithoutAnyScores() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        resetRollups();
+        Resume resume = saveResume();
+        // More than one 31-day range apart, with no scores in between
+        scoreOn(resume, today.minusDays(80), 40.0);
+        scoreOn(resume, today.minusDays(3), 90.0);
+        
+        CompletableFuture<ScorePartitionManager.MaintenanceReport> maintenance =
+                CompletableFuture.supplyAsync(partitionManager::runMaintenance);
+        assertThat(maintenance.get(60, TimeUnit.SECONDS).rolledUpDays()).isGreaterThanOrEqualTo(80);
+        assertThat(resumeService.getScoreTrend(resume.getId(), today.minusDays(80), today.minusDays(1)))
+                .extracting(ScoreTrendPoint::getDay)
+                .containsExactly(today.minusDays(80), today.minusDays(3));
+    }
+    
+    private void resetRollups() {
+        jdbc.update("DELETE FROM score_daily_rollups");
+        jdbc.update("DELETE FROM score_rollup_watermark");
+    }
+    
+    private Resume saveResume() {
+        return resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText("text")
+                .build());
+    }
+    
+    private void scoreOn(Resume resume, LocalDate day, double overall) {
+        Score score = scoreRepository.save(Score.builder()
+                .resume(resume)
+                .keywordMatch(overall)
+                .skillRelevance(overall)
+                .formatting(overall)
+                .overall(overall)
+                .build());
+        jdbc.update("UPDATE scores SET created_at = ? WHERE id = ?",
+                day.atTime(12, 0).atOffset(ZoneOffset.UTC), score.getId());
+    }
+}
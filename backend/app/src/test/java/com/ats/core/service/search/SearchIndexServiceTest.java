@@ -0,0 +1,113 @@
+package com.ats.core.service.search;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.JobDescription;
+import com.ats.core.model.Resume;
+import com.ats.core.repository.JobDescriptionRepository;
+import com.ats.core.repository.ResumeRepository;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private JobDescriptionRepository jobDescriptionRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Value("${search.index.location}")
+    private Path location;
+    
+    @Test
+    void rowsDeletedThroughAnotherNodeLeaveTheIndex() {
+        String term = "kestrel" + UUID.randomUUID().toString().replace("-", "");
+        Resume resume = resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText("Platform engineer " + term)
+                .build());
+        searchIndexService.tail();
+        searchIndexService.refresh();
+        assertThat(hits(term)).isEqualTo(1);
+        
+        // Deleted without this node's entity listener; only the tombstone tells
+        jdbc.update("DELETE FROM resumes WHERE id = ?", resume.getId());
+        assertThat(jdbc.queryForObject("SELECT entity_type FROM tombstones WHERE entity_id = ?", String.class,
+                resume.getId())).isEqualTo("resumes");
+        searchIndexService.tail();
+        searchIndexService.refresh();
+        
+        assertThat(hits(term)).isZero();
+    }
+    
+    @Test
+    void commitsRecordTheWatermark() throws Exception {
+        Instant before = Instant.now();
+        resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(UUID.randomUUID() + ".pdf")
+                .extractedText("Data engineer")
+                .build());
+        searchIndexService.tail();
+        searchIndexService.commit();
+        
+        try (FSDirectory directory = FSDirectory.open(location);
+                DirectoryReader reader = DirectoryReader.open(directory)) {
+            Map<String, String> userData = reader.getIndexCommit().getUserData();
+            assertThat(userData).containsKey(SearchIndexService.COMMIT_WATERMARK);
+            assertThat(Instant.parse(userData.get(SearchIndexService.COMMIT_WATERMARK)))
+                    .isAfterOrEqualTo(before.minusSeconds(1));
+        }
+    }
+    
+    @Test
+    void rebuildPagesThroughJobDescriptions() {
+        String term = "osprey" + UUID.randomUUID().toString().replace("-", "");
+        for (int i = 0; i < 3; i++) {
+            jobDescriptionRepository.save(JobDescription.builder()
+                    .title("Site reliability engineer " + i)
+                    .content("Operate the platform " + term)
+                    .build());
+        }
+        
+        List<UUID> paged = new ArrayList<>();
+        List<JobDescription> page;
+        UUID after = new UUID(0, 0);
+        while (!(page = jobDescriptionRepository.findPageAfter(after, Limit.of(2))).isEmpty()) {
+            page.forEach(jobDescription -> paged.add(jobDescription.getId()));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertThat(paged).doesNotHaveDuplicates().hasSize((int) jobDescriptionRepository.count());
+        
+        Map<String, Long> indexed = searchIndexService.reindexAll();
+        
+        assertThat(indexed.get(SearchDocument.Type.JOB_DESCRIPTION.value())).isEqualTo((long) paged.size());
+        assertThat(searchIndexService.search(term, SearchDocument.Type.JOB_DESCRIPTION, 10).getTotalHits())
+                .isEqualTo(3);
+    }
+    
+    private long hits(String term) {
+        return searchIndexService.search(term, SearchDocument.Type.RESUME, 10).getTotalHits();
+    }
+}
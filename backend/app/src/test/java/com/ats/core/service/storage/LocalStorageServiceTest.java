@@ -0,0 +1,58 @@
+package com.ats.core.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalStorageServiceTest {
+    
+    @TempDir
+    private Path root;
+    
+    private LocalStorageService storage;
+    
+    @BeforeEach
+    void createStorage() {
+        storage = new LocalStorageService(root.resolve("hot").toString(), root.resolve("cold").toString(),
+                "none", false, true);
+        storage.init();
+    }
+    
+    @Test
+    void listsNamesWithoutHexPrefixInSortedOrder() throws Exception {
+        List<String> names = List.of("0a1b-first.pdf", "1xyz.pdf", "abcd-second.pdf", "Legacy CV.pdf",
+                "legacy.docx", "zz.pdf");
+        for (String name : names) {
+            Files.writeString(root.resolve("hot").resolve(name), name);
+        }
+        
+        assertThat(storage.migrateToShardedLayout()).isEqualTo(names.size());
+        
+        assertThat(listedNames()).isSortedAccordingTo(String::compareTo).containsExactlyInAnyOrderElementsOf(names);
+        assertThat(storage.shardedPath("legacy.docx")).isEqualTo(root.resolve("hot/other/legacy.docx"));
+        assertThat(storage.loadAsResource("1xyz.pdf").getContentAsByteArray()).isEqualTo("1xyz.pdf".getBytes());
+    }
+    
+    @Test
+    void skipsFilesOutsideTheirShard() throws Exception {
+        Path shard = root.resolve("hot/ab/cd");
+        Files.createDirectories(shard);
+        Files.writeString(shard.resolve("abcd-kept.pdf"), "kept");
+        Files.writeString(shard.resolve("stray.pdf"), "stray");
+        
+        assertThat(listedNames()).containsExactly("abcd-kept.pdf");
+    }
+    
+    private List<String> listedNames() {
+        try (Stream<StoredObject> files = storage.listStored()) {
+            return files.map(StoredObject::filename).toList();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ats.core.service.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+class S3StorageServiceTest {
+    
+    private static final String BUCKET = "ats-test";
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+    
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-10-13T13-34-11Z");
+    
+    private static S3Client s3;
+    
+    @TempDir
+    private Path cache;
+    
+    private ExecutorService executor;
+    
+    @BeforeAll
+    static void createBucket() {
+        s3 = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .build();
+        s3.createBucket(request -> request.bucket(BUCKET));
+    }
+    
+    @AfterEach
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void storesLargeUploadsInPartsAndReadsThemBack() throws Exception {
+        S3StorageService storage = storage(Executors.newFixedThreadPool(2));
+        byte[] data = randomBytes(2 * PART_SIZE + 1234);
+        
+        String filename = storage.store(new MockMultipartFile("file", "cv.pdf", "application/pdf", data));
+        
+        try (InputStream in = storage.loadAsResource(filename).getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+        assertThat(s3.listMultipartUploads(request -> request.bucket(BUCKET)).uploads()).isEmpty();
+    }
+    
+    @Test
+    void abortsTheUploadWhenAPartFails() {
+        // The second part is sent, then reported as failed
+        AtomicInteger submitted = new AtomicInteger();
+        S3StorageService storage = storage(new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>()) {
+            @Override
+            protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+                if (submitted.incrementAndGet() != 2) {
+                    return super.newTaskFor(callable);
+                }
+                return new FutureTask<>(() -> {
+                    callable.call();
+                    throw SdkClientException.create("Connection reset");
+                });
+            }
+        });
+        byte[] data = randomBytes(8 * PART_SIZE);
+        AtomicLong read = new AtomicLong();
+        MockMultipartFile upload = new MockMultipartFile("file", "cv.pdf", "application/pdf", data) {
+            @Override
+            public InputStream getInputStream() {
+                return new CountingInputStream(new ByteArrayInputStream(data), read);
+            }
+        };
+        
+        assertThatThrownBy(() -> storage.store(upload))
+                .hasRootCauseMessage("Connection reset");
+        
+        // Stopped at the failed part instead of reading and sending the rest
+        assertThat(read.get()).isLessThan(data.length);
+        assertThat(s3.listMultipartUploads(request -> request.bucket(BUCKET)).uploads()).isEmpty();
+        assertThat(s3.listObjectsV2(request -> request.bucket(BUCKET).prefix("resumes/")).contents())
+                .noneMatch(object -> object.size() >= data.length);
+    }
+    
+    private S3StorageService storage(ExecutorService executor) {
+        this.executor = executor;
+        S3StorageService storage = new S3StorageService(executor, BUCKET, "resumes/", "us-east-1",
+                MINIO.getS3URL(), true, MINIO.getUserName(), MINIO.getPassword(), PART_SIZE, 2, PART_SIZE,
+                "STANDARD_IA", cache.toString(), 64L * 1024 * 1024);
+        storage.init();
+        return storage;
+    }
+    
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+    
+    private static final class CountingInputStream extends FilterInputStream {
+        
+        private final AtomicLong read;
+        
+        CountingInputStream(InputStream in, AtomicLong read) {
+            super(in);
+            this.read = read;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                read.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
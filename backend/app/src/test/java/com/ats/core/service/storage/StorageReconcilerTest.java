@@ -0,0 +1,133 @@
+package com.ats.core.service.storage;
+
+import com.ats.core.PostgresIntegrationTest;
+import com.ats.core.model.Job;
+import com.ats.core.model.Resume;
+import com.ats.core.repository.ResumeRepository;
+import com.ats.core.service.admission.AdmissionLimiter;
+import com.ats.core.service.jobs.ExtractionJobHandler;
+import com.ats.core.service.jobs.JobQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageReconcilerTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private StorageService storageService;
+    
+    @Autowired
+    private ResumeRepository resumeRepository;
+    
+    @Autowired
+    private JobQueue jobQueue;
+    
+    @Autowired
+    private AdmissionLimiter admissionLimiter;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private StorageReconciler reconciler;
+    
+    @BeforeEach
+    void createReconciler() {
+        // No grace period and no pacing; files are backdated past the upload slack instead
+        reconciler = new StorageReconciler(storageService, resumeRepository, jobQueue, admissionLimiter,
+                dataSource, jdbc, transactionManager, 0, "none", 365, false, 0, 0);
+        reconciler.init();
+    }
+    
+    @Test
+    void reconcilesOrphansMissingFilesAndFilesThatReappear() throws Exception {
+        String orphan = storeOldFile();
+        String queuedUpload = storeOldFile();
+        jobQueue.enqueue(Job.Type.EXTRACT, new ExtractionJobHandler.Payload(queuedUpload, "cv.pdf", null));
+        String matched = storeOldFile();
+        Resume withFile = saveResume(matched, Resume.StorageTier.HOT);
+        Resume withoutFile = saveResume(UUID.randomUUID() + ".pdf", Resume.StorageTier.HOT);
+        String reappeared = storeOldFile();
+        Resume markedMissing = saveResume(reappeared, Resume.StorageTier.MISSING);
+        
+        StorageReconciler.ReconcileReport report = reconciler.reconcile().orElseThrow();
+        
+        assertThat(exists(orphan)).isFalse();
+        assertThat(exists(queuedUpload)).isTrue();
+        assertThat(exists(matched)).isTrue();
+        assertThat(tier(withFile)).isEqualTo(Resume.StorageTier.HOT);
+        assertThat(tier(withoutFile)).isEqualTo(Resume.StorageTier.MISSING);
+        assertThat(tier(markedMissing)).isEqualTo(Resume.StorageTier.HOT);
+        assertThat(report.restored()).isEqualTo(1);
+        
+        // A second pass finds nothing new to mark
+        StorageReconciler.ReconcileReport second = reconciler.reconcile().orElseThrow();
+        assertThat(second.missing()).isZero();
+        assertThat(second.restored()).isZero();
+    }
+    
+    @Test
+    void skipsThePassWhileAnotherNodeHoldsTheLock() throws Exception {
+        String orphan = storeOldFile();
+        try (Connection otherNode = dataSource.getConnection(); Statement statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + StorageReconciler.RECONCILE_LOCK + ")");
+            
+            assertThat(reconciler.reconcile()).isEmpty();
+            assertThat(exists(orphan)).isTrue();
+            
+            statement.execute("SELECT pg_advisory_unlock(" + StorageReconciler.RECONCILE_LOCK + ")");
+        }
+        assertThat(reconciler.reconcile()).isPresent();
+        assertThat(exists(orphan)).isFalse();
+    }
+    
+    private String storeOldFile() throws IOException {
+        String filename = storageService.store(new MockMultipartFile("file", "cv.pdf", "application/pdf",
+                "%PDF-1.4".getBytes()));
+        File file = storageService.loadAsResource(filename).getFile();
+        assertThat(file.setLastModified(System.currentTimeMillis() - 3 * 3600_000L)).isTrue();
+        return filename;
+    }
+    
+    private boolean exists(String filename) {
+        try {
+            return storageService.loadAsResource(filename).exists();
+        } catch (RuntimeException e) {
+            // Local storage reports a missing file as an error
+            return false;
+        }
+    }
+    
+    private Resume saveResume(String storagePath, Resume.StorageTier tier) {
+        return resumeRepository.save(Resume.builder()
+                .filename("cv.pdf")
+                .storagePath(storagePath)
+                .extractedText("text")
+                .uploadTs(OffsetDateTime.now().minusHours(3))
+                .storageTier(tier)
+                .build());
+    }
+    
+    private Resume.StorageTier tier(Resume resume) {
+        return Resume.StorageTier.valueOf(jdbc.queryForObject(
+                "SELECT storage_tier FROM resumes WHERE id = ?", String.class, resume.getId()));
+    }
+}
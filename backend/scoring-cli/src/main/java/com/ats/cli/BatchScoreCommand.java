@@ -0,0 +1,157 @@
+package com.ats.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BatchScoreCommand - Command-line entry point of the batch scorer.
+ * 
+ * <p>Scores every resume under a directory against every job description in
+ * a directory (or a single file) and streams one row per pair as CSV or
+ * JSON Lines. Without job descriptions each resume gets a general analysis.
+ * Throughput is reported on stderr, so stdout carries only the results.</p>
+ * 
+ * <pre>
+ * java -jar scoring-cli.jar --resumes ./resumes --jobs ./jds --format jsonl --output scores.jsonl
+ * </pre>
+ */
+public final class BatchScoreCommand {
+    
+    private static final String USAGE = """
+            Usage: java -jar scoring-cli.jar --resumes <dir> [options]
+              --resumes <dir>      directory tree of resumes (pdf, docx, doc, txt, ...)
+              --jobs <dir|file>    job descriptions to score against; omit for a general analysis
+              --format csv|jsonl   output format (default csv)
+              --output <file>      write results to a file instead of stdout
+              --threads <n>        worker threads (default: available processors)
+              --weights k,s,f      keyword, skill and formatting weights (default 0.5,0.3,0.2)
+              --max-chars <n>      characters extracted per document (default 1000000)
+              --help, -h           print this help
+            """;
+    
+    private BatchScoreCommand() {
+        // Private constructor to prevent instantiation
+    }
+    
+    public static void main(String[] args) {
+        // PDFBox warns about fonts through java.util.logging; keep stderr for the summary
+        Logger.getLogger("").setLevel(Level.SEVERE);
+        System.exit(run(args, System.out, System.err));
+    }
+    
+    /**
+     * Runs the command.
+     * 
+     * @return exit status: 0 if every document was scored or help was printed, 1 if some failed, 2 on
+     *         invalid arguments
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+        if (options == null) {
+            out.print(USAGE);
+            return 0;
+        }
+        
+        try (Writer writer = options.output() != null
+                ? Files.newBufferedWriter(options.output(), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            BatchScorer scorer = new BatchScorer(options.threads(), options.maxChars(), options.weights());
+            BatchScorer.Summary summary = scorer.run(options.resumes(), options.jobs(),
+                    ResultWriter.of(options.format(), writer));
+            err.println(summary.describe());
+            return summary.failed() > 0 ? 1 : 0;
+        } catch (IOException e) {
+            err.println("Batch scoring failed: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Parsed command-line arguments.
+     */
+    record Options(Path resumes, Path jobs, ResultWriter.Format format, Path output, int threads,
+                   int maxChars, BatchScorer.Weights weights) {
+        
+        /**
+         * @return the options, or null if help was asked for
+         * @throws IllegalArgumentException if the arguments are invalid
+         */
+        static Options parse(String[] args) {
+            Path resumes = null;
+            Path jobs = null;
+            ResultWriter.Format format = ResultWriter.Format.CSV;
+            Path output = null;
+            int threads = Runtime.getRuntime().availableProcessors();
+            int maxChars = 1_000_000;
+            BatchScorer.Weights weights = BatchScorer.Weights.DEFAULT;
+            
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help") || option.equals("-h")) {
+                    return null;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--resumes" -> resumes = Path.of(value);
+                    case "--jobs" -> jobs = Path.of(value);
+                    case "--format" -> format = parseFormat(value);
+                    case "--output" -> output = Path.of(value);
+                    case "--threads" -> threads = parsePositive(option, value);
+                    case "--max-chars" -> maxChars = parsePositive(option, value);
+                    case "--weights" -> weights = BatchScorer.Weights.parse(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            
+            if (resumes == null) {
+                throw new IllegalArgumentException("--resumes is required");
+            }
+            if (!Files.isDirectory(resumes)) {
+                throw new IllegalArgumentException("Not a directory: " + resumes);
+            }
+            if (jobs != null && !Files.exists(jobs)) {
+                throw new IllegalArgumentException("Not found: " + jobs);
+            }
+            return new Options(resumes, jobs, format, output, threads, maxChars, weights);
+        }
+        
+        private static ResultWriter.Format parseFormat(String value) {
+            try {
+                return ResultWriter.Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + value);
+            }
+        }
+        
+        private static int parsePositive(String option, String value) {
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException(option + " must be a positive number: " + value);
+        }
+    }
+}
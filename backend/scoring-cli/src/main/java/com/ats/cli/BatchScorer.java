@@ -0,0 +1,267 @@
+package com.ats.cli;
+
+import com.ats.core.scoring.ScoringEngine;
+import org.apache.tika.Tika;
+import org.apache.tika.exception.TikaException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * BatchScorer - Scores a directory tree of resumes against a set of job descriptions.
+ * 
+ * <p>Runs on a fork-join pool: the resume list is split in halves until each
+ * task holds one resume, and idle workers steal the remaining halves, so a
+ * few large PDFs do not leave other cores waiting. Each resume goes through
+ * extract, tokenize and score on the worker that picked it up and is then
+ * dropped; only one document per worker is held in memory, and its rows are
+ * streamed to the output as soon as they are computed.</p>
+ * 
+ * <p>Job descriptions are extracted and tokenized once, before any resume,
+ * and shared read-only by all workers.</p>
+ */
+final class BatchScorer {
+    
+    private static final Set<String> EXTENSIONS = Set.of("pdf", "docx", "doc", "txt", "rtf", "odt");
+    
+    private final int threads;
+    private final Tika tika;
+    private final Weights weights;
+    
+    // Time spent per stage, summed over all workers
+    private final LongAdder extractNanos = new LongAdder();
+    private final LongAdder tokenizeNanos = new LongAdder();
+    private final LongAdder scoreNanos = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    
+    BatchScorer(int threads, int maxChars, Weights weights) {
+        this.threads = threads;
+        this.weights = weights;
+        // The Tika facade is thread-safe and shared by all workers
+        this.tika = new Tika();
+        this.tika.setMaxStringLength(maxChars);
+    }
+    
+    /**
+     * Scores every resume under a directory.
+     * 
+     * @param resumeRoot directory searched recursively for resumes
+     * @param jobsPath directory or file of job descriptions, or null for a general analysis
+     * @param out where the rows are streamed
+     * @return counts and timings of the run
+     */
+    Summary run(Path resumeRoot, Path jobsPath, ResultWriter out) throws IOException {
+        long start = System.nanoTime();
+        List<Path> resumes = documents(resumeRoot);
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            List<Job> jobs = pool.submit(() -> loadJobs(jobsPath)).join();
+            
+            out.begin();
+            pool.invoke(new ScoreTask(resumeRoot, resumes, jobs, out, 0, resumes.size()));
+            out.flush();
+            
+            return new Summary(resumes.size(), jobs.size(), failed.intValue(), threads,
+                    System.nanoTime() - start, extractNanos.sum(), tokenizeNanos.sum(), scoreNanos.sum());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private List<Job> loadJobs(Path jobsPath) {
+        if (jobsPath == null) {
+            return List.of(new Job("", ScoringEngine.prepare(null)));
+        }
+        try {
+            Path root = Files.isDirectory(jobsPath) ? jobsPath : jobsPath.getParent();
+            List<Path> paths = Files.isDirectory(jobsPath) ? documents(jobsPath) : List.of(jobsPath);
+            // Runs in the pool, so the job descriptions are prepared in parallel too
+            return paths.parallelStream()
+                    .map(path -> new Job(relative(root, path), ScoringEngine.prepare(extract(path))))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void score(Path resumeRoot, Path path, List<Job> jobs, ResultWriter out) {
+        String name = relative(resumeRoot, path);
+        StringBuilder rows = new StringBuilder();
+        try {
+            long started = System.nanoTime();
+            String text = extract(path);
+            long extracted = System.nanoTime();
+            ScoringEngine.PreparedText resume = ScoringEngine.prepare(text);
+            long tokenized = System.nanoTime();
+            for (Job job : jobs) {
+                ScoringEngine.Features features = ScoringEngine.features(resume, job.text());
+                double overall = features.overall(weights.keyword(), weights.skill(), weights.formatting());
+                out.formatScore(name, job.name(), resume.tokens().size(), features, overall, rows);
+            }
+            long scored = System.nanoTime();
+            
+            extractNanos.add(extracted - started);
+            tokenizeNanos.add(tokenized - extracted);
+            scoreNanos.add(scored - tokenized);
+        } catch (RuntimeException e) {
+            // Unreadable or malformed document; reported in its row and the run goes on
+            failed.increment();
+            rows.setLength(0);
+            String error = e instanceof UncheckedIOException io ? io.getCause().getMessage() : e.toString();
+            out.formatFailure(name, String.valueOf(error), rows);
+        }
+        
+        try {
+            out.write(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private String extract(Path path) {
+        try {
+            return tika.parseToString(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (TikaException e) {
+            throw new UncheckedIOException(new IOException("Could not extract text: " + e.getMessage(), e));
+        }
+    }
+    
+    private static List<Path> documents(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(BatchScorer::isDocument)
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private static boolean isDocument(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+    
+    private static String relative(Path root, Path path) {
+        Path relative = root != null ? root.relativize(path) : path;
+        return relative.toString().replace('\\', '/');
+    }
+    
+    /**
+     * Scores a range of the resume list, splitting it until one resume is left.
+     */
+    private final class ScoreTask extends RecursiveAction {
+        
+        private final Path resumeRoot;
+        private final List<Path> resumes;
+        private final List<Job> jobs;
+        private final ResultWriter out;
+        private final int from;
+        private final int to;
+        
+        ScoreTask(Path resumeRoot, List<Path> resumes, List<Job> jobs, ResultWriter out, int from, int to) {
+            this.resumeRoot = resumeRoot;
+            this.resumes = resumes;
+            this.jobs = jobs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    score(resumeRoot, resumes.get(from), jobs, out);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScoreTask(resumeRoot, resumes, jobs, out, from, middle),
+                    new ScoreTask(resumeRoot, resumes, jobs, out, middle, to));
+        }
+    }
+    
+    /**
+     * A prepared job description.
+     * 
+     * @param name path relative to the job description directory; empty for a general analysis
+     * @param text the normalized and tokenized text
+     */
+    private record Job(String name, ScoringEngine.PreparedText text) {
+    }
+    
+    /**
+     * Weights of the overall score.
+     */
+    record Weights(double keyword, double skill, double formatting) {
+        
+        private static final double SUM_TOLERANCE = 1e-6;
+        
+        // Same as the service's initial scoring.weights
+        static final Weights DEFAULT = new Weights(0.5, 0.3, 0.2);
+        
+        /**
+         * Parses {@code keyword,skill,formatting}; the weights must sum to 1.
+         */
+        static Weights parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("--weights needs three values: keyword,skill,formatting");
+            }
+            try {
+                Weights weights = new Weights(Double.parseDouble(parts[0].trim()),
+                        Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[2].trim()));
+                double sum = weights.keyword() + weights.skill() + weights.formatting();
+                if (weights.keyword() < 0 || weights.skill() < 0 || weights.formatting() < 0
+                        || Math.abs(sum - 1.0) > SUM_TOLERANCE) {
+                    throw new IllegalArgumentException("--weights must be non-negative and sum to 1: " + value);
+                }
+                return weights;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--weights must be numbers: " + value);
+            }
+        }
+    }
+    
+    /**
+     * Counts and timings of a run.
+     * 
+     * @param resumes resumes found
+     * @param jobs job descriptions each resume was scored against
+     * @param failed resumes that could not be extracted
+     * @param threads worker threads
+     * @param elapsedNanos wall-clock time of the run
+     * @param extractNanos time spent extracting text, summed over workers
+     * @param tokenizeNanos time spent normalizing and tokenizing, summed over workers
+     * @param scoreNanos time spent scoring, summed over workers
+     */
+    record Summary(int resumes, int jobs, int failed, int threads, long elapsedNanos,
+                   long extractNanos, long tokenizeNanos, long scoreNanos) {
+        
+        /**
+         * One-line report of the throughput, overall and per core.
+         */
+        String describe() {
+            double seconds = elapsedNanos / 1e9;
+            double perSecond = seconds > 0 ? resumes / seconds : 0;
+            double stageNanos = Math.max(1, extractNanos + tokenizeNanos + scoreNanos);
+            return String.format(Locale.ROOT,
+                    "Scored %d resumes against %d job description(s) (%d failed) in %.2f s on %d threads: "
+                            + "%.1f resumes/s, %.1f resumes/s per core; time in extract %.0f%%, tokenize %.0f%%, "
+                            + "score %.0f%%",
+                    resumes, jobs, failed, seconds, threads, perSecond, perSecond / threads,
+                    extractNanos * 100 / stageNanos, tokenizeNanos * 100 / stageNanos,
+                    scoreNanos * 100 / stageNanos);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ats.cli;
+
+import com.ats.core.scoring.ScoringEngine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * ResultWriter - Streams batch scoring results as CSV or JSON Lines.
+ * 
+ * <p>Rows are formatted by the worker threads and appended to the shared
+ * writer in one step per resume, so the rows of a resume stay together
+ * while resumes appear in completion order.</p>
+ */
+abstract class ResultWriter {
+    
+    /**
+     * Output format.
+     */
+    enum Format {
+        CSV,
+        JSONL
+    }
+    
+    private final Writer writer;
+    
+    private ResultWriter(Writer writer) {
+        this.writer = writer;
+    }
+    
+    static ResultWriter of(Format format, Writer writer) {
+        return format == Format.CSV ? new Csv(writer) : new JsonLines(writer);
+    }
+    
+    /**
+     * Writes the header, if the format has one.
+     */
+    void begin() throws IOException {
+    }
+    
+    /**
+     * Formats the score of a resume against one job description.
+     * 
+     * @param resume path of the resume, relative to the resume directory
+     * @param job name of the job description; empty for a general analysis
+     * @param resumeTokens number of resume tokens
+     * @param features the component scores
+     * @param overall the weighted overall score
+     * @param out buffer the row is appended to
+     */
+    abstract void formatScore(String resume, String job, int resumeTokens, ScoringEngine.Features features,
+                              double overall, StringBuilder out);
+    
+    /**
+     * Formats a resume that could not be scored.
+     */
+    abstract void formatFailure(String resume, String error, StringBuilder out);
+    
+    /**
+     * Appends formatted rows to the output.
+     */
+    void write(CharSequence rows) throws IOException {
+        synchronized (writer) {
+            writer.append(rows);
+        }
+    }
+    
+    void flush() throws IOException {
+        synchronized (writer) {
+            writer.flush();
+        }
+    }
+    
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+    
+    private static final class Csv extends ResultWriter {
+        
+        Csv(Writer writer) {
+            super(writer);
+        }
+        
+        @Override
+        void begin() throws IOException {
+            write("resume,job,overall,keyword_match,skill_relevance,formatting,resume_tokens,error\n");
+        }
+        
+        @Override
+        void formatScore(String resume, String job, int resumeTokens, ScoringEngine.Features features,
+                         double overall, StringBuilder out) {
+            out.append(quote(resume)).append(',')
+                    .append(quote(job)).append(',')
+                    .append(number(overall)).append(',')
+                    .append(number(features.keywordMatch())).append(',')
+                    .append(number(features.skillRelevance())).append(',')
+                    .append(number(features.formatting())).append(',')
+                    .append(resumeTokens).append(",\n");
+        }
+        
+        @Override
+        void formatFailure(String resume, String error, StringBuilder out) {
+            out.append(quote(resume)).append(",,,,,,,").append(quote(error)).append('\n');
+        }
+        
+        private static String quote(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+    
+    private static final class JsonLines extends ResultWriter {
+        
+        JsonLines(Writer writer) {
+            super(writer);
+        }
+        
+        @Override
+        void formatScore(String resume, String job, int resumeTokens, ScoringEngine.Features features,
+                         double overall, StringBuilder out) {
+            out.append("{\"resume\":");
+            string(resume, out);
+            out.append(",\"job\":");
+            string(job, out);
+            out.append(",\"overall\":").append(number(overall))
+                    .append(",\"keywordMatch\":").append(number(features.keywordMatch()))
+                    .append(",\"skillRelevance\":").append(number(features.skillRelevance()))
+                    .append(",\"formatting\":").append(number(features.formatting()))
+                    .append(",\"generalAnalysis\":").append(features.generalAnalysis())
+                    .append(",\"resumeTokens\":").append(resumeTokens)
+                    .append("}\n");
+        }
+        
+        @Override
+        void formatFailure(String resume, String error, StringBuilder out) {
+            out.append("{\"resume\":");
+            string(resume, out);
+            out.append(",\"error\":");
+            string(error, out);
+            out.append("}\n");
+        }
+        
+        private static void string(String value, StringBuilder out) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+            out.append('"');
+        }
+    }
+}
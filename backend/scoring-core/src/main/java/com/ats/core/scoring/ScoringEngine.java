@@ -0,0 +1,255 @@
+package com.ats.core.scoring;
+
+import com.ats.core.util.TextCleaner;
+import com.ats.core.util.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ScoringEngine - Weight-independent ATS scoring of a resume against a job description.
+ * 
+ * <p>Computes the keyword match, skill relevance and formatting component
+ * scores and the improvement tips. Has no framework dependencies, so the
+ * Spring service and the batch scorer share it and score the same text
+ * identically. The text itself may differ: the service extracts with its own
+ * PDF and DOCX extractors and input budgets, the batch scorer with plain Tika.</p>
+ * 
+ * <p>Texts are prepared (normalized and tokenized) separately from scoring,
+ * so a job description scored against many resumes is prepared once.</p>
+ */
+public final class ScoringEngine {
+    
+    /**
+     * Version of the scoring algorithm. Bump whenever a change alters the
+     * component scores, so the backfill job can re-score the existing corpus.
+     */
+    public static final int ALGORITHM_VERSION = 1;
+    
+    private static final PreparedText EMPTY = new PreparedText("", List.of(), Set.of());
+    
+    private ScoringEngine() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Normalizes and tokenizes a text for scoring.
+     * 
+     * @param text the raw text; null or blank yields an empty text
+     * @return the prepared text
+     */
+    public static PreparedText prepare(String text) {
+        if (text == null || text.isBlank()) {
+            return EMPTY;
+        }
+        String normalized = TextCleaner.normalize(text);
+        List<String> tokens = Tokenizer.tokenize(normalized);
+        return new PreparedText(normalized, tokens, Set.copyOf(tokens));
+    }
+    
+    /**
+     * Computes the component scores of a resume.
+     * 
+     * @param resume the prepared resume text
+     * @param jobDescription the prepared job description; empty for a general analysis
+     * @return component scores shared by every weighting
+     */
+    public static Features features(PreparedText resume, PreparedText jobDescription) {
+        boolean generalAnalysis = jobDescription.tokens().isEmpty();
+        
+        // Compute individual scores
+        double keywordMatch = generalAnalysis ? 0.0 : computeKeywordMatch(resume, jobDescription);
+        double skillRelevance = generalAnalysis ? 0.0 : computeSkillRelevance(resume, jobDescription);
+        double formatting = computeFormattingScore(resume.normalized());
+        
+        return new Features(keywordMatch, skillRelevance, formatting, generalAnalysis);
+    }
+    
+    /**
+     * Generates personalized improvement tips based on scores.
+     * 
+     * @param features the component scores
+     * @return list of actionable improvement tips
+     */
+    public static List<String> improvementTips(Features features) {
+        List<String> tips = new ArrayList<>();
+        
+        if (features.keywordMatch() < 60) {
+            tips.add("Add more job-related keywords");
+        }
+        
+        if (features.formatting() < 60) {
+            tips.add("Improve formatting: add headings, bullet points, and consistent structure");
+        }
+        
+        if (features.skillRelevance() < 60) {
+            tips.add("Highlight more relevant technical skills");
+        }
+        
+        if (tips.isEmpty()) {
+            tips.add("Great job! Your resume is well-optimized for ATS systems");
+        }
+        
+        return tips;
+    }
+    
+    /**
+     * Computes keyword match score based on token intersection.
+     * 
+     * @param resume the prepared resume
+     * @param jobDescription the prepared job description
+     * @return keyword match score (0-100)
+     */
+    private static double computeKeywordMatch(PreparedText resume, PreparedText jobDescription) {
+        Set<String> jdSet = jobDescription.uniqueTokens();
+        if (jdSet.isEmpty()) {
+            return 0.0;
+        }
+        
+        // Calculate intersection, iterating the smaller set
+        Set<String> smaller = resume.uniqueTokens().size() < jdSet.size() ? resume.uniqueTokens() : jdSet;
+        Set<String> larger = smaller == jdSet ? resume.uniqueTokens() : jdSet;
+        int intersection = 0;
+        for (String token : smaller) {
+            if (larger.contains(token)) {
+                intersection++;
+            }
+        }
+        
+        double score = (double) intersection / jdSet.size() * 100;
+        return Math.min(score, 100.0);
+    }
+    
+    /**
+     * Computes skill relevance score.
+     * 
+     * @param resume the prepared resume
+     * @param jobDescription the prepared job description
+     * @return skill relevance score (0-100)
+     */
+    private static double computeSkillRelevance(PreparedText resume, PreparedText jobDescription) {
+        // TODO: Implement semantic matching for better skill relevance detection
+        // For now, using same logic as keyword match
+        return computeKeywordMatch(resume, jobDescription);
+    }
+    
+    /**
+     * Computes formatting quality score based on resume structure.
+     * 
+     * @param resumeText normalized resume text
+     * @return formatting score (0-100)
+     */
+    private static double computeFormattingScore(String resumeText) {
+        if (resumeText == null || resumeText.isEmpty()) {
+            return 0.0;
+        }
+        
+        double score = 0.0;
+        
+        // Contact Information (20 points)
+        boolean hasEmail = TextCleaner.containsEmail(resumeText);
+        boolean hasPhone = TextCleaner.containsPhone(resumeText);
+        
+        if (hasEmail && hasPhone) {
+            score += 20;
+        } else if (hasEmail || hasPhone) {
+            score += 10;
+        }
+        
+        // Resume Structure (30 points)
+        boolean hasHeadings = TextCleaner.containsHeadings(resumeText);
+        boolean hasBullets = TextCleaner.containsBulletPoints(resumeText);
+        
+        if (hasHeadings) {
+            score += 15;
+        }
+        
+        if (hasBullets) {
+            score += 15;
+        }
+        
+        // Content Length Analysis (20 points)
+        String[] words = resumeText.split("\\s+");
+        int wordCount = words.length;
+        if (wordCount >= 300 && wordCount <= 800) {
+            score += 20; // Optimal length
+        } else if (wordCount >= 200 && wordCount < 300) {
+            score += 15; // Acceptable but short
+        } else if (wordCount > 800 && wordCount <= 1200) {
+            score += 15; // Acceptable but long
+        } else if (wordCount >= 100 && wordCount < 200) {
+            score += 10; // Too short
+        } else if (wordCount > 1200) {
+            score += 10; // Too long
+        } else {
+            score += 5; // Very short
+        }
+        
+        // Readability & Organization (30 points)
+        // Check for line breaks (paragraphs)
+        int lineBreaks = resumeText.split("\\n").length;
+        if (lineBreaks > 5) {
+            score += 15; // Well organized with sections
+        } else if (lineBreaks > 2) {
+            score += 10; // Some structure
+        } else {
+            score += 5; // Poor structure
+        }
+        
+        // Check for variety in content (not just repetitive)
+        Set<String> uniqueWords = new HashSet<>();
+        for (String word : words) {
+            if (word.length() > 3) { // Only count meaningful words
+                uniqueWords.add(word);
+            }
+        }
+        
+        double uniqueRatio = words.length > 0 ? (double) uniqueWords.size() / words.length : 0;
+        if (uniqueRatio > 0.4) {
+            score += 15; // Good vocabulary diversity
+        } else if (uniqueRatio > 0.25) {
+            score += 10; // Moderate diversity
+        } else {
+            score += 5; // Low diversity (repetitive)
+        }
+        
+        return Math.min(score, 100.0);
+    }
+    
+    /**
+     * A normalized and tokenized text.
+     * 
+     * @param normalized the normalized text
+     * @param tokens tokens in text order, without stopwords
+     * @param uniqueTokens the distinct tokens
+     */
+    public record PreparedText(String normalized, List<String> tokens, Set<String> uniqueTokens) {
+    }
+    
+    /**
+     * Weight-independent component scores of one resume.
+     * 
+     * @param keywordMatch keyword match score (0-100)
+     * @param skillRelevance skill relevance score (0-100)
+     * @param formatting formatting score (0-100)
+     * @param generalAnalysis whether there was no job description to match against
+     */
+    public record Features(double keywordMatch, double skillRelevance, double formatting,
+                           boolean generalAnalysis) {
+        
+        /**
+         * Combines the component scores into an overall score. Without a job
+         * description the overall score is just the formatting quality.
+         * 
+         * @return weighted overall score
+         */
+        public double overall(double keywordWeight, double skillWeight, double formattingWeight) {
+            if (generalAnalysis) {
+                return formatting;
+            }
+            return keywordMatch * keywordWeight + skillRelevance * skillWeight + formatting * formattingWeight;
+        }
+    }
+}
@@ -1,8 +0,0 @@
-package com.ats.core.config;
-
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class AppConfig {
-    // Application configuration
-}
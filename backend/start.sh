@@ -1,3 +1,3 @@
 #!/bin/bash
 mvn clean install -DskipTests
-java -Dserver.port=${PORT:-8080} -jar target/ats-score-backend.jar
+java -Dserver.port=${PORT:-8080} -jar app/target/ats-score-backend.jar
@@ -0,0 +1,39 @@
+#!/bin/bash
+
+# Upload Load Test Script
+# Fires concurrent resume uploads at a running backend and reports throughput.
+# Run once against the previous build and once against the current build to
+# compare concurrent uploads per node. Recorded results are in docs/architecture.md.
+#
+# Usage: ./scripts/load-test-upload.sh <resume-file> [total-requests] [concurrency] [base-url]
+
+RESUME_FILE=${1:?Usage: $0 <resume-file> [total-requests] [concurrency] [base-url]}
+TOTAL=${2:-500}
+CONCURRENCY=${3:-100}
+BASE_URL=${4:-http://localhost:8080/api}
+
+echo "Uploading $RESUME_FILE $TOTAL times with concurrency $CONCURRENCY against $BASE_URL"
+
+START=$(date +%s%N)
+
+seq "$TOTAL" | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -w "%{http_code} %{time_total}\n" \
+    -F "file=@$RESUME_FILE" "$BASE_URL/resume/upload" > /tmp/ats-load-test.txt
+
+END=$(date +%s%N)
+ELAPSED=$(awk -v ns=$((END - START)) 'BEGIN { printf "%.2f", ns / 1e9 }')
+
+echo "Status codes:"
+cut -d' ' -f1 /tmp/ats-load-test.txt | sort | uniq -c
+
+echo "Latency (seconds):"
+cut -d' ' -f2 /tmp/ats-load-test.txt | sort -n | awk '
+    { values[NR] = $1 }
+    END {
+        printf "  p50: %s\n", values[int(NR * 0.50) + 1]
+        printf "  p95: %s\n", values[int(NR * 0.95) + 1]
+        printf "  p99: %s\n", values[int(NR * 0.99) + 1]
+    }'
+
+echo "Elapsed: ${ELAPSED}s"
+echo "Throughput: $(awk -v n="$TOTAL" -v s="$ELAPSED" 'BEGIN { printf "%.2f", n / s }') uploads/s"
@@ -0,0 +1,43 @@
+#!/bin/bash
+
+# Startup Measurement Script
+# Starts the backend, waits for it to report UP, then uploads one resume and
+# reports the time to readiness and to the first completed upload. Run once
+# against the previous build and once against the current build, on an
+# otherwise idle host, to compare cold starts. Set DELAY to wait that many
+# seconds after readiness before uploading, to see the background warm-up.
+#
+# Usage: ./scripts/measure-startup.sh <resume-file> [java-command...]
+# Example: ./scripts/measure-startup.sh resume.pdf java -XX:SharedArchiveFile=app.jsa -jar app.jar
+
+RESUME_FILE=${1:?Usage: $0 <resume-file> [java-command...]}
+shift
+if [ $# -eq 0 ]; then
+    set -- java -jar backend/app/target/ats-score-backend.jar
+fi
+BASE_URL=${BASE_URL:-http://localhost:8080}
+LOG_FILE=${LOG_FILE:-/tmp/ats-startup.log}
+DELAY=${DELAY:-0}
+
+START=$(date +%s.%N)
+"$@" > "$LOG_FILE" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null' EXIT
+
+until curl -s "$BASE_URL/actuator/health" | grep -q '"UP"'; do
+    if ! kill -0 $PID 2>/dev/null; then
+        echo "Backend exited during startup; see $LOG_FILE"
+        exit 1
+    fi
+    sleep 0.1
+done
+READY=$(date +%s.%N)
+sleep "$DELAY"
+
+STATUS=$(curl -s -o /dev/null -w "%{http_code} %{time_total}" -F "file=@$RESUME_FILE" "$BASE_URL/api/resume/upload")
+FIRST=$(date +%s.%N)
+
+echo "Time to ready:         $(awk "BEGIN { print $READY - $START }")s"
+echo "First upload:          ${STATUS#* }s (HTTP ${STATUS%% *})"
+echo "Time to first request: $(awk "BEGIN { print $FIRST - $START }")s"
+grep -m1 "Started AtsApplication" "$LOG_FILE"
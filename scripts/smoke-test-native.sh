@@ -0,0 +1,78 @@
+#!/bin/bash
+
+# Native Image Smoke Test
+# Starts the native backend binary, then uploads a resume, scores it against
+# a job description and renders the PDF report. Fails on the first step that
+# does not succeed. Also reports the time to readiness and the resident
+# memory of the process after the report, for comparison with the JVM image.
+# The database must be reachable with the usual DATABASE_URL settings.
+# When the backend runs in a container, set SMOKE_CONTAINER to the name given
+# to it: the memory is then read from docker, because the local process is
+# only the docker client.
+#
+# Usage: ./scripts/smoke-test-native.sh <resume-file> [command...]
+# Example: ./scripts/smoke-test-native.sh resume.pdf backend/app/target/ats-score-backend
+# Example: SMOKE_CONTAINER=ats-smoke ./scripts/smoke-test-native.sh resume.pdf \
+#              docker run --rm --name ats-smoke --network host ats-score-backend:native
+
+RESUME_FILE=${1:?Usage: $0 <resume-file> [command...]}
+shift
+if [ $# -eq 0 ]; then
+    set -- backend/app/target/ats-score-backend
+fi
+BASE_URL=${BASE_URL:-http://localhost:8080}
+LOG_FILE=${LOG_FILE:-/tmp/ats-smoke-test.log}
+JOB_DESCRIPTION="Backend engineer with Java, Spring Boot, PostgreSQL and Docker experience"
+
+fail() {
+    echo "FAILED: $1"
+    echo "See $LOG_FILE"
+    exit 1
+}
+
+START=$(date +%s.%N)
+"$@" > "$LOG_FILE" 2>&1 &
+PID=$!
+stop() {
+    [ -n "$SMOKE_CONTAINER" ] && docker stop "$SMOKE_CONTAINER" > /dev/null 2>&1
+    kill $PID 2>/dev/null
+}
+trap stop EXIT
+
+until curl -s "$BASE_URL/actuator/health" | grep -q '"UP"'; do
+    kill -0 $PID 2>/dev/null || fail "backend exited during startup"
+    sleep 0.1
+done
+READY=$(date +%s.%N)
+echo "Ready after $(awk "BEGIN { print $READY - $START }")s"
+
+UPLOAD=$(curl -s -w "\n%{http_code}" -F "file=@$RESUME_FILE" "$BASE_URL/api/resume/upload")
+[ "$(echo "$UPLOAD" | tail -1)" = "200" ] || fail "upload: $UPLOAD"
+# Leave out the resume this one may be a near-duplicate of
+RESUME_ID=$(echo "$UPLOAD" | head -1 | sed 's/"nearDuplicate":{[^}]*}//' | grep -o '"resumeId":"[^"]*"' | cut -d'"' -f4)
+[ -n "$RESUME_ID" ] || fail "upload returned no resumeId: $UPLOAD"
+echo "Uploaded resume $RESUME_ID"
+
+SCORE=$(curl -s -w "\n%{http_code}" -H "Content-Type: application/json" \
+    -d "{\"resumeId\":\"$RESUME_ID\",\"jobDescription\":\"$JOB_DESCRIPTION\"}" "$BASE_URL/api/resume/score")
+[ "$(echo "$SCORE" | tail -1)" = "200" ] || fail "score: $SCORE"
+SCORE_ID=$(echo "$SCORE" | head -1 | grep -o '"scoreId":"[^"]*"' | cut -d'"' -f4)
+[ -n "$SCORE_ID" ] || fail "score returned no scoreId: $SCORE"
+echo "Scored $(echo "$SCORE" | head -1 | grep -o '"overall":[0-9.]*')"
+
+REPORT_FILE=$(mktemp)
+STATUS=$(curl -s -o "$REPORT_FILE" -w "%{http_code}" -H "Content-Type: application/json" \
+    -d "{\"resumeId\":\"$RESUME_ID\",\"scoreId\":\"$SCORE_ID\"}" "$BASE_URL/api/report")
+[ "$STATUS" = "200" ] || fail "report: HTTP $STATUS"
+head -c 5 "$REPORT_FILE" | grep -q "%PDF-" || fail "report is not a PDF"
+echo "Rendered report of $(wc -c < "$REPORT_FILE") bytes"
+rm -f "$REPORT_FILE"
+
+if [ -n "$SMOKE_CONTAINER" ]; then
+    echo "Container memory: $(docker stats --no-stream --format '{{.MemUsage}}' "$SMOKE_CONTAINER" | cut -d/ -f1)"
+elif [ "$1" = "docker" ]; then
+    echo "Resident memory: unknown, set SMOKE_CONTAINER to measure the container"
+elif [ -r "/proc/$PID/status" ]; then
+    echo "Resident memory: $(grep VmRSS "/proc/$PID/status" | awk '{ print $2 / 1024 }') MB"
+fi
+echo "PASSED"
@@ -13,4 +13,4 @@ fi
 
 # Build and run the Spring Boot application
 ./mvnw clean install
-./mvnw spring-boot:run
+./mvnw -pl app spring-boot:run